@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Compara o jar executável padrão com a inicialização otimizada (Spring AOT + CDS).
+#
+# Para cada modo, sobe a aplicação, mede o tempo até a primeira resposta HTTP 200 em /login e lê a memória residente
+# (RSS) do processo nesse instante. Requer o banco do docker-compose em execução e os artefatos gerados por:
+#   ./mvnw -Pinicio-rapido -DskipTests package
+#
+# Uso: scripts/benchmark-inicializacao.sh [repetições] [porta]
+set -euo pipefail
+
+REPETICOES="${1:-5}"
+PORTA="${2:-8080}"
+RAIZ="$(cd "$(dirname "$0")/.." && pwd)"
+DIR="$RAIZ/target/inicio-rapido"
+JAR_PADRAO="$(ls "$RAIZ"/target/*.jar | grep -v -- '-app.jar' | head -n 1)"
+JAR_APP="$(ls "$DIR"/*-app.jar)"
+
+medir() {
+    local modo="$1"; shift
+    local total_ms=0 total_rss=0
+    for ((i = 1; i <= REPETICOES; i++)); do
+        local inicio fim pid rss
+        inicio=$(date +%s%N)
+        "$@" --server.port="$PORTA" > /dev/null 2>&1 &
+        pid=$!
+        until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORTA/login")" = "200" ]; do
+            if ! kill -0 "$pid" 2> /dev/null; then
+                echo "$modo: a aplicação terminou antes de responder" >&2
+                exit 1
+            fi
+            sleep 0.05
+        done
+        fim=$(date +%s%N)
+        rss=$(awk '/VmRSS/ { print $2 }' "/proc/$pid/status")
+        kill "$pid"
+        wait "$pid" 2> /dev/null || true
+        total_ms=$((total_ms + (fim - inicio) / 1000000))
+        total_rss=$((total_rss + rss))
+    done
+    printf '%-10s primeira requisição: %6d ms   RSS: %6d MB\n' \
+        "$modo" $((total_ms / REPETICOES)) $((total_rss / REPETICOES / 1024))
+}
+
+medir "padrão" java -jar "$JAR_PADRAO"
+medir "otimizado" java -XX:SharedArchiveFile="$DIR/app.jsa" -Dspring.aot.enabled=true \
+    -cp "$JAR_APP:$DIR/lib/*" com.unidevs.core_system.CoreSystemApplication
@@ -0,0 +1,10 @@
+#!/usr/bin/env bash
+# Inicia a aplicação com o contexto pré-processado pelo Spring AOT e o arquivo CDS gerado pelo perfil Maven
+# "inicio-rapido" (./mvnw -Pinicio-rapido -DskipTests package).
+set -euo pipefail
+
+DIR="$(cd "$(dirname "$0")/.." && pwd)/target/inicio-rapido"
+JAR="$(ls "$DIR"/*-app.jar)"
+
+exec java -XX:SharedArchiveFile="$DIR/app.jsa" -Dspring.aot.enabled=true \
+    -cp "$JAR:$DIR/lib/*" com.unidevs.core_system.CoreSystemApplication "$@"
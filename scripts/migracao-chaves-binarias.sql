@@ -0,0 +1,41 @@
+-- Migração das chaves UUID armazenadas como texto para BINARY(16) (MySQL 8).
+--
+-- A partir desta versão User.id é um UUID (BINARY(16), como livros, filiais, exemplares e estoque_filial) e as
+-- chaves novas de todas essas tabelas são UUIDv7, ordenadas pelo instante de criação. Este script converte as
+-- colunas que ainda guardam o UUID como VARCHAR:
+--   users.id                    VARCHAR(255) -> BINARY(16)
+--   exemplares.emprestado_para  VARCHAR(36)  -> BINARY(16)
+--
+-- Os valores existentes são mantidos (UUID_TO_BIN sem troca de bytes, a mesma ordem usada pelo Hibernate), então
+-- tokens, logs e referências continuam válidos. As chaves antigas continuam aleatórias; as novas (UUIDv7) ficam
+-- todas em uma mesma região do índice e passam a ser inseridas em sequência. O ALTER TABLE recria as tabelas,
+-- o que também compacta as páginas fragmentadas pelas inserções aleatórias.
+--
+-- Execute com a aplicação parada, antes de subir a nova versão. Pode ser executado mais de uma vez.
+--   docker compose exec -T mysql mysql -uspringuser -pThePassword db_example < scripts/migracao-chaves-binarias.sql
+
+DROP PROCEDURE IF EXISTS migrar_chaves_binarias;
+
+DELIMITER //
+CREATE PROCEDURE migrar_chaves_binarias()
+BEGIN
+    IF (SELECT DATA_TYPE FROM information_schema.COLUMNS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'users' AND COLUMN_NAME = 'id') = 'varchar' THEN
+        ALTER TABLE users ADD COLUMN id_binario BINARY(16) NULL FIRST;
+        UPDATE users SET id_binario = UUID_TO_BIN(id);
+        ALTER TABLE users DROP PRIMARY KEY, DROP COLUMN id;
+        ALTER TABLE users RENAME COLUMN id_binario TO id, MODIFY COLUMN id BINARY(16) NOT NULL, ADD PRIMARY KEY (id);
+    END IF;
+
+    IF (SELECT DATA_TYPE FROM information_schema.COLUMNS
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'exemplares' AND COLUMN_NAME = 'emprestado_para') = 'varchar' THEN
+        ALTER TABLE exemplares ADD COLUMN emprestado_para_binario BINARY(16) NULL AFTER emprestado_para;
+        UPDATE exemplares SET emprestado_para_binario = UUID_TO_BIN(emprestado_para) WHERE emprestado_para IS NOT NULL;
+        ALTER TABLE exemplares DROP COLUMN emprestado_para;
+        ALTER TABLE exemplares RENAME COLUMN emprestado_para_binario TO emprestado_para;
+    END IF;
+END //
+DELIMITER ;
+
+CALL migrar_chaves_binarias();
+DROP PROCEDURE migrar_chaves_binarias;
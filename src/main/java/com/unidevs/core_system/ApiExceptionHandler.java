@@ -0,0 +1,28 @@
+package com.unidevs.core_system;
+
+import com.unidevs.core_system.controller.ExemplarController;
+import com.unidevs.core_system.controller.FilialController;
+import com.unidevs.core_system.controller.LivroController;
+import com.unidevs.core_system.controller.RelatorioController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Tratamento de argumentos inválidos restrito aos controladores da API REST.
+ *
+ * Os serviços sinalizam entradas inválidas do cliente (ex: UUID malformado, campo desconhecido em "fields" ou
+ * período de relatório inválido) com {@link IllegalArgumentException}; nestes controladores a mensagem é devolvida
+ * como HTTP 400 {"erro": mensagem}. As rotas de páginas (Thymeleaf) e os demais controladores não são afetados.
+ */
+@RestControllerAdvice(assignableTypes = {LivroController.class, FilialController.class, ExemplarController.class,
+        RelatorioController.class})
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(Map.of("erro", String.valueOf(ex.getMessage())));
+    }
+}
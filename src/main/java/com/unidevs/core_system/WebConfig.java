@@ -1,6 +1,13 @@
 package com.unidevs.core_system;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,8 +23,14 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * Assim, um arquivo armazenado como uploads/capa.jpg poderá ser acessado publicamente via:
  * http://localhost:8080/uploads/capa.jpg
  *
+ * Também registra conversores para os formatos binários CBOR ("application/cbor") e Smile
+ * ("application/x-jackson-smile"). Clientes que enviam um desses tipos no header Accept recebem a resposta no formato
+ * binário, com UUIDs codificados como 16 bytes; os demais continuam recebendo JSON. No Smile, os binários saem sem a
+ * codificação de 7 bits (que levaria cada UUID a 19 bytes).
+ *
  * Parâmetros:
  * @param registry Registro de manipuladores de recursos, usado para adicionar novas localizações estáticas.
+ * @param builder Builder do ObjectMapper configurado pelo Spring Boot (módulos, datas etc.).
  */
 
 @Configuration
@@ -36,4 +49,15 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/assets/**")
                 .addResourceLocations("classpath:/static/assets/");
     }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        var factory = SmileFactory.builder().disable(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT).build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
 }
\ No newline at end of file
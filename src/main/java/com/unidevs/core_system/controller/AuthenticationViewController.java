@@ -4,17 +4,24 @@ import com.unidevs.core_system.entity.User;
 import com.unidevs.core_system.entity.UserRole;
 import com.unidevs.core_system.repository.UserRepository;
 import com.unidevs.core_system.security.TokenService;
+import com.unidevs.core_system.service.AuthorizationService;
+import com.unidevs.core_system.service.FiltroBloomLogins;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.Map;
+
 /**
  * Authentication Controller para Interface Web
  *
@@ -33,7 +40,9 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
  * - AuthenticationManager: Valida as credenciais fornecidas com o banco;
  * - TokenService: Gera Tokens JWT contendo a identidade do usuário e roles;
  * - UserRepository: Acesso direto ao banco para validação e registro de usuários;
- * - PasswordEncoder: Gera hash para armazenamento de senhas no banco.
+ * - PasswordEncoder: Gera hash para armazenamento de senhas no banco;
+ * - AuthorizationService: Persiste novos usuários e registra a alteração para as demais instâncias;
+ * - FiltroBloomLogins: Responde a disponibilidade de logins sem consultar o banco a cada tecla.
  *
  * Este controlador funciona em conjunto com SecurityConfigurations e o SecurityFilter.
  */
@@ -46,15 +55,21 @@ public class AuthenticationViewController {
     private final TokenService tokenService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthorizationService authorizationService;
+    private final FiltroBloomLogins filtroBloomLogins;
 
     public AuthenticationViewController(AuthenticationManager authManager,
                                         TokenService tokenService,
                                         UserRepository userRepository,
-                                        PasswordEncoder passwordEncoder) {
+                                        PasswordEncoder passwordEncoder,
+                                        AuthorizationService authorizationService,
+                                        FiltroBloomLogins filtroBloomLogins) {
         this.authManager = authManager;
         this.tokenService = tokenService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.authorizationService = authorizationService;
+        this.filtroBloomLogins = filtroBloomLogins;
     }
 
     /**
@@ -113,14 +128,16 @@ public class AuthenticationViewController {
      * processRegistration() Lida com submissões do formulário de Cadastro
      *
      * Processo:
-     * 1. Verifica se o Login já existe no sistema;
-     * 2. Se Login já existe, retorna a página de registro com erro;
-     * 3. Se Login está disponível, cria novo usuário com:
+     * 1. Cria novo usuário com:
      *  - Login e Email;
      *  - Senha Hashada;
      *  - Role padrão de usuário;
-     * 4. Salva o usuário no banco
-     * 5. Retorna para a página de login com sucesso;
+     * 2. Tenta salvar o usuário no banco diretamente, deixando as restrições de unicidade decidirem;
+     * 3. Se o login ou o email já existem, retorna a página de registro com o erro correspondente;
+     * 4. Retorna para a página de login com sucesso;
+     *
+     * Inserir primeiro evita que dois cadastros simultâneos com o mesmo login passem pela verificação e
+     * terminem em erro 500.
      *
      * @param login Login do usuário;
      * @param email Email do usuário;
@@ -135,21 +152,50 @@ public class AuthenticationViewController {
                                       Model model) {
 
 
-        // Verificar se o usuário existe
-        if(userRepository.findByLogin(login) != null) {
-            model.addAttribute("errorMessage", "Login já existe");
-            return "login/register";
-        }
-
         // Criptografar senha e criar usuário com papel USER
         String encryptedPassword = passwordEncoder.encode(password);
         User newUser = new User(login, email, encryptedPassword, UserRole.USER);
 
-        // Salvar usuário
-        userRepository.save(newUser);
+        // Salvar usuário; violações de unicidade viram mensagens amigáveis
+        try {
+            authorizationService.registrarUsuario(newUser);
+        } catch (DataIntegrityViolationException e) {
+            model.addAttribute("errorMessage", mensagemDeDuplicidade(login, email));
+            return "login/register";
+        }
 
         // Redirecionar para login com mensagem de sucesso
         model.addAttribute("successMessage", "Cadastro realizado com sucesso");
         return "login/login";
     }
+
+    /**
+     * verificarLogin() Informa se um login está disponível para cadastro.
+     *
+     * Consulta primeiro o filtro de Bloom em memória; o banco só é consultado quando o filtro indica que o login
+     * pode existir.
+     *
+     * @param login Login digitado no formulário;
+     * @return JSON com o campo "disponivel".
+     */
+    @GetMapping("/register/login-disponivel")
+    @ResponseBody
+    public Map<String, Boolean> verificarLogin(@RequestParam String login) {
+        if (login.isBlank()) {
+            return Map.of("disponivel", false);
+        }
+        boolean disponivel = !filtroBloomLogins.podeConter(login) || !userRepository.existsByLogin(login.trim());
+        return Map.of("disponivel", disponivel);
+    }
+
+    // Descobre qual restrição de unicidade foi violada; executado apenas quando o cadastro falha
+    private String mensagemDeDuplicidade(String login, String email) {
+        if (userRepository.existsByLogin(login)) {
+            return "Login já existe";
+        }
+        if (userRepository.existsByEmail(email)) {
+            return "Email já cadastrado";
+        }
+        return "Não foi possível concluir o cadastro";
+    }
 }
@@ -0,0 +1,119 @@
+package com.unidevs.core_system.controller;
+
+import com.unidevs.core_system.controller.dto.CreateExemplarDto;
+import com.unidevs.core_system.controller.dto.EmprestimoExemplarRequestDto;
+import com.unidevs.core_system.controller.dto.ExemplarDto;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.service.ExemplarService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Controlador dos exemplares físicos, usado pelo balcão de atendimento com leitor de código de barras.
+ *
+ * Responsabilidades: expor endpoints REST para cadastrar exemplares, consultar um exemplar pelo código de barras e
+ * registrar empréstimos e devoluções a partir da leitura da etiqueta.
+ *
+ * Processo:
+ * 1. Cadastro do exemplar (código de barras, conservação, filial e prateleira);
+ * 2. Consulta pelo código de barras, resolvido pelo índice em memória;
+ * 3. Empréstimo pela leitura, feito pelo atendente (ADMIN) para o leitor informado, e devolução pela leitura, feita
+ *    pelo atendente ou pelo leitor que está com o exemplar; ambos atualizam a quantidade disponível do livro.
+ *
+ * Respostas HTTP:
+ *   201 Created: Exemplar cadastrado com sucesso;
+ *   200 OK: Operação realizada com sucesso (consulta, empréstimo, devolução);
+ *   400 Bad Request: Código inválido, dados inválidos ou regra violada (ex: exemplar já emprestado);
+ *   403 Forbidden: Devolução de um exemplar emprestado para outro leitor;
+ *   404 Not Found: Código de barras não cadastrado.
+ */
+@RestController
+@RequestMapping("/exemplar")
+public class ExemplarController {
+    private final ExemplarService exemplarService;
+
+    /**
+     * Injeta a dependência da camada de serviço {@link ExemplarService}.
+     * @param exemplarService Serviço responsável pelos exemplares e pelo atendimento por código de barras
+     */
+    public ExemplarController(ExemplarService exemplarService) {
+        this.exemplarService = exemplarService;
+    }
+
+    /**
+     * cadastrar() — Cadastra um exemplar físico de um livro.
+     *
+     * @param createExemplarDto DTO com o livro, o código de barras e a localização.
+     * @return HTTP 201 Created com o location do exemplar (pelo código de barras).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public ResponseEntity<Void> cadastrar(@Valid @RequestBody CreateExemplarDto createExemplarDto) {
+        exemplarService.cadastrar(createExemplarDto);
+        return ResponseEntity.created(URI.create("/exemplar/" + createExemplarDto.codigoBarras())).build();
+    }
+
+    /**
+     * buscarPorCodigo() — Retorna o exemplar de um código de barras.
+     *
+     * @param codigoBarras Código de barras lido da etiqueta.
+     * @return {@link ExemplarDto} ou HTTP 404 se o código não estiver cadastrado.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/{codigoBarras}")
+    public ResponseEntity<ExemplarDto> buscarPorCodigo(@PathVariable("codigoBarras") long codigoBarras) {
+        return ResponseEntity.of(exemplarService.buscarPorCodigo(codigoBarras));
+    }
+
+    /**
+     * emprestar() — Empresta o exemplar lido para o leitor informado pelo atendente.
+     *
+     * @param codigoBarras Código de barras lido da etiqueta.
+     * @param emprestimo DTO com o leitor que leva o exemplar.
+     * @return {@link ExemplarDto} atualizado, HTTP 404 se o código não estiver cadastrado ou HTTP 400 se o exemplar
+     *         não puder ser emprestado.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{codigoBarras}/emprestimo")
+    public ResponseEntity<ExemplarDto> emprestar(@PathVariable("codigoBarras") long codigoBarras,
+                                                 @Valid @RequestBody EmprestimoExemplarRequestDto emprestimo) {
+        var leitorId = UUID.fromString(emprestimo.usuarioId());
+        try {
+            return ResponseEntity.ok(exemplarService.emprestarPorCodigo(codigoBarras, leitorId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * devolver() — Registra a devolução do exemplar lido, pelo atendente ou pelo leitor que está com ele.
+     *
+     * @param codigoBarras Código de barras lido da etiqueta.
+     * @param usuario Usuário autenticado.
+     * @return {@link ExemplarDto} atualizado, HTTP 404 se o código não estiver cadastrado, HTTP 403 se o exemplar
+     *         estiver com outro leitor ou HTTP 400 se o exemplar não estiver emprestado.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PostMapping("/{codigoBarras}/devolucao")
+    public ResponseEntity<ExemplarDto> devolver(@PathVariable("codigoBarras") long codigoBarras,
+                                                @AuthenticationPrincipal User usuario) {
+        try {
+            return ResponseEntity.ok(usuario.getRole() == UserRole.ADMIN
+                    ? exemplarService.devolverPorCodigo(codigoBarras)
+                    : exemplarService.devolverDoLeitor(codigoBarras, usuario.getId()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
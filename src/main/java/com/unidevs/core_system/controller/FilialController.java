@@ -0,0 +1,160 @@
+package com.unidevs.core_system.controller;
+
+import com.unidevs.core_system.controller.dto.CreateFilialDto;
+import com.unidevs.core_system.controller.dto.DisponibilidadeFilialDto;
+import com.unidevs.core_system.controller.dto.EstoqueFilialRequestDto;
+import com.unidevs.core_system.controller.dto.FilialDto;
+import com.unidevs.core_system.service.EstoqueFilialService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Controlador das filiais da biblioteca e do estoque de livros em cada filial.
+ *
+ * Responsabilidades: expor endpoints REST para cadastrar filiais, definir o estoque de um livro em uma filial,
+ * emprestar e devolver exemplares de uma filial e consultar em quais filiais um livro está disponível.
+ *
+ * Processo:
+ * 1. Cadastro e listagem de filiais (com localização opcional);
+ * 2. Definição da quantidade de exemplares de um livro em uma filial;
+ * 3. Empréstimo e devolução na filial, que alteram o estoque daquela filial e, na mesma transação, as quantidades
+ *    do livro (a soma das filiais);
+ * 4. Consulta das filiais com o livro disponível e da filial disponível mais próxima de um ponto, respondidas
+ *    pelo índice em memória, sem consultar o banco.
+ *
+ * Respostas HTTP:
+ *   201 Created: Filial criada com sucesso;
+ *   200 OK: Operação realizada com sucesso (consulta, empréstimo, devolução);
+ *   204 No Content: Estoque definido;
+ *   400 Bad Request: UUID inválido, dados inválidos ou regra violada (ex: sem exemplares disponíveis);
+ *   404 Not Found: Nenhuma filial com o livro disponível e localização cadastrada.
+ */
+@RestController
+@RequestMapping("/filial")
+public class FilialController {
+    private final EstoqueFilialService estoqueFilialService;
+
+    /**
+     * Injeta a dependência da camada de serviço {@link EstoqueFilialService}.
+     * @param estoqueFilialService Serviço responsável pelas filiais e pelo estoque por filial
+     */
+    public FilialController(EstoqueFilialService estoqueFilialService) {
+        this.estoqueFilialService = estoqueFilialService;
+    }
+
+    /**
+     * criarFilial() — Cadastra uma nova filial.
+     *
+     * @param createFilialDto DTO com nome e localização da filial.
+     * @return HTTP 201 Created com o location da filial.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public ResponseEntity<Void> criarFilial(@Valid @RequestBody CreateFilialDto createFilialDto) {
+        var filialId = estoqueFilialService.criarFilial(createFilialDto);
+        return ResponseEntity.created(URI.create("/filial/" + filialId)).build();
+    }
+
+    /**
+     * listarFiliais() — Retorna todas as filiais cadastradas.
+     *
+     * @return Lista de {@link FilialDto}.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping
+    public ResponseEntity<List<FilialDto>> listarFiliais() {
+        return ResponseEntity.ok(estoqueFilialService.listarFiliais());
+    }
+
+    /**
+     * definirEstoque() — Define quantos exemplares de um livro a filial possui.
+     *
+     * Os exemplares emprestados são preservados: a quantidade disponível passa a ser a nova quantidade total menos
+     * os emprestados.
+     *
+     * @param filialId UUID da filial.
+     * @param livroId UUID do livro.
+     * @param estoqueDto DTO com a quantidade total.
+     * @return HTTP 204 No Content.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{filialId}/estoque/{livroId}")
+    public ResponseEntity<Void> definirEstoque(@PathVariable("filialId") String filialId,
+                                               @PathVariable("livroId") String livroId,
+                                               @Valid @RequestBody EstoqueFilialRequestDto estoqueDto) {
+        estoqueFilialService.definirEstoque(livroId, filialId, estoqueDto.quantidadeTotal());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * emprestar() — Empresta um exemplar do livro na filial informada.
+     *
+     * @param filialId UUID da filial.
+     * @param livroId UUID do livro.
+     * @return HTTP 200 em caso de sucesso ou 400 se a filial não tiver exemplares disponíveis.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PostMapping("/{filialId}/emprestimo/{livroId}")
+    public ResponseEntity<Void> emprestar(@PathVariable("filialId") String filialId,
+                                          @PathVariable("livroId") String livroId) {
+        try {
+            estoqueFilialService.emprestar(livroId, filialId);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * devolver() — Devolve um exemplar do livro à filial informada.
+     *
+     * @param filialId UUID da filial.
+     * @param livroId UUID do livro.
+     * @return HTTP 200 em caso de sucesso ou 400 se não houver empréstimo em aberto na filial.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PostMapping("/{filialId}/devolucao/{livroId}")
+    public ResponseEntity<Void> devolver(@PathVariable("filialId") String filialId,
+                                         @PathVariable("livroId") String livroId) {
+        try {
+            estoqueFilialService.devolver(livroId, filialId);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * listarDisponibilidade() — Retorna as filiais que têm o livro disponível.
+     *
+     * @param livroId UUID do livro.
+     * @return Lista de {@link DisponibilidadeFilialDto} (vazia se nenhuma filial tiver o livro disponível).
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/disponibilidade/{livroId}")
+    public ResponseEntity<List<DisponibilidadeFilialDto>> listarDisponibilidade(
+            @PathVariable("livroId") String livroId) {
+        return ResponseEntity.ok(estoqueFilialService.filiaisComDisponibilidade(livroId));
+    }
+
+    /**
+     * buscarMaisProxima() — Retorna a filial mais próxima do ponto informado que tem o livro disponível.
+     *
+     * @param livroId UUID do livro.
+     * @param latitude Latitude do ponto de referência, em graus.
+     * @param longitude Longitude do ponto de referência, em graus.
+     * @return {@link DisponibilidadeFilialDto} com a distância em quilômetros, ou HTTP 404.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/mais-proxima/{livroId}")
+    public ResponseEntity<DisponibilidadeFilialDto> buscarMaisProxima(
+            @PathVariable("livroId") String livroId,
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude) {
+        return ResponseEntity.of(estoqueFilialService.maisProxima(livroId, latitude, longitude));
+    }
+}
@@ -1,10 +1,19 @@
 package com.unidevs.core_system.controller;
 
 import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.EmprestimoLoteRequestDto;
+import com.unidevs.core_system.controller.dto.GrupoDuplicatasDto;
+import com.unidevs.core_system.controller.dto.ImportacaoLivrosDto;
+import com.unidevs.core_system.controller.dto.ImportacaoLivrosRequestDto;
+import com.unidevs.core_system.controller.dto.LivroCatalogoDto;
+import com.unidevs.core_system.controller.dto.LivroLoteDto;
+import com.unidevs.core_system.controller.dto.LivroLoteRequestDto;
 import com.unidevs.core_system.controller.dto.UpdateLivroDto;
 import com.unidevs.core_system.entity.Livro;
+import com.unidevs.core_system.service.CatalogoPreCodificado;
 import com.unidevs.core_system.service.LivroService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,6 +21,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import java.net.URI;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Controlador que serve para gerenciar as operações relacionadas à entidade Livro
@@ -21,31 +32,41 @@ import java.util.List;
  *
  * Processo:
  * 1. Cadastro de livros com upload opcional de imagem de capa;
- * 2. Consulta individual e listagem completa de livros;
+ * 2. Consulta individual (por id ou ISBN), em lote e listagem completa de livros; importação em lote;
  * 3. Busca por título e por tags sem distinção de maiúsculas/minúsculas;
- * 4. Solicitação de empréstimo e reserva de livros via catálogo;
+ * 4. Solicitação de empréstimo (individual ou de vários livros de uma vez) e reserva de livros via catálogo;
  * 5. Atualização de dados e imagem do livro;
- * 6. Exclusão lógica ou física do registro, conforme política do serviço.
+ * 6. Exclusão lógica ou física do registro, conforme política do serviço;
+ * 7. Respostas parciais: os endpoints de consulta aceitam "fields" (ex: ?fields=livroId,titulo) e retornam apenas
+ *    esses campos, lidos por uma consulta de projeção;
+ * 8. Detecção de livros quase duplicados (título e autor parecidos) no cadastro, na importação e em relatório.
  *
  * Respostas HTTP:
  *   201 Created: Livro criado com sucesso;
  *   200 OK: Operação realizada com sucesso (busca, reserva, empréstimo);
  *   204 No Content: Atualização ou exclusão bem-sucedida sem retorno de dados;
- *   400 Bad Request: Falha em requisição (ex: UUID inválido ou regra violada);
+ *   400 Bad Request: Falha em requisição (ex: UUID inválido, campo desconhecido em "fields" ou regra violada);
  *   404 Not Found: Livro não encontrado.
  */
 
 @RestController
 @RequestMapping("/livro")
 public class LivroController {
+    static final String CABECALHO_VERSAO = "X-Catalogo-Versao";
+    static final String CABECALHO_DESATUALIZADO = "X-Catalogo-Desatualizado";
+    static final String CABECALHO_DUPLICATAS = "X-Livro-Duplicatas-Suspeitas";
+
     private final LivroService livroService;
+    private final CatalogoPreCodificado catalogoPreCodificado;
 
     /**
      * Injeta a dependência da camada de serviço {@link LivroService}.
      * @param livroService Serviço responsável pelas regras de negócio e persistência de livros
+     * @param catalogoPreCodificado Catálogo completo já serializado, servido em /livro/catalogo
      */
-    public LivroController(LivroService livroService) {
+    public LivroController(LivroService livroService, CatalogoPreCodificado catalogoPreCodificado) {
         this.livroService = livroService;
+        this.catalogoPreCodificado = catalogoPreCodificado;
     }
 
     /**
@@ -54,7 +75,9 @@ public class LivroController {
      * Processo:
      * 1. Valida os dados do DTO de criação;
      * 2. Chama o serviço para persistir o livro e armazenar a imagem (se houver);
-     * 3. Retorna HTTP 201 Created com o location do recurso criado.
+     * 3. Retorna HTTP 201 Created com o location do recurso criado. Se o título e o autor forem parecidos com os de
+     *    livros já cadastrados, o livro é criado mesmo assim e os ids desses livros vêm no cabeçalho
+     *    "X-Livro-Duplicatas-Suspeitas".
      *
      * Parâmetros:
      * @param createLivroDto DTO contendo os dados do livro;
@@ -67,19 +90,51 @@ public class LivroController {
             @Valid @RequestPart("livroDto") CreateLivroDto createLivroDto,
             @RequestPart(value = "imagem", required = false) MultipartFile imagemCapa) {
         var livroId = livroService.createLivro(createLivroDto, imagemCapa);
-        return ResponseEntity.created(URI.create("/livro/" + livroId.toString())).build();
+        var resposta = ResponseEntity.created(URI.create("/livro/" + livroId.toString()));
+        var suspeitas = livroService.listarDuplicatasSuspeitas(livroId);
+        if (!suspeitas.isEmpty()) {
+            resposta.header(CABECALHO_DUPLICATAS,
+                    suspeitas.stream().map(UUID::toString).collect(Collectors.joining(", ")));
+        }
+        return resposta.build();
     }
 
     /**
      * getCatalogo() — Retorna uma lista de livros formatada para o catálogo.
      *
+     * Respostas em JSON copiam o instantâneo já serializado do {@link CatalogoPreCodificado} (com gzip quando o
+     * cliente aceita), sem consulta nem serialização na requisição. Antes do primeiro instantâneo, ou se o cliente
+     * pedir CBOR/Smile, a lista é montada e serializada normalmente.
+     *
+     * O header "X-Catalogo-Versao" informa a versão do instantâneo. Um instantâneo carregado do disco na
+     * inicialização, ou mantido durante uma falha do banco, vem com "Warning: 110" e "X-Catalogo-Desatualizado"
+     * (instante da última leitura do banco).
+     *
+     * @param accept Header Accept da requisição.
+     * @param acceptEncoding Header Accept-Encoding da requisição.
      * @return Lista de LivroCatalogoDto.
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/catalogo")
-    public ResponseEntity<List<com.unidevs.core_system.controller.dto.LivroCatalogoDto>> getCatalogo() {
-        var livrosParaCatalogo = livroService.listarTodosParaCatalogo();
-        return ResponseEntity.ok(livrosParaCatalogo);
+    public ResponseEntity<?> getCatalogo(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        var instantaneo = catalogoPreCodificado.atual();
+        if (instantaneo.isEmpty() || !prefereJson(accept)) {
+            return ResponseEntity.ok(livroService.listarTodosParaCatalogo());
+        }
+        var resposta = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .header(CABECALHO_VERSAO, Long.toString(instantaneo.get().versao()));
+        if (instantaneo.get().desatualizado()) {
+            resposta.header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                    .header(CABECALHO_DESATUALIZADO, instantaneo.get().geradoEm().toString());
+        }
+        if (aceitaGzip(acceptEncoding)) {
+            return resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(instantaneo.get().gzip());
+        }
+        return resposta.body(instantaneo.get().json());
     }
 
     /**
@@ -87,7 +142,7 @@ public class LivroController {
      *
      * Processo:
      * 1. Valida o UUID informado;
-     * 2. Reduz a quantidade disponível no acervo;
+     * 2. Reduz o estoque da filial padrão e, com ele, a quantidade disponível do livro;
      * 3. Retorna 200 OK se o empréstimo for bem-sucedido ou 400 Bad Request se falhar.
      *
      * @param livroId UUID do livro.
@@ -104,6 +159,31 @@ public class LivroController {
         }
     }
 
+    /**
+     * solicitarEmprestimoEmLote() — Empresta vários livros de uma vez (carrinho do balcão).
+     *
+     * Processo:
+     * 1. Valida a lista de UUIDs (até 20);
+     * 2. Reduz, em uma única transação, o estoque de todos os livros na filial informada (ou na filial padrão) e,
+     *    com ele, a quantidade disponível dos livros;
+     * 3. Retorna 200 OK se todos forem emprestados ou 400 Bad Request sem emprestar nenhum.
+     *
+     * @param emprestimoDto DTO com os identificadores dos livros e a filial opcional.
+     * @return HTTP 200 em caso de sucesso ou 400 em caso de erro.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PostMapping("/catalogo/emprestimo")
+    public ResponseEntity<Void> solicitarEmprestimoEmLote(@Valid @RequestBody EmprestimoLoteRequestDto emprestimoDto) {
+        try {
+            var filialId = emprestimoDto.filialId() != null && !emprestimoDto.filialId().isBlank()
+                    ? UUID.fromString(emprestimoDto.filialId()) : null;
+            livroService.solicitarEmprestimoEmLote(emprestimoDto.livroIds(), filialId);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * reservarLivro() — Realiza a reserva de um livro para o usuário.
      *
@@ -125,24 +205,137 @@ public class LivroController {
      * getLivroById() — Retorna um livro específico a partir do UUID informado.
      *
      * @param livroId UUID do livro.
-     * @return Entidade {@link Livro} ou HTTP 404 se não encontrado.
+     * @param fields Campos a retornar, separados por vírgula (opcional).
+     * @return Entidade {@link Livro} (ou apenas os campos pedidos) ou HTTP 404 se não encontrado.
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/{livroId}")
-    public ResponseEntity<Livro> getLivroById(@PathVariable("livroId") String livroId) {
+    public ResponseEntity<?> getLivroById(@PathVariable("livroId") String livroId,
+                                          @RequestParam(value = "fields", required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.of(livroService.getCamposLivroById(livroId, fields));
+        }
         var livro = livroService.getLivroById(livroId);
         return livro.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * buscarPorIsbn() — Retorna o livro de um ISBN lido pelo balcão ou digitado pelo usuário.
+     *
+     * Aceita ISBN-10 ou ISBN-13, com ou sem hífens; o ISBN é convertido para ISBN-13 e resolvido no índice em memória,
+     * que dá o id do livro; um ISBN ausente do índice retorna 404 sem consultar o banco.
+     *
+     * @param isbn ISBN em qualquer uma das formas aceitas.
+     * @return Entidade {@link Livro}, HTTP 404 se não encontrado ou 400 se o ISBN for inválido.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/isbn/{isbn}")
+    public ResponseEntity<Livro> buscarPorIsbn(@PathVariable("isbn") String isbn) {
+        return ResponseEntity.of(livroService.buscarPorIsbn(isbn));
+    }
+
+    /**
+     * importar() — Importa vários livros de uma vez, recusando ISBNs inválidos ou duplicados.
+     *
+     * Processo:
+     * 1. Valida cada livro como no cadastro individual (até 500);
+     * 2. Converte os ISBNs para ISBN-13 e detecta repetições no lote e livros já cadastrados pela chave numérica;
+     * 3. Cria os demais livros em uma única transação;
+     * 4. Aponta os livros criados com título e autor parecidos com os de outro livro do acervo ou do lote.
+     *
+     * @param importacaoDto DTO com os livros a importar.
+     * @return {@link ImportacaoLivrosDto} com os livros criados, os recusados e os suspeitos de duplicata.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/importacao")
+    public ResponseEntity<ImportacaoLivrosDto> importar(@Valid @RequestBody ImportacaoLivrosRequestDto importacaoDto) {
+        return ResponseEntity.ok(livroService.importar(importacaoDto.livros()));
+    }
+
+    /**
+     * listarDuplicatas() — Retorna os grupos de livros que parecem ser o mesmo livro em todo o acervo.
+     *
+     * Os grupos saem do índice MinHash em memória, comparando apenas os livros que dividem algum balde, sem
+     * comparar todos os pares do acervo.
+     *
+     * @return Lista de {@link GrupoDuplicatasDto}, do maior grupo para o menor.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/duplicatas")
+    public ResponseEntity<List<GrupoDuplicatasDto>> listarDuplicatas() {
+        return ResponseEntity.ok(livroService.listarGruposDuplicatas());
+    }
+
+    /**
+     * listarMaisEmprestados() — Retorna os livros mais emprestados na semana, no mês ou desde sempre.
+     *
+     * O ranking é mantido em memória a cada empréstimo, sem ordenar o acervo na requisição.
+     *
+     * @param periodo "semana", "mes" ou "total" (padrão "semana").
+     * @param limite Quantidade máxima de livros (1 a 50, padrão 10).
+     * @return Lista de {@link LivroCatalogoDto}, do mais ao menos emprestado.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/mais-emprestados")
+    public ResponseEntity<List<LivroCatalogoDto>> listarMaisEmprestados(
+            @RequestParam(value = "periodo", defaultValue = "semana") String periodo,
+            @RequestParam(value = "limite", defaultValue = "10") int limite) {
+        if (limite < 1 || limite > 50) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e 50.");
+        }
+        return ResponseEntity.ok(livroService.listarMaisEmprestados(periodo, limite));
+    }
+
+    /**
+     * listarRelacionados() — Retorna os livros parecidos com o livro informado (mesmo autor, gênero ou tags).
+     *
+     * As recomendações são pré-calculadas em segundo plano; a requisição apenas consulta a tabela em memória.
+     *
+     * @param livroId UUID do livro de referência.
+     * @param limite Quantidade máxima de livros (1 a 50, padrão 10).
+     * @return Lista de {@link LivroCatalogoDto}, do mais parecido ao menos parecido.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @GetMapping("/{livroId}/relacionados")
+    public ResponseEntity<List<LivroCatalogoDto>> listarRelacionados(
+            @PathVariable("livroId") String livroId,
+            @RequestParam(value = "limite", defaultValue = "10") int limite) {
+        if (limite < 1 || limite > 50) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e 50.");
+        }
+        return ResponseEntity.ok(livroService.listarRelacionados(livroId, limite));
+    }
+
+    /**
+     * buscarEmLote() — Retorna vários livros em uma única requisição.
+     *
+     * Processo:
+     * 1. Valida a lista de UUIDs (até 500);
+     * 2. Consulta os livros em blocos com cláusula IN;
+     * 3. Retorna os livros na ordem solicitada e a lista de ids não encontrados.
+     *
+     * @param loteDto DTO com os identificadores dos livros.
+     * @return {@link LivroLoteDto} com os livros encontrados e os ids ausentes.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @PostMapping("/lote")
+    public ResponseEntity<LivroLoteDto> buscarEmLote(@Valid @RequestBody LivroLoteRequestDto loteDto) {
+        return ResponseEntity.ok(livroService.buscarEmLote(loteDto.ids()));
+    }
+
     /**
      * listLivros() — Retorna todos os livros cadastrados.
      *
-     * @return Lista de {@link Livro}.
+     * @param fields Campos a retornar, separados por vírgula (opcional).
+     * @return Lista de {@link Livro} ou de projeções com os campos pedidos.
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping
-    public ResponseEntity<List<Livro>> listLivros() {
+    public ResponseEntity<List<?>> listLivros(@RequestParam(value = "fields", required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(livroService.listCamposLivros(fields));
+        }
         var livros = livroService.listLivros();
         return ResponseEntity.ok(livros);
     }
@@ -151,11 +344,16 @@ public class LivroController {
      * searchLivros() — Busca livros com base em um termo no título ou autor.
      *
      * @param termo Texto a ser buscado.
-     * @return Lista de {@link Livro} que correspondem ao termo.
+     * @param fields Campos a retornar, separados por vírgula (opcional).
+     * @return Lista de {@link Livro} (ou projeções) que correspondem ao termo.
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/buscar")
-    public ResponseEntity<List<Livro>> searchLivros(@RequestParam("termo") String termo) {
+    public ResponseEntity<List<?>> searchLivros(@RequestParam("termo") String termo,
+                                                @RequestParam(value = "fields", required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(livroService.searchCamposLivros(termo, fields));
+        }
         var livros = livroService.searchLivros(termo);
         return ResponseEntity.ok(livros);
     }
@@ -164,11 +362,16 @@ public class LivroController {
      * searchByTag() — Busca livros a partir de uma tag específica.
      *
      * @param tag Tag associada ao livro.
-     * @return Lista de {@link Livro} com a tag informada.
+     * @param fields Campos a retornar, separados por vírgula (opcional).
+     * @return Lista de {@link Livro} (ou projeções) com a tag informada.
      */
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @GetMapping("/buscar-por-tag")
-    public ResponseEntity<List<Livro>> searchByTag(@RequestParam("tag") String tag) {
+    public ResponseEntity<List<?>> searchByTag(@RequestParam("tag") String tag,
+                                               @RequestParam(value = "fields", required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(livroService.searchCamposByTag(tag, fields));
+        }
         var livros = livroService.searchByTag(tag);
         return ResponseEntity.ok(livros);
     }
@@ -208,4 +411,34 @@ public class LivroController {
         livroService.deleteById(livroId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    // O primeiro tipo do Accept compatível com um dos formatos produzidos decide: JSON (ou curinga) ou CBOR/Smile
+    private static boolean prefereJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        for (var tipo : MediaType.parseMediaTypes(accept)) {
+            if (tipo.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (tipo.isCompatibleWith(MediaType.APPLICATION_CBOR) || "x-jackson-smile".equals(tipo.getSubtype())) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // Verdadeiro se o Accept-Encoding lista gzip sem "q=0"
+    private static boolean aceitaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (var item : acceptEncoding.split(",")) {
+            var partes = item.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,55 @@
+package com.unidevs.core_system.controller;
+
+import com.unidevs.core_system.controller.dto.RelatorioInventarioDto;
+import com.unidevs.core_system.service.RollupInventarioService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+
+/**
+ * Controlador dos relatórios administrativos (card "Relatórios").
+ *
+ * Responsabilidades: expor as séries de empréstimos e disponibilidade ao longo do tempo para os gráficos,
+ * lidas dos rollups por hora e por dia mantidos pelo {@link RollupInventarioService}.
+ *
+ * Respostas HTTP:
+ *   200 OK: Série retornada (um ponto por balde, inclusive os sem movimentos);
+ *   400 Bad Request: Granularidade, dimensão, chave ou intervalo inválidos.
+ */
+@RestController
+@RequestMapping("/relatorios")
+public class RelatorioController {
+    private final RollupInventarioService rollupInventarioService;
+
+    /**
+     * Injeta a dependência da camada de serviço {@link RollupInventarioService}.
+     * @param rollupInventarioService Serviço responsável pelos rollups de inventário
+     */
+    public RelatorioController(RollupInventarioService rollupInventarioService) {
+        this.rollupInventarioService = rollupInventarioService;
+    }
+
+    /**
+     * relatorioInventario() — Retorna a série de empréstimos, devoluções e disponibilidade de um recorte do acervo.
+     *
+     * A consulta lê uma linha por balde, independentemente da quantidade de empréstimos no período.
+     *
+     * @param granularidade "hora" (padrão) ou "dia".
+     * @param dimensao "acervo" (padrão), "genero" ou "livro".
+     * @param chave Gênero ou UUID do livro; ignorada para o acervo.
+     * @param de Início da série (ISO-8601); padrão: 24 horas ou 30 dias antes do fim.
+     * @param ate Fim da série, exclusivo (ISO-8601); padrão: agora.
+     * @return {@link RelatorioInventarioDto} com um ponto por balde.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/inventario")
+    public ResponseEntity<RelatorioInventarioDto> relatorioInventario(
+            @RequestParam(value = "granularidade", defaultValue = "hora") String granularidade,
+            @RequestParam(value = "dimensao", defaultValue = "acervo") String dimensao,
+            @RequestParam(value = "chave", required = false) String chave,
+            @RequestParam(value = "de", required = false) Instant de,
+            @RequestParam(value = "ate", required = false) Instant ate) {
+        return ResponseEntity.ok(rollupInventarioService.relatorio(granularidade, dimensao, chave, de, ate));
+    }
+}
@@ -1,9 +1,11 @@
 package com.unidevs.core_system.controller;
 
+import com.unidevs.core_system.service.LivroService;
 import jakarta.servlet.RequestDispatcher;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 
@@ -28,6 +30,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 @Controller
 public class ViewController {
 
+    // Quantidade de livros exibidos em "Livros em Destaque"
+    private static final int QUANTIDADE_DESTAQUES = 8;
+
+    private final LivroService livroService;
+
+    public ViewController(LivroService livroService) {
+        this.livroService = livroService;
+    }
+
     /** homePage() Mapeia a rota raíz do sistema.
      * Redireciona automaticamente para a página de login.
      *
@@ -61,11 +72,14 @@ public class ViewController {
 
     /** home() Mapeia a rota home.
      * Protegida pelo SecurityConfigurations.
+     * Preenche "Livros em Destaque" com os livros mais emprestados da semana.
      *
+     * @param model Modelo da página, recebe a lista "featuredBooks".
      * @return Template da página inicial.
      */
     @GetMapping("/home")
-    public String home() {
+    public String home(Model model) {
+        model.addAttribute("featuredBooks", livroService.listarMaisEmprestados("semana", QUANTIDADE_DESTAQUES));
         return "index"; // This renders your index.html template
     }
 }
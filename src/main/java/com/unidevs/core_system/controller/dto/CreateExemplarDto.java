@@ -0,0 +1,34 @@
+package com.unidevs.core_system.controller.dto;
+
+import com.unidevs.core_system.entity.CondicaoExemplar;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO de entrada do cadastro de um exemplar físico.
+ *
+ * Parâmetros:
+ * @param livroId Identificador (UUID) do livro. (Obrigatório);
+ * @param codigoBarras Código de barras numérico da etiqueta. (Obrigatório, positivo e único);
+ * @param condicao Estado de conservação. (Opcional, padrão BOM);
+ * @param filialId Identificador (UUID) da filial onde o exemplar fica. (Opcional);
+ * @param prateleira Prateleira ou estante. (Opcional, até 50 caracteres).
+ */
+public record CreateExemplarDto(
+        @NotBlank(message = "O livro é obrigatório.")
+        String livroId,
+
+        @NotNull(message = "O código de barras é obrigatório.")
+        @Positive(message = "O código de barras deve ser um número positivo.")
+        Long codigoBarras,
+
+        CondicaoExemplar condicao,
+
+        String filialId,
+
+        @Size(max = 50, message = "A prateleira deve ter no máximo 50 caracteres.")
+        String prateleira
+) {
+}
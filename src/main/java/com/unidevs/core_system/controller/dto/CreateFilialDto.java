@@ -0,0 +1,29 @@
+package com.unidevs.core_system.controller.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO de entrada do cadastro de uma filial.
+ *
+ * Parâmetros:
+ * @param nome Nome da filial. (Obrigatório, 2–100 caracteres, único);
+ * @param latitude Latitude em graus decimais. (Opcional, -90 a 90);
+ * @param longitude Longitude em graus decimais. (Opcional, -180 a 180).
+ */
+public record CreateFilialDto(
+        @NotBlank(message = "O nome da filial não pode estar em branco.")
+        @Size(min = 2, max = 100, message = "O nome da filial deve ter entre 2 e 100 caracteres.")
+        String nome,
+
+        @DecimalMin(value = "-90", message = "A latitude deve estar entre -90 e 90.")
+        @DecimalMax(value = "90", message = "A latitude deve estar entre -90 e 90.")
+        Double latitude,
+
+        @DecimalMin(value = "-180", message = "A longitude deve estar entre -180 e 180.")
+        @DecimalMax(value = "180", message = "A longitude deve estar entre -180 e 180.")
+        Double longitude
+) {
+}
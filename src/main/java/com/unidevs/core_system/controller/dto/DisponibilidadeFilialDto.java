@@ -0,0 +1,20 @@
+package com.unidevs.core_system.controller.dto;
+
+import java.util.UUID;
+
+/**
+ * DTO que informa uma filial com exemplares disponíveis de um livro.
+ *
+ * Parâmetros:
+ * @param filialId Identificador da filial (UUID).
+ * @param nome Nome da filial.
+ * @param quantidadeDisponivel Exemplares disponíveis na filial.
+ * @param distanciaKm Distância em quilômetros até o ponto informado (nula quando não há ponto de referência).
+ */
+public record DisponibilidadeFilialDto(
+        UUID filialId,
+        String nome,
+        int quantidadeDisponivel,
+        Double distanciaKm
+) {
+}
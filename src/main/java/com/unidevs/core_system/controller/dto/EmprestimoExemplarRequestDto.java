@@ -0,0 +1,15 @@
+package com.unidevs.core_system.controller.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO de entrada do empréstimo de um exemplar no balcão.
+ *
+ * Parâmetros:
+ * @param usuarioId Identificador (UUID) do leitor que leva o exemplar, lido da carteirinha. (Obrigatório).
+ */
+public record EmprestimoExemplarRequestDto(
+        @NotBlank(message = "O leitor é obrigatório.")
+        String usuarioId
+) {
+}
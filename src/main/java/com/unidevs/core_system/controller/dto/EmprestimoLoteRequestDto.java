@@ -0,0 +1,24 @@
+package com.unidevs.core_system.controller.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO de entrada do empréstimo de vários livros de uma vez (carrinho do balcão).
+ *
+ * Responsabilidade: receber todos os livros de um mesmo atendimento para que o empréstimo seja feito em uma única
+ * transação: ou todos são emprestados, ou nenhum.
+ *
+ * Parâmetros:
+ * @param livroIds Identificadores (UUID) dos livros; um livro repetido empresta mais de um exemplar.
+ *                 (Obrigatório, 1–20 itens).
+ * @param filialId Filial (UUID) de onde saem os exemplares; sem ela, a filial padrão. (Opcional).
+ */
+public record EmprestimoLoteRequestDto(
+        @NotEmpty(message = "Informe ao menos um livro.")
+        @Size(max = 20, message = "O empréstimo em lote aceita no máximo 20 livros.")
+        List<String> livroIds,
+        String filialId
+) {
+}
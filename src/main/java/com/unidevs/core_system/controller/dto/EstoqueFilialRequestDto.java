@@ -0,0 +1,18 @@
+package com.unidevs.core_system.controller.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO de entrada da definição do estoque de um livro em uma filial.
+ *
+ * Parâmetros:
+ * @param quantidadeTotal Exemplares do livro na filial. Não pode ser menor que os exemplares emprestados no
+ *                        momento. (Obrigatória, ≥ 0).
+ */
+public record EstoqueFilialRequestDto(
+        @NotNull(message = "A quantidade total é obrigatória.")
+        @Min(value = 0, message = "A quantidade total não pode ser negativa.")
+        Integer quantidadeTotal
+) {
+}
@@ -0,0 +1,30 @@
+package com.unidevs.core_system.controller.dto;
+
+import com.unidevs.core_system.entity.CondicaoExemplar;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO de saída de um exemplar físico.
+ *
+ * Parâmetros:
+ * @param exemplarId Identificador do exemplar (UUID).
+ * @param livroId Identificador do livro (UUID).
+ * @param codigoBarras Código de barras da etiqueta.
+ * @param condicao Estado de conservação.
+ * @param filialId Filial onde o exemplar fica (pode ser nula).
+ * @param prateleira Prateleira ou estante (pode ser nula).
+ * @param emprestado Verdadeiro se o exemplar está emprestado.
+ * @param emprestadoEm Instante do empréstimo atual (nulo no acervo).
+ */
+public record ExemplarDto(
+        UUID exemplarId,
+        UUID livroId,
+        long codigoBarras,
+        CondicaoExemplar condicao,
+        UUID filialId,
+        String prateleira,
+        boolean emprestado,
+        Instant emprestadoEm
+) {
+}
@@ -0,0 +1,20 @@
+package com.unidevs.core_system.controller.dto;
+
+import java.util.UUID;
+
+/**
+ * DTO de saída de uma filial.
+ *
+ * Parâmetros:
+ * @param filialId Identificador da filial (UUID).
+ * @param nome Nome da filial.
+ * @param latitude Latitude em graus decimais (pode ser nula).
+ * @param longitude Longitude em graus decimais (pode ser nula).
+ */
+public record FilialDto(
+        UUID filialId,
+        String nome,
+        Double latitude,
+        Double longitude
+) {
+}
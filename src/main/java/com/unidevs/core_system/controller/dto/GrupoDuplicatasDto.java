@@ -0,0 +1,14 @@
+package com.unidevs.core_system.controller.dto;
+
+import java.util.List;
+
+/**
+ * DTO de um grupo de livros que parecem ser o mesmo livro (título e autor quase iguais).
+ *
+ * Parâmetros:
+ * @param livros Livros do grupo, no formato do catálogo.
+ */
+public record GrupoDuplicatasDto(
+        List<LivroCatalogoDto> livros
+) {
+}
@@ -0,0 +1,36 @@
+package com.unidevs.core_system.controller.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO de resposta da importação de livros em lote.
+ *
+ * Parâmetros:
+ * @param criados Identificadores dos livros criados, na ordem do lote.
+ * @param recusados Livros não importados (ISBN inválido, repetido no lote ou já cadastrado), na ordem do lote.
+ * @param suspeitos Livros importados que parecem duplicar livros do acervo ou do próprio lote (título e autor
+ *                  parecidos), na ordem do lote. São criados normalmente, apenas apontados para conferência.
+ */
+public record ImportacaoLivrosDto(
+        List<UUID> criados,
+        List<Recusado> recusados,
+        List<Suspeito> suspeitos
+) {
+
+    /**
+     * @param posicao Posição do livro no lote (a partir de 0).
+     * @param isbn ISBN como informado.
+     * @param motivo Motivo da recusa.
+     */
+    public record Recusado(int posicao, String isbn, String motivo) {
+    }
+
+    /**
+     * @param posicao Posição do livro no lote (a partir de 0).
+     * @param livroId Livro criado.
+     * @param semelhantes Livros parecidos, do mais ao menos parecido.
+     */
+    public record Suspeito(int posicao, UUID livroId, List<UUID> semelhantes) {
+    }
+}
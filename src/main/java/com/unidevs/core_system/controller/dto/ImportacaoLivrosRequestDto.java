@@ -0,0 +1,19 @@
+package com.unidevs.core_system.controller.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO de entrada da importação de livros em lote (ex: planilha de um fornecedor ou de outro sistema).
+ *
+ * Parâmetros:
+ * @param livros Livros a importar, com as mesmas validações do cadastro individual. (Obrigatório, 1–500 itens).
+ */
+public record ImportacaoLivrosRequestDto(
+        @NotEmpty(message = "Informe ao menos um livro.")
+        @Size(max = 500, message = "A importação aceita no máximo 500 livros por requisição.")
+        List<@Valid CreateLivroDto> livros
+) {
+}
@@ -16,8 +16,8 @@ import java.util.UUID;
  * @param autor Nome do autor.
  * @param caminhoImagemCapa Caminho ou URL da imagem de capa.
  * @param status Estado do livro (ex: "Disponível", "Emprestado", "Reservado").
- * @param quantidadeDisponivel Quantidade de exemplares disponíveis.
- * @param quantidadeTotal Quantidade total de exemplares cadastrados.
+ * @param quantidadeDisponivel Quantidade de exemplares disponíveis, somando todas as filiais.
+ * @param quantidadeTotal Quantidade total de exemplares cadastrados, somando todas as filiais.
  */
 
 public record LivroCatalogoDto(
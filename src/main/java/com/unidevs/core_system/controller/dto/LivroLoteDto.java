@@ -0,0 +1,17 @@
+package com.unidevs.core_system.controller.dto;
+
+import com.unidevs.core_system.entity.Livro;
+import java.util.List;
+
+/**
+ * DTO de resposta da consulta de livros em lote.
+ *
+ * Parâmetros:
+ * @param livros Livros encontrados, na ordem em que foram solicitados.
+ * @param naoEncontrados Identificadores solicitados que não correspondem a nenhum livro.
+ */
+public record LivroLoteDto(
+        List<Livro> livros,
+        List<String> naoEncontrados
+) {
+}
@@ -0,0 +1,22 @@
+package com.unidevs.core_system.controller.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO de entrada da consulta de livros em lote.
+ *
+ * Responsabilidade: receber, em uma única requisição, os identificadores dos livros que o cliente precisa exibir
+ * (ex: estante de um leitor ou lista de leitura), evitando uma requisição por livro.
+ *
+ * Parâmetros:
+ * @param ids Identificadores (UUID) dos livros, na ordem desejada. (Obrigatório, 1–500 itens, nenhum nulo ou vazio).
+ */
+public record LivroLoteRequestDto(
+        @NotEmpty(message = "Informe ao menos um identificador.")
+        @Size(max = 500, message = "A consulta em lote aceita no máximo 500 identificadores.")
+        List<@NotBlank(message = "Os identificadores não podem ser nulos ou vazios.") String> ids
+) {
+}
@@ -0,0 +1,37 @@
+package com.unidevs.core_system.controller.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import java.io.IOException;
+
+/**
+ * Representação parcial de um livro contendo apenas os campos solicitados pelo cliente (parâmetro "fields").
+ *
+ * Responsabilidade: transportar os valores lidos de uma consulta de projeção diretamente para a resposta JSON, sem
+ * hidratar a entidade {@link com.unidevs.core_system.entity.Livro} nem criar um mapa por linha. O vetor de nomes de
+ * campos é compartilhado por todas as linhas de uma mesma consulta.
+ *
+ * Parâmetros:
+ * @param campos Nomes dos campos, na ordem da consulta.
+ * @param valores Valores de cada campo, na mesma ordem.
+ */
+public record LivroProjecao(String[] campos, Object[] valores) implements JsonSerializable {
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject(this, campos.length);
+        for (int i = 0; i < campos.length; i++) {
+            gen.writeFieldName(campos[i]);
+            serializers.defaultSerializeValue(valores[i], gen);
+        }
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+}
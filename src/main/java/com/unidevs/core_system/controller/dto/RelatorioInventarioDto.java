@@ -0,0 +1,37 @@
+package com.unidevs.core_system.controller.dto;
+
+import com.unidevs.core_system.entity.DimensaoRollup;
+import com.unidevs.core_system.entity.GranularidadeRollup;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO de resposta do relatório de inventário: série de empréstimos e disponibilidade ao longo do tempo.
+ *
+ * Parâmetros:
+ * @param granularidade Tamanho dos baldes (hora ou dia).
+ * @param dimensao Recorte do relatório (acervo, gênero ou livro).
+ * @param chave Gênero ou id do livro (vazia para o acervo).
+ * @param pontos Um ponto por balde, do mais antigo ao mais recente, inclusive os baldes sem movimentos.
+ */
+public record RelatorioInventarioDto(
+        GranularidadeRollup granularidade,
+        DimensaoRollup dimensao,
+        String chave,
+        List<Ponto> pontos
+) {
+
+    /**
+     * @param inicio Início do balde.
+     * @param emprestimos Exemplares emprestados no balde.
+     * @param devolucoes Exemplares devolvidos no balde.
+     * @param movimentos Movimentos de estoque no balde (de qualquer tipo).
+     * @param variacaoDisponivel Variação da quantidade disponível no balde.
+     * @param quantidadeDisponivel Exemplares disponíveis ao fim do balde; nulo antes do primeiro movimento registrado.
+     * @param quantidadeTotal Exemplares cadastrados ao fim do balde; nulo antes do primeiro movimento registrado.
+     */
+    public record Ponto(Instant inicio, long emprestimos, long devolucoes, long movimentos, long variacaoDisponivel,
+                        Long quantidadeDisponivel, Long quantidadeTotal) {
+    }
+}
@@ -0,0 +1,280 @@
+package com.unidevs.core_system.diario;
+
+import com.unidevs.core_system.service.MovimentoInventarioEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Diário de inventário: registro somente de acréscimo, em disco local, de cada movimento de estoque dos livros.
+ *
+ * Responsabilidade: manter o histórico de quantidade disponível, quantidade total e status para auditoria e
+ * reconciliação, sem acrescentar mais que alguns microssegundos ao caminho do empréstimo.
+ *
+ * Processo:
+ * 1. Cada {@link MovimentoInventarioEvent} confirmado vira um {@link RegistroInventario} de tamanho fixo com CRC32C;
+ * 2. Os registros são copiados para um segmento mapeado em memória (escrita no page cache, sem chamada de sistema);
+ * 3. Uma thread em segundo plano faz o "group commit": a cada intervalo, força para o disco de uma só vez todos os
+ *    registros escritos desde o último force. Uma queda do processo não perde os registros já anexados; uma queda do
+ *    sistema operacional pode perder no máximo o último intervalo. Como o registro é anexado depois da confirmação
+ *    no banco, uma queda entre a confirmação e a anexação também deixa o movimento fora do diário;
+ * 4. Quando um segmento enche, um novo arquivo é criado com a próxima sequência no nome;
+ * 5. Na inicialização, o último segmento é lido até o primeiro registro inválido, e a escrita continua dali;
+ * 6. Um arquivo de trava impede que dois processos escrevam no mesmo diretório;
+ * 7. O arquivo diario.id guarda um identificador aleatório do diário, criado na primeira abertura, que acompanha
+ *    o diretório (usado, por exemplo, para marcar até onde o diário já foi consolidado nos rollups);
+ * 8. O arquivo diario.formato guarda a versão do layout dos registros; um diretório em outro formato é recusado.
+ *
+ * A reconstrução do estoque em um instante é feita por {@link ReplayDiarioInventario}.
+ *
+ * Parâmetros:
+ * @param diretorio Diretório dos segmentos.
+ * @param registrosPorSegmento Capacidade de cada segmento, em registros.
+ * @param intervaloForceMs Intervalo do group commit.
+ */
+@Component
+public class DiarioInventario {
+
+    private static final Logger log = LoggerFactory.getLogger(DiarioInventario.class);
+
+    private final boolean habilitado;
+    private final Path diretorio;
+    private final int registrosPorSegmento;
+    private final long intervaloForceMs;
+
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer registro = ByteBuffer.allocate(RegistroInventario.TAMANHO);
+    private final List<Trecho> trechosPendentes = new ArrayList<>();
+
+    private FileChannel canalTrava;
+    private FileLock trava;
+    private MappedByteBuffer segmento;
+    private int posicao;
+    private int inicioNaoForcado = -1;
+    private long proximaSequencia;
+    private UUID identificador;
+    private Thread forcador;
+    private volatile boolean ativo;
+
+    public DiarioInventario(@Value("${app.inventario.diario.habilitado:true}") boolean habilitado,
+                            @Value("${app.inventario.diario.diretorio:diario-inventario}") String diretorio,
+                            @Value("${app.inventario.diario.registros-por-segmento:1048576}") int registrosPorSegmento,
+                            @Value("${app.inventario.diario.intervalo-force-ms:10}") long intervaloForceMs) {
+        this.habilitado = habilitado;
+        this.diretorio = Paths.get(diretorio).toAbsolutePath().normalize();
+        this.registrosPorSegmento = registrosPorSegmento;
+        this.intervaloForceMs = intervaloForceMs;
+    }
+
+    @PostConstruct
+    public void abrir() throws IOException {
+        if (!habilitado) {
+            return;
+        }
+        Files.createDirectories(diretorio);
+        LeitorDiarioInventario.verificarFormato(diretorio);
+        canalTrava = FileChannel.open(diretorio.resolve("diario.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            trava = canalTrava.tryLock();
+        } catch (OverlappingFileLockException e) {
+            trava = null;
+        }
+        if (trava == null) {
+            canalTrava.close();
+            throw new IllegalStateException("O diário de inventário em " + diretorio + " já está em uso por outro processo.");
+        }
+
+        var arquivoId = diretorio.resolve("diario.id");
+        if (!Files.exists(arquivoId)) {
+            Files.writeString(arquivoId, UUID.randomUUID().toString());
+        }
+        identificador = UUID.fromString(Files.readString(arquivoId).trim());
+
+        var arquivoFormato = diretorio.resolve(LeitorDiarioInventario.ARQUIVO_FORMATO);
+        if (!Files.exists(arquivoFormato)) {
+            Files.writeString(arquivoFormato, Integer.toString(RegistroInventario.FORMATO));
+        }
+
+        var segmentos = LeitorDiarioInventario.segmentos(diretorio);
+        if (segmentos.isEmpty()) {
+            abrirSegmento(1);
+        } else {
+            var ultimo = segmentos.get(segmentos.size() - 1);
+            long[] ultimaSequencia = {LeitorDiarioInventario.primeiraSequencia(ultimo) - 1};
+            int validos = LeitorDiarioInventario.lerSegmento(ultimo, r -> ultimaSequencia[0] = r.sequencia());
+            mapear(ultimo);
+            posicao = validos * RegistroInventario.TAMANHO;
+            proximaSequencia = ultimaSequencia[0] + 1;
+            // Limpa um eventual registro incompleto, para que ele não seja lido depois dos novos
+            if (posicao < segmento.capacity()) {
+                segmento.put(posicao, new byte[RegistroInventario.TAMANHO]);
+            }
+        }
+
+        ativo = true;
+        forcador = new Thread(this::executarGroupCommit, "diario-inventario-force");
+        forcador.setDaemon(true);
+        forcador.start();
+        log.info("Diário de inventário aberto em {}, próxima sequência {}", diretorio, proximaSequencia);
+    }
+
+    // Registra somente movimentos confirmados
+    @TransactionalEventListener
+    public void aoMovimentar(MovimentoInventarioEvent evento) {
+        if (habilitado) {
+            anexar(evento);
+        }
+    }
+
+    /**
+     * Anexa o movimento ao diário sem esperar pelo disco.
+     *
+     * @return Sequência atribuída ao registro.
+     */
+    public synchronized long anexar(MovimentoInventarioEvent evento) {
+        if (segmento == null) {
+            throw new IllegalStateException("O diário de inventário está fechado.");
+        }
+        if (posicao + RegistroInventario.TAMANHO > segmento.capacity()) {
+            rotacionar();
+        }
+        long sequencia = proximaSequencia++;
+        new RegistroInventario(sequencia, evento.instante().toEpochMilli(), evento.livroId(), evento.tipo(),
+                evento.status(), evento.variacaoDisponivel(), evento.quantidadeDisponivel(), evento.quantidadeTotal())
+                .escrever(registro, crc);
+        segmento.put(posicao, registro, 0, RegistroInventario.TAMANHO);
+        if (inicioNaoForcado < 0) {
+            inicioNaoForcado = posicao;
+        }
+        posicao += RegistroInventario.TAMANHO;
+        return sequencia;
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    // Identificador do diário; nulo se ele estiver desabilitado
+    public UUID getIdentificador() {
+        return identificador;
+    }
+
+    // Sequência do último registro anexado (zero se o diário estiver vazio)
+    public synchronized long ultimaSequencia() {
+        return proximaSequencia - 1;
+    }
+
+    /**
+     * Força para o disco todos os registros anexados até agora.
+     */
+    public void forcar() {
+        List<Trecho> trechos;
+        synchronized (this) {
+            if (inicioNaoForcado >= 0) {
+                trechosPendentes.add(new Trecho(segmento, inicioNaoForcado, posicao));
+                inicioNaoForcado = -1;
+            }
+            if (trechosPendentes.isEmpty()) {
+                return;
+            }
+            trechos = new ArrayList<>(trechosPendentes);
+            trechosPendentes.clear();
+        }
+        // O force acontece fora da trava, para não bloquear os empréstimos enquanto o disco confirma
+        for (var trecho : trechos) {
+            trecho.buffer().force(trecho.inicio(), trecho.fim() - trecho.inicio());
+        }
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        if (!habilitado || canalTrava == null) {
+            return;
+        }
+        ativo = false;
+        forcador.interrupt();
+        try {
+            forcador.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        forcar();
+        synchronized (this) {
+            segmento = null;
+        }
+        trava.release();
+        canalTrava.close();
+    }
+
+    private void executarGroupCommit() {
+        while (ativo) {
+            try {
+                Thread.sleep(intervaloForceMs);
+                forcar();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Falha ao forçar o diário de inventário para o disco", e);
+            }
+        }
+    }
+
+    // Fecha o segmento cheio (o force dele fica para o group commit) e cria o próximo
+    private void rotacionar() {
+        if (inicioNaoForcado >= 0) {
+            trechosPendentes.add(new Trecho(segmento, inicioNaoForcado, posicao));
+            inicioNaoForcado = -1;
+        }
+        try {
+            abrirSegmento(proximaSequencia);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar o segmento do diário de inventário.", e);
+        }
+    }
+
+    private void abrirSegmento(long primeiraSequencia) throws IOException {
+        var arquivo = diretorio.resolve(LeitorDiarioInventario.nomeSegmento(primeiraSequencia));
+        try (var canal = FileChannel.open(arquivo, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(1), (long) registrosPorSegmento * RegistroInventario.TAMANHO - 1);
+        }
+        mapear(arquivo);
+        posicao = 0;
+        proximaSequencia = primeiraSequencia;
+    }
+
+    // O mapeamento continua válido depois que o canal é fechado
+    private void mapear(Path arquivo) throws IOException {
+        try (var canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, canal.size());
+        }
+    }
+
+    private record Trecho(MappedByteBuffer buffer, int inicio, int fim) {
+    }
+}
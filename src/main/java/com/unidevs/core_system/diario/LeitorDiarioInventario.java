@@ -0,0 +1,134 @@
+package com.unidevs.core_system.diario;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Leitura sequencial dos segmentos do diário de inventário.
+ *
+ * Responsabilidade: percorrer os segmentos em ordem, mapeando cada arquivo somente para leitura, e entregar os
+ * registros válidos. A leitura de um segmento termina no primeiro espaço não escrito ou registro com CRC inválido.
+ * Diretórios gravados em outro formato de registro são recusados, em vez de lidos com o layout errado.
+ */
+public final class LeitorDiarioInventario {
+
+    static final String PREFIXO = "inventario-";
+    static final String SUFIXO = ".diario";
+    static final String ARQUIVO_FORMATO = "diario.formato";
+
+    private LeitorDiarioInventario() {
+    }
+
+    /**
+     * Entrega, em ordem de sequência, todos os registros válidos do diário.
+     *
+     * @param diretorio Diretório do diário.
+     * @param consumidor Recebe cada registro.
+     */
+    public static void ler(Path diretorio, Consumer<RegistroInventario> consumidor) throws IOException {
+        verificarFormato(diretorio);
+        for (var segmento : segmentos(diretorio)) {
+            lerSegmento(segmento, consumidor);
+        }
+    }
+
+    /**
+     * Entrega, em ordem de sequência, os registros válidos posteriores à sequência informada.
+     *
+     * Os segmentos que terminam antes dela não são abertos, e a leitura do primeiro segmento começa no registro
+     * seguinte à sequência.
+     *
+     * @param diretorio Diretório do diário.
+     * @param sequencia Última sequência já processada (zero para ler o diário inteiro).
+     * @param consumidor Recebe cada registro.
+     */
+    public static void lerApos(Path diretorio, long sequencia, Consumer<RegistroInventario> consumidor)
+            throws IOException {
+        verificarFormato(diretorio);
+        var segmentos = segmentos(diretorio);
+        for (int i = 0; i < segmentos.size(); i++) {
+            if (i + 1 < segmentos.size() && primeiraSequencia(segmentos.get(i + 1)) <= sequencia + 1) {
+                continue;
+            }
+            long inicio = Math.max(0, sequencia + 1 - primeiraSequencia(segmentos.get(i)));
+            lerSegmento(segmentos.get(i), inicio, consumidor);
+        }
+    }
+
+    /**
+     * Garante que os segmentos do diretório estão no formato de {@link RegistroInventario#FORMATO}.
+     *
+     * Um diretório com segmentos e sem o arquivo diario.formato é do formato 1, anterior ao arquivo.
+     *
+     * @throws IllegalStateException Se os segmentos estiverem em outro formato.
+     */
+    static void verificarFormato(Path diretorio) throws IOException {
+        var arquivo = diretorio.resolve(ARQUIVO_FORMATO);
+        int formato;
+        if (Files.exists(arquivo)) {
+            formato = Integer.parseInt(Files.readString(arquivo).trim());
+        } else {
+            formato = segmentos(diretorio).isEmpty() ? RegistroInventario.FORMATO : 1;
+        }
+        if (formato != RegistroInventario.FORMATO) {
+            throw new IllegalStateException("O diário de inventário em " + diretorio + " está no formato " + formato
+                    + ", mas esta versão lê somente o formato " + RegistroInventario.FORMATO
+                    + "; mova os segmentos antigos para outro diretório.");
+        }
+    }
+
+    // Segmentos do diretório, ordenados pela primeira sequência (presente no nome, com zeros à esquerda)
+    static List<Path> segmentos(Path diretorio) throws IOException {
+        var segmentos = new ArrayList<Path>();
+        if (!Files.isDirectory(diretorio)) {
+            return segmentos;
+        }
+        try (var arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+            arquivos.forEach(segmentos::add);
+        }
+        segmentos.sort(null);
+        return segmentos;
+    }
+
+    static String nomeSegmento(long primeiraSequencia) {
+        return PREFIXO + String.format("%020d", primeiraSequencia) + SUFIXO;
+    }
+
+    static long primeiraSequencia(Path segmento) {
+        var nome = segmento.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+
+    // Retorna a quantidade de registros válidos do segmento
+    static int lerSegmento(Path segmento, Consumer<RegistroInventario> consumidor) throws IOException {
+        return lerSegmento(segmento, 0, consumidor);
+    }
+
+    // Lê a partir do registro de índice "inicio"; retorna a quantidade de registros válidos lidos
+    private static int lerSegmento(Path segmento, long inicio, Consumer<RegistroInventario> consumidor)
+            throws IOException {
+        try (var canal = FileChannel.open(segmento, StandardOpenOption.READ)) {
+            var buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            var crc = new CRC32C();
+            int quantidade = 0;
+            for (long posicao = inicio * RegistroInventario.TAMANHO;
+                 posicao + RegistroInventario.TAMANHO <= buffer.capacity();
+                 posicao += RegistroInventario.TAMANHO) {
+                var registro = RegistroInventario.ler(buffer, (int) posicao, crc);
+                if (registro == null) {
+                    break;
+                }
+                consumidor.accept(registro);
+                quantidade++;
+            }
+            return quantidade;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.unidevs.core_system.diario;
+
+import com.unidevs.core_system.entity.TipoMovimentoInventario;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Registro de tamanho fixo do diário de inventário.
+ *
+ * Layout do formato {@value #FORMATO} (56 bytes, big-endian):
+ * 0  sequência (long, começa em 1; zero indica espaço ainda não escrito)
+ * 8  instante em milissegundos (long)
+ * 16 livroId (dois longs)
+ * 32 tipo de movimento (byte)
+ * 33 status (byte, ver {@link #codigoStatus(String)})
+ * 34 reservado (dois bytes zerados)
+ * 36 variação da quantidade disponível (int)
+ * 40 quantidade disponível (int)
+ * 44 quantidade total (int)
+ * 48 CRC32C dos 48 bytes anteriores (int)
+ * 52 reservado (quatro bytes zerados, para manter os registros alinhados em 8 bytes)
+ *
+ * O formato 1 tinha 48 bytes e guardava a variação como short, limitada à faixa do short; os diretórios nesse
+ * formato são recusados na abertura (ver {@link LeitorDiarioInventario#verificarFormato}).
+ *
+ * Parâmetros:
+ * @param sequencia Número sequencial do registro no diário.
+ * @param instanteMs Instante do movimento, em milissegundos desde a época.
+ * @param livroId Livro movimentado.
+ * @param tipo Tipo de movimento.
+ * @param status Status do livro após o movimento.
+ * @param variacaoDisponivel Variação da quantidade disponível causada pelo movimento.
+ * @param quantidadeDisponivel Quantidade disponível após o movimento.
+ * @param quantidadeTotal Quantidade total após o movimento.
+ */
+public record RegistroInventario(
+        long sequencia,
+        long instanteMs,
+        UUID livroId,
+        TipoMovimentoInventario tipo,
+        String status,
+        int variacaoDisponivel,
+        int quantidadeDisponivel,
+        int quantidadeTotal
+) {
+
+    // Versão do layout; gravada no arquivo diario.formato do diretório
+    public static final int FORMATO = 2;
+    public static final int TAMANHO = 56;
+    private static final int TAMANHO_DADOS = 48;
+    private static final String[] STATUS = {null, "Disponível", "Emprestado", "Reservado"};
+
+    // Serializa o registro no buffer informado (a partir da posição 0), incluindo o CRC
+    void escrever(ByteBuffer destino, CRC32C crc) {
+        destino.putLong(0, sequencia)
+                .putLong(8, instanteMs)
+                .putLong(16, livroId.getMostSignificantBits())
+                .putLong(24, livroId.getLeastSignificantBits())
+                .put(32, tipo.getCodigo())
+                .put(33, codigoStatus(status))
+                .putShort(34, (short) 0)
+                .putInt(36, variacaoDisponivel)
+                .putInt(40, quantidadeDisponivel)
+                .putInt(44, quantidadeTotal)
+                .putInt(52, 0);
+        crc.reset();
+        crc.update(destino.array(), destino.arrayOffset(), TAMANHO_DADOS);
+        destino.putInt(TAMANHO_DADOS, (int) crc.getValue());
+    }
+
+    /**
+     * Lê o registro na posição informada.
+     *
+     * @return O registro, ou {@code null} se a posição ainda não foi escrita ou o CRC não confere
+     *         (fim do diário ou escrita interrompida).
+     */
+    static RegistroInventario ler(ByteBuffer origem, int posicao, CRC32C crc) {
+        long sequencia = origem.getLong(posicao);
+        if (sequencia == 0) {
+            return null;
+        }
+        crc.reset();
+        crc.update(origem.slice(posicao, TAMANHO_DADOS));
+        if ((int) crc.getValue() != origem.getInt(posicao + TAMANHO_DADOS)) {
+            return null;
+        }
+        byte status = origem.get(posicao + 33);
+        return new RegistroInventario(
+                sequencia,
+                origem.getLong(posicao + 8),
+                new UUID(origem.getLong(posicao + 16), origem.getLong(posicao + 24)),
+                TipoMovimentoInventario.doCodigo(origem.get(posicao + 32)),
+                status >= 0 && status < STATUS.length ? STATUS[status] : "Desconhecido",
+                origem.getInt(posicao + 36),
+                origem.getInt(posicao + 40),
+                origem.getInt(posicao + 44));
+    }
+
+    // Os status conhecidos são gravados como código; outros valores viram 127 ("Desconhecido")
+    static byte codigoStatus(String status) {
+        if (status == null) {
+            return 0;
+        }
+        for (int i = 1; i < STATUS.length; i++) {
+            if (STATUS[i].equals(status)) {
+                return (byte) i;
+            }
+        }
+        return 127;
+    }
+}
@@ -0,0 +1,70 @@
+package com.unidevs.core_system.diario;
+
+import com.unidevs.core_system.entity.TipoMovimentoInventario;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ferramenta de linha de comando que reconstrói o estoque de cada livro a partir do diário de inventário.
+ *
+ * Uso:
+ * java -cp target/classes com.unidevs.core_system.diario.ReplayDiarioInventario [diretorio] [instante] [livroId]
+ *
+ * Processo:
+ * 1. Lê todos os segmentos em ordem de sequência;
+ * 2. Considera apenas os registros até o instante informado (ISO-8601; padrão: agora);
+ * 3. Mantém o último registro de cada livro e imprime quantidade disponível, total e status em CSV;
+ *    livros cujo último movimento é uma remoção não são listados.
+ *
+ * Parâmetros:
+ * @param diretorio Diretório do diário (padrão: diario-inventario).
+ * @param instante Instante da reconstrução.
+ * @param livroId Restringe a saída a um livro.
+ */
+public final class ReplayDiarioInventario {
+
+    private ReplayDiarioInventario() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        var diretorio = Paths.get(args.length > 0 ? args[0] : "diario-inventario");
+        var instante = args.length > 1 ? Instant.parse(args[1]) : Instant.now();
+        var livroId = args.length > 2 ? UUID.fromString(args[2]) : null;
+
+        var estoque = reconstruir(diretorio, instante, livroId);
+        System.out.println("livroId;quantidadeDisponivel;quantidadeTotal;status;ultimoMovimento;sequencia");
+        for (var registro : estoque.values()) {
+            System.out.println(registro.livroId() + ";" + registro.quantidadeDisponivel() + ";"
+                    + registro.quantidadeTotal() + ";" + registro.status() + ";" + registro.tipo() + ";"
+                    + registro.sequencia());
+        }
+    }
+
+    /**
+     * Reconstrói o último estado de cada livro até o instante informado.
+     *
+     * @return Último registro de cada livro, na ordem do primeiro movimento.
+     */
+    public static Map<UUID, RegistroInventario> reconstruir(Path diretorio, Instant instante, UUID livroId)
+            throws IOException {
+        long limite = instante.toEpochMilli();
+        var estoque = new LinkedHashMap<UUID, RegistroInventario>();
+        LeitorDiarioInventario.ler(diretorio, registro -> {
+            if (registro.instanteMs() > limite || (livroId != null && !livroId.equals(registro.livroId()))) {
+                return;
+            }
+            if (registro.tipo() == TipoMovimentoInventario.REMOCAO) {
+                estoque.remove(registro.livroId());
+            } else {
+                estoque.put(registro.livroId(), registro);
+            }
+        });
+        return estoque;
+    }
+}
@@ -0,0 +1,11 @@
+package com.unidevs.core_system.entity;
+
+/**
+ * Estado de conservação de um exemplar físico ({@link Exemplar}). Exemplares danificados não podem ser emprestados.
+ */
+public enum CondicaoExemplar {
+    NOVO,
+    BOM,
+    DESGASTADO,
+    DANIFICADO
+}
@@ -0,0 +1,68 @@
+package com.unidevs.core_system.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entidade ConsolidacaoDiario que marca até onde um diário de inventário já foi somado nos rollups.
+ *
+ * Responsabilidade: permitir que a consolidação retome do ponto certo depois de uma reinicialização ou queda, sem
+ * perder nem contar duas vezes os movimentos do diário.
+ *
+ * Processo:
+ * 1. Tabela mapeada: consolidacao_diario;
+ * 2. Uma linha por diário (cada instância escreve no seu), identificado pelo arquivo diario.id do diretório;
+ * 3. A marca avança na mesma transação que soma os movimentos nas linhas de rollup_inventario.
+ *
+ * Parâmetros:
+ * @param diarioId identificador do diário;
+ * @param ultimaSequencia sequência do último registro consolidado;
+ * @param atualizadoEm instante da última consolidação.
+ */
+@Entity
+@Table(name = "consolidacao_diario")
+public class ConsolidacaoDiario {
+
+    @Id
+    @Column(name = "diario_id")
+    private UUID diarioId;
+
+    @Column(name = "ultima_sequencia", nullable = false)
+    private long ultimaSequencia;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private Instant atualizadoEm;
+
+    public ConsolidacaoDiario() {
+    }
+
+    public ConsolidacaoDiario(UUID diarioId, long ultimaSequencia) {
+        this.diarioId = diarioId;
+        this.ultimaSequencia = ultimaSequencia;
+        this.atualizadoEm = Instant.now();
+    }
+
+    // --- GETTERS E SETTERS ---
+
+    public UUID getDiarioId() {
+        return diarioId;
+    }
+    public void setDiarioId(UUID diarioId) {
+        this.diarioId = diarioId;
+    }
+
+    public long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+    public void setUltimaSequencia(long ultimaSequencia) {
+        this.ultimaSequencia = ultimaSequencia;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+    public void setAtualizadoEm(Instant atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
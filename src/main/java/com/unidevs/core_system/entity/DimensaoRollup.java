@@ -0,0 +1,11 @@
+package com.unidevs.core_system.entity;
+
+/**
+ * Recorte de um {@link RollupInventario}. Para LIVRO, a chave é o id do livro; para GENERO, o gênero (vazio para
+ * livros sem gênero); para ACERVO, a chave é vazia e a linha soma todos os livros.
+ */
+public enum DimensaoRollup {
+    ACERVO,
+    GENERO,
+    LIVRO
+}
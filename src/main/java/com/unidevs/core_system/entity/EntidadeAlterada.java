@@ -0,0 +1,14 @@
+package com.unidevs.core_system.entity;
+
+/**
+ * Entidades cujas alterações são propagadas entre as instâncias da aplicação através do {@link RegistroAlteracao}.
+ * Para ESTOQUE_FILIAL, a chave é o id do livro cujo estoque em alguma filial (e, com ele, as quantidades do
+ * livro) foi alterado; para EXEMPLAR, o código de barras do exemplar.
+ */
+public enum EntidadeAlterada {
+    LIVRO,
+    USER,
+    FILIAL,
+    ESTOQUE_FILIAL,
+    EXEMPLAR
+}
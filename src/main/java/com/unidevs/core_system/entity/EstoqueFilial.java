@@ -0,0 +1,101 @@
+package com.unidevs.core_system.entity;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * Entidade EstoqueFilial que guarda os exemplares de um livro em uma filial.
+ *
+ * Responsabilidade: manter as quantidades de cada filial em uma linha própria, para que empréstimos em filiais
+ * diferentes bloqueiem linhas diferentes em vez de disputarem a linha do livro.
+ *
+ * Processo:
+ * 1. Tabela mapeada: estoque_filial;
+ * 2. Uma linha por par (livro, filial);
+ * 3. A quantidade disponível nunca é negativa nem maior que a total;
+ * 4. A versão cresce a cada alteração da linha e ordena, em memória, as alterações e as leituras do banco.
+ *
+ * Parâmetros:
+ * @param estoqueId identificador da linha;
+ * @param livroId livro;
+ * @param filialId filial;
+ * @param quantidadeDisponivel exemplares disponíveis na filial;
+ * @param quantidadeTotal exemplares da filial;
+ * @param versao versão da linha, incrementada a cada alteração.
+ */
+@Entity
+@Table(name = "estoque_filial",
+        uniqueConstraints = @UniqueConstraint(name = "uk_estoque_filial_livro_filial",
+                columnNames = {"livro_id", "filial_id"}))
+public class EstoqueFilial {
+
+    @Id
+    @UuidOrdenado
+    @Column(name = "estoque_id")
+    private UUID estoqueId;
+
+    @Column(name = "livro_id", nullable = false)
+    private UUID livroId;
+
+    @Column(name = "filial_id", nullable = false)
+    private UUID filialId;
+
+    @Column(name = "quantidade_disponivel", nullable = false)
+    private int quantidadeDisponivel;
+
+    @Column(name = "quantidade_total", nullable = false)
+    private int quantidadeTotal;
+
+    @Version
+    @Column(name = "versao", nullable = false)
+    private long versao;
+
+    public EstoqueFilial() {
+    }
+
+    public EstoqueFilial(UUID livroId, UUID filialId) {
+        this.livroId = livroId;
+        this.filialId = filialId;
+    }
+
+    // --- GETTERS E SETTERS ---
+
+    public UUID getEstoqueId() {
+        return estoqueId;
+    }
+    public void setEstoqueId(UUID estoqueId) {
+        this.estoqueId = estoqueId;
+    }
+
+    public UUID getLivroId() {
+        return livroId;
+    }
+    public void setLivroId(UUID livroId) {
+        this.livroId = livroId;
+    }
+
+    public UUID getFilialId() {
+        return filialId;
+    }
+    public void setFilialId(UUID filialId) {
+        this.filialId = filialId;
+    }
+
+    public int getQuantidadeDisponivel() {
+        return quantidadeDisponivel;
+    }
+    public void setQuantidadeDisponivel(int quantidadeDisponivel) {
+        this.quantidadeDisponivel = quantidadeDisponivel;
+    }
+
+    public int getQuantidadeTotal() {
+        return quantidadeTotal;
+    }
+    public void setQuantidadeTotal(int quantidadeTotal) {
+        this.quantidadeTotal = quantidadeTotal;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+}
@@ -0,0 +1,132 @@
+package com.unidevs.core_system.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entidade Exemplar que representa uma cópia física de um livro, identificada pelo código de barras da etiqueta.
+ *
+ * Responsabilidade: guardar o estado de cada cópia (conservação, localização e empréstimo atual), enquanto o
+ * {@link Livro} continua guardando as quantidades agregadas.
+ *
+ * Processo:
+ * 1. Tabela mapeada: exemplares;
+ * 2. Código de barras numérico, positivo e único;
+ * 3. Localização: filial (opcional) e prateleira;
+ * 4. Empréstimo atual: usuário e instante; ambos nulos quando o exemplar está no acervo.
+ *
+ * Parâmetros:
+ * @param exemplarId identificador do exemplar;
+ * @param livroId livro do qual o exemplar é cópia;
+ * @param codigoBarras código de barras da etiqueta;
+ * @param condicao estado de conservação;
+ * @param filialId filial onde o exemplar fica;
+ * @param prateleira prateleira ou estante;
+ * @param emprestadoPara id do usuário com o exemplar emprestado;
+ * @param emprestadoEm instante do empréstimo atual;
+ * @param creationTimestamp instante do cadastro.
+ */
+@Entity
+@Table(name = "exemplares", indexes = @Index(name = "idx_exemplares_livro_id", columnList = "livro_id"))
+public class Exemplar {
+
+    @Id
+    @UuidOrdenado
+    @Column(name = "exemplar_id")
+    private UUID exemplarId;
+
+    @Column(name = "livro_id", nullable = false)
+    private UUID livroId;
+
+    @Column(name = "codigo_barras", nullable = false, unique = true)
+    private long codigoBarras;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "condicao", nullable = false, length = 20)
+    private CondicaoExemplar condicao;
+
+    @Column(name = "filial_id")
+    private UUID filialId;
+
+    @Column(name = "prateleira", length = 50)
+    private String prateleira;
+
+    @Column(name = "emprestado_para")
+    private UUID emprestadoPara;
+
+    @Column(name = "emprestado_em")
+    private Instant emprestadoEm;
+
+    @CreationTimestamp
+    private Instant creationTimestamp;
+
+    public Exemplar() {
+    }
+
+    // --- GETTERS E SETTERS ---
+
+    public UUID getExemplarId() {
+        return exemplarId;
+    }
+    public void setExemplarId(UUID exemplarId) {
+        this.exemplarId = exemplarId;
+    }
+
+    public UUID getLivroId() {
+        return livroId;
+    }
+    public void setLivroId(UUID livroId) {
+        this.livroId = livroId;
+    }
+
+    public long getCodigoBarras() {
+        return codigoBarras;
+    }
+    public void setCodigoBarras(long codigoBarras) {
+        this.codigoBarras = codigoBarras;
+    }
+
+    public CondicaoExemplar getCondicao() {
+        return condicao;
+    }
+    public void setCondicao(CondicaoExemplar condicao) {
+        this.condicao = condicao;
+    }
+
+    public UUID getFilialId() {
+        return filialId;
+    }
+    public void setFilialId(UUID filialId) {
+        this.filialId = filialId;
+    }
+
+    public String getPrateleira() {
+        return prateleira;
+    }
+    public void setPrateleira(String prateleira) {
+        this.prateleira = prateleira;
+    }
+
+    public UUID getEmprestadoPara() {
+        return emprestadoPara;
+    }
+    public void setEmprestadoPara(UUID emprestadoPara) {
+        this.emprestadoPara = emprestadoPara;
+    }
+
+    public Instant getEmprestadoEm() {
+        return emprestadoEm;
+    }
+    public void setEmprestadoEm(Instant emprestadoEm) {
+        this.emprestadoEm = emprestadoEm;
+    }
+
+    public Instant getCreationTimestamp() {
+        return creationTimestamp;
+    }
+    public void setCreationTimestamp(Instant creationTimestamp) {
+        this.creationTimestamp = creationTimestamp;
+    }
+}
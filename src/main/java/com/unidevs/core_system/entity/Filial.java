@@ -0,0 +1,79 @@
+package com.unidevs.core_system.entity;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * Entidade Filial que representa uma unidade da biblioteca.
+ *
+ * Responsabilidade: identificar as unidades que mantêm estoque próprio de exemplares ({@link EstoqueFilial}) e
+ * guardar sua localização, usada para indicar a filial mais próxima com o livro disponível.
+ *
+ * Processo:
+ * 1. Tabela mapeada: filiais;
+ * 2. Identificador único global (UUID) gerado automaticamente;
+ * 3. Nome único; latitude e longitude em graus decimais (opcionais).
+ *
+ * Parâmetros:
+ * @param filialId identificador da filial;
+ * @param nome nome da filial;
+ * @param latitude latitude em graus;
+ * @param longitude longitude em graus.
+ */
+@Entity
+@Table(name = "filiais")
+public class Filial {
+
+    @Id
+    @UuidOrdenado
+    @Column(name = "filial_id")
+    private UUID filialId;
+
+    @Column(name = "nome", nullable = false, unique = true, length = 100)
+    private String nome;
+
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
+    public Filial() {
+    }
+
+    public Filial(String nome, Double latitude, Double longitude) {
+        this.nome = nome;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    // --- GETTERS E SETTERS ---
+
+    public UUID getFilialId() {
+        return filialId;
+    }
+    public void setFilialId(UUID filialId) {
+        this.filialId = filialId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+}
@@ -0,0 +1,72 @@
+package com.unidevs.core_system.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de identificadores UUIDv7 (RFC 9562) para as chaves primárias das entidades.
+ *
+ * Responsabilidade: gerar UUIDs cuja ordem binária acompanha o instante de criação, para que as inserções ocupem o
+ * fim do índice clusterizado, mantendo a unicidade entre instâncias sem coordenação.
+ *
+ * Layout (128 bits, na ordem gravada no BINARY(16)):
+ * 1. 48 bits: milissegundos desde a época Unix;
+ * 2. 4 bits: versão (7);
+ * 3. 12 bits: contador dentro do mesmo milissegundo, iniciado em um valor aleatório (ids de uma mesma instância
+ *    são estritamente crescentes; se o contador estoura, o instante avança um milissegundo);
+ * 4. 2 bits: variante (10);
+ * 5. 62 bits: aleatórios (SecureRandom), para não tornar os ids previsíveis nas URLs.
+ *
+ * Usado via {@link UuidOrdenado} ou diretamente por {@link #gerar()}.
+ */
+public class GeradorUuidOrdenado implements BeforeExecutionGenerator {
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    // Instante (ms) e contador do último id: (milissegundos << 12) | contador
+    private static final AtomicLong ULTIMO = new AtomicLong();
+
+    // Gera um novo UUIDv7
+    public static UUID gerar() {
+        long agora = System.currentTimeMillis();
+        long anterior;
+        long proximo;
+        do {
+            anterior = ULTIMO.get();
+            long inicio = agora << 12;
+            // Novo milissegundo: contador aleatório na metade inferior, deixando folga para incrementos
+            proximo = inicio > anterior ? inicio | ALEATORIO.nextInt(1 << 11) : anterior + 1;
+        } while (!ULTIMO.compareAndSet(anterior, proximo));
+
+        long maisSignificativos = ((proximo >>> 12) << 16) | 0x7000L | (proximo & 0xFFFL);
+        long menosSignificativos = (ALEATORIO.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(maisSignificativos, menosSignificativos);
+    }
+
+    // Instante de criação gravado em um UUIDv7
+    public static Instant instante(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("O UUID não é da versão 7: " + uuid);
+        }
+        return Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return gerar();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,9 @@
+package com.unidevs.core_system.entity;
+
+/**
+ * Tamanho dos baldes de tempo do {@link RollupInventario}. Os dias começam à meia-noite no fuso dos relatórios.
+ */
+public enum GranularidadeRollup {
+    HORA,
+    DIA
+}
@@ -1,5 +1,6 @@
 package com.unidevs.core_system.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -21,24 +22,25 @@ import java.util.UUID;
  * Parâmetros:
  * @param quantidadeTotal quantidade total;
  * @param updateTimestamp instante da última atualização;
- * @param livroId UUID a ser definido;
+ * @param livroId UUIDv7 gerado na inserção (ordenado pelo instante de criação);
  * @param titulo título;
  * @param autor nome do autor;
  * @param genero gênero;
  * @param creationTimestamp instante de criação;
  * @param anoPublicacao ano de publicação;
  * @param quantidadeDisponivel quantidade disponível;
- * @param isbn ISBN;
+ * @param isbn ISBN-13 canônico (13 dígitos, sem hífens);
+ * @param isbnNumerico mesmo ISBN-13 como número, chave compacta e indexada das buscas por ISBN;
  * @param caminhoImagemCapa nome do novo arquivo de imagem;
  * @param tags string de tags;
  * @param status status.
  */
 @Entity
-@Table(name = "Livros")
+@Table(name = "Livros", indexes = @Index(name = "idx_livros_caminho_imagem_capa", columnList = "caminho_imagem_capa"))
 public class Livro {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidOrdenado
     private UUID livroId;
 
     @Column(name = "titulo", nullable = false)
@@ -62,6 +64,10 @@ public class Livro {
     @Column(name = "isbn", unique = true)
     private String isbn;
 
+    @JsonIgnore
+    @Column(name = "isbn_numerico", unique = true)
+    private Long isbnNumerico;
+
     @Column(name = "caminho_imagem_capa")
     private String caminhoImagemCapa;
 
@@ -138,6 +144,14 @@ public class Livro {
         this.isbn = isbn;
     }
 
+    public Long getIsbnNumerico() {
+        return isbnNumerico;
+    }
+
+    public void setIsbnNumerico(Long isbnNumerico) {
+        this.isbnNumerico = isbnNumerico;
+    }
+
     public String getCaminhoImagemCapa() {
         return caminhoImagemCapa;
     }
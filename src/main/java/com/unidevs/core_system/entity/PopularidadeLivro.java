@@ -0,0 +1,89 @@
+package com.unidevs.core_system.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Entidade PopularidadeLivro que guarda o último checkpoint da popularidade de um livro.
+ *
+ * Responsabilidade: persistir as pontuações mantidas em memória pelo PopularidadeService, para que o ranking de
+ * livros mais emprestados sobreviva a reinicializações.
+ *
+ * Processo:
+ * 1. Tabela mapeada: popularidade_livro;
+ * 2. As pontuações da semana e do mês decaem exponencialmente e valem para o instante "atualizadoEm";
+ * 3. O total de empréstimos não decai.
+ *
+ * Parâmetros:
+ * @param livroId identificador do livro;
+ * @param pontuacaoSemana pontuação com decaimento semanal;
+ * @param pontuacaoMes pontuação com decaimento mensal;
+ * @param totalEmprestimos quantidade total de empréstimos;
+ * @param atualizadoEm instante ao qual as pontuações se referem.
+ */
+@Entity
+@Table(name = "popularidade_livro")
+public class PopularidadeLivro {
+
+    @Id
+    @Column(name = "livro_id")
+    private UUID livroId;
+
+    @Column(name = "pontuacao_semana", nullable = false)
+    private double pontuacaoSemana;
+
+    @Column(name = "pontuacao_mes", nullable = false)
+    private double pontuacaoMes;
+
+    @Column(name = "total_emprestimos", nullable = false)
+    private long totalEmprestimos;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private Instant atualizadoEm;
+
+    public PopularidadeLivro() {
+    }
+
+    public PopularidadeLivro(UUID livroId, Instant atualizadoEm) {
+        this.livroId = livroId;
+        this.atualizadoEm = atualizadoEm;
+    }
+
+    // --- GETTERS E SETTERS ---
+
+    public UUID getLivroId() {
+        return livroId;
+    }
+    public void setLivroId(UUID livroId) {
+        this.livroId = livroId;
+    }
+
+    public double getPontuacaoSemana() {
+        return pontuacaoSemana;
+    }
+    public void setPontuacaoSemana(double pontuacaoSemana) {
+        this.pontuacaoSemana = pontuacaoSemana;
+    }
+
+    public double getPontuacaoMes() {
+        return pontuacaoMes;
+    }
+    public void setPontuacaoMes(double pontuacaoMes) {
+        this.pontuacaoMes = pontuacaoMes;
+    }
+
+    public long getTotalEmprestimos() {
+        return totalEmprestimos;
+    }
+    public void setTotalEmprestimos(long totalEmprestimos) {
+        this.totalEmprestimos = totalEmprestimos;
+    }
+
+    public Instant getAtualizadoEm() {
+        return atualizadoEm;
+    }
+    public void setAtualizadoEm(Instant atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+}
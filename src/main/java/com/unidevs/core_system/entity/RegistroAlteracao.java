@@ -0,0 +1,104 @@
+package com.unidevs.core_system.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Entidade RegistroAlteracao que representa uma linha do log de alterações compartilhado entre as instâncias.
+ *
+ * Responsabilidade: registrar, na mesma transação da escrita, cada criação, atualização ou remoção de livros e
+ * usuários, permitindo que as demais instâncias invalidem seus caches locais lendo o log de forma incremental.
+ *
+ * Processo:
+ * 1. Tabela mapeada: registro_alteracao;
+ * 2. Identificador numérico monotônico (auto incremento), usado como cursor pelas instâncias;
+ * 3. Origem da alteração, para que a própria instância ignore seus registros ao ler o log.
+ *
+ * Parâmetros:
+ * @param id identificador monotônico;
+ * @param entidade entidade alterada;
+ * @param chave identificador da entidade alterada;
+ * @param operacao tipo de alteração;
+ * @param origem identificador da instância que realizou a alteração;
+ * @param instante instante da alteração.
+ */
+@Entity
+@Table(name = "registro_alteracao", indexes = @Index(name = "idx_registro_alteracao_instante", columnList = "instante"))
+public class RegistroAlteracao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entidade", nullable = false, length = 20)
+    private EntidadeAlterada entidade;
+
+    @Column(name = "chave", nullable = false, length = 36)
+    private String chave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operacao", nullable = false, length = 20)
+    private TipoAlteracao operacao;
+
+    @Column(name = "origem", nullable = false, length = 36)
+    private String origem;
+
+    @Column(name = "instante", nullable = false)
+    private Instant instante;
+
+    public RegistroAlteracao() {
+    }
+
+    public RegistroAlteracao(EntidadeAlterada entidade, String chave, TipoAlteracao operacao, String origem) {
+        this.entidade = entidade;
+        this.chave = chave;
+        this.operacao = operacao;
+        this.origem = origem;
+        this.instante = Instant.now();
+    }
+
+    // --- GETTERS E SETTERS ---
+
+    public Long getId() {
+        return id;
+    }
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public EntidadeAlterada getEntidade() {
+        return entidade;
+    }
+    public void setEntidade(EntidadeAlterada entidade) {
+        this.entidade = entidade;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public TipoAlteracao getOperacao() {
+        return operacao;
+    }
+    public void setOperacao(TipoAlteracao operacao) {
+        this.operacao = operacao;
+    }
+
+    public String getOrigem() {
+        return origem;
+    }
+    public void setOrigem(String origem) {
+        this.origem = origem;
+    }
+
+    public Instant getInstante() {
+        return instante;
+    }
+    public void setInstante(Instant instante) {
+        this.instante = instante;
+    }
+}
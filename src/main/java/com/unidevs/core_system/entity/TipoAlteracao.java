@@ -0,0 +1,10 @@
+package com.unidevs.core_system.entity;
+
+/**
+ * Tipos de alteração registrados no {@link RegistroAlteracao}.
+ */
+public enum TipoAlteracao {
+    CRIACAO,
+    ATUALIZACAO,
+    REMOCAO
+}
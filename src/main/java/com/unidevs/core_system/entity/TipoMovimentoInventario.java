@@ -0,0 +1,33 @@
+package com.unidevs.core_system.entity;
+
+/**
+ * Tipos de movimentação do estoque de um livro, registrados no diário de inventário.
+ *
+ * O código numérico é o valor gravado em disco e não deve mudar.
+ */
+public enum TipoMovimentoInventario {
+    CADASTRO(1),
+    AJUSTE(2),
+    EMPRESTIMO(3),
+    DEVOLUCAO(4),
+    REMOCAO(5);
+
+    private final byte codigo;
+
+    TipoMovimentoInventario(int codigo) {
+        this.codigo = (byte) codigo;
+    }
+
+    public byte getCodigo() {
+        return codigo;
+    }
+
+    public static TipoMovimentoInventario doCodigo(byte codigo) {
+        for (var tipo : values()) {
+            if (tipo.codigo == codigo) {
+                return tipo;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de movimento desconhecido: " + codigo);
+    }
+}
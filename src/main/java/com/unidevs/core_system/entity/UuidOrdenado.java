@@ -0,0 +1,21 @@
+package com.unidevs.core_system.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca a chave primária UUID gerada por {@link GeradorUuidOrdenado} (UUIDv7, ordenado pelo instante de criação).
+ *
+ * Substitui {@code @GeneratedValue(strategy = GenerationType.UUID)}: com UUIDs aleatórios cada inserção cai em um
+ * ponto aleatório do índice clusterizado do InnoDB (divisão de páginas e troca constante do buffer pool); com chaves
+ * crescentes as inserções vão para o fim do índice. No MySQL a coluna é BINARY(16).
+ */
+@IdGeneratorType(GeradorUuidOrdenado.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidOrdenado {
+}
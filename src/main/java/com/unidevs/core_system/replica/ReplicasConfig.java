@@ -0,0 +1,74 @@
+package com.unidevs.core_system.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Configuração das réplicas de leitura, ativa quando "app.replicas.urls" lista ao menos uma réplica.
+ *
+ * Substitui o DataSource criado pelo Spring Boot por um {@link LazyConnectionDataSourceProxy} sobre o primário
+ * ("spring.datasource.*"): a conexão real só é obtida no primeiro comando, quando já se sabe se a transação é somente
+ * leitura. Transações somente leitura ({@code @Transactional(readOnly = true)}, incluindo as leituras dos
+ * repositórios) de requisições liberadas pelo {@link com.unidevs.core_system.web.RoteamentoLeituraFilter} usam as
+ * réplicas ({@link ReplicasLeitura}); escritas, leituras fora de transação e tarefas em segundo plano usam o primário.
+ *
+ * Parâmetros:
+ * @param app.replicas.urls URLs JDBC das réplicas, separadas por vírgula;
+ * @param app.replicas.usuario Usuário das réplicas (padrão: o do primário);
+ * @param app.replicas.senha Senha das réplicas (padrão: a do primário);
+ * @param app.replicas.tempo-conexao-ms Espera máxima por uma conexão da réplica antes de tentar outra.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.replicas.urls:}'.isBlank()")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimario(DataSourceProperties propriedades) {
+        return propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicasLeitura replicasLeitura(@Qualifier("dataSourcePrimario") DataSource primario,
+                                           DataSourceProperties propriedades,
+                                           @Value("${app.replicas.urls}") List<String> urls,
+                                           @Value("${app.replicas.usuario:}") String usuario,
+                                           @Value("${app.replicas.senha:}") String senha,
+                                           @Value("${app.replicas.tempo-conexao-ms:1000}") long tempoConexaoMs) {
+        var replicas = new LinkedHashMap<String, DataSource>();
+        for (var url : urls) {
+            var replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(propriedades.determineDriverClassName());
+            replica.setUsername(usuario.isBlank() ? propriedades.determineUsername() : usuario);
+            replica.setPassword(usuario.isBlank() ? propriedades.determinePassword() : senha);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(tempoConexaoMs);
+            // Uma réplica fora do ar na inicialização não impede a aplicação de subir
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicasLeitura(primario, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("dataSourcePrimario") DataSource primario, ReplicasLeitura replicas) {
+        var roteador = new LazyConnectionDataSourceProxy(primario);
+        roteador.setReadOnlyDataSource(replicas);
+        return roteador;
+    }
+}
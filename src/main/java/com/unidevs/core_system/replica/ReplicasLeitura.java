@@ -0,0 +1,120 @@
+package com.unidevs.core_system.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource das leituras somente leitura: distribui as conexões entre as réplicas e recorre ao primário.
+ *
+ * Responsabilidade: é o "readOnlyDataSource" do {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * montado em {@link ReplicasConfig}; só recebe pedidos de conexão de transações somente leitura.
+ *
+ * Processo:
+ * 1. Se a thread não liberou as réplicas ({@link RoteamentoLeitura}), entrega uma conexão do primário;
+ * 2. Caso contrário, escolhe a próxima réplica saudável em rodízio (round-robin);
+ * 3. Se a conexão falhar, marca a réplica como indisponível e tenta a próxima; sem réplicas disponíveis, usa o
+ *    primário;
+ * 4. Uma verificação periódica ({@link #verificar()}) testa cada réplica e devolve ao rodízio as que voltaram.
+ */
+public class ReplicasLeitura extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasLeitura.class);
+
+    private final DataSource primario;
+    private final List<Replica> replicas;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    /**
+     * @param primario DataSource do banco primário, usado quando nenhuma réplica está disponível;
+     * @param replicas DataSources das réplicas, por nome (usado nos logs).
+     */
+    public ReplicasLeitura(DataSource primario, Map<String, DataSource> replicas) {
+        this.primario = primario;
+        this.replicas = replicas.entrySet().stream()
+                .map(replica -> new Replica(replica.getKey(), replica.getValue()))
+                .toList();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (RoteamentoLeitura.replicaPermitida()) {
+            int inicio = proxima.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                var replica = replicas.get(Math.floorMod(inicio + i, replicas.size()));
+                if (!replica.saudavel) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    replica.marcar(false, e);
+                }
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("As réplicas usam as credenciais configuradas.");
+    }
+
+    // Testa cada réplica e atualiza a disponibilidade
+    @Scheduled(fixedDelayString = "${app.replicas.intervalo-verificacao-ms:5000}")
+    public void verificar() {
+        for (var replica : replicas) {
+            try (var conexao = replica.dataSource.getConnection()) {
+                replica.marcar(conexao.isValid(1), null);
+            } catch (SQLException e) {
+                replica.marcar(false, e);
+            }
+        }
+    }
+
+    // Quantidade de réplicas no rodízio
+    public int disponiveis() {
+        return (int) replicas.stream().filter(replica -> replica.saudavel).count();
+    }
+
+    // Fecha os pools das réplicas no encerramento do contexto
+    public void close() throws Exception {
+        for (var replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        final String nome;
+        final DataSource dataSource;
+        volatile boolean saudavel = true;
+
+        Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+
+        void marcar(boolean disponivel, SQLException erro) {
+            if (saudavel == disponivel) {
+                return;
+            }
+            saudavel = disponivel;
+            if (disponivel) {
+                log.info("Réplica {} de volta ao rodízio de leituras", nome);
+            } else {
+                log.warn("Réplica {} fora do rodízio de leituras: {}", nome,
+                        erro != null ? erro.getMessage() : "conexão inválida");
+            }
+        }
+    }
+}
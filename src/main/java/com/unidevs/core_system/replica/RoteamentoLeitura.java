@@ -0,0 +1,49 @@
+package com.unidevs.core_system.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Indica, por thread, se as transações somente leitura podem ser atendidas por uma réplica.
+ *
+ * Por padrão as leituras vão ao primário: jobs em segundo plano e listeners reconstroem índices em memória que
+ * combinam uma leitura completa com os eventos de alteração, e uma réplica atrasada faria o índice perder
+ * alterações já aplicadas. O {@link com.unidevs.core_system.web.RoteamentoLeituraFilter} libera as réplicas apenas
+ * nas requisições de consulta de clientes que não escreveram há pouco.
+ */
+public final class RoteamentoLeitura {
+
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    private RoteamentoLeitura() {
+    }
+
+    public static boolean replicaPermitida() {
+        return Boolean.TRUE.equals(REPLICA.get());
+    }
+
+    // Libera as réplicas para as leituras da thread; devolve o estado anterior, para restaurar(...)
+    public static boolean permitirReplica() {
+        boolean anterior = replicaPermitida();
+        REPLICA.set(Boolean.TRUE);
+        return anterior;
+    }
+
+    public static void restaurar(boolean anterior) {
+        if (anterior) {
+            REPLICA.set(Boolean.TRUE);
+        } else {
+            REPLICA.remove();
+        }
+    }
+
+    // Executa a tarefa com as leituras no primário (ex: ler logo após escrever), restaurando o estado ao final
+    public static <T> T noPrimario(Supplier<T> tarefa) {
+        boolean anterior = replicaPermitida();
+        REPLICA.remove();
+        try {
+            return tarefa.get();
+        } finally {
+            restaurar(anterior);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.entity.ConsolidacaoDiario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositório das marcas de consolidação dos diários de inventário ({@link ConsolidacaoDiario}).
+ *
+ * Parâmetros:
+ * @param diarioId Diário cuja marca será avançada; a linha fica bloqueada até o fim da transação, junto com as
+ *                 linhas de rollup que a consolidação soma.
+ */
+@Repository
+public interface ConsolidacaoDiarioRepository extends JpaRepository<ConsolidacaoDiario, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from ConsolidacaoDiario c where c.diarioId = :diarioId")
+    Optional<ConsolidacaoDiario> findParaAtualizacao(UUID diarioId);
+}
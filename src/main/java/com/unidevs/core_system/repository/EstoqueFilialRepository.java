@@ -0,0 +1,34 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.entity.EstoqueFilial;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositório do estoque de cada livro por filial ({@link EstoqueFilial}).
+ *
+ * Parâmetros:
+ * @param livroId Livro consultado; em findParaAtualizacao, a linha (livro, filial) fica bloqueada
+ *                (SELECT ... FOR UPDATE) até o fim da transação.
+ * @param filialId Filial consultada.
+ */
+@Repository
+public interface EstoqueFilialRepository extends JpaRepository<EstoqueFilial, UUID> {
+
+    List<EstoqueFilial> findByLivroId(UUID livroId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from EstoqueFilial e where e.livroId = :livroId and e.filialId = :filialId")
+    Optional<EstoqueFilial> findParaAtualizacao(UUID livroId, UUID filialId);
+
+    @Modifying
+    @Query("delete from EstoqueFilial e where e.livroId = :livroId")
+    int deleteByLivroId(UUID livroId);
+}
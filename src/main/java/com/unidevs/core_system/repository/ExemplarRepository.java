@@ -0,0 +1,49 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.entity.Exemplar;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositório dos exemplares físicos dos livros ({@link Exemplar}).
+ *
+ * Parâmetros:
+ * @param exemplarId Exemplar a ser bloqueado para atualização (SELECT ... FOR UPDATE).
+ * @param codigoBarras Código de barras da etiqueta.
+ * @param livroId Livro cujos exemplares serão contados ou listados.
+ * @param filialId Filial dos exemplares contados.
+ */
+@Repository
+public interface ExemplarRepository extends JpaRepository<Exemplar, UUID> {
+
+    /**
+     * Par (código de barras, exemplar) usado para montar o índice em memória sem carregar as entidades.
+     */
+    interface CodigoExemplar {
+        long getCodigoBarras();
+        UUID getExemplarId();
+    }
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Exemplar e where e.exemplarId = :exemplarId")
+    Optional<Exemplar> findByIdParaAtualizacao(UUID exemplarId);
+
+    Optional<Exemplar> findByCodigoBarras(long codigoBarras);
+
+    long countByLivroId(UUID livroId);
+
+    long countByLivroIdAndFilialId(UUID livroId, UUID filialId);
+
+    long countByLivroIdAndFilialIdIsNull(UUID livroId);
+
+    List<Exemplar> findByLivroId(UUID livroId);
+
+    @Query("select e.codigoBarras as codigoBarras, e.exemplarId as exemplarId from Exemplar e")
+    List<CodigoExemplar> findCodigos();
+}
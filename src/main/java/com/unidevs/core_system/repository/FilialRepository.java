@@ -0,0 +1,21 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.entity.Filial;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositório das filiais da biblioteca ({@link Filial}).
+ *
+ * Parâmetros:
+ * @param nome Nome a conferir, sem distinção de maiúsculas/minúsculas.
+ */
+@Repository
+public interface FilialRepository extends JpaRepository<Filial, UUID> {
+
+    boolean existsByNomeIgnoreCase(String nome);
+
+    Optional<Filial> findByNomeIgnoreCase(String nome);
+}
@@ -0,0 +1,29 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.controller.dto.LivroProjecao;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Fragmento do {@link LivroRepository} com consultas de projeção restritas às colunas solicitadas.
+ *
+ * Responsabilidade: atender o parâmetro "fields" dos endpoints de livro selecionando somente as colunas pedidas,
+ * sem carregar entidades no contexto de persistência.
+ *
+ * Parâmetros:
+ * @param campos Nomes dos atributos de {@link com.unidevs.core_system.entity.Livro} a selecionar.
+ * @param livroId Identificador do livro.
+ * @param termo Parte do título, autor, gênero ou tags.
+ * @param tag Tag a ser pesquisada.
+ */
+public interface LivroProjecaoRepository {
+
+    Optional<LivroProjecao> findCamposById(UUID livroId, List<String> campos);
+
+    List<LivroProjecao> findCampos(List<String> campos);
+
+    List<LivroProjecao> findCamposByTermo(String termo, List<String> campos);
+
+    List<LivroProjecao> findCamposByTag(String tag, List<String> campos);
+}
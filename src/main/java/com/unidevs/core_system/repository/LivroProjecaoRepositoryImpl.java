@@ -0,0 +1,88 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.controller.dto.LivroProjecao;
+import com.unidevs.core_system.entity.Livro;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Implementação das consultas de projeção de {@link LivroProjecaoRepository} com Criteria API e tuplas.
+ */
+class LivroProjecaoRepositoryImpl implements LivroProjecaoRepository {
+
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<LivroProjecao> findCamposById(UUID livroId, List<String> campos) {
+        return consultar(campos, (cb, root) -> cb.equal(root.get("livroId"), livroId)).stream().findFirst();
+    }
+
+    @Override
+    public List<LivroProjecao> findCampos(List<String> campos) {
+        return consultar(campos, null);
+    }
+
+    @Override
+    public List<LivroProjecao> findCamposByTermo(String termo, List<String> campos) {
+        return consultar(campos, (cb, root) -> {
+            var padrao = padraoContem(termo);
+            return cb.or(
+                    cb.like(cb.lower(root.get("titulo")), padrao, ESCAPE),
+                    cb.like(cb.lower(root.get("autor")), padrao, ESCAPE),
+                    cb.like(cb.lower(root.get("genero")), padrao, ESCAPE),
+                    cb.like(cb.lower(root.get("tags")), padrao, ESCAPE));
+        });
+    }
+
+    @Override
+    public List<LivroProjecao> findCamposByTag(String tag, List<String> campos) {
+        return consultar(campos, (cb, root) -> cb.like(cb.lower(root.get("tags")), padraoContem(tag), ESCAPE));
+    }
+
+    // Padrão "contém", sem distinção de maiúsculas, com os curingas do termo escapados
+    private static String padraoContem(String termo) {
+        var escapado = termo.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escapado + "%";
+    }
+
+    // Seleciona apenas as colunas pedidas e converte cada tupla em uma projeção que compartilha os nomes dos campos
+    private List<LivroProjecao> consultar(List<String> campos,
+                                          BiFunction<CriteriaBuilder, Root<Livro>, Predicate> filtro) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createTupleQuery();
+        var root = query.from(Livro.class);
+
+        List<Selection<?>> selecoes = new ArrayList<>(campos.size());
+        for (var campo : campos) {
+            selecoes.add(root.get(campo));
+        }
+        query.multiselect(selecoes);
+        if (filtro != null) {
+            query.where(filtro.apply(cb, root));
+        }
+
+        var nomes = campos.toArray(new String[0]);
+        List<Tuple> tuplas = entityManager.createQuery(query).getResultList();
+        List<LivroProjecao> resultado = new ArrayList<>(tuplas.size());
+        for (var tupla : tuplas) {
+            resultado.add(new LivroProjecao(nomes, tupla.toArray()));
+        }
+        return resultado;
+    }
+}
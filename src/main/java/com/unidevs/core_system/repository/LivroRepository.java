@@ -1,9 +1,14 @@
 package com.unidevs.core_system.repository;
 
 import com.unidevs.core_system.entity.Livro;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -11,6 +16,7 @@ import java.util.UUID;
  *
  * Responsabilidade: interface que fornece automaticamente métodos CRUD e consultas personalizadas para a
  * manipulação de dados no banco de dados relacional. Atuando como a camada de acesso a dados
+ * As consultas de projeção por campos ficam no fragmento {@link LivroProjecaoRepository}.
  *
  * Parâmetros:
  * @param titulo Parte do título a ser pesquisada.
@@ -18,12 +24,62 @@ import java.util.UUID;
  * @param genero Parte do gênero literário.
  * @param tags Palavra-chave contida no campo de tags.
  * @param tag Tag a ser pesquisada.
+ * @param livroId Livro a ser bloqueado para atualização (SELECT ... FOR UPDATE).
+ * @param filialId Filial cuja linha de estoque o livro ainda não tem (migração para a filial padrão).
+ * @param nomes Nomes de arquivos de capa a conferir; retorna apenas os que algum livro referencia.
+ * @param isbn ISBN como gravado na coluna "isbn".
+ * @param isbnNumerico ISBN-13 numérico (ver {@link com.unidevs.core_system.service.Isbn}).
+ * @param isbns ISBNs-13 numéricos a conferir; retorna apenas os já cadastrados.
  */
 @Repository
-public interface LivroRepository extends JpaRepository<Livro, UUID> {
+public interface LivroRepository extends JpaRepository<Livro, UUID>, LivroProjecaoRepository {
     List<Livro> findByTituloContainingIgnoreCaseOrAutorContainingIgnoreCaseOrGeneroContainingIgnoreCaseOrTagsContainingIgnoreCase(
             String titulo, String autor, String genero, String tags
     );
     List<Livro> findByTagsContainingIgnoreCase(String tag);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Livro l where l.livroId = :livroId")
+    Optional<Livro> findByIdParaAtualizacao(UUID livroId);
+
+    @Query("select l from Livro l where not exists "
+            + "(select 1 from EstoqueFilial e where e.livroId = l.livroId and e.filialId = :filialId)")
+    List<Livro> findSemEstoqueNaFilial(UUID filialId);
+
+    @Query("select l.caminhoImagemCapa from Livro l where l.caminhoImagemCapa in :nomes")
+    List<String> findCaminhosImagemCapaReferenciados(Collection<String> nomes);
+
+    /**
+     * Par (ISBN-13 numérico, livro) usado pelo índice de ISBN em memória e pela detecção de duplicados.
+     */
+    interface IsbnLivro {
+        long getIsbnNumerico();
+        UUID getLivroId();
+    }
+
+    Optional<Livro> findByIsbnNumerico(long isbnNumerico);
+
+    Optional<Livro> findByIsbn(String isbn);
+
+    @Query("select l.isbnNumerico as isbnNumerico, l.livroId as livroId from Livro l where l.isbnNumerico is not null")
+    List<IsbnLivro> findIsbns();
+
+    @Query("select l.isbnNumerico as isbnNumerico, l.livroId as livroId from Livro l where l.isbnNumerico in :isbns")
+    List<IsbnLivro> findIsbnsIn(Collection<Long> isbns);
+
+    List<Livro> findByIsbnIsNotNullAndIsbnNumericoIsNull();
+
+    /**
+     * Estoque somado dos livros de um gênero, usado nos rollups de inventário.
+     */
+    interface EstoqueGenero {
+        String getGenero();
+        long getQuantidadeDisponivel();
+        long getQuantidadeTotal();
+    }
+
+    @Query("select l.genero as genero, coalesce(sum(l.quantidadeDisponivel), 0) as quantidadeDisponivel, "
+            + "coalesce(sum(l.quantidadeTotal), 0) as quantidadeTotal from Livro l group by l.genero")
+    List<EstoqueGenero> somarEstoquePorGenero();
+
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.entity.PopularidadeLivro;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositório dos checkpoints de popularidade dos livros ({@link PopularidadeLivro}).
+ *
+ * Parâmetros:
+ * @param livroIds Livros cujos checkpoints serão mesclados; as linhas ficam bloqueadas até o fim da transação,
+ *                 para que instâncias diferentes não sobrescrevam os empréstimos umas das outras.
+ */
+@Repository
+public interface PopularidadeLivroRepository extends JpaRepository<PopularidadeLivro, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PopularidadeLivro p where p.livroId in :livroIds")
+    List<PopularidadeLivro> findAllParaAtualizacao(Collection<UUID> livroIds);
+}
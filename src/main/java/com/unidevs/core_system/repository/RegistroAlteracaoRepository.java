@@ -0,0 +1,35 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.entity.RegistroAlteracao;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório do log de alterações compartilhado entre as instâncias ({@link RegistroAlteracao}).
+ *
+ * Parâmetros:
+ * @param id Cursor a partir do qual os registros são lidos (exclusivo).
+ * @param limit Quantidade máxima de registros por leitura.
+ * @param ids Identificadores de lacunas ainda não observadas.
+ * @param instante Limite de retenção do log.
+ */
+@Repository
+public interface RegistroAlteracaoRepository extends JpaRepository<RegistroAlteracao, Long> {
+
+    List<RegistroAlteracao> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<RegistroAlteracao> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Query("select coalesce(max(r.id), 0) from RegistroAlteracao r")
+    Long findUltimoId();
+
+    @Modifying
+    @Query("delete from RegistroAlteracao r where r.instante < :instante")
+    int deleteByInstanteBefore(Instant instante);
+}
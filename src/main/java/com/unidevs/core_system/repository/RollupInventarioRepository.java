@@ -0,0 +1,48 @@
+package com.unidevs.core_system.repository;
+
+import com.unidevs.core_system.entity.DimensaoRollup;
+import com.unidevs.core_system.entity.GranularidadeRollup;
+import com.unidevs.core_system.entity.RollupInventario;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositório dos rollups de inventário ({@link RollupInventario}).
+ *
+ * Todas as consultas percorrem o índice da restrição única (granularidade, dimensão, chave, início) e leem apenas
+ * as linhas dos baldes pedidos.
+ *
+ * Parâmetros:
+ * @param granularidade Hora ou dia.
+ * @param dimensao Acervo, gênero ou livro.
+ * @param chave Gênero ou id do livro (vazia para o acervo).
+ * @param chaves Chaves dos baldes a mesclar; as linhas ficam bloqueadas até o fim da transação, para que
+ *               instâncias diferentes não sobrescrevam os contadores umas das outras.
+ * @param inicio Início do balde.
+ * @param de Início do primeiro balde da série (inclusivo).
+ * @param ate Fim da série (exclusivo).
+ */
+@Repository
+public interface RollupInventarioRepository extends JpaRepository<RollupInventario, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from RollupInventario r where r.granularidade = :granularidade and r.dimensao = :dimensao "
+            + "and r.inicio = :inicio and r.chave in :chaves")
+    List<RollupInventario> findAllParaAtualizacao(GranularidadeRollup granularidade, DimensaoRollup dimensao,
+                                                  Instant inicio, Collection<String> chaves);
+
+    List<RollupInventario> findByGranularidadeAndDimensaoAndChaveAndInicioGreaterThanEqualAndInicioLessThanOrderByInicio(
+            GranularidadeRollup granularidade, DimensaoRollup dimensao, String chave, Instant de, Instant ate);
+
+    // Último balde antes da série, de onde vem o estoque inicial
+    Optional<RollupInventario> findFirstByGranularidadeAndDimensaoAndChaveAndInicioLessThanOrderByInicioDesc(
+            GranularidadeRollup granularidade, DimensaoRollup dimensao, String chave, Instant inicio);
+}
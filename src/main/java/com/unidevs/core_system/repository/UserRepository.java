@@ -2,10 +2,24 @@ package com.unidevs.core_system.repository;
 
 import com.unidevs.core_system.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, UUID> {
 
+    // Somente leitura: a busca do usuário autenticado em cada requisição pode ser atendida por uma réplica
+    @Transactional(readOnly = true)
     User findByLogin(String login);
+
+    boolean existsByLogin(String login);
+
+    boolean existsByEmail(String email);
+
+    @Query("select u.login from User u")
+    List<String> findAllLogins();
 }
@@ -1,12 +1,15 @@
 package com.unidevs.core_system.security;
 
 
+import com.unidevs.core_system.web.IdempotenciaFilter;
+import com.unidevs.core_system.web.LimitadorConcorrenciaFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -16,19 +19,26 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 
 public class SecurityConfigurations {
 
     @Autowired
     SecurityFilter securityFilter;
 
+    @Autowired
+    LimitadorConcorrenciaFilter limitadorConcorrenciaFilter;
+
+    @Autowired
+    IdempotenciaFilter idempotenciaFilter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/login", "/login-process", "/register", "/register-process",
+                        .requestMatchers("/login", "/login-process", "/register", "/register-process", "/register/login-disponivel",
                                 "/css/**", "/js/**", "/assets/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -40,7 +50,10 @@ public class SecurityConfigurations {
                 .csrf(csrf -> csrf
                         .ignoringRequestMatchers("/login-process", "/register-process")
                 )
-                .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
+                // O limitador descarta o excesso antes da busca do usuário no banco
+                .addFilterBefore(limitadorConcorrenciaFilter, SecurityFilter.class)
+                .addFilterAfter(idempotenciaFilter, SecurityFilter.class);
 
         return http.build();
     }
@@ -1,7 +1,13 @@
 package com.unidevs.core_system.security;
 
+import com.unidevs.core_system.entity.User;
 import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.web.TemporizadorFases;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,10 +21,21 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Filtro que autentica a requisição pelo JWT do header "Authorization" ou do cookie "jwt_token".
+ *
+ * O usuário é buscado no banco a cada requisição. Se o banco estiver fora do ar, a requisição é autenticada com o
+ * login e o papel gravados no próprio token (assinado e com validade de 2 horas), para que leituras servidas sem o
+ * banco, como o instantâneo do catálogo, continuem acessíveis. Nesse intervalo, alterações de papel ou remoções de
+ * usuários feitas após a emissão do token não são percebidas.
+ */
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityFilter.class);
+
     private final TokenService tokenService;
     private final UserRepository userRepository;
 
@@ -48,24 +65,14 @@ public class SecurityFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
+        // Validação do JWT e busca do usuário: fase "auth" do Server-Timing
+        long inicioAutenticacao = TemporizadorFases.iniciar();
         try {
-            String token = resolveToken(request);
-            if (token == null && request.getCookies() != null) {
-                // Try to get token from cookies
-                for (Cookie cookie : request.getCookies()) {
-                    if ("jwt_token".equals(cookie.getName())) {
-                        token = cookie.getValue();
-                        break;
-                    }
-                }
-            }
-
-            if (token != null
-                    && tokenService.isValid(token)
-                    && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = resolverToken(request);
+            var sessao = token != null ? tokenService.ler(token) : Optional.<TokenService.Sessao>empty();
+            if (sessao.isPresent() && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                final String login = tokenService.getSubject(token);
-                final var user = userRepository.findByLogin(login);
+                final var user = buscarUsuario(sessao.get());
 
                 if (user != null) {
                     var authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
@@ -77,12 +84,42 @@ public class SecurityFilter extends OncePerRequestFilter {
         } catch (Exception ex) {
             SecurityContextHolder.clearContext();
         }
+        TemporizadorFases.registrar(TemporizadorFases.Fase.AUTENTICACAO, inicioAutenticacao);
 
         filterChain.doFilter(request, response);
     }
 
-    private String resolveToken(HttpServletRequest request) {
+    // Usuário do banco ou, com o banco fora do ar, o usuário descrito pelo token
+    private User buscarUsuario(TokenService.Sessao sessao) {
+        try {
+            return userRepository.findByLogin(sessao.login());
+        } catch (DataAccessException | TransactionException ex) {
+            if (sessao.role() == null) {
+                throw ex;
+            }
+            log.debug("Banco indisponível; usuário {} autenticado pelo papel do token", sessao.login(), ex);
+            return new User(sessao.login(), null, null, sessao.role());
+        }
+    }
+
+    /**
+     * Token da requisição, do header "Authorization: Bearer" ou do cookie "jwt_token".
+     *
+     * @param request Requisição HTTP;
+     * @return Token sem validação, ou nulo se a requisição não trouxer token.
+     */
+    public static String resolverToken(HttpServletRequest request) {
         final String header = request.getHeader("Authorization");
-        return header != null && header.startsWith("Bearer ") ? header.substring(7) : null;
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if ("jwt_token".equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
     }
 }
\ No newline at end of file
@@ -5,16 +5,29 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Optional;
 
 @Service
 public class TokenService {
 
+    private static final String CLAIM_PAPEL = "role";
+
+    /**
+     * Dados do usuário contidos em um token válido.
+     *
+     * @param login Login do usuário (subject);
+     * @param role Papel do usuário na emissão do token; nulo em tokens emitidos antes do claim existir.
+     */
+    public record Sessao(String login, UserRole role) {
+    }
+
     @Value("${api.security.token.secret}")
     private String secret;
 
@@ -24,6 +37,7 @@ public class TokenService {
             return JWT.create()
                     .withIssuer("core-system")
                     .withSubject(user.getLogin())
+                    .withClaim(CLAIM_PAPEL, user.getRole().name())
                     .withExpiresAt(generateExpirationDate())
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
@@ -50,6 +64,33 @@ public class TokenService {
         }
     }
 
+    // Subject e papel de um token válido; vazio se o token for inválido ou expirado
+    public Optional<Sessao> ler(String token) {
+        try {
+            Algorithm algorithm = Algorithm.HMAC256(secret);
+            var decodificado = JWT.require(algorithm)
+                    .withIssuer("core-system")
+                    .build()
+                    .verify(token);
+            var login = decodificado.getSubject();
+            if (login == null || login.isBlank()) {
+                return Optional.empty();
+            }
+            var papel = decodificado.getClaim(CLAIM_PAPEL).asString();
+            UserRole role = null;
+            if (papel != null) {
+                try {
+                    role = UserRole.valueOf(papel);
+                } catch (IllegalArgumentException ignorado) {
+                    // Papel desconhecido: tratado como token sem papel
+                }
+            }
+            return Optional.of(new Sessao(login, role));
+        } catch (JWTVerificationException exception) {
+            return Optional.empty();
+        }
+    }
+
     // Kept for backward compatibility (delegates to getSubject)
     public String validateToken(String token) {
         return getSubject(token);
@@ -0,0 +1,26 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.TipoAlteracao;
+
+/**
+ * Evento publicado a cada alteração de livro ou usuário, seja ela feita por esta instância ou lida do log de
+ * alterações escrito por outra instância.
+ *
+ * Caches locais devem escutar este evento com {@code @TransactionalEventListener(fallbackExecution = true)}, para que
+ * alterações locais só sejam aplicadas após o commit e alterações remotas (publicadas fora de transação) também
+ * sejam recebidas.
+ *
+ * Parâmetros:
+ * @param entidade Entidade alterada.
+ * @param chave Identificador da entidade alterada.
+ * @param operacao Tipo de alteração.
+ * @param remota Verdadeiro quando a alteração foi feita por outra instância.
+ */
+public record AlteracaoEntidadeEvent(
+        EntidadeAlterada entidade,
+        String chave,
+        TipoAlteracao operacao,
+        boolean remota
+) {
+}
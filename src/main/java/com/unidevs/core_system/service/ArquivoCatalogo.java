@@ -0,0 +1,171 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.LivroCatalogoDto;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binário do instantâneo do catálogo gravado em disco.
+ *
+ * Responsabilidade: guardar os campos de {@link LivroCatalogoDto} de todos os livros de forma compacta, para que o
+ * catálogo seja servido logo na inicialização, antes da primeira leitura do banco.
+ *
+ * Layout (big-endian):
+ * 1. Cabeçalho de 32 bytes: "CATL", versão do formato (int), versão do instantâneo (long), instante de geração
+ *    em milissegundos (long), quantidade de livros (int) e CRC32C do corpo (int);
+ * 2. Corpo: para cada livro, o UUID (16 bytes), título, autor, caminho da capa e status (tamanho int + UTF-8, -1
+ *    para nulo) e as duas quantidades (int, {@link Integer#MIN_VALUE} para nulo).
+ *
+ * A gravação usa um arquivo temporário, forçado para o disco e renomeado sobre o anterior: uma queda no meio da
+ * gravação mantém o instantâneo anterior. A leitura mapeia o arquivo em memória e recusa arquivos com cabeçalho ou
+ * CRC inválidos.
+ */
+public final class ArquivoCatalogo {
+
+    private static final int MAGICO = 0x4341544C; // "CATL"
+    private static final int FORMATO = 2;
+    private static final int CABECALHO = 32;
+    private static final int NULO = Integer.MIN_VALUE;
+
+    /**
+     * Conteúdo lido do disco.
+     *
+     * @param versao Versão do instantâneo.
+     * @param geradoEm Instante em que o instantâneo foi gerado a partir do banco.
+     * @param livros Livros do catálogo.
+     */
+    public record Conteudo(long versao, Instant geradoEm, List<LivroCatalogoDto> livros) {
+    }
+
+    private ArquivoCatalogo() {
+    }
+
+    // Grava o instantâneo, substituindo o anterior de uma só vez
+    public static void gravar(Path arquivo, long versao, Instant geradoEm, List<LivroCatalogoDto> livros)
+            throws IOException {
+        var corpo = codificar(livros);
+        var crc = new CRC32C();
+        crc.update(corpo.duplicate());
+
+        var cabecalho = ByteBuffer.allocate(CABECALHO)
+                .putInt(MAGICO)
+                .putInt(FORMATO)
+                .putLong(versao)
+                .putLong(geradoEm.toEpochMilli())
+                .putInt(livros.size())
+                .putInt((int) crc.getValue())
+                .flip();
+
+        Files.createDirectories(arquivo.toAbsolutePath().getParent());
+        var temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try (var canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (cabecalho.hasRemaining() || corpo.hasRemaining()) {
+                canal.write(new ByteBuffer[]{cabecalho, corpo});
+            }
+            canal.force(true);
+        }
+        Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Lê o instantâneo; vazio se o arquivo não existir ou estiver corrompido
+    public static Optional<Conteudo> ler(Path arquivo) throws IOException {
+        if (!Files.isRegularFile(arquivo)) {
+            return Optional.empty();
+        }
+        try (var canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() < CABECALHO || canal.size() > Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+            var buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.getInt() != MAGICO || buffer.getInt() != FORMATO) {
+                return Optional.empty();
+            }
+            long versao = buffer.getLong();
+            var geradoEm = Instant.ofEpochMilli(buffer.getLong());
+            int quantidade = buffer.getInt();
+            int crcEsperado = buffer.getInt();
+
+            var crc = new CRC32C();
+            crc.update(buffer.duplicate());
+            if ((int) crc.getValue() != crcEsperado || quantidade < 0) {
+                return Optional.empty();
+            }
+
+            var livros = new ArrayList<LivroCatalogoDto>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                livros.add(new LivroCatalogoDto(
+                        new UUID(buffer.getLong(), buffer.getLong()),
+                        lerTexto(buffer),
+                        lerTexto(buffer),
+                        lerTexto(buffer),
+                        lerTexto(buffer),
+                        lerInteiro(buffer),
+                        lerInteiro(buffer)));
+            }
+            return Optional.of(new Conteudo(versao, geradoEm, livros));
+        } catch (BufferUnderflowException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static ByteBuffer codificar(List<LivroCatalogoDto> livros) {
+        var textos = new ArrayList<byte[]>(livros.size() * 4);
+        int tamanho = 0;
+        for (var livro : livros) {
+            tamanho += 16 + 3 * Integer.BYTES;
+            for (var texto : new String[]{livro.titulo(), livro.autor(), livro.caminhoImagemCapa(), livro.status()}) {
+                var bytes = texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+                textos.add(bytes);
+                tamanho += Integer.BYTES + (bytes != null ? bytes.length : 0);
+            }
+        }
+
+        var corpo = ByteBuffer.allocate(tamanho);
+        int proximoTexto = 0;
+        for (var livro : livros) {
+            corpo.putLong(livro.livroId().getMostSignificantBits());
+            corpo.putLong(livro.livroId().getLeastSignificantBits());
+            for (int i = 0; i < 4; i++) {
+                var bytes = textos.get(proximoTexto++);
+                if (bytes == null) {
+                    corpo.putInt(-1);
+                } else {
+                    corpo.putInt(bytes.length).put(bytes);
+                }
+            }
+            corpo.putInt(livro.quantidadeDisponivel() != null ? livro.quantidadeDisponivel() : NULO);
+            corpo.putInt(livro.quantidadeTotal() != null ? livro.quantidadeTotal() : NULO);
+        }
+        return corpo.flip();
+    }
+
+    private static String lerTexto(ByteBuffer buffer) {
+        int tamanho = buffer.getInt();
+        if (tamanho < 0) {
+            return null;
+        }
+        var bytes = new byte[tamanho];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Integer lerInteiro(ByteBuffer buffer) {
+        int valor = buffer.getInt();
+        return valor == NULO ? null : valor;
+    }
+}
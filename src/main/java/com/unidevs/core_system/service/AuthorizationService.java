@@ -1,11 +1,15 @@
 package com.unidevs.core_system.service;
 
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.entity.User;
 import com.unidevs.core_system.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthorizationService implements UserDetailsService {
@@ -13,8 +17,18 @@ public class AuthorizationService implements UserDetailsService {
     @Autowired
     UserRepository repository;
 
+    @Autowired
+    SincronizacaoClusterService sincronizacaoClusterService;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return repository.findByLogin(username);
     }
+
+    @Transactional
+    public User registrarUsuario(User user) {
+        var salvo = repository.save(user);
+        sincronizacaoClusterService.registrar(EntidadeAlterada.USER, salvo.getLogin(), TipoAlteracao.CRIACAO);
+        return salvo;
+    }
 }
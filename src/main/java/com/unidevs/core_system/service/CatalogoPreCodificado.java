@@ -0,0 +1,274 @@
+package com.unidevs.core_system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unidevs.core_system.controller.dto.LivroCatalogoDto;
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serviço que mantém o catálogo completo (/livro/catalogo) já serializado em JSON, puro e compactado com gzip.
+ *
+ * Responsabilidade: o catálogo é o mesmo para todos os usuários entre duas escritas; em vez de consultar, converter
+ * e serializar a lista a cada requisição, a resposta copia bytes prontos.
+ *
+ * Processo:
+ * 1. Na inicialização o instantâneo é gerado em segundo plano; até lá, o catálogo é montado a cada requisição;
+ * 2. Alterações de livros e do estoque das filiais ({@link AlteracaoEntidadeEvent}, desta ou de outra instância)
+ *    agendam uma reconstrução após um curto intervalo, que agrupa as escritas próximas em uma só reconstrução;
+ * 3. A reconstrução roda em uma thread própria e troca o instantâneo de uma vez (referência volátil); leitores
+ *    nunca esperam e sempre veem uma versão completa;
+ * 4. Uma alteração durante a reconstrução agenda outra, de modo que a última escrita sempre chega ao catálogo;
+ * 5. Periodicamente (e no encerramento) o instantâneo mais recente é gravado em disco ({@link ArquivoCatalogo}). Na
+ *    inicialização o arquivo é mapeado e servido de imediato, marcado como desatualizado, até a primeira
+ *    reconstrução a partir do banco;
+ * 6. Se a reconstrução falhar (ex: banco fora do ar), o último instantâneo continua sendo servido, marcado como
+ *    desatualizado, e a reconstrução é repetida em intervalos até o banco voltar;
+ * 7. Como as reconstruções só ocorrem após escritas (que falham com o banco fora do ar), uma sonda periódica valida
+ *    uma conexão com o banco: se ela falhar, o instantâneo passa a ser servido como desatualizado mesmo sem nenhuma
+ *    escrita; quando o banco volta, a sonda agenda a reconstrução que remove a marcação.
+ *
+ * Entre a escrita e a troca do instantâneo (intervalo + tempo de reconstrução) o catálogo pode mostrar valores
+ * anteriores. A consulta de um livro e as operações de empréstimo continuam lendo o banco.
+ */
+@Service
+public class CatalogoPreCodificado {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoPreCodificado.class);
+
+    /**
+     * Catálogo serializado.
+     *
+     * @param versao Versão do instantâneo, crescente a cada reconstrução (continua a do arquivo em disco).
+     * @param json Lista de LivroCatalogoDto em JSON (UTF-8).
+     * @param gzip O mesmo JSON compactado com gzip.
+     * @param livros Livros do catálogo, usados na gravação em disco.
+     * @param geradoEm Instante em que o banco foi lido.
+     * @param desatualizado Verdadeiro se veio do disco ou se a última reconstrução falhou.
+     */
+    public record Instantaneo(long versao, byte[] json, byte[] gzip, List<LivroCatalogoDto> livros, Instant geradoEm,
+                              boolean desatualizado) {
+    }
+
+    private final Supplier<List<LivroCatalogoDto>> fonte;
+    private final ObjectMapper objectMapper;
+    private final boolean habilitado;
+    private final long intervaloMs;
+    private final long intervaloRetentativaMs;
+    private final BooleanSupplier bancoDisponivel;
+    private final long intervaloSondaMs;
+    private final Path arquivo;
+
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean agendado = new AtomicBoolean();
+    private volatile Instantaneo atual;
+    private volatile long versaoGravada = -1;
+
+    @Autowired
+    public CatalogoPreCodificado(LivroService livroService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.catalogo.pre-codificado.habilitado:true}") boolean habilitado,
+                                 @Value("${app.catalogo.pre-codificado.intervalo-ms:200}") long intervaloMs,
+                                 @Value("${app.catalogo.pre-codificado.intervalo-retentativa-ms:5000}")
+                                 long intervaloRetentativaMs,
+                                 DataSource dataSource,
+                                 @Value("${app.catalogo.pre-codificado.intervalo-sonda-ms:5000}") long intervaloSondaMs,
+                                 @Value("${app.catalogo.arquivo.diretorio:catalogo-instantaneo}") String diretorio) {
+        this(livroService::listarTodosParaCatalogo, objectMapper, habilitado, intervaloMs, intervaloRetentativaMs,
+                () -> conexaoValida(dataSource), intervaloSondaMs, diretorio);
+    }
+
+    // Fonte dos livros e sonda separadas do banco, para os testes simularem o banco fora do ar
+    CatalogoPreCodificado(Supplier<List<LivroCatalogoDto>> fonte,
+                          ObjectMapper objectMapper,
+                          boolean habilitado,
+                          long intervaloMs,
+                          long intervaloRetentativaMs,
+                          BooleanSupplier bancoDisponivel,
+                          long intervaloSondaMs,
+                          String diretorio) {
+        this.fonte = fonte;
+        this.objectMapper = objectMapper;
+        this.habilitado = habilitado;
+        this.intervaloMs = intervaloMs;
+        this.intervaloRetentativaMs = intervaloRetentativaMs;
+        this.bancoDisponivel = bancoDisponivel;
+        this.intervaloSondaMs = intervaloSondaMs;
+        this.arquivo = Paths.get(diretorio).toAbsolutePath().normalize().resolve("catalogo.bin");
+        this.executor = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            var thread = new Thread(tarefa, "catalogo-pre-codificado");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Instantâneo atual, vazio enquanto o primeiro não termina ou se o recurso estiver desabilitado
+    public Optional<Instantaneo> atual() {
+        return Optional.ofNullable(atual);
+    }
+
+    // Serve o último instantâneo gravado enquanto a primeira reconstrução não termina
+    @PostConstruct
+    public void carregarDoDisco() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            ArquivoCatalogo.ler(arquivo).ifPresent(conteudo -> {
+                atual = montar(conteudo.versao(), conteudo.livros(), conteudo.geradoEm(), true);
+                versaoGravada = conteudo.versao();
+                log.info("Catálogo carregado de {}: versão {}, {} livros, gerado em {}",
+                        arquivo, conteudo.versao(), conteudo.livros().size(), conteudo.geradoEm());
+            });
+        } catch (IOException | RuntimeException e) {
+            log.warn("Instantâneo do catálogo em {} ignorado", arquivo, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        agendar(0);
+        if (habilitado && intervaloSondaMs > 0) {
+            executor.scheduleWithFixedDelay(this::sondarBanco, intervaloSondaMs, intervaloSondaMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Livros e estoque das filiais aparecem no catálogo; exemplares alteram o livro e chegam como LIVRO
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(AlteracaoEntidadeEvent evento) {
+        if (evento.entidade() == EntidadeAlterada.LIVRO || evento.entidade() == EntidadeAlterada.ESTOQUE_FILIAL) {
+            agendar(intervaloMs);
+        }
+    }
+
+    // Gera o catálogo serializado e o publica. Chamado pela thread própria; público para os testes.
+    public void reconstruir() {
+        // Liberado antes da leitura: escritas a partir daqui agendam uma nova reconstrução
+        agendado.set(false);
+        var inicio = Instant.now();
+        try {
+            var livros = fonte.get();
+            var anterior = atual;
+            atual = montar(anterior != null ? anterior.versao() + 1 : 1, livros, inicio, false);
+            log.debug("Catálogo pré-codificado com {} livros ({} bytes, {} com gzip)",
+                    livros.size(), atual.json().length, atual.gzip().length);
+        } catch (RuntimeException e) {
+            // Mantém o instantâneo anterior, marcado como desatualizado, e tenta de novo
+            marcarDesatualizado();
+            log.warn("Falha ao reconstruir o catálogo pré-codificado; nova tentativa em {} ms",
+                    intervaloRetentativaMs, e);
+            agendar(intervaloRetentativaMs);
+        }
+    }
+
+    // Confere o banco independentemente das escritas. Chamado pela thread própria; público para os testes.
+    public void sondarBanco() {
+        var instantaneo = atual;
+        if (instantaneo == null) {
+            return;
+        }
+        boolean disponivel;
+        try {
+            disponivel = bancoDisponivel.getAsBoolean();
+        } catch (RuntimeException e) {
+            disponivel = false;
+        }
+        if (!disponivel) {
+            if (!instantaneo.desatualizado()) {
+                log.warn("Banco indisponível; catálogo servido como desatualizado desde {}", instantaneo.geradoEm());
+            }
+            marcarDesatualizado();
+        } else if (instantaneo.desatualizado()) {
+            agendar(0);
+        }
+    }
+
+    private void marcarDesatualizado() {
+        var anterior = atual;
+        if (anterior != null && !anterior.desatualizado()) {
+            atual = new Instantaneo(anterior.versao(), anterior.json(), anterior.gzip(), anterior.livros(),
+                    anterior.geradoEm(), true);
+        }
+    }
+
+    private static boolean conexaoValida(DataSource dataSource) {
+        try (var conexao = dataSource.getConnection()) {
+            return conexao.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Grava em disco o instantâneo mais recente, se ainda não gravado
+    @Scheduled(fixedDelayString = "${app.catalogo.arquivo.intervalo-gravacao-ms:60000}",
+            initialDelayString = "${app.catalogo.arquivo.intervalo-gravacao-ms:60000}")
+    public synchronized void gravarNoDisco() {
+        var instantaneo = atual;
+        if (instantaneo == null || instantaneo.versao() == versaoGravada) {
+            return;
+        }
+        try {
+            ArquivoCatalogo.gravar(arquivo, instantaneo.versao(), instantaneo.geradoEm(), instantaneo.livros());
+            versaoGravada = instantaneo.versao();
+        } catch (IOException e) {
+            log.warn("Falha ao gravar o instantâneo do catálogo em {}", arquivo, e);
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+        gravarNoDisco();
+    }
+
+    private void agendar(long atrasoMs) {
+        if (habilitado && agendado.compareAndSet(false, true)) {
+            executor.schedule(this::reconstruir, atrasoMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Instantaneo montar(long versao, List<LivroCatalogoDto> livros, Instant geradoEm, boolean desatualizado) {
+        try {
+            var json = objectMapper.writeValueAsBytes(livros);
+            return new Instantaneo(versao, json, compactar(json), List.copyOf(livros), geradoEm, desatualizado);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] compactar(byte[] json) throws IOException {
+        var saida = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (var gzip = new GZIPOutputStream(saida)) {
+            gzip.write(json);
+        }
+        return saida.toByteArray();
+    }
+}
@@ -0,0 +1,22 @@
+package com.unidevs.core_system.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Evento publicado pelo LivroService para cada livro emprestado.
+ *
+ * Deve ser escutado com {@code @TransactionalEventListener}, para que apenas empréstimos confirmados (após o commit)
+ * sejam contabilizados.
+ *
+ * Parâmetros:
+ * @param livroId Livro emprestado.
+ * @param quantidade Quantidade de exemplares emprestados.
+ * @param instante Instante do empréstimo.
+ */
+public record EmprestimoRealizadoEvent(
+        UUID livroId,
+        int quantidade,
+        Instant instante
+) {
+}
@@ -0,0 +1,24 @@
+package com.unidevs.core_system.service;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado dentro da transação que altera o estoque de um livro em uma filial.
+ *
+ * Carrega o valor final e a versão da linha, e não a variação: em memória prevalece sempre a maior versão, de modo
+ * que alterações confirmadas fora de ordem, entregues outra vez ou já contidas em uma reconstrução do índice
+ * resultem no mesmo total.
+ *
+ * Parâmetros:
+ * @param livroId Livro alterado.
+ * @param filialId Filial alterada.
+ * @param quantidadeDisponivel Exemplares disponíveis na filial após a alteração.
+ * @param versao Versão da linha {@link com.unidevs.core_system.entity.EstoqueFilial} após a alteração.
+ */
+public record EstoqueFilialAlteradoEvent(
+        UUID livroId,
+        UUID filialId,
+        int quantidadeDisponivel,
+        long versao
+) {
+}
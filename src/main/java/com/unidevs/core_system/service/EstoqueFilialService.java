@@ -0,0 +1,599 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateFilialDto;
+import com.unidevs.core_system.controller.dto.DisponibilidadeFilialDto;
+import com.unidevs.core_system.controller.dto.FilialDto;
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.EstoqueFilial;
+import com.unidevs.core_system.entity.Filial;
+import com.unidevs.core_system.entity.Livro;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.entity.TipoMovimentoInventario;
+import com.unidevs.core_system.repository.EstoqueFilialRepository;
+import com.unidevs.core_system.repository.FilialRepository;
+import com.unidevs.core_system.repository.LivroRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Serviço do estoque de livros por filial, a fonte única das quantidades de exemplares.
+ *
+ * Responsabilidade: registrar as filiais, o estoque de cada livro em cada filial e todos os empréstimos, devoluções
+ * e ajustes de estoque, e responder sem consultar o banco quais filiais têm um livro disponível.
+ *
+ * Processo:
+ * 1. Cada filial recebe, em memória, uma posição de bit; cada livro tem um bitmap com as filiais que têm exemplares
+ *    disponíveis, as quantidades por filial e o total disponível somado;
+ * 2. Todo movimento acontece em uma filial: o informado pelo chamador ou, sem filial, a filial padrão
+ *    ({@code app.filiais.padrao.nome}). A linha (livro, filial) do {@link EstoqueFilial} é bloqueada primeiro e,
+ *    em seguida, a linha do {@link Livro}, que recebe a mesma variação: as quantidades do livro são o agregado das
+ *    filiais, mantido de forma incremental na mesma transação. Como a ordem é sempre filial e depois livro, e os
+ *    lotes seguem a ordem dos ids dos livros, transações concorrentes não entram em deadlock;
+ * 3. Cada movimento publica um {@link MovimentoInventarioEvent} com as quantidades do livro, registrado no diário
+ *    de inventário e consolidado nos rollups dos relatórios;
+ * 4. Na inicialização, os livros sem linha na filial padrão (cadastrados antes do estoque por filial) recebem uma,
+ *    com as quantidades que o livro tinha; as quantidades do livro passam a ser a soma das suas filiais;
+ * 5. Cada alteração publica o novo valor da linha e a sua versão ({@link EstoqueFilialAlteradoEvent}), aplicados
+ *    em memória após o commit somente se a versão for maior que a conhecida. O total disponível nas filiais é
+ *    mantido de forma incremental, e não somado a cada leitura do catálogo;
+ * 6. Alterações feitas por outras instâncias chegam pelo {@link SincronizacaoClusterService} e recarregam as linhas
+ *    do livro; periodicamente o índice é reconstruído a partir do banco;
+ * 7. Alterações aplicadas durante uma reconstrução são retidas e repetidas sobre o novo índice antes que ele passe
+ *    a valer sozinho; pela versão, as que a leitura do banco já contém são ignoradas, sem contagem dupla.
+ *
+ * Os empréstimos também contam para o ranking de popularidade ({@link EmprestimoRealizadoEvent}).
+ */
+@Service
+public class EstoqueFilialService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstoqueFilialService.class);
+    private static final double RAIO_TERRA_KM = 6371.0088;
+
+    private final FilialRepository filialRepository;
+    private final EstoqueFilialRepository estoqueFilialRepository;
+    private final LivroRepository livroRepository;
+    private final SincronizacaoClusterService sincronizacaoClusterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nomeFilialPadrao;
+    private volatile UUID filialPadrao;
+
+    // Filiais na ordem dos bits; só cresce, pois filiais não são removidas
+    private volatile FilialDto[] filiais = new FilialDto[0];
+    private final ConcurrentHashMap<UUID, Integer> bitPorFilial = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<UUID, Disponibilidade> porLivro = new ConcurrentHashMap<>();
+    // Alterações aplicadas durante a reconstrução em andamento (nulo fora dela), protegidas por "this"
+    private List<Consumer<ConcurrentHashMap<UUID, Disponibilidade>>> retidas;
+
+    public EstoqueFilialService(FilialRepository filialRepository,
+                                EstoqueFilialRepository estoqueFilialRepository,
+                                LivroRepository livroRepository,
+                                SincronizacaoClusterService sincronizacaoClusterService,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.filiais.padrao.nome:Acervo central}") String nomeFilialPadrao) {
+        this.filialRepository = filialRepository;
+        this.estoqueFilialRepository = estoqueFilialRepository;
+        this.livroRepository = livroRepository;
+        this.sincronizacaoClusterService = sincronizacaoClusterService;
+        this.eventPublisher = eventPublisher;
+        this.nomeFilialPadrao = nomeFilialPadrao;
+    }
+
+    // Filial dos movimentos que não informam uma; criada pela migração da inicialização
+    public UUID filialPadrao() {
+        var id = filialPadrao;
+        if (id == null) {
+            id = filialRepository.findByNomeIgnoreCase(nomeFilialPadrao)
+                    .map(Filial::getFilialId)
+                    .orElseThrow(() -> new IllegalStateException("A filial padrão ainda não foi criada."));
+            filialPadrao = id;
+        }
+        return id;
+    }
+
+    /**
+     * Migração do estoque anterior às filiais: cria a filial padrão, se preciso, e dá a cada livro sem linha nela
+     * uma linha com as quantidades que o livro tinha. As quantidades do livro passam a ser a soma das filiais.
+     *
+     * Roda antes dos demais ouvintes da inicialização, que leem as quantidades dos livros. Livros que já têm linha
+     * na filial padrão não são tocados, então a migração pode rodar em toda inicialização.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void migrarEstoqueDosLivros() {
+        var padrao = filialRepository.findByNomeIgnoreCase(nomeFilialPadrao)
+                .orElseGet(() -> filialRepository.save(new Filial(nomeFilialPadrao, null, null)));
+        filialPadrao = padrao.getFilialId();
+
+        int migrados = 0;
+        for (var livro : livroRepository.findSemEstoqueNaFilial(padrao.getFilialId())) {
+            var estoque = new EstoqueFilial(livro.getLivroId(), padrao.getFilialId());
+            estoque.setQuantidadeDisponivel(quantidade(livro.getQuantidadeDisponivel()));
+            estoque.setQuantidadeTotal(
+                    Math.max(quantidade(livro.getQuantidadeTotal()), estoque.getQuantidadeDisponivel()));
+            estoqueFilialRepository.save(estoque);
+
+            int disponivelAnterior = quantidade(livro.getQuantidadeDisponivel());
+            int disponivel = 0;
+            int total = 0;
+            for (var filial : estoqueFilialRepository.findByLivroId(livro.getLivroId())) {
+                disponivel += filial.getQuantidadeDisponivel();
+                total += filial.getQuantidadeTotal();
+            }
+            livro.setQuantidadeDisponivel(disponivel);
+            livro.setQuantidadeTotal(total);
+            livro.setStatus(disponivel > 0 ? "Disponível" : "Emprestado");
+            livroRepository.save(livro);
+            sincronizacaoClusterService.registrar(EntidadeAlterada.ESTOQUE_FILIAL, livro.getLivroId().toString(),
+                    TipoAlteracao.CRIACAO);
+            if (disponivel != disponivelAnterior) {
+                publicarMovimento(livro, TipoMovimentoInventario.AJUSTE, disponivel - disponivelAnterior);
+            }
+            migrados++;
+        }
+        if (migrados > 0) {
+            log.info("Estoque de {} livros migrado para a filial padrão \"{}\"", migrados, nomeFilialPadrao);
+        }
+    }
+
+    // Cadastra uma filial; o nome não pode se repetir
+    @Transactional
+    public UUID criarFilial(CreateFilialDto dto) {
+        if (filialRepository.existsByNomeIgnoreCase(dto.nome().trim())) {
+            throw new IllegalArgumentException("Já existe uma filial com o nome: " + dto.nome());
+        }
+        var filial = filialRepository.save(new Filial(dto.nome().trim(), dto.latitude(), dto.longitude()));
+        sincronizacaoClusterService.registrar(EntidadeAlterada.FILIAL, filial.getFilialId().toString(),
+                TipoAlteracao.CRIACAO);
+        return filial.getFilialId();
+    }
+
+    public List<FilialDto> listarFiliais() {
+        return List.of(filiais);
+    }
+
+    // Define os exemplares de um livro em uma filial, preservando os que estão emprestados
+    @Transactional
+    public void definirEstoque(String livroId, String filialId, int quantidadeTotal) {
+        var livro = UUID.fromString(livroId);
+        var filial = UUID.fromString(filialId);
+        if (!livroRepository.existsById(livro)) {
+            throw new IllegalArgumentException("Livro não encontrado com o ID: " + livroId);
+        }
+        if (!filialRepository.existsById(filial)) {
+            throw new IllegalArgumentException("Filial não encontrada com o ID: " + filialId);
+        }
+
+        var estoque = estoqueFilialRepository.findParaAtualizacao(livro, filial)
+                .orElseGet(() -> new EstoqueFilial(livro, filial));
+        int emprestados = estoque.getQuantidadeTotal() - estoque.getQuantidadeDisponivel();
+        if (quantidadeTotal < emprestados) {
+            throw new IllegalArgumentException(
+                    "A filial tem " + emprestados + " exemplares emprestados; a quantidade total não pode ser menor.");
+        }
+        int variacao = quantidadeTotal - estoque.getQuantidadeTotal();
+        movimentar(estoque, bloquearLivro(livro), TipoMovimentoInventario.AJUSTE, variacao, variacao);
+    }
+
+    // Cria a linha da filial padrão de um livro recém-cadastrado, com as quantidades que o livro já recebeu. As
+    // outras instâncias carregam a linha ao receber a criação do livro.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarLivroNovo(UUID livroId, int quantidade) {
+        var estoque = new EstoqueFilial(livroId, filialPadrao());
+        estoque.setQuantidadeDisponivel(quantidade);
+        estoque.setQuantidadeTotal(quantidade);
+        // A versão inicial (zero) é definida já no save, sem flush
+        publicarAlteracao(estoqueFilialRepository.save(estoque));
+    }
+
+    /**
+     * Leva a quantidade disponível do livro ao valor informado, acrescentando ou retirando exemplares da filial
+     * padrão (a quantidade total acompanha a variação). Sem linha na filial padrão, o livro não existe e nada muda.
+     *
+     * @throws IllegalArgumentException Se a filial padrão não tiver exemplares disponíveis suficientes para retirar.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ajustarDisponivel(UUID livroId, int quantidadeDisponivel) {
+        var existente = estoqueFilialRepository.findParaAtualizacao(livroId, filialPadrao());
+        if (existente.isEmpty()) {
+            return;
+        }
+        var estoque = existente.get();
+        var livro = bloquearLivro(livroId);
+        int variacao = quantidadeDisponivel - quantidade(livro.getQuantidadeDisponivel());
+        if (estoque.getQuantidadeDisponivel() + variacao < 0) {
+            throw new IllegalArgumentException("A filial padrão tem apenas " + estoque.getQuantidadeDisponivel()
+                    + " exemplares disponíveis para retirar; ajuste o estoque das demais filiais.");
+        }
+        if (variacao != 0) {
+            movimentar(estoque, livro, TipoMovimentoInventario.AJUSTE, variacao, variacao);
+        }
+    }
+
+    /**
+     * Acomoda um exemplar recém-etiquetado no estoque da sua filial. Etiquetar cópias já contadas não altera o
+     * estoque; só quando a filial passa a ter mais exemplares cadastrados do livro que a sua quantidade total ela
+     * (e o livro) recebe mais um exemplar.
+     *
+     * @param filialId Filial do exemplar; nula para a filial padrão.
+     * @param exemplaresNaFilial Exemplares do livro cadastrados na filial, incluindo o novo.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void acomodarExemplar(UUID livroId, UUID filialId, long exemplaresNaFilial) {
+        var filial = filialId != null ? filialId : filialPadrao();
+        var estoque = estoqueFilialRepository.findParaAtualizacao(livroId, filial)
+                .orElseGet(() -> new EstoqueFilial(livroId, filial));
+        if (exemplaresNaFilial > estoque.getQuantidadeTotal()) {
+            movimentar(estoque, bloquearLivro(livroId), TipoMovimentoInventario.AJUSTE, 1, 1);
+        }
+    }
+
+    // Empresta um exemplar da filial
+    @Transactional
+    public void emprestar(String livroId, String filialId) {
+        emprestar(UUID.fromString(livroId), UUID.fromString(filialId));
+    }
+
+    /**
+     * Empresta um exemplar do livro da filial.
+     *
+     * @param filialId Filial do exemplar; nula para a filial padrão.
+     */
+    @Transactional
+    public void emprestar(UUID livroId, UUID filialId) {
+        var quantidades = new TreeMap<UUID, Integer>();
+        quantidades.put(livroId, 1);
+        emprestarEmLote(quantidades, filialId);
+    }
+
+    /**
+     * Empresta os exemplares de vários livros de uma filial em uma única transação: se algum não puder ser
+     * emprestado, nenhum é.
+     *
+     * @param quantidades Exemplares por livro, na ordem dos ids (a ordem de bloqueio das linhas).
+     * @param filialId Filial dos exemplares; nula para a filial padrão.
+     */
+    @Transactional
+    public void emprestarEmLote(SortedMap<UUID, Integer> quantidades, UUID filialId) {
+        var filial = filialId != null ? filialId : filialPadrao();
+        for (var item : quantidades.entrySet()) {
+            var livroId = item.getKey();
+            int quantidade = item.getValue();
+            var estoque = estoqueFilialRepository.findParaAtualizacao(livroId, filial)
+                    .filter(e -> e.getQuantidadeDisponivel() >= quantidade)
+                    .orElseThrow(() -> new RuntimeException(livroRepository.existsById(livroId)
+                            ? "Não há exemplares disponíveis para empréstimo."
+                            : "Livro não encontrado com o ID: " + livroId));
+            movimentar(estoque, bloquearLivro(livroId), TipoMovimentoInventario.EMPRESTIMO, -quantidade, 0);
+            eventPublisher.publishEvent(new EmprestimoRealizadoEvent(livroId, quantidade, Instant.now()));
+        }
+    }
+
+    // Devolve um exemplar à filial
+    @Transactional
+    public void devolver(String livroId, String filialId) {
+        devolver(UUID.fromString(livroId), UUID.fromString(filialId));
+    }
+
+    /**
+     * Devolve um exemplar do livro à filial.
+     *
+     * @param filialId Filial do exemplar; nula para a filial padrão.
+     */
+    @Transactional
+    public void devolver(UUID livroId, UUID filialId) {
+        var filial = filialId != null ? filialId : filialPadrao();
+        var estoque = estoqueFilialRepository.findParaAtualizacao(livroId, filial)
+                .filter(e -> e.getQuantidadeDisponivel() < e.getQuantidadeTotal())
+                .orElseThrow(() -> new RuntimeException("Não há empréstimo em aberto deste livro nesta filial."));
+        movimentar(estoque, bloquearLivro(livroId), TipoMovimentoInventario.DEVOLUCAO, 1, 0);
+    }
+
+    // Aplica a variação à linha da filial e ao livro, bloqueados nesta ordem pelo chamador (a linha da filial pode
+    // ser nova), e publica o movimento com as quantidades do livro
+    private void movimentar(EstoqueFilial estoque, Livro livro, TipoMovimentoInventario tipo, int variacaoDisponivel,
+                            int variacaoTotal) {
+        boolean nova = estoque.getEstoqueId() == null;
+        estoque.setQuantidadeDisponivel(estoque.getQuantidadeDisponivel() + variacaoDisponivel);
+        estoque.setQuantidadeTotal(estoque.getQuantidadeTotal() + variacaoTotal);
+        // O flush incrementa a versão publicada no evento
+        estoque = estoqueFilialRepository.saveAndFlush(estoque);
+
+        livro.setQuantidadeDisponivel(quantidade(livro.getQuantidadeDisponivel()) + variacaoDisponivel);
+        livro.setQuantidadeTotal(quantidade(livro.getQuantidadeTotal()) + variacaoTotal);
+        livro.setStatus(livro.getQuantidadeDisponivel() > 0 ? "Disponível" : "Emprestado");
+        livroRepository.save(livro);
+
+        // ESTOQUE_FILIAL avisa as outras instâncias tanto da linha da filial quanto das quantidades do livro
+        sincronizacaoClusterService.registrar(EntidadeAlterada.ESTOQUE_FILIAL, estoque.getLivroId().toString(),
+                nova ? TipoAlteracao.CRIACAO : TipoAlteracao.ATUALIZACAO);
+        publicarAlteracao(estoque);
+        if (variacaoDisponivel != 0 || variacaoTotal != 0) {
+            publicarMovimento(livro, tipo, variacaoDisponivel);
+        }
+    }
+
+    private Livro bloquearLivro(UUID livroId) {
+        return livroRepository.findByIdParaAtualizacao(livroId)
+                .orElseThrow(() -> new IllegalArgumentException("Livro não encontrado com o ID: " + livroId));
+    }
+
+    // Publica o estado de estoque do livro após o movimento; o diário de inventário o registra após o commit
+    private void publicarMovimento(Livro livro, TipoMovimentoInventario tipo, int variacaoDisponivel) {
+        eventPublisher.publishEvent(new MovimentoInventarioEvent(
+                livro.getLivroId(),
+                livro.getGenero(),
+                tipo,
+                variacaoDisponivel,
+                quantidade(livro.getQuantidadeDisponivel()),
+                quantidade(livro.getQuantidadeTotal()),
+                livro.getStatus(),
+                Instant.now()));
+    }
+
+    private static int quantidade(Integer valor) {
+        return valor != null ? valor : 0;
+    }
+
+    private void publicarAlteracao(EstoqueFilial estoque) {
+        eventPublisher.publishEvent(new EstoqueFilialAlteradoEvent(estoque.getLivroId(), estoque.getFilialId(),
+                estoque.getQuantidadeDisponivel(), estoque.getVersao()));
+    }
+
+    // Remove o estoque do livro em todas as filiais; chamado na transação que remove o livro
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removerLivro(UUID livroId) {
+        estoqueFilialRepository.deleteByLivroId(livroId);
+    }
+
+    // Total de exemplares disponíveis do livro somando todas as filiais, mantido incrementalmente
+    public int disponivelNasFiliais(UUID livroId) {
+        var disponibilidade = porLivro.get(livroId);
+        return disponibilidade != null ? disponibilidade.total() : 0;
+    }
+
+    // Filiais com exemplares disponíveis do livro, lidas do bitmap em memória
+    public List<DisponibilidadeFilialDto> filiaisComDisponibilidade(String livroId) {
+        var disponibilidade = porLivro.get(UUID.fromString(livroId));
+        if (disponibilidade == null) {
+            return List.of();
+        }
+        var conhecidas = filiais;
+        var resultado = new ArrayList<DisponibilidadeFilialDto>();
+        disponibilidade.paraCadaDisponivel(bit -> {
+            if (bit < conhecidas.length) {
+                var filial = conhecidas[bit];
+                resultado.add(new DisponibilidadeFilialDto(
+                        filial.filialId(), filial.nome(), disponibilidade.quantidades()[bit], null));
+            }
+        });
+        return resultado;
+    }
+
+    // Filial com exemplares disponíveis mais próxima do ponto informado (distância em linha reta)
+    public Optional<DisponibilidadeFilialDto> maisProxima(String livroId, double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordenadas inválidas.");
+        }
+        var disponibilidade = porLivro.get(UUID.fromString(livroId));
+        if (disponibilidade == null) {
+            return Optional.empty();
+        }
+        var conhecidas = filiais;
+        var melhor = new DisponibilidadeFilialDto[1];
+        disponibilidade.paraCadaDisponivel(bit -> {
+            if (bit >= conhecidas.length) {
+                return;
+            }
+            var filial = conhecidas[bit];
+            if (filial.latitude() == null || filial.longitude() == null) {
+                return;
+            }
+            double distancia = distanciaKm(latitude, longitude, filial.latitude(), filial.longitude());
+            if (melhor[0] == null || distancia < melhor[0].distanciaKm()) {
+                melhor[0] = new DisponibilidadeFilialDto(
+                        filial.filialId(), filial.nome(), disponibilidade.quantidades()[bit], distancia);
+            }
+        });
+        return Optional.ofNullable(melhor[0]);
+    }
+
+    // Aplica uma alteração local confirmada, se for mais recente que a conhecida
+    @TransactionalEventListener
+    public void aoAlterarEstoque(EstoqueFilialAlteradoEvent evento) {
+        int bit = bit(evento.filialId());
+        if (bit >= 0) {
+            aplicar(indice -> indice.compute(evento.livroId(), (id, atual) ->
+                    (atual != null ? atual : Disponibilidade.VAZIA)
+                            .definir(bit, evento.quantidadeDisponivel(), evento.versao())));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(AlteracaoEntidadeEvent evento) {
+        switch (evento.entidade()) {
+            case FILIAL -> bit(UUID.fromString(evento.chave()));
+            case ESTOQUE_FILIAL -> {
+                if (evento.remota()) {
+                    recarregarLivro(UUID.fromString(evento.chave()));
+                }
+            }
+            case LIVRO -> {
+                if (evento.operacao() == TipoAlteracao.REMOCAO) {
+                    var livroId = UUID.fromString(evento.chave());
+                    aplicar(indice -> indice.remove(livroId));
+                } else if (evento.operacao() == TipoAlteracao.CRIACAO && evento.remota()) {
+                    // O cadastro cria a linha da filial padrão sem registrar um ESTOQUE_FILIAL próprio
+                    recarregarLivro(UUID.fromString(evento.chave()));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Reconstrói o índice a partir do banco na inicialização e periodicamente, corrigindo eventuais divergências
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.filiais.intervalo-reconstrucao-ms:600000}",
+            initialDelayString = "${app.filiais.intervalo-reconstrucao-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        // A retenção começa antes da primeira leitura (que fixa o snapshot da transação): toda alteração aplicada
+        // depois dela será repetida no novo índice
+        synchronized (this) {
+            if (retidas != null) {
+                return;
+            }
+            retidas = new ArrayList<>();
+        }
+        var novo = new ConcurrentHashMap<UUID, Disponibilidade>();
+        int repetidas;
+        try {
+            for (var filial : filialRepository.findAll()) {
+                registrarFilial(filial);
+            }
+            for (var estoque : estoqueFilialRepository.findAll()) {
+                int bit = bit(estoque.getFilialId());
+                if (bit >= 0) {
+                    novo.compute(estoque.getLivroId(), (id, atual) -> (atual != null ? atual : Disponibilidade.VAZIA)
+                            .definir(bit, estoque.getQuantidadeDisponivel(), estoque.getVersao()));
+                }
+            }
+            // Repetição e troca sob o mesmo bloqueio: nenhuma alteração fica só no índice antigo. Pela versão, as que
+            // a leitura já contém, ou que ainda serão aplicadas outra vez sobre o novo índice, não mudam o resultado
+            synchronized (this) {
+                retidas.forEach(alteracao -> alteracao.accept(novo));
+                repetidas = retidas.size();
+                porLivro = novo;
+            }
+        } finally {
+            synchronized (this) {
+                retidas = null;
+            }
+        }
+        log.info("Índice de estoque por filial reconstruído: {} filiais, {} livros ({} alterações repetidas)",
+                filiais.length, novo.size(), repetidas);
+    }
+
+    // Aplica a alteração ao índice atual e, durante uma reconstrução, a retém para repeti-la no novo índice
+    private void aplicar(Consumer<ConcurrentHashMap<UUID, Disponibilidade>> alteracao) {
+        synchronized (this) {
+            if (retidas != null) {
+                retidas.add(alteracao);
+            }
+        }
+        // Lido depois da retenção: se a troca já ocorreu, a alteração vai para o novo índice
+        alteracao.accept(porLivro);
+    }
+
+    private void recarregarLivro(UUID livroId) {
+        for (var estoque : estoqueFilialRepository.findByLivroId(livroId)) {
+            int bit = bit(estoque.getFilialId());
+            if (bit >= 0) {
+                aplicar(indice -> indice.compute(livroId, (id, atual) -> (atual != null ? atual : Disponibilidade.VAZIA)
+                        .definir(bit, estoque.getQuantidadeDisponivel(), estoque.getVersao())));
+            }
+        }
+    }
+
+    // Posição de bit da filial; filiais criadas por outras instâncias são carregadas do banco
+    private int bit(UUID filialId) {
+        var bit = bitPorFilial.get(filialId);
+        if (bit != null) {
+            return bit;
+        }
+        return filialRepository.findById(filialId).map(this::registrarFilial).orElse(-1);
+    }
+
+    private synchronized int registrarFilial(Filial filial) {
+        var dto = new FilialDto(filial.getFilialId(), filial.getNome(), filial.getLatitude(), filial.getLongitude());
+        var existente = bitPorFilial.get(filial.getFilialId());
+        if (existente != null) {
+            var copia = filiais.clone();
+            copia[existente] = dto;
+            filiais = copia;
+            return existente;
+        }
+        var copia = Arrays.copyOf(filiais, filiais.length + 1);
+        copia[filiais.length] = dto;
+        filiais = copia;
+        bitPorFilial.put(filial.getFilialId(), copia.length - 1);
+        return copia.length - 1;
+    }
+
+    private static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RAIO_TERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Disponibilidade de um livro nas filiais. Imutável: cada alteração gera uma cópia, de modo que as leituras
+     * não precisam de bloqueio.
+     *
+     * @param bits Bitmap das filiais com exemplares disponíveis (bit i = filial i).
+     * @param quantidades Exemplares disponíveis por filial.
+     * @param versoes Versão da linha de cada filial; -1 quando a filial ainda não tem linha conhecida.
+     * @param total Soma das quantidades.
+     */
+    private record Disponibilidade(long[] bits, int[] quantidades, long[] versoes, int total) {
+
+        static final Disponibilidade VAZIA = new Disponibilidade(new long[0], new int[0], new long[0], 0);
+
+        // Define a quantidade da filial, a não ser que já se conheça uma versão igual ou mais recente da linha
+        Disponibilidade definir(int bit, int quantidade, long versao) {
+            if (bit < versoes.length && versoes[bit] >= versao) {
+                return this;
+            }
+            var novasVersoes = Arrays.copyOf(versoes, Math.max(versoes.length, bit + 1));
+            Arrays.fill(novasVersoes, versoes.length, novasVersoes.length, -1L);
+            novasVersoes[bit] = versao;
+            var novasQuantidades = Arrays.copyOf(quantidades, Math.max(quantidades.length, bit + 1));
+            int anterior = novasQuantidades[bit];
+            novasQuantidades[bit] = Math.max(0, quantidade);
+            var novosBits = Arrays.copyOf(bits, Math.max(bits.length, (bit >>> 6) + 1));
+            if (novasQuantidades[bit] > 0) {
+                novosBits[bit >>> 6] |= 1L << bit;
+            } else {
+                novosBits[bit >>> 6] &= ~(1L << bit);
+            }
+            return new Disponibilidade(novosBits, novasQuantidades, novasVersoes,
+                    total - anterior + novasQuantidades[bit]);
+        }
+
+        void paraCadaDisponivel(IntConsumer acao) {
+            for (int palavra = 0; palavra < bits.length; palavra++) {
+                long restantes = bits[palavra];
+                while (restantes != 0) {
+                    acao.accept((palavra << 6) + Long.numberOfTrailingZeros(restantes));
+                    restantes &= restantes - 1;
+                }
+            }
+        }
+    }
+}
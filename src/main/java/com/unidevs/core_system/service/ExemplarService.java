@@ -0,0 +1,233 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateExemplarDto;
+import com.unidevs.core_system.controller.dto.ExemplarDto;
+import com.unidevs.core_system.entity.CondicaoExemplar;
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.Exemplar;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.repository.ExemplarRepository;
+import com.unidevs.core_system.repository.FilialRepository;
+import com.unidevs.core_system.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Serviço dos exemplares físicos e do atendimento por leitura de código de barras no balcão.
+ *
+ * Responsabilidade: cadastrar exemplares, resolver o código de barras lido pelo balcão e registrar empréstimos e
+ * devoluções de um exemplar específico.
+ *
+ * Processo:
+ * 1. O código de barras é resolvido pelo {@link IndiceCodigoBarras} em memória, sem consulta ao banco; o índice é
+ *    montado na inicialização e atualizado após o commit de cada cadastro (inclusive de outras instâncias, pelo
+ *    {@link SincronizacaoClusterService});
+ * 2. O empréstimo por leitura, feito pelo atendente, bloqueia a linha do exemplar, marca o empréstimo para o leitor
+ *    informado e, na mesma transação, bloqueia e reduz o estoque da filial do exemplar (a filial padrão, se ele não
+ *    tiver uma) e a quantidade disponível do {@link com.unidevs.core_system.entity.Livro}, pelo
+ *    {@link EstoqueFilialService};
+ * 3. A devolução (pelo atendente ou pelo próprio leitor) desfaz o empréstimo do exemplar e devolve o exemplar ao
+ *    estoque da sua filial e do livro;
+ * 4. O cadastro acomoda o exemplar no estoque da sua filial, que só cresce quando a filial passa a ter mais
+ *    exemplares etiquetados que a sua quantidade total;
+ * 5. Quando um livro é removido, seus exemplares são removidos em seguida, em uma nova transação.
+ *
+ * Códigos não cadastrados geram {@link NoSuchElementException}; regras violadas (exemplar já emprestado, danificado
+ * ou não emprestado) geram {@link IllegalStateException}.
+ */
+@Service
+public class ExemplarService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExemplarService.class);
+
+    private final ExemplarRepository exemplarRepository;
+    private final FilialRepository filialRepository;
+    private final UserRepository userRepository;
+    private final EstoqueFilialService estoqueFilialService;
+    private final SincronizacaoClusterService sincronizacaoClusterService;
+    private volatile IndiceCodigoBarras indice = new IndiceCodigoBarras();
+
+    public ExemplarService(ExemplarRepository exemplarRepository,
+                           FilialRepository filialRepository,
+                           UserRepository userRepository,
+                           EstoqueFilialService estoqueFilialService,
+                           SincronizacaoClusterService sincronizacaoClusterService) {
+        this.exemplarRepository = exemplarRepository;
+        this.filialRepository = filialRepository;
+        this.userRepository = userRepository;
+        this.estoqueFilialService = estoqueFilialService;
+        this.sincronizacaoClusterService = sincronizacaoClusterService;
+    }
+
+    // Cadastra um exemplar; se a filial passar a ter mais exemplares do livro que a quantidade total, ela é ajustada
+    @Transactional
+    public UUID cadastrar(CreateExemplarDto dto) {
+        var livroId = UUID.fromString(dto.livroId());
+        UUID filialId = null;
+        if (dto.filialId() != null && !dto.filialId().isBlank()) {
+            filialId = UUID.fromString(dto.filialId());
+            if (!filialRepository.existsById(filialId)) {
+                throw new IllegalArgumentException("Filial não encontrada com o ID: " + dto.filialId());
+            }
+        }
+        if (indice.buscar(dto.codigoBarras()) != null
+                || exemplarRepository.findByCodigoBarras(dto.codigoBarras()).isPresent()) {
+            throw new IllegalArgumentException("Código de barras já cadastrado: " + dto.codigoBarras());
+        }
+
+        var exemplar = new Exemplar();
+        exemplar.setLivroId(livroId);
+        exemplar.setCodigoBarras(dto.codigoBarras());
+        exemplar.setCondicao(dto.condicao() != null ? dto.condicao() : CondicaoExemplar.BOM);
+        exemplar.setFilialId(filialId);
+        exemplar.setPrateleira(dto.prateleira());
+        exemplarRepository.save(exemplar);
+
+        long naFilial = filialId != null
+                ? exemplarRepository.countByLivroIdAndFilialId(livroId, filialId)
+                : exemplarRepository.countByLivroIdAndFilialIdIsNull(livroId);
+        estoqueFilialService.acomodarExemplar(livroId, filialId, naFilial);
+        sincronizacaoClusterService.registrar(EntidadeAlterada.EXEMPLAR, Long.toString(dto.codigoBarras()),
+                TipoAlteracao.CRIACAO);
+        return exemplar.getExemplarId();
+    }
+
+    // Retorna o exemplar de um código de barras
+    @Transactional(readOnly = true)
+    public Optional<ExemplarDto> buscarPorCodigo(long codigoBarras) {
+        var exemplarId = indice.buscar(codigoBarras);
+        if (exemplarId == null) {
+            return Optional.empty();
+        }
+        return exemplarRepository.findById(exemplarId).map(ExemplarService::converterParaDto);
+    }
+
+    // Empréstimo pela leitura do código de barras para o leitor informado, em uma única transação com a baixa no
+    // estoque da filial do exemplar e no livro
+    @Transactional
+    public ExemplarDto emprestarPorCodigo(long codigoBarras, UUID usuarioId) {
+        if (!userRepository.existsById(usuarioId)) {
+            throw new IllegalArgumentException("Leitor não encontrado com o ID: " + usuarioId);
+        }
+        var exemplar = bloquear(codigoBarras);
+        if (exemplar.getEmprestadoPara() != null) {
+            throw new IllegalStateException("O exemplar já está emprestado.");
+        }
+        if (exemplar.getCondicao() == CondicaoExemplar.DANIFICADO) {
+            throw new IllegalStateException("Exemplar danificado não pode ser emprestado.");
+        }
+
+        exemplar.setEmprestadoPara(usuarioId);
+        exemplar.setEmprestadoEm(Instant.now());
+        exemplarRepository.save(exemplar);
+        estoqueFilialService.emprestar(exemplar.getLivroId(), exemplar.getFilialId());
+        return converterParaDto(exemplar);
+    }
+
+    // Devolução pela leitura do código de barras, feita pelo atendente
+    @Transactional
+    public ExemplarDto devolverPorCodigo(long codigoBarras) {
+        return devolver(bloquear(codigoBarras));
+    }
+
+    /**
+     * Devolução pela leitura do código de barras, feita pelo próprio leitor.
+     *
+     * @param codigoBarras Código de barras lido da etiqueta;
+     * @param leitorId Leitor autenticado;
+     * @return Exemplar atualizado.
+     * @throws AccessDeniedException Se o exemplar não estiver emprestado para o leitor.
+     */
+    @Transactional
+    public ExemplarDto devolverDoLeitor(long codigoBarras, UUID leitorId) {
+        var exemplar = bloquear(codigoBarras);
+        if (leitorId == null || !leitorId.equals(exemplar.getEmprestadoPara())) {
+            throw new AccessDeniedException("O exemplar não está emprestado para este leitor.");
+        }
+        return devolver(exemplar);
+    }
+
+    private ExemplarDto devolver(Exemplar exemplar) {
+        if (exemplar.getEmprestadoPara() == null) {
+            throw new IllegalStateException("O exemplar não está emprestado.");
+        }
+
+        exemplar.setEmprestadoPara(null);
+        exemplar.setEmprestadoEm(null);
+        exemplarRepository.save(exemplar);
+        estoqueFilialService.devolver(exemplar.getLivroId(), exemplar.getFilialId());
+        return converterParaDto(exemplar);
+    }
+
+    // Mantém o índice após o commit dos cadastros locais e ao receber cadastros de outras instâncias
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(AlteracaoEntidadeEvent evento) {
+        if (evento.entidade() != EntidadeAlterada.EXEMPLAR) {
+            return;
+        }
+        long codigo = Long.parseLong(evento.chave());
+        if (evento.operacao() == TipoAlteracao.REMOCAO) {
+            indice.remover(codigo);
+            return;
+        }
+        exemplarRepository.findByCodigoBarras(codigo)
+                .ifPresent(exemplar -> indice.incluir(codigo, exemplar.getExemplarId()));
+    }
+
+    // Remove os exemplares de um livro removido por esta instância; cada remoção também chega ao índice pelo log
+    @TransactionalEventListener(condition = "#evento.entidade().name() == 'LIVRO' "
+            + "and #evento.operacao().name() == 'REMOCAO' and !#evento.remota()")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void aoRemoverLivro(AlteracaoEntidadeEvent evento) {
+        for (var exemplar : exemplarRepository.findByLivroId(UUID.fromString(evento.chave()))) {
+            exemplarRepository.delete(exemplar);
+            sincronizacaoClusterService.registrar(EntidadeAlterada.EXEMPLAR,
+                    Long.toString(exemplar.getCodigoBarras()), TipoAlteracao.REMOCAO);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        var codigos = exemplarRepository.findCodigos();
+        var novo = new IndiceCodigoBarras(codigos.size());
+        for (var codigo : codigos) {
+            novo.incluir(codigo.getCodigoBarras(), codigo.getExemplarId());
+        }
+        indice = novo;
+        log.info("Índice de códigos de barras carregado com {} exemplares", novo.tamanho());
+    }
+
+    private Exemplar bloquear(long codigoBarras) {
+        var exemplarId = indice.buscar(codigoBarras);
+        if (exemplarId == null) {
+            throw new NoSuchElementException("Código de barras não cadastrado: " + codigoBarras);
+        }
+        return exemplarRepository.findByIdParaAtualizacao(exemplarId)
+                .orElseThrow(() -> new NoSuchElementException("Código de barras não cadastrado: " + codigoBarras));
+    }
+
+    private static ExemplarDto converterParaDto(Exemplar exemplar) {
+        return new ExemplarDto(
+                exemplar.getExemplarId(),
+                exemplar.getLivroId(),
+                exemplar.getCodigoBarras(),
+                exemplar.getCondicao(),
+                exemplar.getFilialId(),
+                exemplar.getPrateleira(),
+                exemplar.getEmprestadoPara() != null,
+                exemplar.getEmprestadoEm());
+    }
+}
@@ -0,0 +1,150 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom em memória com os logins cadastrados.
+ *
+ * Responsabilidade: responder "este login está livre?" durante a digitação no formulário de cadastro sem consultar
+ * o banco a cada tecla. Uma resposta negativa do filtro é definitiva; somente uma possível ocorrência é confirmada
+ * no banco.
+ *
+ * Processo:
+ * 1. Na inicialização, todos os logins são carregados do banco e o filtro é dimensionado para a taxa de falsos
+ *    positivos configurada;
+ * 2. Novos cadastros (locais ou de outras instâncias, via {@link AlteracaoEntidadeEvent}) são adicionados ao filtro;
+ * 3. Quando a quantidade de logins ultrapassa a capacidade, o filtro é reconstruído com o dobro do tamanho.
+ *
+ * Os logins são normalizados (minúsculas e sem acentos) porque a comparação de unicidade no MySQL ignora
+ * maiúsculas e acentos; assim o filtro nunca responde "livre" para um login que o banco consideraria repetido.
+ */
+@Component
+public class FiltroBloomLogins {
+
+    private static final Logger log = LoggerFactory.getLogger(FiltroBloomLogins.class);
+
+    private final UserRepository userRepository;
+    private final double taxaFalsosPositivos;
+    private volatile Filtro filtro;
+
+    public FiltroBloomLogins(UserRepository userRepository,
+                             @Value("${app.cadastro.bloom.capacidade-inicial:10000}") int capacidadeInicial,
+                             @Value("${app.cadastro.bloom.taxa-falsos-positivos:0.01}") double taxaFalsosPositivos) {
+        this.userRepository = userRepository;
+        this.taxaFalsosPositivos = taxaFalsosPositivos;
+        this.filtro = new Filtro(capacidadeInicial, taxaFalsosPositivos);
+    }
+
+    // Carrega os logins existentes após a inicialização da aplicação
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void carregar() {
+        var logins = userRepository.findAllLogins();
+        var novo = new Filtro(Math.max(logins.size() * 2, filtro.capacidade), taxaFalsosPositivos);
+        logins.forEach(novo::adicionar);
+        filtro = novo;
+        log.info("Filtro de logins carregado com {} logins ({} bits)", logins.size(), novo.bits.length() * 64L);
+    }
+
+    // Adiciona logins cadastrados nesta ou em outra instância
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(AlteracaoEntidadeEvent evento) {
+        if (evento.entidade() == EntidadeAlterada.USER && evento.operacao() == TipoAlteracao.CRIACAO) {
+            adicionar(evento.chave());
+        }
+    }
+
+    public synchronized void adicionar(String login) {
+        var atual = filtro;
+        if (atual.quantidade >= atual.capacidade) {
+            var maior = new Filtro(atual.capacidade * 2, taxaFalsosPositivos);
+            userRepository.findAllLogins().forEach(maior::adicionar);
+            filtro = maior;
+            atual = maior;
+        }
+        atual.adicionar(login);
+    }
+
+    // Falso indica que o login certamente não existe; verdadeiro indica que ele pode existir
+    public boolean podeConter(String login) {
+        return filtro.podeConter(login);
+    }
+
+    private static final class Filtro {
+        private final int capacidade;
+        private final int quantidadeHashes;
+        private final long totalBits;
+        private final AtomicLongArray bits;
+        private volatile int quantidade;
+
+        Filtro(int capacidade, double taxaFalsosPositivos) {
+            this.capacidade = Math.max(capacidade, 64);
+            long m = (long) Math.ceil(-this.capacidade * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)));
+            int palavras = (int) Math.min((m + 63) / 64, Integer.MAX_VALUE);
+            this.bits = new AtomicLongArray(palavras);
+            this.totalBits = palavras * 64L;
+            this.quantidadeHashes = Math.max(1, (int) Math.round((double) totalBits / this.capacidade * Math.log(2)));
+        }
+
+        void adicionar(String login) {
+            long hash = hash(login);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= quantidadeHashes; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % totalBits;
+                int palavra = (int) (bit >>> 6);
+                long mascara = 1L << bit;
+                long anterior;
+                do {
+                    anterior = bits.get(palavra);
+                } while ((anterior & mascara) == 0 && !bits.compareAndSet(palavra, anterior, anterior | mascara));
+            }
+            quantidade++;
+        }
+
+        boolean podeConter(String login) {
+            long hash = hash(login);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= quantidadeHashes; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % totalBits;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a de 64 bits sobre o login normalizado, seguido de uma mistura final
+        private static long hash(String login) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : normalizar(login).getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    static String normalizar(String login) {
+        var semAcentos = Normalizer.normalize(login.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,187 @@
+package com.unidevs.core_system.service;
+
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Índice em memória de código de barras para exemplar, usado pelo balcão para resolver uma leitura sem ir ao banco.
+ *
+ * Responsabilidade: mapear códigos de barras (long positivo) para o id do exemplar em O(1), sem objetos por
+ * entrada: tabela de endereçamento aberto com sondagem linear sobre arrays primitivos (três longs por posição:
+ * código, bits altos e bits baixos do UUID). Com ocupação máxima de 60%, cada exemplar custa cerca de 40 bytes.
+ *
+ * Concorrência: leituras otimistas com {@link StampedLock}, que só bloqueiam se uma escrita ocorrer durante a
+ * leitura; escritas são exclusivas. Remoções usam deslocamento para trás, sem marcadores de posição removida.
+ */
+public final class IndiceCodigoBarras {
+
+    private static final long VAZIO = 0L;
+    private static final int CAPACIDADE_MINIMA = 16;
+
+    private final StampedLock trava = new StampedLock();
+    private long[] codigos;
+    private long[] bitsAltos;
+    private long[] bitsBaixos;
+    private int tamanho;
+
+    public IndiceCodigoBarras() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    public IndiceCodigoBarras(int capacidadeEsperada) {
+        alocar(capacidadePara(capacidadeEsperada));
+    }
+
+    // Retorna o exemplar do código, ou null se o código não estiver no índice
+    public UUID buscar(long codigo) {
+        long carimbo = trava.tryOptimisticRead();
+        var encontrado = buscarSemTrava(codigo);
+        if (trava.validate(carimbo)) {
+            return encontrado;
+        }
+        carimbo = trava.readLock();
+        try {
+            return buscarSemTrava(codigo);
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    // Inclui ou substitui o exemplar do código
+    public void incluir(long codigo, UUID exemplarId) {
+        validar(codigo);
+        long carimbo = trava.writeLock();
+        try {
+            int posicao = posicao(codigo, codigos.length - 1);
+            while (codigos[posicao] != VAZIO && codigos[posicao] != codigo) {
+                posicao = (posicao + 1) & (codigos.length - 1);
+            }
+            if (codigos[posicao] == VAZIO) {
+                tamanho++;
+            }
+            codigos[posicao] = codigo;
+            bitsAltos[posicao] = exemplarId.getMostSignificantBits();
+            bitsBaixos[posicao] = exemplarId.getLeastSignificantBits();
+            if (tamanho > codigos.length * 3 / 5) {
+                redimensionar(codigos.length * 2);
+            }
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    // Remove o código; retorna falso se ele não estava no índice
+    public boolean remover(long codigo) {
+        validar(codigo);
+        long carimbo = trava.writeLock();
+        try {
+            int mascara = codigos.length - 1;
+            int vaga = posicao(codigo, mascara);
+            while (codigos[vaga] != codigo) {
+                if (codigos[vaga] == VAZIO) {
+                    return false;
+                }
+                vaga = (vaga + 1) & mascara;
+            }
+            // Desloca para a vaga as entradas seguintes cuja posição ideal não está entre a vaga e elas
+            int atual = vaga;
+            while (true) {
+                atual = (atual + 1) & mascara;
+                if (codigos[atual] == VAZIO) {
+                    break;
+                }
+                int ideal = posicao(codigos[atual], mascara);
+                boolean permanece = vaga <= atual ? (vaga < ideal && ideal <= atual) : (vaga < ideal || ideal <= atual);
+                if (!permanece) {
+                    codigos[vaga] = codigos[atual];
+                    bitsAltos[vaga] = bitsAltos[atual];
+                    bitsBaixos[vaga] = bitsBaixos[atual];
+                    vaga = atual;
+                }
+            }
+            codigos[vaga] = VAZIO;
+            tamanho--;
+            return true;
+        } finally {
+            trava.unlockWrite(carimbo);
+        }
+    }
+
+    public int tamanho() {
+        long carimbo = trava.readLock();
+        try {
+            return tamanho;
+        } finally {
+            trava.unlockRead(carimbo);
+        }
+    }
+
+    // Sob leitura otimista os arrays podem estar sendo alterados: a sondagem é limitada ao tamanho da tabela e o
+    // resultado só é usado se o carimbo continuar válido
+    private UUID buscarSemTrava(long codigo) {
+        var codigosAtuais = codigos;
+        var altos = bitsAltos;
+        var baixos = bitsBaixos;
+        if (codigo <= 0 || altos.length != codigosAtuais.length || baixos.length != codigosAtuais.length) {
+            return null;
+        }
+        int mascara = codigosAtuais.length - 1;
+        int posicao = posicao(codigo, mascara);
+        for (int sondagens = 0; sondagens < codigosAtuais.length; sondagens++) {
+            long atual = codigosAtuais[posicao];
+            if (atual == codigo) {
+                return new UUID(altos[posicao], baixos[posicao]);
+            }
+            if (atual == VAZIO) {
+                return null;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        return null;
+    }
+
+    private void redimensionar(int novaCapacidade) {
+        var antigosCodigos = codigos;
+        var antigosAltos = bitsAltos;
+        var antigosBaixos = bitsBaixos;
+        alocar(novaCapacidade);
+        int mascara = novaCapacidade - 1;
+        for (int i = 0; i < antigosCodigos.length; i++) {
+            if (antigosCodigos[i] != VAZIO) {
+                int posicao = posicao(antigosCodigos[i], mascara);
+                while (codigos[posicao] != VAZIO) {
+                    posicao = (posicao + 1) & mascara;
+                }
+                codigos[posicao] = antigosCodigos[i];
+                bitsAltos[posicao] = antigosAltos[i];
+                bitsBaixos[posicao] = antigosBaixos[i];
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        codigos = new long[capacidade];
+        bitsAltos = new long[capacidade];
+        bitsBaixos = new long[capacidade];
+    }
+
+    private static int capacidadePara(int esperados) {
+        int capacidade = CAPACIDADE_MINIMA;
+        while (capacidade * 3 / 5 < esperados) {
+            capacidade <<= 1;
+        }
+        return capacidade;
+    }
+
+    // Códigos de barras costumam ser sequenciais; o embaralhamento espalha códigos vizinhos pela tabela
+    private static int posicao(long codigo, int mascara) {
+        long h = codigo * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private static void validar(long codigo) {
+        if (codigo <= 0) {
+            throw new IllegalArgumentException("O código de barras deve ser um número positivo.");
+        }
+    }
+}
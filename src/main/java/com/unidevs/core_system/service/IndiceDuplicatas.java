@@ -0,0 +1,398 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.repository.LivroRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice em memória de assinaturas MinHash de título e autor, para detectar livros quase duplicados.
+ *
+ * Responsabilidade: apontar livros já cadastrados que parecem ser o mesmo livro ("Dom Casmurro" e "Dom Casmurro
+ * (ed. revista)", autor com erro de digitação), inclusive sem ISBN, sem comparar o livro novo com todo o acervo.
+ *
+ * Processo:
+ * 1. Título e autor são normalizados (minúsculas, sem acentos e sem pontuação) e quebrados em trigramas de
+ *    caracteres; título e autor geram trigramas distintos;
+ * 2. A assinatura guarda, para cada uma das {@value #FUNCOES} funções de hash, o menor hash dos trigramas; a fração
+ *    de posições iguais entre duas assinaturas estima a similaridade de Jaccard dos trigramas;
+ * 3. A assinatura é dividida em {@value #BANDAS} bandas de {@value #LINHAS} linhas (LSH); cada banda é a chave de um
+ *    balde. Livros que dividem algum balde são candidatos, e apenas os candidatos com similaridade estimada acima
+ *    do limiar são apontados;
+ * 4. Na inicialização o índice é montado com todos os livros; após o commit de cada alteração de livro (local ou
+ *    de outra instância) a assinatura do livro é recalculada ou removida;
+ * 5. O relatório de grupos une os pares candidatos acima do limiar (union-find), percorrendo apenas os baldes.
+ *
+ * Com 20 bandas de 5 linhas, pares com similaridade 0,5 viram candidatos com probabilidade de ~47%, 0,6 com ~80% e
+ * 0,7 com ~97%.
+ *
+ * Parâmetros:
+ * @param limiar Similaridade estimada mínima para apontar dois livros como possíveis duplicatas.
+ */
+@Component
+public class IndiceDuplicatas {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceDuplicatas.class);
+    static final int BANDAS = 20;
+    static final int LINHAS = 5;
+    static final int FUNCOES = BANDAS * LINHAS;
+    private static final long[] SEMENTES = new SplittableRandom(0x4d696e48617368L).longs(FUNCOES).toArray();
+    private static final List<String> CAMPOS = List.of("livroId", "titulo", "autor");
+
+    /**
+     * Livro apontado como possível duplicata.
+     *
+     * @param livroId Livro já cadastrado.
+     * @param similaridade Similaridade de Jaccard estimada dos trigramas de título e autor (0 a 1).
+     */
+    public record Semelhante(UUID livroId, double similaridade) {
+    }
+
+    private final LivroRepository livroRepository;
+    private final double limiar;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<UUID, int[]> assinaturas = new HashMap<>();
+    private Map<Long, List<UUID>> baldes = new HashMap<>();
+
+    public IndiceDuplicatas(LivroRepository livroRepository,
+                            @Value("${app.duplicatas.limiar:0.5}") double limiar) {
+        this.livroRepository = livroRepository;
+        this.limiar = limiar;
+    }
+
+    /**
+     * Retorna os livros indexados parecidos com o título e o autor informados.
+     *
+     * @param titulo Título do livro;
+     * @param autor Autor do livro (opcional);
+     * @param ignorar Livro a desconsiderar (o próprio livro, quando já cadastrado; opcional);
+     * @return Livros acima do limiar, do mais ao menos parecido.
+     */
+    public List<Semelhante> semelhantes(String titulo, String autor, UUID ignorar) {
+        var assinatura = assinar(titulo, autor);
+        return assinatura != null ? semelhantesNoIndice(assinatura, ignorar) : List.of();
+    }
+
+    /**
+     * Retorna os livros indexados parecidos com um livro já indexado.
+     *
+     * @param livroId Livro de referência;
+     * @return Livros acima do limiar, do mais ao menos parecido; vazio se o livro não estiver indexado.
+     */
+    public List<Semelhante> semelhantes(UUID livroId) {
+        lock.readLock().lock();
+        try {
+            var assinatura = assinaturas.get(livroId);
+            if (assinatura == null) {
+                return List.of();
+            }
+            return comparar(assinatura, candidatos(assinatura, livroId), assinaturas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inicia a verificação de um lote de livros novos, que são comparados com o acervo e entre si.
+     */
+    public Lote novoLote() {
+        return new Lote();
+    }
+
+    /**
+     * Agrupa os livros que parecem ser o mesmo livro, percorrendo apenas os pares que dividem algum balde.
+     *
+     * @return Grupos com dois ou mais livros, do maior para o menor.
+     */
+    public List<List<UUID>> grupos() {
+        var pais = new HashMap<UUID, UUID>();
+        lock.readLock().lock();
+        try {
+            for (var balde : baldes.values()) {
+                for (int i = 0; i < balde.size(); i++) {
+                    for (int j = i + 1; j < balde.size(); j++) {
+                        var a = balde.get(i);
+                        var b = balde.get(j);
+                        // O mesmo par pode dividir várias bandas; pares já no mesmo grupo não são comparados de novo
+                        if (raiz(pais, a).equals(raiz(pais, b))) {
+                            continue;
+                        }
+                        if (similaridade(assinaturas.get(a), assinaturas.get(b)) >= limiar) {
+                            unir(pais, a, b);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        var grupos = new LinkedHashMap<UUID, List<UUID>>();
+        for (var livroId : pais.keySet()) {
+            grupos.computeIfAbsent(raiz(pais, livroId), r -> new ArrayList<>()).add(livroId);
+        }
+        // Livros comparados sem nenhum par acima do limiar ficam sozinhos e não formam grupo
+        var resultado = new ArrayList<List<UUID>>();
+        for (var grupo : grupos.values()) {
+            if (grupo.size() > 1) {
+                resultado.add(grupo);
+            }
+        }
+        resultado.sort(Comparator.<List<UUID>>comparingInt(List::size).reversed());
+        return resultado;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(AlteracaoEntidadeEvent evento) {
+        if (evento.entidade() != EntidadeAlterada.LIVRO) {
+            return;
+        }
+        var livroId = UUID.fromString(evento.chave());
+        var livro = evento.operacao() == TipoAlteracao.REMOCAO
+                ? null : livroRepository.findById(livroId).orElse(null);
+        var assinatura = livro != null ? assinar(livro.getTitulo(), livro.getAutor()) : null;
+        lock.writeLock().lock();
+        try {
+            remover(livroId);
+            if (assinatura != null) {
+                incluir(livroId, assinatura, assinaturas, baldes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        long inicio = System.nanoTime();
+        var livros = livroRepository.findCampos(CAMPOS);
+        var novasAssinaturas = new HashMap<UUID, int[]>(livros.size() * 2);
+        var novosBaldes = new HashMap<Long, List<UUID>>();
+        for (var livro : livros) {
+            var assinatura = assinar((String) livro.valores()[1], (String) livro.valores()[2]);
+            if (assinatura != null) {
+                incluir((UUID) livro.valores()[0], assinatura, novasAssinaturas, novosBaldes);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            assinaturas = novasAssinaturas;
+            baldes = novosBaldes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de duplicatas carregado com {} livros em {} ms",
+                novasAssinaturas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Verificação de um lote de livros novos: cada livro é comparado com o acervo indexado e com os livros
+     * verificados antes dele no mesmo lote, que ainda não estão no índice (só entram após o commit).
+     */
+    public final class Lote {
+        private final Map<UUID, int[]> assinaturasLote = new HashMap<>();
+        private final Map<Long, List<UUID>> baldesLote = new HashMap<>();
+
+        private Lote() {
+        }
+
+        /**
+         * Compara o livro com o acervo e com o lote, e o inclui no lote.
+         *
+         * @param livroId Livro novo;
+         * @param titulo Título;
+         * @param autor Autor (opcional);
+         * @return Livros acima do limiar, do mais ao menos parecido.
+         */
+        public List<Semelhante> verificar(UUID livroId, String titulo, String autor) {
+            var assinatura = assinar(titulo, autor);
+            if (assinatura == null) {
+                return List.of();
+            }
+            var resultado = new ArrayList<>(semelhantesNoIndice(assinatura, livroId));
+            var candidatos = new HashSet<UUID>();
+            for (int banda = 0; banda < BANDAS; banda++) {
+                candidatos.addAll(baldesLote.getOrDefault(chaveBanda(assinatura, banda), List.of()));
+            }
+            resultado.addAll(comparar(assinatura, candidatos, assinaturasLote));
+            resultado.sort(Comparator.comparingDouble(Semelhante::similaridade).reversed());
+            incluir(livroId, assinatura, assinaturasLote, baldesLote);
+            return resultado;
+        }
+    }
+
+    // Assinatura MinHash dos trigramas de título e autor; nula se não houver texto
+    static int[] assinar(String titulo, String autor) {
+        var trigramas = new HashSet<Long>();
+        trigramas(normalizar(titulo), 0x7469L, trigramas);
+        trigramas(normalizar(autor), 0x6175L, trigramas);
+        if (trigramas.isEmpty()) {
+            return null;
+        }
+        var assinatura = new int[FUNCOES];
+        Arrays.fill(assinatura, Integer.MAX_VALUE);
+        for (long trigrama : trigramas) {
+            for (int i = 0; i < FUNCOES; i++) {
+                int h = (int) (misturar(trigrama ^ SEMENTES[i]) >>> 33);
+                if (h < assinatura[i]) {
+                    assinatura[i] = h;
+                }
+            }
+        }
+        return assinatura;
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        // NFKD também desfaz ligaduras e indicadores ordinais ("ª" vira "a")
+        var semAcentos = Normalizer.normalize(texto, Normalizer.Form.NFKD).replaceAll("\\p{M}", "");
+        return semAcentos.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    // Fração de posições iguais, que estima a similaridade de Jaccard
+    static double similaridade(int[] a, int[] b) {
+        int iguais = 0;
+        for (int i = 0; i < FUNCOES; i++) {
+            if (a[i] == b[i]) {
+                iguais++;
+            }
+        }
+        return (double) iguais / FUNCOES;
+    }
+
+    // Trigramas com espaço nas bordas, para que palavras curtas também gerem trigramas; o campo entra no hash
+    private static void trigramas(String texto, long campo, HashSet<Long> destino) {
+        if (texto.isEmpty()) {
+            return;
+        }
+        var bytes = (" " + texto + " ").getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i + 3 <= bytes.length; i++) {
+            long h = 0xcbf29ce484222325L ^ campo;
+            for (int j = i; j < i + 3; j++) {
+                h ^= bytes[j] & 0xff;
+                h *= 0x100000001b3L;
+            }
+            destino.add(misturar(h));
+        }
+    }
+
+    // Finalizador do SplitMix64
+    private static long misturar(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    private static long chaveBanda(int[] assinatura, int banda) {
+        long h = banda;
+        for (int i = banda * LINHAS; i < (banda + 1) * LINHAS; i++) {
+            h = h * 0x9e3779b97f4a7c15L + assinatura[i];
+        }
+        return misturar(h);
+    }
+
+    private static void incluir(UUID livroId, int[] assinatura, Map<UUID, int[]> assinaturas,
+                                Map<Long, List<UUID>> baldes) {
+        assinaturas.put(livroId, assinatura);
+        for (int banda = 0; banda < BANDAS; banda++) {
+            baldes.computeIfAbsent(chaveBanda(assinatura, banda), chave -> new ArrayList<>(2)).add(livroId);
+        }
+    }
+
+    private void remover(UUID livroId) {
+        var assinatura = assinaturas.remove(livroId);
+        if (assinatura == null) {
+            return;
+        }
+        for (int banda = 0; banda < BANDAS; banda++) {
+            var chave = chaveBanda(assinatura, banda);
+            var balde = baldes.get(chave);
+            if (balde != null) {
+                balde.remove(livroId);
+                if (balde.isEmpty()) {
+                    baldes.remove(chave);
+                }
+            }
+        }
+    }
+
+    private List<Semelhante> semelhantesNoIndice(int[] assinatura, UUID ignorar) {
+        lock.readLock().lock();
+        try {
+            return comparar(assinatura, candidatos(assinatura, ignorar), assinaturas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private HashSet<UUID> candidatos(int[] assinatura, UUID ignorar) {
+        var candidatos = new HashSet<UUID>();
+        for (int banda = 0; banda < BANDAS; banda++) {
+            candidatos.addAll(baldes.getOrDefault(chaveBanda(assinatura, banda), List.of()));
+        }
+        candidatos.remove(ignorar);
+        return candidatos;
+    }
+
+    private List<Semelhante> comparar(int[] assinatura, Iterable<UUID> candidatos, Map<UUID, int[]> assinaturas) {
+        var resultado = new ArrayList<Semelhante>();
+        for (var candidato : candidatos) {
+            double similaridade = similaridade(assinatura, assinaturas.get(candidato));
+            if (similaridade >= limiar) {
+                resultado.add(new Semelhante(candidato, similaridade));
+            }
+        }
+        resultado.sort(Comparator.comparingDouble(Semelhante::similaridade).reversed());
+        return resultado;
+    }
+
+    private static void unir(Map<UUID, UUID> pais, UUID a, UUID b) {
+        var ra = raiz(pais, a);
+        var rb = raiz(pais, b);
+        if (!ra.equals(rb)) {
+            pais.put(ra, rb);
+        }
+    }
+
+    // Raiz do conjunto do livro, com compressão de caminho
+    private static UUID raiz(Map<UUID, UUID> pais, UUID livroId) {
+        pais.putIfAbsent(livroId, livroId);
+        var raiz = livroId;
+        while (!pais.get(raiz).equals(raiz)) {
+            raiz = pais.get(raiz);
+        }
+        var atual = livroId;
+        while (!atual.equals(raiz)) {
+            var proximo = pais.get(atual);
+            pais.put(atual, raiz);
+            atual = proximo;
+        }
+        return raiz;
+    }
+}
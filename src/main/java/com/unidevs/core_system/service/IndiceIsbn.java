@@ -0,0 +1,121 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.Livro;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.repository.LivroRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice em memória de ISBN-13 numérico para livro, consultado antes da coluna indexada "isbn_numerico".
+ *
+ * Responsabilidade: resolver um ISBN para o id do livro sem ir ao banco, usando o mesmo {@link IndiceCodigoBarras}
+ * dos exemplares (o ISBN-13 é um código EAN-13). Depois de carregado, o índice é a fonte da resposta: um acerto não
+ * é conferido no banco e uma ausência significa que nenhum livro tem o ISBN (ex: validação de ISBN repetido).
+ *
+ * Processo:
+ * 1. Na inicialização, converte para a forma canônica os ISBNs cadastrados antes da coluna numérica e carrega o
+ *    índice; até lá, as buscas usam a coluna indexada "isbn_numerico";
+ * 2. Após o commit de cada criação, atualização ou remoção de livro (local ou de outra instância), retira a entrada
+ *    do ISBN anterior do livro e inclui a do ISBN atual;
+ * 3. O ISBN de cada livro é guardado à parte para que a troca de ISBN e a remoção descartem a entrada antiga sem
+ *    esperar uma busca.
+ *
+ * Uma escrita concorrente com o mesmo ISBN que passe pela validação antes do evento é barrada pela restrição de
+ * unicidade da coluna.
+ */
+@Component
+public class IndiceIsbn {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceIsbn.class);
+
+    private final LivroRepository livroRepository;
+    private volatile IndiceCodigoBarras indice = new IndiceCodigoBarras();
+    // ISBN atual de cada livro indexado, para descartar a entrada antiga na troca de ISBN ou na remoção
+    private final ConcurrentHashMap<UUID, Long> isbnPorLivro = new ConcurrentHashMap<>();
+    private volatile boolean carregado;
+
+    public IndiceIsbn(LivroRepository livroRepository) {
+        this.livroRepository = livroRepository;
+    }
+
+    // Retorna o id do livro com o ISBN-13 numérico; depois da carga, sem consultar o banco
+    public Optional<UUID> buscar(long isbn) {
+        if (!carregado) {
+            return livroRepository.findByIsbnNumerico(isbn).map(Livro::getLivroId);
+        }
+        return Optional.ofNullable(indice.buscar(isbn));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterar(AlteracaoEntidadeEvent evento) {
+        if (evento.entidade() != EntidadeAlterada.LIVRO) {
+            return;
+        }
+        var livroId = UUID.fromString(evento.chave());
+        var anterior = isbnPorLivro.remove(livroId);
+        // Só descarta a entrada se ela ainda for deste livro (o ISBN pode já ter passado a outro)
+        if (anterior != null && livroId.equals(indice.buscar(anterior))) {
+            indice.remover(anterior);
+        }
+        if (evento.operacao() == TipoAlteracao.REMOCAO) {
+            return;
+        }
+        livroRepository.findById(livroId)
+                .filter(livro -> livro.getIsbnNumerico() != null)
+                .ifPresent(livro -> incluir(indice, livro.getIsbnNumerico(), livroId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void carregar() {
+        migrarIsbnsSemChave();
+        var isbns = livroRepository.findIsbns();
+        var novo = new IndiceCodigoBarras(isbns.size());
+        isbnPorLivro.clear();
+        for (var isbn : isbns) {
+            incluir(novo, isbn.getIsbnNumerico(), isbn.getLivroId());
+        }
+        indice = novo;
+        carregado = true;
+        log.info("Índice de ISBN carregado com {} livros", novo.tamanho());
+    }
+
+    private void incluir(IndiceCodigoBarras destino, long isbn, UUID livroId) {
+        destino.incluir(isbn, livroId);
+        isbnPorLivro.put(livroId, isbn);
+    }
+
+    // Livros cadastrados antes da coluna numérica: ISBNs válidos passam para a forma canônica; os demais são mantidos
+    private void migrarIsbnsSemChave() {
+        for (var livro : livroRepository.findByIsbnIsNotNullAndIsbnNumericoIsNull()) {
+            try {
+                long isbn = Isbn.canonizar(livro.getIsbn());
+                var canonico = Isbn.formatar(isbn);
+                boolean repetido = livroRepository.findByIsbnNumerico(isbn).isPresent()
+                        || livroRepository.findByIsbn(canonico)
+                                .filter(outro -> !outro.getLivroId().equals(livro.getLivroId())).isPresent();
+                if (repetido) {
+                    log.warn("ISBN {} do livro {} repete o de outro livro; mantido sem forma canônica",
+                            livro.getIsbn(), livro.getLivroId());
+                    continue;
+                }
+                livro.setIsbn(canonico);
+                livro.setIsbnNumerico(isbn);
+                livroRepository.saveAndFlush(livro);
+            } catch (IllegalArgumentException e) {
+                log.warn("ISBN inválido mantido sem forma canônica no livro {}: {}", livro.getLivroId(), livro.getIsbn());
+            }
+        }
+    }
+}
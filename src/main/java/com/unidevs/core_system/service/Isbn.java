@@ -0,0 +1,89 @@
+package com.unidevs.core_system.service;
+
+/**
+ * Validação e forma canônica de ISBNs.
+ *
+ * Responsabilidade: aceitar o ISBN como os leitores e usuários o informam (ISBN-10 ou ISBN-13, com ou sem hífens e
+ * espaços) e convertê-lo para o ISBN-13, representado como número (chave compacta para índice e coluna numérica).
+ *
+ * Processo:
+ * 1. Remove hífens e espaços; qualquer outro caractere, exceto o "X" final do ISBN-10, torna o ISBN inválido;
+ * 2. ISBN-10: confere o dígito verificador (módulo 11) e converte para o prefixo 978, recalculando o dígito;
+ * 3. ISBN-13: exige prefixo 978 ou 979 e confere o dígito verificador (pesos 1 e 3, módulo 10).
+ *
+ * ISBNs inválidos geram {@link IllegalArgumentException} (HTTP 400).
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    // Converte o ISBN informado para o ISBN-13 numérico
+    public static long canonizar(String isbn) {
+        if (isbn == null) {
+            throw new IllegalArgumentException("ISBN não informado.");
+        }
+        var digitos = new char[13];
+        int quantidade = 0;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            boolean digito = c >= '0' && c <= '9';
+            boolean xFinal = (c == 'X' || c == 'x') && quantidade == 9;
+            if ((!digito && !xFinal) || quantidade == 13) {
+                throw new IllegalArgumentException("ISBN inválido: " + isbn);
+            }
+            digitos[quantidade++] = xFinal ? 'X' : c;
+        }
+
+        if (quantidade == 10) {
+            return deIsbn10(digitos, isbn);
+        }
+        if (quantidade != 13 || digitos[9] == 'X') {
+            throw new IllegalArgumentException("ISBN inválido: " + isbn);
+        }
+        long valor = 0;
+        for (int i = 0; i < 13; i++) {
+            valor = valor * 10 + (digitos[i] - '0');
+        }
+        long prefixo = valor / 10_000_000_000L;
+        if ((prefixo != 978 && prefixo != 979) || digitoVerificador13(valor / 10) != valor % 10) {
+            throw new IllegalArgumentException("ISBN inválido: " + isbn);
+        }
+        return valor;
+    }
+
+    // ISBN-13 numérico com os 13 dígitos, sem hífens
+    public static String formatar(long isbn13) {
+        return String.format("%013d", isbn13);
+    }
+
+    private static long deIsbn10(char[] digitos, String original) {
+        int soma = 0;
+        long corpo = 978;
+        for (int i = 0; i < 10; i++) {
+            int valor = digitos[i] == 'X' ? 10 : digitos[i] - '0';
+            soma += (10 - i) * valor;
+            if (i < 9) {
+                corpo = corpo * 10 + valor;
+            }
+        }
+        if (soma % 11 != 0) {
+            throw new IllegalArgumentException("ISBN inválido: " + original);
+        }
+        return corpo * 10 + digitoVerificador13(corpo);
+    }
+
+    // Dígito verificador do ISBN-13 a partir dos 12 primeiros dígitos
+    private static long digitoVerificador13(long doze) {
+        int soma = 0;
+        for (int posicao = 11; posicao >= 0; posicao--) {
+            int digito = (int) (doze % 10);
+            doze /= 10;
+            soma += posicao % 2 == 0 ? digito : digito * 3;
+        }
+        return (10 - soma % 10) % 10;
+    }
+}
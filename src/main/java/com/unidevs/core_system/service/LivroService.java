@@ -1,11 +1,22 @@
 package com.unidevs.core_system.service;
 
 import com.unidevs.core_system.controller.dto.LivroCatalogoDto;
+import com.unidevs.core_system.controller.dto.LivroLoteDto;
+import com.unidevs.core_system.controller.dto.LivroProjecao;
 import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.GrupoDuplicatasDto;
+import com.unidevs.core_system.controller.dto.ImportacaoLivrosDto;
 import com.unidevs.core_system.controller.dto.UpdateLivroDto;
+import com.unidevs.core_system.entity.EntidadeAlterada;
 import com.unidevs.core_system.entity.Livro;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.entity.TipoMovimentoInventario;
 import com.unidevs.core_system.repository.LivroRepository;
+import com.unidevs.core_system.web.TemporizadorFases;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
@@ -13,8 +24,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Collectors; // <<< NOVO
 
@@ -30,9 +49,27 @@ import java.util.stream.Collectors; // <<< NOVO
  * 3. Controle de status de disponibilidade
  * 4. Consultas de livros por título, autor, gênero ou tags
  * 5. Processamento de empréstimos e reservas
+ * 6. Consultas de projeção restritas aos campos solicitados (parâmetro "fields")
+ * 7. Consulta de vários livros em lote, com consultas IN em blocos
+ * 8. Empréstimo de vários livros em uma única transação (tudo ou nada)
+ * 9. Livros relacionados, a partir da tabela pré-calculada pelo RecomendacaoService
+ * 10. Ranking de livros mais emprestados, alimentado pelos eventos de empréstimo confirmados
+ * 11. Publicação de cada movimento de estoque (MovimentoInventarioEvent), registrado no diário de inventário
+ *     e consolidado nos rollups dos relatórios
+ * 12. Quantidades do livro mantidas pelo EstoqueFilialService como a soma do estoque das filiais: empréstimos,
+ *     devoluções e ajustes sem filial informada acontecem na filial padrão
+ * 13. Devolução de exemplares na filial padrão
+ * 14. ISBN validado e gravado como ISBN-13 canônico (texto e chave numérica); busca por ISBN e importação em lote
+ *     com detecção de ISBNs duplicados pela chave numérica
+ * 15. Livros quase duplicados (título e autor parecidos) apontados no cadastro e na importação, e agrupados em
+ *     todo o acervo, pelo índice MinHash do IndiceDuplicatas
  *
  * Parâmetros:
  * @param livroRepository Instância do LivroRepository
+ * @param sincronizacaoClusterService Serviço que registra as alterações para as demais instâncias
+ * @param recomendacaoService Serviço com os livros relacionados pré-calculados
+ * @param popularidadeService Serviço com o ranking de livros mais emprestados
+ * @param eventPublisher Publicador dos eventos de empréstimo e de movimento de estoque
  * @param createLivroDto Dados do livro (DTO)
  * @param imagemCapa Arquivo de imagem opcional
  * @param livroId Identificador do livro
@@ -41,16 +78,51 @@ import java.util.stream.Collectors; // <<< NOVO
  * @param livro Entidade Livro
  * @param file Arquivo enviado
  * @param filename Nome do arquivo
+ * @param fields Lista de campos separados por vírgula
+ * @param ids Identificadores dos livros consultados em lote
+ * @param livroIds Identificadores dos livros emprestados em lote
+ * @param filialId Filial dos exemplares emprestados (nula para a filial padrão)
+ * @param limite Quantidade máxima de livros relacionados ou mais emprestados
+ * @param periodo Período do ranking de mais emprestados (semana, mes ou total)
  *
  */
 @Service
 public class LivroService {
+    // Campos de Livro que podem ser solicitados no parâmetro "fields"
+    private static final Set<String> CAMPOS_PROJECAO = Set.of(
+            "livroId", "titulo", "autor", "genero", "anoPublicacao", "quantidadeDisponivel", "quantidadeTotal",
+            "isbn", "caminhoImagemCapa", "tags", "status", "creationTimestamp", "updateTimestamp");
+
     private final LivroRepository livroRepository;
+    private final SincronizacaoClusterService sincronizacaoClusterService;
+    private final RecomendacaoService recomendacaoService;
+    private final PopularidadeService popularidadeService;
+    private final EstoqueFilialService estoqueFilialService;
+    private final IndiceIsbn indiceIsbn;
+    private final IndiceDuplicatas indiceDuplicatas;
+    private final ApplicationEventPublisher eventPublisher;
     private final Path fileStorageLocation;
+    private final int tamanhoBlocoLote;
 
     // Inicializa o repositório e configura o diretório de armazenamento de arquivos
-    public LivroService(LivroRepository livroRepository) {
+    public LivroService(LivroRepository livroRepository,
+                        SincronizacaoClusterService sincronizacaoClusterService,
+                        RecomendacaoService recomendacaoService,
+                        PopularidadeService popularidadeService,
+                        EstoqueFilialService estoqueFilialService,
+                        IndiceIsbn indiceIsbn,
+                        IndiceDuplicatas indiceDuplicatas,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${app.livro.lote.tamanho-bloco:100}") int tamanhoBlocoLote) {
         this.livroRepository = livroRepository;
+        this.sincronizacaoClusterService = sincronizacaoClusterService;
+        this.recomendacaoService = recomendacaoService;
+        this.popularidadeService = popularidadeService;
+        this.estoqueFilialService = estoqueFilialService;
+        this.indiceIsbn = indiceIsbn;
+        this.indiceDuplicatas = indiceDuplicatas;
+        this.eventPublisher = eventPublisher;
+        this.tamanhoBlocoLote = tamanhoBlocoLote;
         this.fileStorageLocation = Paths.get("uploads").toAbsolutePath().normalize();
         try {
             Files.createDirectories(this.fileStorageLocation);
@@ -60,30 +132,84 @@ public class LivroService {
     }
 
     // Cria um novo livro e, opcionalmente, salva a imagem de capa
+    @Transactional
     public UUID createLivro(CreateLivroDto createLivroDto, MultipartFile imagemCapa) {
+        var isbn = validarIsbn(createLivroDto.isbn(), null);
         String nomeArquivo = salvarImagem(imagemCapa);
+        return cadastrar(createLivroDto, nomeArquivo, isbn);
+    }
 
-        var entity = new Livro();
-        entity.setTitulo(createLivroDto.titulo());
-        entity.setAutor(createLivroDto.autor());
-        entity.setGenero(createLivroDto.genero());
-        entity.setAnoPublicacao(createLivroDto.anoPublicacao());
-        entity.setQuantidadeDisponivel(createLivroDto.quantidadeDisponivel());
-        entity.setQuantidadeTotal(createLivroDto.quantidadeDisponivel());
-        entity.setIsbn(createLivroDto.isbn());
-        entity.setCaminhoImagemCapa(nomeArquivo);
-        entity.setTags(createLivroDto.tags());
+    // Importa vários livros em uma transação. Livros com ISBN inválido, repetido no lote ou já cadastrado são
+    // recusados e os demais são criados. Os ISBNs já cadastrados são conferidos pela chave numérica, em blocos.
+    // Livros criados com título e autor parecidos com os de outro livro (do acervo ou do lote) são apontados.
+    @Transactional
+    public ImportacaoLivrosDto importar(List<CreateLivroDto> livros) {
+        var recusados = new ArrayList<ImportacaoLivrosDto.Recusado>();
+        var chaves = new Long[livros.size()];
+        var aceitos = new boolean[livros.size()];
+        var posicaoPorIsbn = new HashMap<Long, Integer>();
+        for (int i = 0; i < livros.size(); i++) {
+            var isbn = livros.get(i).isbn();
+            aceitos[i] = true;
+            if (isbn == null || isbn.isBlank()) {
+                continue;
+            }
+            try {
+                chaves[i] = Isbn.canonizar(isbn);
+            } catch (IllegalArgumentException e) {
+                recusados.add(new ImportacaoLivrosDto.Recusado(i, isbn, e.getMessage()));
+                aceitos[i] = false;
+                continue;
+            }
+            var anterior = posicaoPorIsbn.putIfAbsent(chaves[i], i);
+            if (anterior != null) {
+                recusados.add(new ImportacaoLivrosDto.Recusado(i, isbn, "ISBN repetido na posição " + anterior + "."));
+                aceitos[i] = false;
+            }
+        }
 
-        livroRepository.save(entity);
+        var cadastrados = new HashMap<Long, UUID>();
+        var bloco = new ArrayList<Long>(tamanhoBlocoLote);
+        for (var chave : posicaoPorIsbn.keySet()) {
+            bloco.add(chave);
+            if (bloco.size() == tamanhoBlocoLote) {
+                livroRepository.findIsbnsIn(bloco).forEach(i -> cadastrados.put(i.getIsbnNumerico(), i.getLivroId()));
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            livroRepository.findIsbnsIn(bloco).forEach(i -> cadastrados.put(i.getIsbnNumerico(), i.getLivroId()));
+        }
 
-        if (entity.getQuantidadeDisponivel() > 0) {
-            entity.setStatus("Disponível");
-        } else {
-            entity.setStatus("Emprestado");
+        var criados = new ArrayList<UUID>();
+        var suspeitos = new ArrayList<ImportacaoLivrosDto.Suspeito>();
+        var verificacao = indiceDuplicatas.novoLote();
+        for (int i = 0; i < livros.size(); i++) {
+            if (!aceitos[i]) {
+                continue;
+            }
+            var existente = chaves[i] != null ? cadastrados.get(chaves[i]) : null;
+            if (existente != null) {
+                recusados.add(new ImportacaoLivrosDto.Recusado(
+                        i, livros.get(i).isbn(), "ISBN já cadastrado no livro " + existente + "."));
+                continue;
+            }
+            var livroId = cadastrar(livros.get(i), null, chaves[i]);
+            criados.add(livroId);
+            var semelhantes = verificacao.verificar(livroId, livros.get(i).titulo(), livros.get(i).autor());
+            if (!semelhantes.isEmpty()) {
+                suspeitos.add(new ImportacaoLivrosDto.Suspeito(i, livroId,
+                        semelhantes.stream().map(IndiceDuplicatas.Semelhante::livroId).toList()));
+            }
         }
+        recusados.sort(Comparator.comparingInt(ImportacaoLivrosDto.Recusado::posicao));
+        return new ImportacaoLivrosDto(criados, recusados, suspeitos);
+    }
 
-        var livroSalvo = livroRepository.save(entity);
-        return livroSalvo.getLivroId();
+    // Retorna um livro pelo ISBN (ISBN-10 ou ISBN-13, com ou sem hífens), consultando antes o índice em memória
+    @Transactional(readOnly = true)
+    public Optional<Livro> buscarPorIsbn(String isbn) {
+        return indiceIsbn.buscar(Isbn.canonizar(isbn)).flatMap(livroRepository::findById);
     }
 
     // Retorna um livro pelo seu identificador
@@ -92,14 +218,86 @@ public class LivroService {
     }
 
     // Retorna a lista completa de livros cadastrados
+    @Transactional(readOnly = true)
     public List<Livro> listLivros() {
         return livroRepository.findAll();
     }
 
+    // Retorna vários livros de uma vez, na ordem solicitada, informando os identificadores não encontrados.
+    // Os ids são consultados em blocos para limitar o tamanho de cada cláusula IN.
+    @Transactional(readOnly = true)
+    public LivroLoteDto buscarEmLote(List<String> ids) {
+        var solicitados = new LinkedHashSet<UUID>();
+        for (var livroId : ids) {
+            solicitados.add(UUID.fromString(livroId.trim()));
+        }
+
+        var encontrados = new HashMap<UUID, Livro>(solicitados.size() * 2);
+        var bloco = new ArrayList<UUID>(tamanhoBlocoLote);
+        for (var id : solicitados) {
+            bloco.add(id);
+            if (bloco.size() == tamanhoBlocoLote) {
+                livroRepository.findAllById(bloco).forEach(livro -> encontrados.put(livro.getLivroId(), livro));
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            livroRepository.findAllById(bloco).forEach(livro -> encontrados.put(livro.getLivroId(), livro));
+        }
+
+        var livros = new ArrayList<Livro>(encontrados.size());
+        var naoEncontrados = new ArrayList<String>();
+        for (var id : solicitados) {
+            var livro = encontrados.get(id);
+            if (livro != null) {
+                livros.add(livro);
+            } else {
+                naoEncontrados.add(id.toString());
+            }
+        }
+        return new LivroLoteDto(livros, naoEncontrados);
+    }
+
+    // Retorna apenas os campos solicitados de um livro
+    @Transactional(readOnly = true)
+    public Optional<LivroProjecao> getCamposLivroById(String livroId, String fields) {
+        return livroRepository.findCamposById(UUID.fromString(livroId), resolverCampos(fields));
+    }
+
+    // Retorna apenas os campos solicitados de todos os livros
+    @Transactional(readOnly = true)
+    public List<LivroProjecao> listCamposLivros(String fields) {
+        return livroRepository.findCampos(resolverCampos(fields));
+    }
+
+    // Pesquisa livros por título, autor, gênero ou tags, retornando apenas os campos solicitados
+    @Transactional(readOnly = true)
+    public List<LivroProjecao> searchCamposLivros(String termo, String fields) {
+        if (termo == null || termo.trim().isEmpty()) {
+            return listCamposLivros(fields);
+        }
+        return livroRepository.findCamposByTermo(termo, resolverCampos(fields));
+    }
+
+    // Pesquisa livros que contenham determinada tag, retornando apenas os campos solicitados
+    @Transactional(readOnly = true)
+    public List<LivroProjecao> searchCamposByTag(String tag, String fields) {
+        if (tag == null || tag.trim().isEmpty()) {
+            return listCamposLivros(fields);
+        }
+        return livroRepository.findCamposByTag(tag.trim(), resolverCampos(fields));
+    }
+
     // Atualiza os dados de um livro existente, permitindo alteração dos campos.
     // Caso uma nova imagem seja enviada, a antiga é removida do diretório.
+    @Transactional
     public void updateLivroById(String livroId, UpdateLivroDto updateLivroDto, MultipartFile imagemCapa) {
         var id = UUID.fromString(livroId);
+        // O estoque é ajustado antes de carregar o livro: a filial padrão é bloqueada antes do livro, como nos
+        // empréstimos. O ajuste avisa as outras instâncias por conta própria (ESTOQUE_FILIAL).
+        if (updateLivroDto.quantidadeDisponivel() != null) {
+            estoqueFilialService.ajustarDisponivel(id, updateLivroDto.quantidadeDisponivel());
+        }
         var livroOptional = livroRepository.findById(id);
 
         if (livroOptional.isPresent()) {
@@ -110,16 +308,11 @@ public class LivroService {
             if (updateLivroDto.genero() != null) livro.setGenero(updateLivroDto.genero());
             if (updateLivroDto.anoPublicacao() != null) livro.setAnoPublicacao(updateLivroDto.anoPublicacao());
 
-            if (updateLivroDto.quantidadeDisponivel() != null) {
-                livro.setQuantidadeDisponivel(updateLivroDto.quantidadeDisponivel());
-                if (livro.getQuantidadeDisponivel() > 0) {
-                    livro.setStatus("Disponível");
-                } else {
-                    livro.setStatus("Emprestado");
-                }
+            if (updateLivroDto.isbn() != null) {
+                var isbn = validarIsbn(updateLivroDto.isbn(), id);
+                livro.setIsbn(isbn != null ? Isbn.formatar(isbn) : null);
+                livro.setIsbnNumerico(isbn);
             }
-
-            if (updateLivroDto.isbn() != null) livro.setIsbn(updateLivroDto.isbn());
             if (updateLivroDto.tags() != null) livro.setTags(updateLivroDto.tags());
 
             if (imagemCapa != null && !imagemCapa.isEmpty()) {
@@ -131,21 +324,34 @@ public class LivroService {
             }
 
             livroRepository.save(livro);
+            boolean dadosAlterados = updateLivroDto.titulo() != null || updateLivroDto.autor() != null
+                    || updateLivroDto.genero() != null || updateLivroDto.anoPublicacao() != null
+                    || updateLivroDto.isbn() != null || updateLivroDto.tags() != null
+                    || (imagemCapa != null && !imagemCapa.isEmpty());
+            if (dadosAlterados) {
+                registrarAlteracao(id, TipoAlteracao.ATUALIZACAO);
+            }
         }
     }
 
     // Remove um livro e sua imagem de capa, caso exista
+    @Transactional
     public void deleteById(String livroId) {
         var id = UUID.fromString(livroId);
         livroRepository.findById(id).ifPresent(livro -> {
             if (livro.getCaminhoImagemCapa() != null) {
                 deletarImagem(livro.getCaminhoImagemCapa());
             }
+            estoqueFilialService.removerLivro(id);
             livroRepository.deleteById(id);
+            registrarAlteracao(id, TipoAlteracao.REMOCAO);
+            registrarMovimento(livro, TipoMovimentoInventario.REMOCAO,
+                    livro.getQuantidadeDisponivel() != null ? -livro.getQuantidadeDisponivel() : 0);
         });
     }
 
     // Pesquisa livros por título, autor, gênero ou tags
+    @Transactional(readOnly = true)
     public List<Livro> searchLivros(String termo) {
         if (termo == null || termo.trim().isEmpty()) {
             return livroRepository.findAll();
@@ -156,6 +362,7 @@ public class LivroService {
     }
 
     // Pesquisa livros que contenham determinada tag
+    @Transactional(readOnly = true)
     public List<Livro> searchByTag(String tag) {
         if (tag == null || tag.trim().isEmpty()) {
             return livroRepository.findAll();
@@ -164,31 +371,184 @@ public class LivroService {
     }
 
     // Retorna todos os livros convertidos para o formato de catálogo
+    @Transactional(readOnly = true)
     public List<LivroCatalogoDto> listarTodosParaCatalogo() {
-        return livroRepository.findAll()
-                .stream()
+        var encontrados = livroRepository.findAll();
+        long inicio = TemporizadorFases.iniciar();
+        var livros = encontrados.stream()
                 .map(this::converterParaCatalogoDto)
                 .collect(Collectors.toList());
+        TemporizadorFases.registrar(TemporizadorFases.Fase.CONVERSAO, inicio);
+        return livros;
+    }
+
+    // Retorna os livros relacionados a um livro, na ordem de similaridade calculada em segundo plano.
+    @Transactional(readOnly = true)
+    public List<LivroCatalogoDto> listarRelacionados(String livroId, int limite) {
+        return listarParaCatalogoNaOrdem(recomendacaoService.relacionados(UUID.fromString(livroId), limite));
+    }
+
+    // Retorna os livros com título e autor parecidos com os do livro informado, pelo índice MinHash em memória
+    public List<UUID> listarDuplicatasSuspeitas(UUID livroId) {
+        return indiceDuplicatas.semelhantes(livroId).stream().map(IndiceDuplicatas.Semelhante::livroId).toList();
+    }
+
+    // Retorna os grupos de livros que parecem ser o mesmo livro em todo o acervo, do maior para o menor
+    @Transactional(readOnly = true)
+    public List<GrupoDuplicatasDto> listarGruposDuplicatas() {
+        var grupos = indiceDuplicatas.grupos();
+        var livros = new HashMap<UUID, LivroCatalogoDto>();
+        for (var livro : listarParaCatalogoNaOrdem(grupos.stream().flatMap(List::stream).toList())) {
+            livros.put(livro.livroId(), livro);
+        }
+        var resultado = new ArrayList<GrupoDuplicatasDto>(grupos.size());
+        for (var grupo : grupos) {
+            // Livros removidos depois da montagem dos grupos são ignorados
+            var encontrados = grupo.stream().map(livros::get).filter(Objects::nonNull).toList();
+            if (encontrados.size() > 1) {
+                resultado.add(new GrupoDuplicatasDto(encontrados));
+            }
+        }
+        return resultado;
+    }
+
+    // Retorna os livros mais emprestados no período, a partir do ranking mantido em memória
+    @Transactional(readOnly = true)
+    public List<LivroCatalogoDto> listarMaisEmprestados(String periodo, int limite) {
+        var ids = popularidadeService.maisEmprestados(PopularidadeService.Periodo.de(periodo), limite);
+        return listarParaCatalogoNaOrdem(ids);
     }
 
-    // Processa o empréstimo de um livro
+    // Processa o empréstimo de um livro na filial padrão
     // Reduz a quantidade disponível e atualiza o status.
+    @Transactional
     public void solicitarEmprestimo(String livroId) {
-        var id = UUID.fromString(livroId);
-        Livro livro = livroRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Livro não encontrado com o ID: " + livroId));
+        solicitarEmprestimoEmLote(List.of(livroId), null);
+    }
 
-        if (livro.getQuantidadeDisponivel() > 0) {
-            livro.setQuantidadeDisponivel(livro.getQuantidadeDisponivel() - 1);
+    // Processa o empréstimo de vários livros na filial padrão
+    @Transactional
+    public void solicitarEmprestimoEmLote(List<String> livroIds) {
+        solicitarEmprestimoEmLote(livroIds, null);
+    }
 
-            if (livro.getQuantidadeDisponivel() == 0) {
-                livro.setStatus("Emprestado");
-            }
+    // Processa o empréstimo de vários livros de uma filial (nula para a padrão) em uma única transação: se algum
+    // não puder ser emprestado, nenhum é. As linhas são bloqueadas (SELECT ... FOR UPDATE) sempre na mesma ordem de
+    // id, para que carrinhos concorrentes com livros em comum esperem uns pelos outros em vez de entrarem em deadlock.
+    @Transactional
+    public void solicitarEmprestimoEmLote(List<String> livroIds, UUID filialId) {
+        var quantidades = new TreeMap<UUID, Integer>();
+        for (var livroId : livroIds) {
+            quantidades.merge(UUID.fromString(livroId.trim()), 1, Integer::sum);
+        }
+        estoqueFilialService.emprestarEmLote(quantidades, filialId);
+    }
 
-            livroRepository.save(livro);
+    // Processa a devolução de um exemplar à filial padrão, sem passar da quantidade total da filial
+    @Transactional
+    public void registrarDevolucao(String livroId) {
+        estoqueFilialService.devolver(UUID.fromString(livroId), null);
+    }
+
+    // Persiste um novo livro com o ISBN já validado na forma canônica
+    private UUID cadastrar(CreateLivroDto createLivroDto, String nomeArquivo, Long isbn) {
+        var entity = new Livro();
+        entity.setTitulo(createLivroDto.titulo());
+        entity.setAutor(createLivroDto.autor());
+        entity.setGenero(createLivroDto.genero());
+        entity.setAnoPublicacao(createLivroDto.anoPublicacao());
+        entity.setQuantidadeDisponivel(createLivroDto.quantidadeDisponivel());
+        entity.setQuantidadeTotal(createLivroDto.quantidadeDisponivel());
+        entity.setIsbn(isbn != null ? Isbn.formatar(isbn) : null);
+        entity.setIsbnNumerico(isbn);
+        entity.setCaminhoImagemCapa(nomeArquivo);
+        entity.setTags(createLivroDto.tags());
+
+        if (entity.getQuantidadeDisponivel() > 0) {
+            entity.setStatus("Disponível");
         } else {
-            throw new RuntimeException("Não há exemplares disponíveis para empréstimo.");
+            entity.setStatus("Emprestado");
+        }
+
+        // Um único save: o status já definido evita um UPDATE logo após o INSERT
+        var livroSalvo = livroRepository.save(entity);
+        estoqueFilialService.registrarLivroNovo(livroSalvo.getLivroId(), livroSalvo.getQuantidadeDisponivel());
+        registrarAlteracao(livroSalvo.getLivroId(), TipoAlteracao.CRIACAO);
+        registrarMovimento(livroSalvo, TipoMovimentoInventario.CADASTRO, livroSalvo.getQuantidadeDisponivel());
+        return livroSalvo.getLivroId();
+    }
+
+    // Valida o ISBN informado e retorna sua forma canônica numérica (null se ausente). Recusa ISBN de outro livro.
+    private Long validarIsbn(String isbn, UUID livroId) {
+        if (isbn == null || isbn.isBlank()) {
+            return null;
+        }
+        long canonico = Isbn.canonizar(isbn);
+        indiceIsbn.buscar(canonico)
+                .filter(outro -> !outro.equals(livroId))
+                .ifPresent(outro -> {
+                    throw new IllegalArgumentException("ISBN já cadastrado no livro " + outro + ".");
+                });
+        return canonico;
+    }
+
+    // Converte o parâmetro "fields" em uma lista de campos válidos, sem repetições e na ordem informada
+    private List<String> resolverCampos(String fields) {
+        var campos = new LinkedHashSet<String>();
+        for (var campo : fields.split(",")) {
+            var nome = campo.trim();
+            if (nome.isEmpty()) {
+                continue;
+            }
+            if (!CAMPOS_PROJECAO.contains(nome)) {
+                throw new IllegalArgumentException("Campo desconhecido: " + nome);
+            }
+            campos.add(nome);
+        }
+        if (campos.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo em 'fields'.");
+        }
+        return new ArrayList<>(campos);
+    }
+
+    // Registra a alteração do livro no log compartilhado entre as instâncias
+    private void registrarAlteracao(UUID livroId, TipoAlteracao operacao) {
+        sincronizacaoClusterService.registrar(EntidadeAlterada.LIVRO, livroId.toString(), operacao);
+    }
+
+    // Publica o estado de estoque do livro após o movimento; o diário de inventário o registra após o commit
+    private void registrarMovimento(Livro livro, TipoMovimentoInventario tipo, int variacaoDisponivel) {
+        eventPublisher.publishEvent(new MovimentoInventarioEvent(
+                livro.getLivroId(),
+                livro.getGenero(),
+                tipo,
+                variacaoDisponivel,
+                livro.getQuantidadeDisponivel() != null ? livro.getQuantidadeDisponivel() : 0,
+                livro.getQuantidadeTotal() != null ? livro.getQuantidadeTotal() : 0,
+                livro.getStatus(),
+                Instant.now()));
+    }
+
+    // Carrega os livros em uma única consulta e os converte para o catálogo, na ordem dos ids informados.
+    // Livros removidos depois do cálculo dos ids são ignorados.
+    private List<LivroCatalogoDto> listarParaCatalogoNaOrdem(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        var encontrados = new HashMap<UUID, Livro>();
+        for (var livro : livroRepository.findAllById(ids)) {
+            encontrados.put(livro.getLivroId(), livro);
+        }
+        long inicio = TemporizadorFases.iniciar();
+        var livros = new ArrayList<LivroCatalogoDto>(ids.size());
+        for (var id : ids) {
+            var livro = encontrados.get(id);
+            if (livro != null) {
+                livros.add(converterParaCatalogoDto(livro));
+            }
         }
+        TemporizadorFases.registrar(TemporizadorFases.Fase.CONVERSAO, inicio);
+        return livros;
     }
 
     // Converte uma entidade Livro para o DTO de catálogo
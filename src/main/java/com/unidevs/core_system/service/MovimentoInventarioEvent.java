@@ -0,0 +1,35 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.entity.TipoMovimentoInventario;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Evento publicado pelo LivroService a cada alteração de quantidade ou status de um livro.
+ *
+ * Carrega os valores já atualizados, para que o histórico possa ser reconstruído sem consultar o banco.
+ * Deve ser escutado com {@code @TransactionalEventListener}, para que apenas movimentos confirmados sejam
+ * registrados.
+ *
+ * Parâmetros:
+ * @param livroId Livro movimentado.
+ * @param genero Gênero do livro no momento do movimento.
+ * @param tipo Tipo de movimento.
+ * @param variacaoDisponivel Variação da quantidade disponível causada pelo movimento (negativa em empréstimos).
+ * @param quantidadeDisponivel Quantidade disponível após o movimento.
+ * @param quantidadeTotal Quantidade total após o movimento.
+ * @param status Status após o movimento.
+ * @param instante Instante do movimento.
+ */
+public record MovimentoInventarioEvent(
+        UUID livroId,
+        String genero,
+        TipoMovimentoInventario tipo,
+        int variacaoDisponivel,
+        int quantidadeDisponivel,
+        int quantidadeTotal,
+        String status,
+        Instant instante
+) {
+}
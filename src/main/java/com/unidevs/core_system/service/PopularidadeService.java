@@ -0,0 +1,325 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.PopularidadeLivro;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.repository.PopularidadeLivroRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Serviço que mantém o ranking de livros mais emprestados na semana, no mês e desde sempre.
+ *
+ * Responsabilidade: responder "mais emprestados" sem ordenar o acervo a cada requisição, alimentado pelos
+ * empréstimos confirmados ({@link EmprestimoRealizadoEvent}).
+ *
+ * Processo:
+ * 1. Cada empréstimo soma exp((t - referência) / τ) à pontuação do livro (decaimento exponencial "para frente");
+ *    como todas as pontuações decaem na mesma taxa, a ordem entre elas só muda quando há novos empréstimos;
+ * 2. Por isso cada período mantém um conjunto ordenado (TreeSet) atualizado em O(log n) a cada empréstimo,
+ *    e o top-N é lido diretamente do início do conjunto;
+ * 3. Quando o expoente cresce demais, as pontuações são reescaladas para uma nova referência;
+ * 4. Periodicamente os empréstimos ainda não persistidos são mesclados nas linhas de popularidade_livro, com as
+ *    linhas bloqueadas, e o valor mesclado (que inclui empréstimos de outras instâncias) volta para a memória;
+ * 5. Na inicialização, o ranking é recarregado do último checkpoint.
+ *
+ * Parâmetros:
+ * @param popularidadeLivroRepository Repositório dos checkpoints de popularidade.
+ */
+@Service
+public class PopularidadeService {
+
+    private static final Logger log = LoggerFactory.getLogger(PopularidadeService.class);
+    // Expoente máximo antes de reescalar as pontuações (exp(600) ainda cabe com folga em um double)
+    private static final double EXPOENTE_MAXIMO = 600;
+
+    /**
+     * Períodos do ranking; SEMANA e MES decaem com constante de tempo de 7 e 30 dias.
+     */
+    public enum Periodo {
+        SEMANA(Duration.ofDays(7)),
+        MES(Duration.ofDays(30)),
+        TOTAL(null);
+
+        private final double constanteMs;
+
+        Periodo(Duration constante) {
+            this.constanteMs = constante == null ? 0 : constante.toMillis();
+        }
+
+        public static Periodo de(String valor) {
+            try {
+                return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Período inválido: " + valor + ". Use semana, mes ou total.");
+            }
+        }
+    }
+
+    private static final Periodo[] PERIODOS = Periodo.values();
+
+    private final PopularidadeLivroRepository popularidadeLivroRepository;
+
+    private final Map<UUID, Pontuacao> pontuacoes = new HashMap<>();
+    private final Map<Periodo, TreeSet<Pontuacao>> rankings = new EnumMap<>(Periodo.class);
+    private final Set<UUID> pendentes = new HashSet<>();
+    private final Set<UUID> removidos = new HashSet<>();
+    private long referencia = System.currentTimeMillis();
+
+    public PopularidadeService(PopularidadeLivroRepository popularidadeLivroRepository) {
+        this.popularidadeLivroRepository = popularidadeLivroRepository;
+        for (var periodo : PERIODOS) {
+            int i = periodo.ordinal();
+            rankings.put(periodo, new TreeSet<>(Comparator.<Pontuacao>comparingDouble(p -> -p.valores[i])
+                    .thenComparing(p -> p.livroId)));
+        }
+    }
+
+    /**
+     * Retorna os livros mais emprestados no período.
+     *
+     * @param periodo Período do ranking;
+     * @param limite Quantidade máxima de livros;
+     * @return Identificadores dos livros, do mais ao menos emprestado.
+     */
+    public synchronized List<UUID> maisEmprestados(Periodo periodo, int limite) {
+        var resultado = new ArrayList<UUID>(limite);
+        for (var pontuacao : rankings.get(periodo)) {
+            if (resultado.size() == limite) {
+                break;
+            }
+            resultado.add(pontuacao.livroId);
+        }
+        return resultado;
+    }
+
+    // Contabiliza somente empréstimos confirmados
+    @TransactionalEventListener
+    public synchronized void aoEmprestar(EmprestimoRealizadoEvent evento) {
+        long instante = evento.instante().toEpochMilli();
+        reescalarSeNecessario(instante);
+        var pontuacao = pontuacoes.computeIfAbsent(evento.livroId(), Pontuacao::new);
+        var incremento = new double[PERIODOS.length];
+        for (var periodo : PERIODOS) {
+            incremento[periodo.ordinal()] = evento.quantidade() * fator(periodo, instante);
+        }
+        reposicionar(pontuacao, () -> {
+            for (int i = 0; i < incremento.length; i++) {
+                pontuacao.valores[i] += incremento[i];
+                pontuacao.naoPersistidos[i] += incremento[i];
+            }
+        });
+        pendentes.add(evento.livroId());
+    }
+
+    // Livros removidos saem do ranking e do checkpoint
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoAlterar(AlteracaoEntidadeEvent evento) {
+        if (evento.entidade() != EntidadeAlterada.LIVRO || evento.operacao() != TipoAlteracao.REMOCAO) {
+            return;
+        }
+        var livroId = UUID.fromString(evento.chave());
+        var pontuacao = pontuacoes.remove(livroId);
+        if (pontuacao != null) {
+            rankings.values().forEach(ranking -> ranking.remove(pontuacao));
+        }
+        pendentes.remove(livroId);
+        if (!evento.remota()) {
+            removidos.add(livroId);
+        }
+    }
+
+    // Recarrega o ranking a partir do último checkpoint
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        var linhas = popularidadeLivroRepository.findAll();
+        synchronized (this) {
+            long agora = System.currentTimeMillis();
+            reescalarSeNecessario(agora);
+            for (var linha : linhas) {
+                var pontuacao = pontuacoes.computeIfAbsent(linha.getLivroId(), Pontuacao::new);
+                var persistidos = paraReferencia(linha, agora);
+                reposicionar(pontuacao, () -> {
+                    for (int i = 0; i < persistidos.length; i++) {
+                        pontuacao.valores[i] += persistidos[i];
+                    }
+                });
+            }
+        }
+        log.info("Ranking de popularidade carregado com {} livros", linhas.size());
+    }
+
+    // Mescla os empréstimos ainda não persistidos nas linhas do banco
+    @Scheduled(fixedDelayString = "${app.popularidade.intervalo-checkpoint-ms:60000}",
+            initialDelayString = "${app.popularidade.intervalo-checkpoint-ms:60000}")
+    @Transactional
+    public void checkpoint() {
+        var lote = new HashMap<UUID, double[]>();
+        List<UUID> paraRemover;
+        long agora;
+        long referenciaLote;
+        synchronized (this) {
+            for (var livroId : pendentes) {
+                lote.put(livroId, pontuacoes.get(livroId).naoPersistidos.clone());
+            }
+            pendentes.clear();
+            paraRemover = new ArrayList<>(removidos);
+            removidos.clear();
+            agora = System.currentTimeMillis();
+            referenciaLote = referencia;
+        }
+        if (!paraRemover.isEmpty()) {
+            popularidadeLivroRepository.deleteAllById(paraRemover);
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+
+        var linhas = new HashMap<UUID, PopularidadeLivro>();
+        popularidadeLivroRepository.findAllParaAtualizacao(lote.keySet())
+                .forEach(linha -> linhas.put(linha.getLivroId(), linha));
+        var instante = Instant.ofEpochMilli(agora);
+        for (var item : lote.entrySet()) {
+            var linha = linhas.computeIfAbsent(item.getKey(), id -> new PopularidadeLivro(id, instante));
+            var incremento = item.getValue();
+            long decorridoLinha = agora - linha.getAtualizadoEm().toEpochMilli();
+            long decorridoReferencia = agora - referenciaLote;
+            linha.setPontuacaoSemana(linha.getPontuacaoSemana() * decaimento(Periodo.SEMANA, decorridoLinha)
+                    + incremento[Periodo.SEMANA.ordinal()] * decaimento(Periodo.SEMANA, decorridoReferencia));
+            linha.setPontuacaoMes(linha.getPontuacaoMes() * decaimento(Periodo.MES, decorridoLinha)
+                    + incremento[Periodo.MES.ordinal()] * decaimento(Periodo.MES, decorridoReferencia));
+            linha.setTotalEmprestimos(linha.getTotalEmprestimos() + Math.round(incremento[Periodo.TOTAL.ordinal()]));
+            linha.setAtualizadoEm(instante);
+        }
+        var salvas = popularidadeLivroRepository.saveAll(linhas.values());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                aplicarCheckpoint(lote, salvas, agora, referenciaLote);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    devolverPendentes(lote.keySet(), paraRemover);
+                }
+            }
+        });
+    }
+
+    // Substitui os valores em memória pelos valores mesclados, preservando empréstimos feitos durante o checkpoint
+    private synchronized void aplicarCheckpoint(Map<UUID, double[]> lote, List<PopularidadeLivro> salvas,
+                                                long agora, long referenciaLote) {
+        double[] escala = new double[PERIODOS.length];
+        for (var periodo : PERIODOS) {
+            // Se houve reescala durante o checkpoint, os incrementos do lote estão na referência antiga
+            escala[periodo.ordinal()] = decaimento(periodo, referencia - referenciaLote);
+        }
+        for (var linha : salvas) {
+            var pontuacao = pontuacoes.get(linha.getLivroId());
+            if (pontuacao == null) {
+                continue;
+            }
+            var enviados = lote.get(linha.getLivroId());
+            var persistidos = paraReferencia(linha, agora);
+            reposicionar(pontuacao, () -> {
+                for (int i = 0; i < PERIODOS.length; i++) {
+                    pontuacao.naoPersistidos[i] -= enviados[i] * escala[i];
+                    pontuacao.valores[i] = persistidos[i] + pontuacao.naoPersistidos[i];
+                }
+            });
+        }
+    }
+
+    private synchronized void devolverPendentes(Set<UUID> livroIds, List<UUID> paraRemover) {
+        for (var livroId : livroIds) {
+            if (pontuacoes.containsKey(livroId)) {
+                pendentes.add(livroId);
+            }
+        }
+        removidos.addAll(paraRemover);
+    }
+
+    // Converte as pontuações de uma linha (válidas em "agora") para a escala da referência atual
+    private double[] paraReferencia(PopularidadeLivro linha, long agora) {
+        var valores = new double[PERIODOS.length];
+        long decorrido = agora - linha.getAtualizadoEm().toEpochMilli();
+        valores[Periodo.SEMANA.ordinal()] = linha.getPontuacaoSemana()
+                * decaimento(Periodo.SEMANA, decorrido) * fator(Periodo.SEMANA, agora);
+        valores[Periodo.MES.ordinal()] = linha.getPontuacaoMes()
+                * decaimento(Periodo.MES, decorrido) * fator(Periodo.MES, agora);
+        valores[Periodo.TOTAL.ordinal()] = linha.getTotalEmprestimos();
+        return valores;
+    }
+
+    // Peso de um empréstimo feito no instante informado, relativo à referência
+    private double fator(Periodo periodo, long instante) {
+        return periodo.constanteMs == 0 ? 1 : Math.exp((instante - referencia) / periodo.constanteMs);
+    }
+
+    private static double decaimento(Periodo periodo, long decorridoMs) {
+        return periodo.constanteMs == 0 ? 1 : Math.exp(-decorridoMs / periodo.constanteMs);
+    }
+
+    // Move a referência para o instante atual quando o fator de algum período ficaria grande demais
+    private void reescalarSeNecessario(long agora) {
+        if ((agora - referencia) / Periodo.SEMANA.constanteMs < EXPOENTE_MAXIMO) {
+            return;
+        }
+        var escala = new double[PERIODOS.length];
+        for (var periodo : PERIODOS) {
+            escala[periodo.ordinal()] = decaimento(periodo, agora - referencia);
+        }
+        referencia = agora;
+        rankings.values().forEach(TreeSet::clear);
+        for (var pontuacao : pontuacoes.values()) {
+            for (int i = 0; i < escala.length; i++) {
+                pontuacao.valores[i] *= escala[i];
+                pontuacao.naoPersistidos[i] *= escala[i];
+            }
+            rankings.values().forEach(ranking -> ranking.add(pontuacao));
+        }
+    }
+
+    // Remove a pontuação dos conjuntos ordenados antes de alterá-la e a reinsere em seguida
+    private void reposicionar(Pontuacao pontuacao, Runnable alteracao) {
+        rankings.values().forEach(ranking -> ranking.remove(pontuacao));
+        alteracao.run();
+        rankings.values().forEach(ranking -> ranking.add(pontuacao));
+    }
+
+    // Pontuações de um livro, na escala da referência atual, indexadas pelo ordinal do período
+    private static final class Pontuacao {
+        private final UUID livroId;
+        private final double[] valores = new double[PERIODOS.length];
+        private final double[] naoPersistidos = new double[PERIODOS.length];
+
+        private Pontuacao(UUID livroId) {
+            this.livroId = livroId;
+        }
+    }
+}
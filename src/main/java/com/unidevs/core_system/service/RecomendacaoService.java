@@ -0,0 +1,426 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.LivroProjecao;
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.repository.LivroRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Serviço que pré-calcula os livros relacionados ("você também pode gostar") de cada livro.
+ *
+ * Responsabilidade: manter em memória, para cada livro, os k vizinhos mais parecidos por autor, gênero e tags,
+ * de modo que a página do livro obtenha as recomendações sem varrer o acervo a cada requisição.
+ *
+ * Processo:
+ * 1. Cada livro vira um vetor esparso de características ("autor:", "genero:", "tag:"), ponderadas por IDF;
+ * 2. Listas invertidas (característica → livros) fornecem os candidatos de cada livro, evitando comparar todos
+ *    os pares; características muito frequentes são ignoradas na geração de candidatos;
+ * 3. A similaridade de cosseno é acumulada somente para os candidatos e os k melhores são guardados;
+ * 4. Um job em segundo plano reconstrói a tabela inteira periodicamente;
+ * 5. Alterações de livros ({@link AlteracaoEntidadeEvent}) colocam o livro em uma fila; a fila é processada em
+ *    segundo plano, recalculando apenas os livros cujas características mudaram e os livros que compartilham
+ *    características com eles;
+ * 6. Os vizinhos são calculados fora do bloqueio de escrita, que só protege a troca das referências, de modo que
+ *    as leituras não esperam pelo cálculo.
+ *
+ * Entre reconstruções completas os pesos IDF dos demais livros podem ficar levemente defasados.
+ */
+@Service
+public class RecomendacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecomendacaoService.class);
+    private static final List<String> CAMPOS = List.of("livroId", "autor", "genero", "tags");
+    private static final double PESO_AUTOR = 1.5;
+
+    private final LivroRepository livroRepository;
+    private final int quantidadeVizinhos;
+    private final int maximoPorCaracteristica;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializa a reconstrução e o processamento incremental, que alteram a tabela
+    private final ReentrantLock atualizacao = new ReentrantLock();
+    private final Set<UUID> pendentes = ConcurrentHashMap.newKeySet();
+
+    private Tabela tabela = new Tabela(0);
+
+    public RecomendacaoService(LivroRepository livroRepository,
+                               @Value("${app.recomendacao.vizinhos:10}") int quantidadeVizinhos,
+                               @Value("${app.recomendacao.maximo-por-caracteristica:5000}") int maximoPorCaracteristica) {
+        this.livroRepository = livroRepository;
+        this.quantidadeVizinhos = quantidadeVizinhos;
+        this.maximoPorCaracteristica = maximoPorCaracteristica;
+    }
+
+    /**
+     * Retorna os livros relacionados já calculados.
+     *
+     * @param livroId Livro de referência;
+     * @param limite Quantidade máxima de livros;
+     * @return Identificadores dos livros relacionados, do mais parecido ao menos parecido.
+     */
+    public List<UUID> relacionados(UUID livroId, int limite) {
+        lock.readLock().lock();
+        try {
+            var atual = tabela;
+            var posicao = atual.posicoes.get(livroId);
+            if (posicao == null) {
+                return List.of();
+            }
+            var lista = atual.vizinhos.get(posicao);
+            var resultado = new ArrayList<UUID>(Math.min(limite, lista.length));
+            for (int i = 0; i < lista.length && resultado.size() < limite; i++) {
+                var id = atual.ids.get(lista[i]);
+                if (id != null) {
+                    resultado.add(id);
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reconstrói a tabela completa na inicialização e periodicamente; as leituras continuam na tabela anterior
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.recomendacao.intervalo-reconstrucao-ms:3600000}",
+            initialDelayString = "${app.recomendacao.intervalo-reconstrucao-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void reconstruir() {
+        atualizacao.lock();
+        try {
+            long inicio = System.nanoTime();
+            var livros = livroRepository.findCampos(CAMPOS);
+
+            var nova = new Tabela(livros.size());
+            for (var livro : livros) {
+                var id = (UUID) livro.valores()[0];
+                int posicao = nova.ids.size();
+                var itens = indexar(extrair(livro), nova.dicionario, nova.listasInvertidas);
+                for (int c : itens) {
+                    nova.listasInvertidas.get(c).adicionar(posicao);
+                }
+                nova.posicoes.put(id, posicao);
+                nova.ids.add(id);
+                nova.caracteristicas.add(itens);
+                nova.vizinhos.add(new int[0]);
+            }
+            nova.quantidadeLivros = nova.ids.size();
+            nova.normas = new double[nova.ids.size()];
+            for (int i = 0; i < nova.ids.size(); i++) {
+                nova.normas[i] = nova.norma(nova.caracteristicas.get(i));
+            }
+            var acumulador = new double[nova.ids.size()];
+            for (int i = 0; i < nova.ids.size(); i++) {
+                nova.vizinhos.set(i, calcularVizinhos(nova, i, acumulador));
+            }
+
+            lock.writeLock().lock();
+            try {
+                tabela = nova;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Recomendações recalculadas para {} livros em {} ms",
+                    livros.size(), (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    // Enfileira livros alterados nesta ou em outra instância
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterar(AlteracaoEntidadeEvent evento) {
+        if (evento.entidade() == EntidadeAlterada.LIVRO) {
+            pendentes.add(UUID.fromString(evento.chave()));
+        }
+    }
+
+    // Recalcula apenas os livros cujas características mudaram e os livros afetados por eles
+    @Scheduled(fixedDelayString = "${app.recomendacao.intervalo-incremental-ms:2000}")
+    @Transactional(readOnly = true)
+    public void processarPendentes() {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        atualizacao.lock();
+        try {
+            var lote = new ArrayList<>(pendentes);
+            pendentes.removeAll(lote);
+
+            var atuais = new HashMap<UUID, LivroProjecao>();
+            for (var livroId : lote) {
+                livroRepository.findCamposById(livroId, CAMPOS).ifPresent(livro -> atuais.put(livroId, livro));
+            }
+
+            var atual = tabela;
+            var afetados = new HashSet<Integer>();
+            lock.writeLock().lock();
+            try {
+                for (var livroId : lote) {
+                    atualizar(atual, livroId, atuais.get(livroId), afetados);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (afetados.isEmpty()) {
+                return;
+            }
+
+            // Só esta thread altera a tabela (atualizacao); as leituras usam apenas posicoes, ids e vizinhos
+            if (atual.normas.length < atual.ids.size()) {
+                atual.normas = Arrays.copyOf(atual.normas, Math.max(atual.ids.size(), atual.normas.length * 2));
+            }
+            for (int posicao : afetados) {
+                atual.normas[posicao] = atual.norma(atual.caracteristicas.get(posicao));
+            }
+            var acumulador = new double[atual.ids.size()];
+            var recalculados = new HashMap<Integer, int[]>();
+            for (int posicao : afetados) {
+                if (atual.caracteristicas.get(posicao) != null) {
+                    recalculados.put(posicao, calcularVizinhos(atual, posicao, acumulador));
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                recalculados.forEach(atual.vizinhos::set);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            atualizacao.unlock();
+        }
+    }
+
+    // Atualiza as características de um livro (ou o remove) e coleta as posições que precisam ser recalculadas
+    private void atualizar(Tabela atual, UUID livroId, LivroProjecao livro, Set<Integer> afetados) {
+        var posicao = atual.posicoes.get(livroId);
+        var antigas = posicao != null ? atual.caracteristicas.get(posicao) : null;
+        var novas = livro != null ? indexar(extrair(livro), atual.dicionario, atual.listasInvertidas) : null;
+        // Empréstimos e devoluções também geram alterações do livro; sem mudança de autor, gênero ou tags
+        // os vizinhos continuam os mesmos
+        if (antigas != null && Arrays.equals(antigas, novas)) {
+            return;
+        }
+
+        if (antigas != null) {
+            for (int c : antigas) {
+                coletar(atual, c, afetados);
+                atual.listasInvertidas.get(c).remover(posicao);
+            }
+            atual.quantidadeLivros--;
+        }
+
+        if (novas == null) {
+            if (posicao != null) {
+                atual.caracteristicas.set(posicao, null);
+                atual.vizinhos.set(posicao, new int[0]);
+                atual.ids.set(posicao, null);
+                atual.posicoes.remove(livroId);
+                afetados.remove(posicao);
+            }
+            return;
+        }
+
+        if (posicao == null) {
+            posicao = atual.ids.size();
+            atual.posicoes.put(livroId, posicao);
+            atual.ids.add(livroId);
+            atual.caracteristicas.add(null);
+            atual.vizinhos.add(new int[0]);
+        }
+        for (int c : novas) {
+            atual.listasInvertidas.get(c).adicionar(posicao);
+            coletar(atual, c, afetados);
+        }
+        atual.caracteristicas.set(posicao, novas);
+        atual.quantidadeLivros++;
+        afetados.add(posicao);
+    }
+
+    private void coletar(Tabela atual, int caracteristica, Set<Integer> afetados) {
+        var lista = atual.listasInvertidas.get(caracteristica);
+        if (lista.tamanho <= maximoPorCaracteristica) {
+            for (int i = 0; i < lista.tamanho; i++) {
+                afetados.add(lista.itens[i]);
+            }
+        }
+    }
+
+    // Acumula o produto escalar com os candidatos das listas invertidas e guarda os k maiores cossenos
+    private int[] calcularVizinhos(Tabela atual, int posicao, double[] acumulador) {
+        var itens = atual.caracteristicas.get(posicao);
+        if (itens == null || itens.length == 0 || atual.normas[posicao] == 0) {
+            return new int[0];
+        }
+        var tocados = new ListaInt();
+        for (int c : itens) {
+            var lista = atual.listasInvertidas.get(c);
+            if (lista.tamanho > maximoPorCaracteristica) {
+                continue;
+            }
+            double peso = atual.peso(c);
+            double contribuicao = peso * peso;
+            for (int i = 0; i < lista.tamanho; i++) {
+                int candidato = lista.itens[i];
+                if (candidato == posicao) {
+                    continue;
+                }
+                if (acumulador[candidato] == 0) {
+                    tocados.adicionar(candidato);
+                }
+                acumulador[candidato] += contribuicao;
+            }
+        }
+
+        var melhores = new int[quantidadeVizinhos];
+        var pontuacoes = new double[quantidadeVizinhos];
+        int quantidade = 0;
+        for (int i = 0; i < tocados.tamanho; i++) {
+            int candidato = tocados.itens[i];
+            double cosseno = acumulador[candidato] / (atual.normas[posicao] * atual.normas[candidato]);
+            acumulador[candidato] = 0;
+            if (quantidade < quantidadeVizinhos || cosseno > pontuacoes[quantidade - 1]) {
+                int j = Math.min(quantidade, quantidadeVizinhos - 1);
+                while (j > 0 && pontuacoes[j - 1] < cosseno) {
+                    pontuacoes[j] = pontuacoes[j - 1];
+                    melhores[j] = melhores[j - 1];
+                    j--;
+                }
+                pontuacoes[j] = cosseno;
+                melhores[j] = candidato;
+                quantidade = Math.min(quantidade + 1, quantidadeVizinhos);
+            }
+        }
+        return Arrays.copyOf(melhores, quantidade);
+    }
+
+    private static int[] indexar(Set<String> termos, Map<String, Integer> dicionario, List<ListaInt> listas) {
+        var itens = new int[termos.size()];
+        int i = 0;
+        for (var termo : termos) {
+            var codigo = dicionario.get(termo);
+            if (codigo == null) {
+                codigo = listas.size();
+                dicionario.put(termo, codigo);
+                var lista = new ListaInt();
+                lista.autor = termo.startsWith("autor:");
+                listas.add(lista);
+            }
+            itens[i++] = codigo;
+        }
+        // Ordenadas para comparar as características antigas e novas de um livro
+        Arrays.sort(itens);
+        return itens;
+    }
+
+    private static Set<String> extrair(LivroProjecao livro) {
+        var termos = new HashSet<String>();
+        var autor = (String) livro.valores()[1];
+        var genero = (String) livro.valores()[2];
+        var tags = (String) livro.valores()[3];
+        if (autor != null && !autor.isBlank()) {
+            termos.add("autor:" + normalizar(autor));
+        }
+        if (genero != null && !genero.isBlank()) {
+            termos.add("genero:" + normalizar(genero));
+        }
+        if (tags != null) {
+            for (var tag : tags.split("[,;]")) {
+                if (!tag.isBlank()) {
+                    termos.add("tag:" + normalizar(tag));
+                }
+            }
+        }
+        return termos;
+    }
+
+    private static String normalizar(String texto) {
+        var semAcentos = Normalizer.normalize(texto.trim(), Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcentos.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    // Tabela indexada pela posição de cada livro; posições de livros removidos ficam nulas
+    private static final class Tabela {
+        private final Map<UUID, Integer> posicoes;
+        private final List<UUID> ids;
+        private final List<int[]> caracteristicas;
+        private final List<int[]> vizinhos;
+        private final Map<String, Integer> dicionario = new HashMap<>();
+        private final List<ListaInt> listasInvertidas = new ArrayList<>();
+        private double[] normas = new double[0];
+        private int quantidadeLivros;
+
+        Tabela(int capacidade) {
+            posicoes = new HashMap<>(capacidade * 2);
+            ids = new ArrayList<>(capacidade);
+            caracteristicas = new ArrayList<>(capacidade);
+            vizinhos = new ArrayList<>(capacidade);
+        }
+
+        double norma(int[] itens) {
+            if (itens == null) {
+                return 0;
+            }
+            double soma = 0;
+            for (int c : itens) {
+                double peso = peso(c);
+                soma += peso * peso;
+            }
+            return Math.sqrt(soma);
+        }
+
+        // IDF da característica, com peso extra para o autor
+        double peso(int caracteristica) {
+            var lista = listasInvertidas.get(caracteristica);
+            double idf = Math.log(1.0 + (double) Math.max(quantidadeLivros, 1) / Math.max(lista.tamanho, 1));
+            return lista.autor ? idf * PESO_AUTOR : idf;
+        }
+    }
+
+    // Lista de inteiros sem boxing, usada nas listas invertidas
+    private static final class ListaInt {
+        private int[] itens = new int[4];
+        private int tamanho;
+        private boolean autor;
+
+        void adicionar(int valor) {
+            if (tamanho == itens.length) {
+                itens = Arrays.copyOf(itens, tamanho * 2);
+            }
+            itens[tamanho++] = valor;
+        }
+
+        void remover(int valor) {
+            for (int i = 0; i < tamanho; i++) {
+                if (itens[i] == valor) {
+                    itens[i] = itens[--tamanho];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.repository.LivroRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Serviço que remove as imagens de capa órfãs do diretório "uploads".
+ *
+ * Responsabilidade: recuperar o espaço de arquivos que nenhum livro referencia (falhas ao excluir a imagem antiga
+ * ou transações desfeitas depois de salvarImagem), com memória limitada mesmo com milhões de arquivos.
+ *
+ * Processo:
+ * 1. Percorre o diretório com DirectoryStream, em blocos de tamanho fixo;
+ * 2. Para cada bloco, consulta de uma só vez quais nomes ainda aparecem em caminho_imagem_capa (coluna indexada);
+ * 3. Arquivos não referenciados e mais antigos que a carência vão para a quarentena, um diretório fora de
+ *    "uploads" (e portanto não servido em /uploads/**); a carência protege uploads cuja transação ainda não terminou;
+ * 4. Arquivos que permanecem na quarentena além da carência são conferidos novamente e excluídos; se voltaram a
+ *    ser referenciados, são devolvidos para "uploads";
+ * 5. Ao final, o espaço recuperado é registrado no log e na métrica app.capas.bytes-recuperados.
+ *
+ * Parâmetros:
+ * @param livroRepository Repositório usado para conferir as referências.
+ * @param diretorioQuarentena Diretório da quarentena.
+ * @param carencia Tempo mínimo antes de mover para a quarentena e antes de excluir.
+ * @param tamanhoLote Quantidade de arquivos por consulta.
+ */
+@Service
+public class ReconciliadorCapas {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliadorCapas.class);
+
+    /**
+     * Resumo de uma execução do reconciliador.
+     */
+    public record Resultado(long verificados, long emQuarentena, long restaurados, long removidos,
+                            long bytesRecuperados) {
+    }
+
+    private final LivroRepository livroRepository;
+    private final Path diretorioUploads;
+    private final Path diretorioQuarentena;
+    private final Duration carencia;
+    private final int tamanhoLote;
+    private final Counter bytesRecuperados;
+    private final Counter arquivosRemovidos;
+
+    public ReconciliadorCapas(LivroRepository livroRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.capas.diretorio:uploads}") String diretorioUploads,
+                              @Value("${app.capas.quarentena.diretorio:uploads-quarentena}") String diretorioQuarentena,
+                              @Value("${app.capas.quarentena.carencia-horas:24}") long carenciaHoras,
+                              @Value("${app.capas.reconciliacao.tamanho-lote:1000}") int tamanhoLote) {
+        this.livroRepository = livroRepository;
+        this.diretorioUploads = Paths.get(diretorioUploads).toAbsolutePath().normalize();
+        this.diretorioQuarentena = Paths.get(diretorioQuarentena).toAbsolutePath().normalize();
+        this.carencia = Duration.ofHours(carenciaHoras);
+        this.tamanhoLote = tamanhoLote;
+        this.bytesRecuperados = Counter.builder("app.capas.bytes-recuperados")
+                .baseUnit("bytes")
+                .description("Espaço liberado pela exclusão de capas órfãs")
+                .register(meterRegistry);
+        this.arquivosRemovidos = Counter.builder("app.capas.arquivos-removidos")
+                .description("Capas órfãs excluídas")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.capas.reconciliacao.cron:0 30 3 * * *}")
+    public void executar() {
+        try {
+            reconciliar(Instant.now());
+        } catch (IOException e) {
+            log.error("Falha na reconciliação das capas", e);
+        }
+    }
+
+    /**
+     * Executa uma reconciliação completa.
+     *
+     * @param agora Instante de referência para a carência.
+     * @return Resumo da execução.
+     */
+    public synchronized Resultado reconciliar(Instant agora) throws IOException {
+        if (!Files.isDirectory(diretorioUploads)) {
+            return new Resultado(0, 0, 0, 0, 0);
+        }
+        Files.createDirectories(diretorioQuarentena);
+        var limite = FileTime.from(agora.minus(carencia));
+        var contagem = new long[5];
+
+        // Primeiro esvazia a quarentena das execuções anteriores, depois coloca em quarentena os novos órfãos
+        processarEmLotes(diretorioQuarentena, limite, (arquivos, referenciados) -> {
+            for (var arquivo : arquivos) {
+                var nome = arquivo.caminho().getFileName().toString();
+                if (referenciados.contains(nome)) {
+                    mover(arquivo.caminho(), diretorioUploads.resolve(nome));
+                    contagem[2]++;
+                } else if (Files.deleteIfExists(arquivo.caminho())) {
+                    contagem[3]++;
+                    contagem[4] += arquivo.tamanho();
+                }
+            }
+        });
+        processarEmLotes(diretorioUploads, limite, (arquivos, referenciados) -> {
+            contagem[0] += arquivos.size();
+            for (var arquivo : arquivos) {
+                var nome = arquivo.caminho().getFileName().toString();
+                if (!referenciados.contains(nome)) {
+                    var destino = diretorioQuarentena.resolve(nome);
+                    mover(arquivo.caminho(), destino);
+                    // A carência na quarentena conta a partir da entrada nela
+                    Files.setLastModifiedTime(destino, FileTime.from(agora));
+                    contagem[1]++;
+                }
+            }
+        });
+
+        var resultado = new Resultado(contagem[0], contagem[1], contagem[2], contagem[3], contagem[4]);
+        bytesRecuperados.increment(resultado.bytesRecuperados());
+        arquivosRemovidos.increment(resultado.removidos());
+        log.info("Reconciliação de capas: {} arquivos verificados, {} em quarentena, {} restaurados, "
+                        + "{} removidos, {} bytes recuperados",
+                resultado.verificados(), resultado.emQuarentena(), resultado.restaurados(),
+                resultado.removidos(), resultado.bytesRecuperados());
+        return resultado;
+    }
+
+    // Percorre o diretório em blocos, considerando apenas arquivos modificados antes do limite, e entrega cada
+    // bloco com o conjunto de nomes que ainda são referenciados por algum livro
+    private void processarEmLotes(Path diretorio, FileTime limite, ProcessadorLote processador) throws IOException {
+        var bloco = new ArrayList<Arquivo>(tamanhoLote);
+        try (var arquivos = Files.newDirectoryStream(diretorio)) {
+            for (var caminho : arquivos) {
+                BasicFileAttributes atributos;
+                try {
+                    atributos = Files.readAttributes(caminho, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue; // Removido por outro processo durante a varredura
+                }
+                if (!atributos.isRegularFile() || atributos.lastModifiedTime().compareTo(limite) > 0) {
+                    continue;
+                }
+                bloco.add(new Arquivo(caminho, atributos.size()));
+                if (bloco.size() == tamanhoLote) {
+                    processarBloco(bloco, processador);
+                    bloco.clear();
+                }
+            }
+        }
+        if (!bloco.isEmpty()) {
+            processarBloco(bloco, processador);
+        }
+    }
+
+    private void processarBloco(List<Arquivo> bloco, ProcessadorLote processador) throws IOException {
+        var nomes = new ArrayList<String>(bloco.size());
+        for (var arquivo : bloco) {
+            nomes.add(arquivo.caminho().getFileName().toString());
+        }
+        var referenciados = new HashSet<>(livroRepository.findCaminhosImagemCapaReferenciados(nomes));
+        processador.processar(bloco, referenciados);
+    }
+
+    private static void mover(Path origem, Path destino) throws IOException {
+        try {
+            Files.move(origem, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private record Arquivo(Path caminho, long tamanho) {
+    }
+
+    @FunctionalInterface
+    private interface ProcessadorLote {
+        void processar(List<Arquivo> arquivos, Set<String> referenciados) throws IOException;
+    }
+}
@@ -0,0 +1,449 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.RelatorioInventarioDto;
+import com.unidevs.core_system.diario.DiarioInventario;
+import com.unidevs.core_system.diario.LeitorDiarioInventario;
+import com.unidevs.core_system.diario.RegistroInventario;
+import com.unidevs.core_system.entity.ConsolidacaoDiario;
+import com.unidevs.core_system.entity.DimensaoRollup;
+import com.unidevs.core_system.entity.GranularidadeRollup;
+import com.unidevs.core_system.entity.RollupInventario;
+import com.unidevs.core_system.entity.TipoMovimentoInventario;
+import com.unidevs.core_system.repository.ConsolidacaoDiarioRepository;
+import com.unidevs.core_system.repository.LivroRepository;
+import com.unidevs.core_system.repository.RollupInventarioRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serviço que consolida os movimentos de estoque em rollups por hora e por dia, usados pelos relatórios.
+ *
+ * Responsabilidade: responder as séries de empréstimos e disponibilidade lendo uma linha por balde de tempo, sem
+ * percorrer o histórico de movimentos, qualquer que seja a quantidade de empréstimos no período.
+ *
+ * Processo:
+ * 1. Com o {@link DiarioInventario} habilitado, cada consolidação lê os registros do diário posteriores à marca
+ *    desta instância ({@link ConsolidacaoDiario}) e os soma nos baldes de hora e de dia do livro, do gênero e do
+ *    acervo; a marca avança na mesma transação que grava os rollups, então uma reinicialização não conta duas vezes
+ *    nem pula nenhum registro do diário. Os rollups cobrem somente o que chegou ao diário: o registro é anexado
+ *    depois da confirmação no banco e forçado para o disco em segundo plano, então uma queda entre a confirmação e
+ *    a anexação, ou do sistema operacional antes do force, deixa de fora movimentos que o banco já confirmou;
+ * 2. Sem o diário, cada {@link MovimentoInventarioEvent} confirmado é somado em memória, e os baldes pendentes são
+ *    gravados também no encerramento da aplicação (uma queda do processo perde os movimentos do último intervalo);
+ * 3. Os baldes são mesclados nas linhas de rollup_inventario, com as linhas bloqueadas (instâncias diferentes somam
+ *    nas mesmas linhas); se a transação falhar, os movimentos voltam para a próxima rodada;
+ * 4. O estoque ao fim do balde vem do último movimento, para os livros, e da soma dos livros no momento da
+ *    consolidação, para os gêneros e o acervo;
+ * 5. O relatório lê os baldes do intervalo pelo índice da restrição única e completa os baldes sem movimentos com
+ *    zero e com o último estoque conhecido.
+ *
+ * Os relatórios mostram os movimentos até a última consolidação (no máximo um intervalo de atraso).
+ *
+ * Parâmetros:
+ * @param rollupInventarioRepository Repositório dos rollups.
+ * @param consolidacaoDiarioRepository Repositório das marcas de consolidação do diário.
+ * @param livroRepository Repositório de livros, para o estoque por gênero e o gênero dos registros do diário.
+ * @param diarioInventario Diário de inventário desta instância.
+ * @param transactionManager Gerenciador de transações, para a consolidação do encerramento.
+ * @param fuso Fuso em que os dias começam.
+ * @param reprocessarDiario Na primeira consolidação de um diário sem marca, soma o diário inteiro (backfill) em vez
+ *                          de começar pelos movimentos posteriores à inicialização.
+ */
+@Service
+public class RollupInventarioService {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupInventarioService.class);
+
+    // Três meses por hora ou pouco mais de seis anos por dia
+    private static final int MAXIMO_BALDES = 24 * 93;
+    private static final String SEM_CHAVE = "";
+
+    private final RollupInventarioRepository rollupInventarioRepository;
+    private final ConsolidacaoDiarioRepository consolidacaoDiarioRepository;
+    private final LivroRepository livroRepository;
+    private final DiarioInventario diarioInventario;
+    private final TransactionTemplate transacao;
+    private final ZoneId fuso;
+    private final long marcaInicial;
+
+    // Gênero informado pelos eventos, para os registros do diário de livros que já foram removidos do banco
+    private final Map<UUID, String> generos = new ConcurrentHashMap<>();
+
+    private Map<Balde, Acumulado> pendentes = new HashMap<>();
+
+    public RollupInventarioService(RollupInventarioRepository rollupInventarioRepository,
+                                   ConsolidacaoDiarioRepository consolidacaoDiarioRepository,
+                                   LivroRepository livroRepository,
+                                   DiarioInventario diarioInventario,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.relatorios.fuso:America/Sao_Paulo}") String fuso,
+                                   @Value("${app.relatorios.rollup.reprocessar-diario:false}")
+                                   boolean reprocessarDiario) {
+        this.rollupInventarioRepository = rollupInventarioRepository;
+        this.consolidacaoDiarioRepository = consolidacaoDiarioRepository;
+        this.livroRepository = livroRepository;
+        this.diarioInventario = diarioInventario;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.fuso = ZoneId.of(fuso);
+        this.marcaInicial = reprocessarDiario || !diarioInventario.isHabilitado()
+                ? 0 : diarioInventario.ultimaSequencia();
+    }
+
+    // Consolida somente movimentos confirmados
+    @TransactionalEventListener
+    public void aoMovimentar(MovimentoInventarioEvent evento) {
+        var genero = evento.genero() != null ? evento.genero() : SEM_CHAVE;
+        if (diarioInventario.isHabilitado()) {
+            // O movimento será lido do diário; guarda só o gênero, que o registro não tem
+            generos.put(evento.livroId(), genero);
+            return;
+        }
+        synchronized (this) {
+            acumular(pendentes, evento.livroId(), genero, evento.tipo(), evento.variacaoDisponivel(),
+                    evento.quantidadeDisponivel(), evento.quantidadeTotal(), evento.instante());
+        }
+    }
+
+    // Mescla os movimentos ainda não consolidados nas linhas do banco
+    @Scheduled(fixedDelayString = "${app.relatorios.rollup.intervalo-ms:60000}",
+            initialDelayString = "${app.relatorios.rollup.intervalo-ms:60000}")
+    @Transactional
+    public void consolidar() {
+        var lote = diarioInventario.isHabilitado() ? lerDiario() : retirarPendentes();
+        if (!lote.isEmpty()) {
+            mesclar(lote);
+        }
+    }
+
+    // Grava o que ainda não foi consolidado antes de a aplicação parar
+    @PreDestroy
+    public void encerrar() {
+        try {
+            transacao.executeWithoutResult(status -> consolidar());
+        } catch (RuntimeException e) {
+            log.error("Falha ao consolidar os rollups de inventário no encerramento", e);
+        }
+    }
+
+    // Soma os registros do diário posteriores à marca desta instância e avança a marca
+    private Map<Balde, Acumulado> lerDiario() {
+        var diarioId = diarioInventario.getIdentificador();
+        var marca = consolidacaoDiarioRepository.findParaAtualizacao(diarioId)
+                .orElseGet(() -> new ConsolidacaoDiario(diarioId, marcaInicial));
+        var registros = new ArrayList<RegistroInventario>();
+        try {
+            LeitorDiarioInventario.lerApos(diarioInventario.getDiretorio(), marca.getUltimaSequencia(), registros::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível ler o diário de inventário.", e);
+        }
+        if (registros.isEmpty()) {
+            return Map.of();
+        }
+
+        var generosLote = generosDe(registros);
+        var lote = new HashMap<Balde, Acumulado>();
+        for (var registro : registros) {
+            acumular(lote, registro.livroId(), generosLote.get(registro.livroId()), registro.tipo(),
+                    registro.variacaoDisponivel(), registro.quantidadeDisponivel(), registro.quantidadeTotal(),
+                    Instant.ofEpochMilli(registro.instanteMs()));
+        }
+        marca.setUltimaSequencia(registros.get(registros.size() - 1).sequencia());
+        marca.setAtualizadoEm(Instant.now());
+        consolidacaoDiarioRepository.save(marca);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    generosLote.forEach(generos::remove);
+                }
+            }
+        });
+        return lote;
+    }
+
+    // Gênero de cada livro do lote: o do evento, se recebido por esta instância, ou o atual do banco
+    private Map<UUID, String> generosDe(List<RegistroInventario> registros) {
+        var generosLote = new HashMap<UUID, String>();
+        var semGenero = new HashSet<UUID>();
+        for (var registro : registros) {
+            var genero = generos.get(registro.livroId());
+            if (genero != null) {
+                generosLote.put(registro.livroId(), genero);
+            } else {
+                semGenero.add(registro.livroId());
+            }
+        }
+        semGenero.removeAll(generosLote.keySet());
+        if (!semGenero.isEmpty()) {
+            livroRepository.findAllById(semGenero).forEach(livro -> generosLote.put(livro.getLivroId(),
+                    livro.getGenero() != null ? livro.getGenero() : SEM_CHAVE));
+        }
+        // Livros removidos antes desta execução não têm mais gênero conhecido
+        semGenero.forEach(livroId -> generosLote.putIfAbsent(livroId, SEM_CHAVE));
+        return generosLote;
+    }
+
+    // Retira os baldes em memória; se a transação falhar, eles voltam para a próxima rodada
+    private synchronized Map<Balde, Acumulado> retirarPendentes() {
+        if (pendentes.isEmpty()) {
+            return Map.of();
+        }
+        var lote = pendentes;
+        pendentes = new HashMap<>();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    devolverPendentes(lote);
+                }
+            }
+        });
+        return lote;
+    }
+
+    private void mesclar(Map<Balde, Acumulado> lote) {
+        var grupos = new HashMap<Grupo, Map<String, Acumulado>>();
+        boolean somarGeneros = false;
+        for (var item : lote.entrySet()) {
+            var balde = item.getKey();
+            grupos.computeIfAbsent(new Grupo(balde.granularidade(), balde.dimensao(), balde.inicio()),
+                    grupo -> new HashMap<>()).put(balde.chave(), item.getValue());
+            somarGeneros |= balde.dimensao() != DimensaoRollup.LIVRO;
+        }
+        var estoques = somarGeneros ? estoquePorGenero() : Map.<String, long[]>of();
+        var acervo = new long[2];
+        estoques.values().forEach(estoque -> {
+            acervo[0] += estoque[0];
+            acervo[1] += estoque[1];
+        });
+
+        var linhas = new ArrayList<RollupInventario>();
+        for (var grupo : grupos.entrySet()) {
+            var chave = grupo.getKey();
+            var existentes = new HashMap<String, RollupInventario>();
+            rollupInventarioRepository.findAllParaAtualizacao(chave.granularidade(), chave.dimensao(),
+                            chave.inicio(), grupo.getValue().keySet())
+                    .forEach(linha -> existentes.put(linha.getChave(), linha));
+            for (var item : grupo.getValue().entrySet()) {
+                var linha = existentes.computeIfAbsent(item.getKey(), k ->
+                        new RollupInventario(chave.granularidade(), chave.dimensao(), k, chave.inicio()));
+                var acumulado = item.getValue();
+                linha.setEmprestimos(linha.getEmprestimos() + acumulado.emprestimos);
+                linha.setDevolucoes(linha.getDevolucoes() + acumulado.devolucoes);
+                linha.setMovimentos(linha.getMovimentos() + acumulado.movimentos);
+                linha.setVariacaoDisponivel(linha.getVariacaoDisponivel() + acumulado.variacaoDisponivel);
+                var estoque = switch (chave.dimensao()) {
+                    case LIVRO -> new long[]{acumulado.quantidadeDisponivel, acumulado.quantidadeTotal};
+                    case GENERO -> estoques.getOrDefault(item.getKey(), new long[2]);
+                    case ACERVO -> acervo;
+                };
+                linha.setQuantidadeDisponivel(estoque[0]);
+                linha.setQuantidadeTotal(estoque[1]);
+            }
+            linhas.addAll(existentes.values());
+        }
+        rollupInventarioRepository.saveAll(linhas);
+    }
+
+    /**
+     * Retorna a série de empréstimos e disponibilidade de um recorte do acervo.
+     *
+     * @param granularidade "hora" ou "dia";
+     * @param dimensao "acervo", "genero" ou "livro";
+     * @param chave Gênero ou id do livro (ignorada para o acervo);
+     * @param de Início da série (padrão: 24 horas ou 30 dias antes do fim), arredondado para o início do balde;
+     * @param ate Fim da série, exclusivo (padrão: agora);
+     * @return Um ponto por balde do intervalo.
+     */
+    @Transactional(readOnly = true)
+    public RelatorioInventarioDto relatorio(String granularidade, String dimensao, String chave,
+                                            Instant de, Instant ate) {
+        var tamanho = valorDe(GranularidadeRollup.class, granularidade, "Granularidade", "hora ou dia");
+        var recorte = valorDe(DimensaoRollup.class, dimensao, "Dimensão", "acervo, genero ou livro");
+        var chaveRecorte = chaveDe(recorte, chave);
+        var fim = ate != null ? ate : Instant.now();
+        var inicio = inicioBalde(tamanho, de != null ? de
+                : fim.minus(tamanho == GranularidadeRollup.HORA ? Duration.ofHours(24) : Duration.ofDays(30)));
+        if (!inicio.isBefore(fim)) {
+            throw new IllegalArgumentException("O início do relatório deve ser anterior ao fim.");
+        }
+
+        var baldes = new ArrayList<Instant>();
+        for (var balde = inicio; balde.isBefore(fim); balde = proximoBalde(tamanho, balde)) {
+            if (baldes.size() == MAXIMO_BALDES) {
+                throw new IllegalArgumentException("O relatório aceita no máximo " + MAXIMO_BALDES + " baldes.");
+            }
+            baldes.add(balde);
+        }
+
+        var linhas = rollupInventarioRepository
+                .findByGranularidadeAndDimensaoAndChaveAndInicioGreaterThanEqualAndInicioLessThanOrderByInicio(
+                        tamanho, recorte, chaveRecorte, inicio, fim);
+        var anterior = rollupInventarioRepository
+                .findFirstByGranularidadeAndDimensaoAndChaveAndInicioLessThanOrderByInicioDesc(
+                        tamanho, recorte, chaveRecorte, inicio);
+        Long disponivel = anterior.map(RollupInventario::getQuantidadeDisponivel).orElse(null);
+        Long total = anterior.map(RollupInventario::getQuantidadeTotal).orElse(null);
+
+        var pontos = new ArrayList<RelatorioInventarioDto.Ponto>(baldes.size());
+        int proximaLinha = 0;
+        for (var balde : baldes) {
+            var fimBalde = proximoBalde(tamanho, balde);
+            long emprestimos = 0;
+            long devolucoes = 0;
+            long movimentos = 0;
+            long variacao = 0;
+            // Linhas gravadas com outro fuso não caem exatamente no início do balde; somam no balde que as contém
+            while (proximaLinha < linhas.size() && linhas.get(proximaLinha).getInicio().isBefore(fimBalde)) {
+                var linha = linhas.get(proximaLinha++);
+                emprestimos += linha.getEmprestimos();
+                devolucoes += linha.getDevolucoes();
+                movimentos += linha.getMovimentos();
+                variacao += linha.getVariacaoDisponivel();
+                disponivel = linha.getQuantidadeDisponivel();
+                total = linha.getQuantidadeTotal();
+            }
+            pontos.add(new RelatorioInventarioDto.Ponto(balde, emprestimos, devolucoes, movimentos, variacao,
+                    disponivel, total));
+        }
+        return new RelatorioInventarioDto(tamanho, recorte, chaveRecorte, pontos);
+    }
+
+    private void acumular(Map<Balde, Acumulado> lote, UUID livroId, String genero, TipoMovimentoInventario tipo,
+                          int variacaoDisponivel, int quantidadeDisponivel, int quantidadeTotal, Instant instante) {
+        for (var granularidade : GranularidadeRollup.values()) {
+            var inicio = inicioBalde(granularidade, instante);
+            for (var balde : List.of(new Balde(granularidade, DimensaoRollup.LIVRO, livroId.toString(), inicio),
+                    new Balde(granularidade, DimensaoRollup.GENERO, genero, inicio),
+                    new Balde(granularidade, DimensaoRollup.ACERVO, SEM_CHAVE, inicio))) {
+                var acumulado = lote.computeIfAbsent(balde, b -> new Acumulado());
+                acumulado.movimentos++;
+                acumulado.variacaoDisponivel += variacaoDisponivel;
+                if (tipo == TipoMovimentoInventario.EMPRESTIMO) {
+                    acumulado.emprestimos -= variacaoDisponivel;
+                } else if (tipo == TipoMovimentoInventario.DEVOLUCAO) {
+                    acumulado.devolucoes += variacaoDisponivel;
+                }
+                if (acumulado.instanteEstoque == null || !instante.isBefore(acumulado.instanteEstoque)) {
+                    // Um livro removido deixa de ter exemplares
+                    boolean removido = tipo == TipoMovimentoInventario.REMOCAO;
+                    acumulado.instanteEstoque = instante;
+                    acumulado.quantidadeDisponivel = removido ? 0 : quantidadeDisponivel;
+                    acumulado.quantidadeTotal = removido ? 0 : quantidadeTotal;
+                }
+            }
+        }
+    }
+
+    private synchronized void devolverPendentes(Map<Balde, Acumulado> lote) {
+        for (var item : lote.entrySet()) {
+            pendentes.merge(item.getKey(), item.getValue(), Acumulado::somar);
+        }
+    }
+
+    // Estoque somado por gênero; a chave vazia reúne os livros sem gênero
+    private Map<String, long[]> estoquePorGenero() {
+        var estoques = new HashMap<String, long[]>();
+        for (var linha : livroRepository.somarEstoquePorGenero()) {
+            var genero = linha.getGenero() != null ? linha.getGenero() : SEM_CHAVE;
+            estoques.merge(genero, new long[]{linha.getQuantidadeDisponivel(), linha.getQuantidadeTotal()},
+                    (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]});
+        }
+        return estoques;
+    }
+
+    private Instant inicioBalde(GranularidadeRollup granularidade, Instant instante) {
+        return granularidade == GranularidadeRollup.HORA
+                ? instante.truncatedTo(ChronoUnit.HOURS)
+                : instante.atZone(fuso).toLocalDate().atStartOfDay(fuso).toInstant();
+    }
+
+    private Instant proximoBalde(GranularidadeRollup granularidade, Instant inicio) {
+        return granularidade == GranularidadeRollup.HORA
+                ? inicio.plus(1, ChronoUnit.HOURS)
+                : inicio.atZone(fuso).toLocalDate().plusDays(1).atStartOfDay(fuso).toInstant();
+    }
+
+    private static String chaveDe(DimensaoRollup dimensao, String chave) {
+        return switch (dimensao) {
+            case ACERVO -> SEM_CHAVE;
+            case GENERO -> {
+                if (chave == null) {
+                    throw new IllegalArgumentException("Informe o gênero em 'chave'.");
+                }
+                yield chave.trim();
+            }
+            case LIVRO -> {
+                try {
+                    yield UUID.fromString(chave != null ? chave.trim() : "").toString();
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Informe o id do livro em 'chave'.");
+                }
+            }
+        };
+    }
+
+    private static <E extends Enum<E>> E valorDe(Class<E> tipo, String valor, String nome, String opcoes) {
+        try {
+            return Enum.valueOf(tipo, valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException(nome + " inválida: " + valor + ". Use " + opcoes + ".");
+        }
+    }
+
+    private record Balde(GranularidadeRollup granularidade, DimensaoRollup dimensao, String chave, Instant inicio) {
+    }
+
+    private record Grupo(GranularidadeRollup granularidade, DimensaoRollup dimensao, Instant inicio) {
+    }
+
+    // Movimentos de um balde ainda não consolidados; o estoque é o do movimento mais recente
+    private static final class Acumulado {
+        private long emprestimos;
+        private long devolucoes;
+        private long movimentos;
+        private long variacaoDisponivel;
+        private Instant instanteEstoque;
+        private long quantidadeDisponivel;
+        private long quantidadeTotal;
+
+        // Soma um lote devolvido (mais antigo) aos movimentos recebidos depois dele
+        private Acumulado somar(Acumulado antigo) {
+            emprestimos += antigo.emprestimos;
+            devolucoes += antigo.devolucoes;
+            movimentos += antigo.movimentos;
+            variacaoDisponivel += antigo.variacaoDisponivel;
+            if (instanteEstoque == null || antigo.instanteEstoque.isAfter(instanteEstoque)) {
+                instanteEstoque = antigo.instanteEstoque;
+                quantidadeDisponivel = antigo.quantidadeDisponivel;
+                quantidadeTotal = antigo.quantidadeTotal;
+            }
+            return this;
+        }
+    }
+}
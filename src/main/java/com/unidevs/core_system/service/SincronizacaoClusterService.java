@@ -0,0 +1,129 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.RegistroAlteracao;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import com.unidevs.core_system.repository.RegistroAlteracaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Serviço responsável por propagar alterações de livros e usuários entre as instâncias da aplicação.
+ *
+ * Responsabilidade: permitir que várias instâncias atrás de um balanceador compartilhem o mesmo banco sem servir
+ * dados desatualizados de seus caches locais, sem depender de um broker externo.
+ *
+ * Processo:
+ * 1. Cada escrita registra um {@link RegistroAlteracao} na mesma transação da alteração;
+ * 2. A alteração é publicada localmente como {@link AlteracaoEntidadeEvent};
+ * 3. Periodicamente, cada instância lê os registros com id maior que o último observado e publica os registros
+ *    de outras instâncias como eventos remotos;
+ * 4. Ids pulados (transações ainda não confirmadas ou desfeitas) são consultados novamente até expirarem;
+ * 5. Registros mais antigos que o período de retenção são removidos.
+ *
+ * O atraso máximo de propagação é o intervalo de leitura configurado em "app.cluster.intervalo-leitura-ms".
+ */
+@Service
+public class SincronizacaoClusterService {
+
+    private static final Logger log = LoggerFactory.getLogger(SincronizacaoClusterService.class);
+
+    private final RegistroAlteracaoRepository registroAlteracaoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String origem = UUID.randomUUID().toString();
+    private final int tamanhoLote;
+    private final Duration esperaLacuna;
+    private final Duration retencao;
+
+    // Cursor de leitura e ids pulados que ainda podem aparecer no log
+    private Long ultimoId;
+    private final Map<Long, Instant> lacunas = new HashMap<>();
+
+    public SincronizacaoClusterService(RegistroAlteracaoRepository registroAlteracaoRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${app.cluster.tamanho-lote:500}") int tamanhoLote,
+                                       @Value("${app.cluster.espera-lacuna-ms:30000}") long esperaLacunaMs,
+                                       @Value("${app.cluster.retencao-horas:24}") long retencaoHoras) {
+        this.registroAlteracaoRepository = registroAlteracaoRepository;
+        this.eventPublisher = eventPublisher;
+        this.tamanhoLote = tamanhoLote;
+        this.esperaLacuna = Duration.ofMillis(esperaLacunaMs);
+        this.retencao = Duration.ofHours(retencaoHoras);
+    }
+
+    // Registra a alteração no log compartilhado; deve ser chamado dentro da transação da escrita
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(EntidadeAlterada entidade, String chave, TipoAlteracao operacao) {
+        registroAlteracaoRepository.save(new RegistroAlteracao(entidade, chave, operacao, origem));
+        eventPublisher.publishEvent(new AlteracaoEntidadeEvent(entidade, chave, operacao, false));
+    }
+
+    // Lê os novos registros do log e publica os que foram escritos por outras instâncias
+    @Scheduled(fixedDelayString = "${app.cluster.intervalo-leitura-ms:1000}")
+    public synchronized void sondar() {
+        if (ultimoId == null) {
+            // Na inicialização os caches são construídos do zero, portanto o histórico anterior é ignorado
+            ultimoId = registroAlteracaoRepository.findUltimoId();
+            return;
+        }
+
+        if (!lacunas.isEmpty()) {
+            var agora = Instant.now();
+            for (var registro : registroAlteracaoRepository.findByIdInOrderByIdAsc(lacunas.keySet())) {
+                lacunas.remove(registro.getId());
+                publicar(registro);
+            }
+            lacunas.values().removeIf(instante -> instante.plus(esperaLacuna).isBefore(agora));
+        }
+
+        List<RegistroAlteracao> registros;
+        do {
+            registros = registroAlteracaoRepository.findByIdGreaterThanOrderByIdAsc(ultimoId, Limit.of(tamanhoLote));
+            for (var registro : registros) {
+                var agora = Instant.now();
+                if (registro.getId() - ultimoId <= tamanhoLote) {
+                    for (long id = ultimoId + 1; id < registro.getId(); id++) {
+                        lacunas.put(id, agora);
+                    }
+                }
+                ultimoId = registro.getId();
+                publicar(registro);
+            }
+        } while (registros.size() == tamanhoLote);
+    }
+
+    // Remove registros mais antigos que o período de retenção
+    @Scheduled(cron = "${app.cluster.cron-limpeza:0 0 * * * *}")
+    @Transactional
+    public void limpar() {
+        int removidos = registroAlteracaoRepository.deleteByInstanteBefore(Instant.now().minus(retencao));
+        if (removidos > 0) {
+            log.info("Removidos {} registros antigos do log de alterações", removidos);
+        }
+    }
+
+    public String getOrigem() {
+        return origem;
+    }
+
+    private void publicar(RegistroAlteracao registro) {
+        if (origem.equals(registro.getOrigem())) {
+            return;
+        }
+        eventPublisher.publishEvent(new AlteracaoEntidadeEvent(
+                registro.getEntidade(), registro.getChave(), registro.getOperacao(), true));
+    }
+}
@@ -0,0 +1,134 @@
+package com.unidevs.core_system.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Armazém em memória das respostas associadas a cada chave de idempotência.
+ *
+ * Responsabilidade: guardar, por tempo limitado e com tamanho máximo, a resposta da primeira execução de cada chave
+ * para que repetições da mesma requisição recebam a mesma resposta sem executar a operação outra vez.
+ *
+ * Processo:
+ * 1. As chaves são distribuídas em partições (shards), cada uma com seu próprio bloqueio, para que escritas
+ *    concorrentes de chaves diferentes raramente disputem o mesmo bloqueio;
+ * 2. A primeira requisição de uma chave reserva a entrada com uma resposta ainda pendente;
+ * 3. Requisições duplicadas concorrentes recebem a mesma entrada e aguardam a resposta da primeira; a entrada guarda
+ *    a impressão digital do conteúdo da primeira requisição, para que o filtro recuse repetições com outro conteúdo;
+ * 4. Entradas expiradas ou excedentes são descartadas na ordem de inserção.
+ */
+@Component
+public class ArmazemIdempotencia {
+
+    private final Particao[] particoes;
+    private final int mascara;
+    private final long ttlNanos;
+
+    public ArmazemIdempotencia(@Value("${app.idempotencia.particoes:64}") int quantidadeParticoes,
+                               @Value("${app.idempotencia.max-entradas:100000}") int maxEntradas,
+                               @Value("${app.idempotencia.ttl-segundos:3600}") long ttlSegundos) {
+        int quantidade = 1;
+        while (quantidade < quantidadeParticoes) {
+            quantidade <<= 1;
+        }
+        this.particoes = new Particao[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            particoes[i] = new Particao(Math.max(1, maxEntradas / quantidade));
+        }
+        this.mascara = quantidade - 1;
+        this.ttlNanos = ttlSegundos * 1_000_000_000L;
+    }
+
+    /**
+     * Reserva a chave ou retorna a entrada já existente.
+     *
+     * @param chave Chave de idempotência (já combinada com usuário e rota);
+     * @param impressao Impressão digital do conteúdo da requisição (guardada somente se a chave for nova);
+     * @return Reserva com a entrada da chave; {@link Reserva#nova()} indica se esta requisição deve executar a operação.
+     */
+    public Reserva reservar(String chave, byte[] impressao) {
+        var particao = particao(chave);
+        long agora = System.nanoTime();
+        synchronized (particao) {
+            var existente = particao.get(chave);
+            if (existente != null && agora - existente.criadaEm < ttlNanos) {
+                return new Reserva(existente, false);
+            }
+            var nova = new Entrada(agora, impressao);
+            particao.put(chave, nova);
+            return new Reserva(nova, true);
+        }
+    }
+
+    // Descarta a chave para que uma nova tentativa execute a operação outra vez
+    public void remover(String chave, Entrada entrada) {
+        var particao = particao(chave);
+        synchronized (particao) {
+            particao.remove(chave, entrada);
+        }
+    }
+
+    private Particao particao(String chave) {
+        int h = chave.hashCode();
+        return particoes[(h ^ (h >>> 16)) & mascara];
+    }
+
+    private final class Particao extends LinkedHashMap<String, Entrada> {
+        private final int capacidade;
+
+        Particao(int capacidade) {
+            super(16, 0.75f, false);
+            this.capacidade = capacidade;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+            return size() > capacidade || System.nanoTime() - maisAntiga.getValue().criadaEm >= ttlNanos;
+        }
+    }
+
+    /**
+     * Entrada de uma chave: a resposta fica pendente até a primeira requisição terminar.
+     */
+    public static final class Entrada {
+        private final long criadaEm;
+        private final byte[] impressao;
+        private final CompletableFuture<RespostaArmazenada> resposta = new CompletableFuture<>();
+
+        private Entrada(long criadaEm, byte[] impressao) {
+            this.criadaEm = criadaEm;
+            this.impressao = impressao;
+        }
+
+        public byte[] getImpressao() {
+            return impressao;
+        }
+
+        public CompletableFuture<RespostaArmazenada> getResposta() {
+            return resposta;
+        }
+    }
+
+    /**
+     * Resultado da reserva de uma chave.
+     *
+     * @param entrada Entrada da chave.
+     * @param nova Verdadeiro quando esta requisição foi a primeira e deve executar a operação.
+     */
+    public record Reserva(Entrada entrada, boolean nova) {
+    }
+
+    /**
+     * Resposta registrada para uma chave.
+     *
+     * @param status Código HTTP.
+     * @param contentType Tipo do conteúdo (pode ser nulo).
+     * @param location Header Location (pode ser nulo).
+     * @param corpo Corpo da resposta.
+     */
+    public record RespostaArmazenada(int status, String contentType, String location, byte[] corpo) {
+    }
+}
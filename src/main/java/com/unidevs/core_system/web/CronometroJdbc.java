@@ -0,0 +1,53 @@
+package com.unidevs.core_system.web;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Listener de sessão do Hibernate que soma à fase "db" do {@link TemporizadorFases} o tempo de obtenção de
+ * conexões e de execução de comandos JDBC, e informa cada execução ao {@link RegistroConsultas}.
+ *
+ * Registrado pela propriedade "hibernate.session.events.auto" somente quando o Server-Timing ou o monitor de
+ * consultas está habilitado; o Hibernate cria uma instância por sessão.
+ */
+public class CronometroJdbc implements SessionEventListener {
+
+    private long inicioConexao;
+    private long inicioComando;
+    private long inicioLote;
+    private long inicioRegistroComando;
+    private long inicioRegistroLote;
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        inicioConexao = TemporizadorFases.iniciar();
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        TemporizadorFases.acrescentar(TemporizadorFases.Fase.BANCO, inicioConexao);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioComando = TemporizadorFases.iniciar();
+        inicioRegistroComando = RegistroConsultas.iniciar();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        TemporizadorFases.registrar(TemporizadorFases.Fase.BANCO, inicioComando);
+        RegistroConsultas.aoExecutar(inicioRegistroComando);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioLote = TemporizadorFases.iniciar();
+        inicioRegistroLote = RegistroConsultas.iniciar();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        TemporizadorFases.registrar(TemporizadorFases.Fase.BANCO, inicioLote);
+        RegistroConsultas.aoExecutar(inicioRegistroLote);
+    }
+}
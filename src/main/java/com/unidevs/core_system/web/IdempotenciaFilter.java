@@ -0,0 +1,266 @@
+package com.unidevs.core_system.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Filtro que honra o header "Idempotency-Key" nos POSTs de criação de livro, empréstimo (inclusive em filial e por
+ * exemplar), devolução em filial ou por exemplar e reserva.
+ *
+ * Responsabilidade: impedir que clientes em redes instáveis, ao repetirem uma requisição, emprestem o mesmo livro
+ * duas vezes ou criem livros duplicados.
+ *
+ * Processo:
+ * 1. Requisições sem o header, ou fora das rotas protegidas, seguem normalmente;
+ * 2. A chave é combinada com o usuário autenticado e a rota, para que clientes diferentes não colidam;
+ * 3. Calcula a impressão digital (SHA-256) da query string e do corpo: os bytes do corpo, os parâmetros de um
+ *    formulário ou as partes de um multipart;
+ * 4. A primeira requisição executa a operação e sua resposta é registrada no {@link ArmazemIdempotencia}, junto com a
+ *    impressão digital;
+ * 5. Duplicatas (concorrentes ou posteriores) com o mesmo conteúdo recebem a resposta registrada com o header
+ *    "Idempotency-Replayed"; a mesma chave com outro conteúdo recebe 422 Unprocessable Entity, sem executar nada;
+ * 6. Respostas 5xx não são registradas, permitindo uma nova tentativa.
+ *
+ * Registrado na cadeia do Spring Security logo após o {@link com.unidevs.core_system.security.SecurityFilter}.
+ */
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_CHAVE = "Idempotency-Key";
+    public static final String HEADER_REPETIDA = "Idempotency-Replayed";
+
+    private final ArmazemIdempotencia armazem;
+    private final long esperaDuplicataMs;
+
+    public IdempotenciaFilter(ArmazemIdempotencia armazem,
+                              @Value("${app.idempotencia.espera-duplicata-ms:30000}") long esperaDuplicataMs) {
+        this.armazem = armazem;
+        this.esperaDuplicataMs = esperaDuplicataMs;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER_CHAVE) == null) {
+            return true;
+        }
+        var caminho = caminho(request);
+        return !(caminho.equals("/livro") || caminho.startsWith("/livro/catalogo/emprestimo")
+                || caminho.startsWith("/livro/catalogo/reservar/")
+                || (caminho.startsWith("/filial/")
+                        && (caminho.contains("/emprestimo/") || caminho.contains("/devolucao/")))
+                || (caminho.startsWith("/exemplar/")
+                        && (caminho.endsWith("/emprestimo") || caminho.endsWith("/devolucao"))));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var chaveCliente = request.getHeader(HEADER_CHAVE);
+        if (chaveCliente.isBlank() || chaveCliente.length() > 255) {
+            RespostaErro.enviar(response, HttpStatus.BAD_REQUEST, "Idempotency-Key inválida");
+            return;
+        }
+
+        var autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        var usuario = autenticacao != null ? autenticacao.getName() : "";
+        var chave = usuario + '\n' + caminho(request) + '\n' + chaveCliente;
+
+        var requisicao = lerConteudo(request);
+        var reserva = armazem.reservar(chave, requisicao.impressao());
+        if (!reserva.nova()) {
+            if (!MessageDigest.isEqual(reserva.entrada().getImpressao(), requisicao.impressao())) {
+                RespostaErro.enviar(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key já usada em uma requisição com outro conteúdo");
+                return;
+            }
+            responderDuplicata(reserva.entrada(), response);
+            return;
+        }
+
+        var entrada = reserva.entrada();
+        var resposta = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(requisicao.request(), resposta);
+        } catch (IOException | ServletException | RuntimeException e) {
+            armazem.remover(chave, entrada);
+            entrada.getResposta().completeExceptionally(e);
+            throw e;
+        }
+
+        var armazenada = new ArmazemIdempotencia.RespostaArmazenada(resposta.getStatus(), resposta.getContentType(),
+                resposta.getHeader(HttpHeaders.LOCATION), resposta.getContentAsByteArray());
+        if (armazenada.status() >= 500) {
+            armazem.remover(chave, entrada);
+        }
+        entrada.getResposta().complete(armazenada);
+        resposta.copyBodyToResponse();
+    }
+
+    // Calcula a impressão digital do conteúdo; um corpo lido aqui é devolvido à cadeia por um wrapper
+    private static Conteudo lerConteudo(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        atualizar(digest, request.getQueryString());
+        var tipo = request.getContentType() != null ? request.getContentType().toLowerCase(Locale.ROOT) : "";
+        // Partes e parâmetros são lidos pelo contêiner, que os guarda para o restante da cadeia
+        if (tipo.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            for (var parte : request.getParts()) {
+                atualizar(digest, parte.getName());
+                atualizar(digest, parte.getSubmittedFileName());
+                try (var entrada = parte.getInputStream();
+                     var saida = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                    entrada.transferTo(saida);
+                }
+            }
+            return new Conteudo(request, digest.digest());
+        }
+        if (tipo.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+            for (var parametro : new TreeMap<>(request.getParameterMap()).entrySet()) {
+                atualizar(digest, parametro.getKey());
+                for (var valor : parametro.getValue()) {
+                    atualizar(digest, valor);
+                }
+            }
+            return new Conteudo(request, digest.digest());
+        }
+        var corpo = request.getInputStream().readAllBytes();
+        digest.update(corpo);
+        return new Conteudo(new RequisicaoComCorpo(request, corpo), digest.digest());
+    }
+
+    // Cada valor é seguido de um separador, para que "ab" + "c" e "a" + "bc" tenham impressões diferentes
+    private static void atualizar(MessageDigest digest, String valor) {
+        if (valor != null) {
+            digest.update(valor.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // Aguarda a primeira execução da chave e repete a sua resposta
+    private void responderDuplicata(ArmazemIdempotencia.Entrada entrada, HttpServletResponse response)
+            throws IOException {
+        ArmazemIdempotencia.RespostaArmazenada armazenada;
+        try {
+            armazenada = entrada.getResposta().get(esperaDuplicataMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            RespostaErro.enviar(response, HttpStatus.SERVICE_UNAVAILABLE, "Requisição interrompida");
+            return;
+        } catch (ExecutionException e) {
+            RespostaErro.enviar(response, HttpStatus.INTERNAL_SERVER_ERROR, "Falha na requisição original");
+            return;
+        } catch (TimeoutException e) {
+            RespostaErro.enviar(response, HttpStatus.CONFLICT, "Requisição com a mesma Idempotency-Key em andamento");
+            return;
+        }
+
+        response.setStatus(armazenada.status());
+        response.setHeader(HEADER_REPETIDA, "true");
+        if (armazenada.contentType() != null) {
+            response.setContentType(armazenada.contentType());
+        }
+        if (armazenada.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, armazenada.location());
+        }
+        response.setContentLength(armazenada.corpo().length);
+        response.getOutputStream().write(armazenada.corpo());
+    }
+
+    private record Conteudo(HttpServletRequest request, byte[] impressao) {
+    }
+
+    // Requisição cujo corpo já foi lido pelo filtro
+    private static final class RequisicaoComCorpo extends HttpServletRequestWrapper {
+        private final byte[] corpo;
+
+        RequisicaoComCorpo(HttpServletRequest request, byte[] corpo) {
+            super(request);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            var entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            var charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(corpo), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.unidevs.core_system.web;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * StatementInspector do Hibernate que informa ao {@link RegistroConsultas} o SQL de cada comando antes do preparo.
+ * Não altera o comando.
+ */
+public class InspetorConsultas implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RegistroConsultas.aoPreparar(sql);
+        return sql;
+    }
+}
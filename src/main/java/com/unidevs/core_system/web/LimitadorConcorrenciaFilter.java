@@ -0,0 +1,127 @@
+package com.unidevs.core_system.web;
+
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.security.SecurityFilter;
+import com.unidevs.core_system.security.TokenService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Filtro que aplica limites de concorrência adaptativos por grupo de endpoints e descarta o excesso com HTTP 503.
+ *
+ * Responsabilidade: evitar que, com o banco lento, requisições se acumulem nas threads do Tomcat até derrubar a
+ * aplicação. O excesso é recusado rapidamente, mantendo a latência de quem foi aceito.
+ *
+ * Processo:
+ * 1. Classifica a requisição em um {@link Grupo} pela rota: leituras do acervo (livros, filiais e exemplares,
+ *    inclusive consultas feitas com POST, como /livro/lote — ver {@link RotasLeitura}), escritas do acervo ou
+ *    autenticação;
+ * 2. Cada grupo tem seu próprio {@link LimiteAdaptativo}, ajustado pela latência observada;
+ * 3. Administradores (papel gravado no JWT) podem usar a fração reservada do limite, tendo prioridade sobre a
+ *    navegação comum;
+ * 4. Requisições acima do limite recebem 503 com "Retry-After";
+ * 5. Limite, requisições em andamento e descartes são expostos como métricas "app.limitador.*".
+ *
+ * Registrado na cadeia do Spring Security antes do {@link SecurityFilter}: o excesso é descartado sem consultar o
+ * banco, e o papel vem do token assinado, sem buscar o usuário.
+ */
+@Component
+public class LimitadorConcorrenciaFilter extends OncePerRequestFilter {
+
+    /**
+     * Grupos de endpoints com limites independentes.
+     */
+    public enum Grupo {
+        LEITURA,
+        ESCRITA,
+        AUTENTICACAO
+    }
+
+    private final TokenService tokenService;
+    private final boolean habilitado;
+    private final Map<Grupo, LimiteAdaptativo> limites = new EnumMap<>(Grupo.class);
+
+    public LimitadorConcorrenciaFilter(MeterRegistry meterRegistry,
+                                       TokenService tokenService,
+                                       @Value("${app.limitador.habilitado:true}") boolean habilitado,
+                                       @Value("${app.limitador.limite-inicial:20}") int limiteInicial,
+                                       @Value("${app.limitador.limite-minimo:2}") int limiteMinimo,
+                                       @Value("${app.limitador.limite-maximo:200}") int limiteMaximo,
+                                       @Value("${app.limitador.fracao-reservada:0.2}") double fracaoReservada) {
+        this.tokenService = tokenService;
+        this.habilitado = habilitado;
+        for (var grupo : Grupo.values()) {
+            var limite = new LimiteAdaptativo(limiteInicial, limiteMinimo, limiteMaximo, fracaoReservada);
+            limites.put(grupo, limite);
+            var tag = grupo.name().toLowerCase();
+            Gauge.builder("app.limitador.limite", limite, LimiteAdaptativo::getLimite)
+                    .tag("grupo", tag).register(meterRegistry);
+            Gauge.builder("app.limitador.em-andamento", limite, LimiteAdaptativo::getEmAndamento)
+                    .tag("grupo", tag).register(meterRegistry);
+            FunctionCounter.builder("app.limitador.descartes", limite, LimiteAdaptativo::getRejeicoes)
+                    .tag("grupo", tag).register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !habilitado || classificar(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var limite = limites.get(classificar(request));
+        if (!limite.adquirir(isAdministrador(request))) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            RespostaErro.enviar(response, HttpStatus.SERVICE_UNAVAILABLE, "Servidor sobrecarregado");
+            return;
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limite.liberar(System.nanoTime() - inicio);
+        }
+    }
+
+    public LimiteAdaptativo getLimite(Grupo grupo) {
+        return limites.get(grupo);
+    }
+
+    private static Grupo classificar(HttpServletRequest request) {
+        var caminho = RotasLeitura.caminho(request);
+        if (caminho.equals("/login-process") || caminho.startsWith("/register")) {
+            return Grupo.AUTENTICACAO;
+        }
+        if (caminho.equals("/livro") || caminho.startsWith("/livro/")
+                || caminho.equals("/filial") || caminho.startsWith("/filial/")
+                || caminho.equals("/exemplar") || caminho.startsWith("/exemplar/")) {
+            return RotasLeitura.somenteLeitura(request) ? Grupo.LEITURA : Grupo.ESCRITA;
+        }
+        return null;
+    }
+
+    private boolean isAdministrador(HttpServletRequest request) {
+        var token = SecurityFilter.resolverToken(request);
+        return token != null && tokenService.ler(token)
+                .map(sessao -> sessao.role() == UserRole.ADMIN)
+                .orElse(false);
+    }
+}
@@ -0,0 +1,104 @@
+package com.unidevs.core_system.web;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de concorrência adaptativo no estilo TCP Vegas.
+ *
+ * Responsabilidade: descobrir, a partir da latência observada, quantas requisições de um grupo podem executar ao
+ * mesmo tempo sem formar fila no banco. Quando a latência sobe em relação à latência sem carga, o limite diminui;
+ * quando ela se mantém próxima, o limite cresce.
+ *
+ * Processo:
+ * 1. A menor latência recente é tomada como latência sem carga (reiniciada periodicamente para acompanhar mudanças);
+ * 2. A fila estimada é: limite × (1 − latência sem carga / latência observada);
+ * 3. Fila abaixo de alfa aumenta o limite; acima de beta diminui;
+ * 4. Uma fração do limite é reservada para requisições prioritárias (ex: administradores).
+ */
+public class LimiteAdaptativo {
+
+    private static final int AMOSTRAS_POR_REINICIO = 500;
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double fracaoReservada;
+    private final AtomicInteger emAndamento = new AtomicInteger();
+    private final AtomicLong rejeicoes = new AtomicLong();
+
+    private volatile int limite;
+    private long latenciaSemCarga = Long.MAX_VALUE;
+    private int amostras;
+
+    public LimiteAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, double fracaoReservada) {
+        this.limite = limiteInicial;
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.fracaoReservada = fracaoReservada;
+    }
+
+    /**
+     * Tenta ocupar uma vaga; requisições comuns não usam a fração reservada do limite.
+     *
+     * @param prioritaria Verdadeiro para requisições que podem usar a reserva;
+     * @return Verdadeiro se a requisição pode executar; falso se deve ser descartada.
+     */
+    public boolean adquirir(boolean prioritaria) {
+        int atual = limite;
+        int teto = prioritaria ? atual : atual - Math.max(1, (int) (atual * fracaoReservada));
+        while (true) {
+            int ocupadas = emAndamento.get();
+            if (ocupadas >= Math.max(teto, 1)) {
+                rejeicoes.incrementAndGet();
+                return false;
+            }
+            if (emAndamento.compareAndSet(ocupadas, ocupadas + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga e ajusta o limite com a latência da requisição.
+     *
+     * @param latenciaNanos Duração da requisição em nanossegundos.
+     */
+    public void liberar(long latenciaNanos) {
+        int ocupadas = emAndamento.getAndDecrement();
+        synchronized (this) {
+            if (++amostras >= AMOSTRAS_POR_REINICIO) {
+                amostras = 0;
+                latenciaSemCarga = latenciaNanos;
+            } else if (latenciaNanos < latenciaSemCarga) {
+                latenciaSemCarga = latenciaNanos;
+            }
+
+            int atual = limite;
+            double fila = atual * (1.0 - (double) latenciaSemCarga / Math.max(latenciaNanos, 1));
+            double log = Math.max(1.0, Math.log10(atual));
+            double alfa = 3 * log;
+            double beta = 6 * log;
+
+            int novo = atual;
+            // Só cresce quando o limite atual está sendo de fato utilizado
+            if (fila < alfa && ocupadas * 2 >= atual) {
+                novo = atual + (int) log;
+            } else if (fila > beta) {
+                novo = atual - (int) log;
+            }
+            limite = Math.max(limiteMinimo, Math.min(limiteMaximo, novo));
+        }
+    }
+
+    public int getLimite() {
+        return limite;
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.get();
+    }
+
+    public long getRejeicoes() {
+        return rejeicoes.get();
+    }
+}
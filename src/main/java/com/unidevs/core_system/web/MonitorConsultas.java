@@ -0,0 +1,114 @@
+package com.unidevs.core_system.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Avalia os comandos SQL executados por requisição e aponta as que passam do orçamento ou repetem o mesmo comando.
+ *
+ * Responsabilidade: transformar o {@link RelatorioConsultas} de cada requisição em métricas e, para as requisições
+ * suspeitas, em uma linha de log no formato chave=valor.
+ *
+ * Critérios (configuráveis em "app.consultas.*"):
+ * 1. Orçamento: mais de "orcamento" comandos em uma requisição;
+ * 2. Suspeita de N+1: um mesmo SQL executado "repeticoes-maximas" vezes ou mais;
+ * 3. Comando lento: execução acima de "lenta-ms"; os "maximo-lentas" mais lentos são guardados com o método de
+ *    serviço que os executou.
+ *
+ * Métricas:
+ * - app.consultas.por-requisicao (distribuição, por rota)
+ * - app.consultas.acima-orcamento e app.consultas.repetidas (contadores, por rota)
+ * - app.consultas.lentas (timer, por método de serviço)
+ *
+ * Para testes de integração, {@link #medir(Runnable)} devolve o relatório de um trecho de código.
+ */
+@Component
+public class MonitorConsultas {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorConsultas.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int orcamento;
+    private final int repeticoesMaximas;
+    private final long limiteLentaNanos;
+    private final int maximoLentas;
+
+    public MonitorConsultas(MeterRegistry meterRegistry,
+                            @Value("${app.consultas.orcamento:20}") int orcamento,
+                            @Value("${app.consultas.repeticoes-maximas:5}") int repeticoesMaximas,
+                            @Value("${app.consultas.lenta-ms:100}") long lentaMs,
+                            @Value("${app.consultas.maximo-lentas:5}") int maximoLentas) {
+        this.meterRegistry = meterRegistry;
+        this.orcamento = orcamento;
+        this.repeticoesMaximas = repeticoesMaximas;
+        this.limiteLentaNanos = TimeUnit.MILLISECONDS.toNanos(lentaMs);
+        this.maximoLentas = maximoLentas;
+    }
+
+    /**
+     * Executa o trecho registrando os comandos SQL da thread atual e devolve o relatório.
+     * Requer o monitor habilitado ("app.consultas.habilitado"), que instala o inspetor no Hibernate.
+     */
+    public RelatorioConsultas medir(Runnable trecho) {
+        if (RegistroConsultas.ativo()) {
+            throw new IllegalStateException("Já existe uma medição de consultas ativa nesta thread");
+        }
+        abrir();
+        try {
+            trecho.run();
+            return RegistroConsultas.fechar();
+        } finally {
+            if (RegistroConsultas.ativo()) {
+                RegistroConsultas.fechar();
+            }
+        }
+    }
+
+    void abrir() {
+        RegistroConsultas.abrir(limiteLentaNanos, maximoLentas);
+    }
+
+    // Publica as métricas da requisição e registra em log as suspeitas
+    void avaliar(String metodoHttp, String caminho, String rota, RelatorioConsultas relatorio) {
+        DistributionSummary.builder("app.consultas.por-requisicao")
+                .description("Comandos SQL executados por requisição")
+                .tag("rota", rota)
+                .register(meterRegistry)
+                .record(relatorio.total());
+        for (var lenta : relatorio.maisLentas()) {
+            Timer.builder("app.consultas.lentas")
+                    .description("Comandos SQL acima do limite de lentidão")
+                    .tag("metodo", lenta.metodo())
+                    .register(meterRegistry)
+                    .record(lenta.duracaoNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        boolean acimaOrcamento = relatorio.total() > orcamento;
+        boolean repetida = relatorio.maiorRepeticao() >= repeticoesMaximas;
+        if (acimaOrcamento) {
+            Counter.builder("app.consultas.acima-orcamento").tag("rota", rota).register(meterRegistry).increment();
+        }
+        if (repetida) {
+            Counter.builder("app.consultas.repetidas").tag("rota", rota).register(meterRegistry).increment();
+        }
+        if (acimaOrcamento || repetida || !relatorio.maisLentas().isEmpty()) {
+            log.warn("consultas_suspeitas metodo={} caminho={} rota={} total={} orcamento={} maior_repeticao={} "
+                            + "sql_repetido=\"{}\" lentas=[{}]",
+                    metodoHttp, caminho, rota, relatorio.total(), orcamento, relatorio.maiorRepeticao(),
+                    relatorio.repetidos().keySet().stream().findFirst().orElse(""),
+                    relatorio.maisLentas().stream()
+                            .map(lenta -> lenta.metodo() + " " + TemporizadorFases.milissegundos(lenta.duracaoNanos())
+                                    + "ms \"" + lenta.sql() + "\"")
+                            .collect(Collectors.joining("; ")));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.unidevs.core_system.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Filtro que registra os comandos SQL de cada requisição e os entrega ao {@link MonitorConsultas}.
+ *
+ * Executa logo depois do {@link ServerTimingFilter}, antes da cadeia do Spring Security, para que a busca do usuário
+ * autenticado também seja contada. As métricas usam o padrão da rota ("/livro/{livroId}"), não o caminho concreto.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class MonitorConsultasFilter extends OncePerRequestFilter {
+
+    private final MonitorConsultas monitorConsultas;
+    private final boolean habilitado;
+
+    public MonitorConsultasFilter(MonitorConsultas monitorConsultas,
+                                  @Value("${app.consultas.habilitado:true}") boolean habilitado) {
+        this.monitorConsultas = monitorConsultas;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!habilitado) {
+            return true;
+        }
+        var caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return caminho.startsWith("/uploads/") || caminho.startsWith("/css/") || caminho.startsWith("/js/")
+                || caminho.startsWith("/assets/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        monitorConsultas.abrir();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            var relatorio = RegistroConsultas.fechar();
+            var rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            monitorConsultas.avaliar(request.getMethod(), request.getRequestURI(),
+                    rota != null ? rota.toString() : "outras", relatorio);
+        }
+    }
+}
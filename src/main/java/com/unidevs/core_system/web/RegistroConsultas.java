@@ -0,0 +1,128 @@
+package com.unidevs.core_system.web;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Registro, por thread, dos comandos SQL executados durante uma requisição (ou um trecho medido em teste).
+ *
+ * Responsabilidade: contar os comandos executados, agrupá-los pelo texto do SQL (o Hibernate gera o SQL com "?",
+ * então o mesmo texto repetido indica um N+1) e guardar os mais lentos com o método de serviço que os originou.
+ *
+ * Alimentado por {@link InspetorConsultas} (texto do SQL, no preparo) e por {@link CronometroJdbc} (execução).
+ * Sem registro ativo na thread, os pontos de entrada retornam de imediato, sem chamar o relógio nem alocar.
+ */
+public final class RegistroConsultas {
+
+    private static final String PACOTE_SERVICOS = "com.unidevs.core_system.service.";
+    private static final StackWalker PILHA = StackWalker.getInstance();
+    private static final ThreadLocal<RegistroConsultas> ATUAL = new ThreadLocal<>();
+    private static final ThreadLocal<RegistroConsultas> POR_THREAD = ThreadLocal.withInitial(RegistroConsultas::new);
+
+    private final HashMap<String, int[]> porComando = new HashMap<>();
+    private final ArrayList<RelatorioConsultas.ConsultaLenta> maisLentas = new ArrayList<>();
+    private String ultimoComando;
+    private int total;
+    private long limiteLentaNanos;
+    private int maximoLentas;
+
+    private RegistroConsultas() {
+    }
+
+    // Chamado pelo StatementInspector do Hibernate antes do preparo de cada comando
+    static void aoPreparar(String sql) {
+        var atual = ATUAL.get();
+        if (atual != null) {
+            atual.ultimoComando = sql;
+        }
+    }
+
+    static long iniciar() {
+        return ATUAL.get() != null ? System.nanoTime() : 0L;
+    }
+
+    // Chamado ao fim de cada execução JDBC (comando isolado ou lote)
+    static void aoExecutar(long inicio) {
+        if (inicio == 0L) {
+            return;
+        }
+        var atual = ATUAL.get();
+        if (atual != null) {
+            atual.contar(System.nanoTime() - inicio);
+        }
+    }
+
+    static void abrir(long limiteLentaNanos, int maximoLentas) {
+        var registro = POR_THREAD.get();
+        registro.porComando.clear();
+        registro.maisLentas.clear();
+        registro.ultimoComando = null;
+        registro.total = 0;
+        registro.limiteLentaNanos = limiteLentaNanos;
+        registro.maximoLentas = maximoLentas;
+        ATUAL.set(registro);
+    }
+
+    static boolean ativo() {
+        return ATUAL.get() != null;
+    }
+
+    // Encerra o registro da thread e devolve um relatório imutável (somente os comandos repetidos são copiados)
+    static RelatorioConsultas fechar() {
+        var registro = ATUAL.get();
+        ATUAL.remove();
+        if (registro == null) {
+            return new RelatorioConsultas(0, Map.of(), List.of());
+        }
+        var repetidos = new LinkedHashMap<String, Integer>();
+        registro.porComando.entrySet().stream()
+                .filter(entrada -> entrada.getValue()[0] > 1)
+                .sorted(Map.Entry.<String, int[]>comparingByValue(Comparator.comparingInt(v -> -v[0])))
+                .forEach(entrada -> repetidos.put(entrada.getKey(), entrada.getValue()[0]));
+        var lentas = new ArrayList<>(registro.maisLentas);
+        lentas.sort(Comparator.comparingLong(RelatorioConsultas.ConsultaLenta::duracaoNanos).reversed());
+        return new RelatorioConsultas(registro.total, repetidos, lentas);
+    }
+
+    private void contar(long duracao) {
+        total++;
+        var sql = ultimoComando != null ? ultimoComando : "?";
+        porComando.computeIfAbsent(sql, chave -> new int[1])[0]++;
+        if (duracao < limiteLentaNanos || maximoLentas == 0) {
+            return;
+        }
+        if (maisLentas.size() == maximoLentas) {
+            int menor = 0;
+            for (int i = 1; i < maisLentas.size(); i++) {
+                if (maisLentas.get(i).duracaoNanos() < maisLentas.get(menor).duracaoNanos()) {
+                    menor = i;
+                }
+            }
+            if (maisLentas.get(menor).duracaoNanos() >= duracao) {
+                return;
+            }
+            maisLentas.remove(menor);
+        }
+        // A pilha só é percorrida para comandos lentos; a execução JDBC ainda está dentro do método chamador
+        maisLentas.add(new RelatorioConsultas.ConsultaLenta(sql, duracao, metodoChamador()));
+    }
+
+    // Método de serviço mais externo da pilha, isto é, o chamado pelo controller (ex.: "LivroService.createLivro").
+    // Inclui o proxy transacional, de modo que os comandos do flush no commit também são atribuídos ao método.
+    private static String metodoChamador() {
+        Optional<String> metodo = PILHA.walk(quadros -> quadros
+                .filter(quadro -> quadro.getClassName().startsWith(PACOTE_SERVICOS))
+                .reduce((interno, externo) -> externo)
+                .map(quadro -> {
+                    var classe = quadro.getClassName().substring(PACOTE_SERVICOS.length());
+                    int proxy = classe.indexOf("$$");
+                    return (proxy >= 0 ? classe.substring(0, proxy) : classe) + "." + quadro.getMethodName();
+                }));
+        return metodo.orElse("desconhecido");
+    }
+}
@@ -0,0 +1,26 @@
+package com.unidevs.core_system.web;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumo dos comandos SQL executados em uma requisição ou em um trecho medido por
+ * {@link MonitorConsultas#medir(Runnable)}.
+ *
+ * @param total Quantidade de comandos executados (um lote JDBC conta como um).
+ * @param repetidos SQL executado mais de uma vez, com o número de execuções, do mais repetido para o menos.
+ * @param maisLentas Comandos acima do limite de lentidão, do mais lento para o menos.
+ */
+public record RelatorioConsultas(int total, Map<String, Integer> repetidos, List<ConsultaLenta> maisLentas) {
+
+    /**
+     * Comando lento e o método de serviço (ex.: "LivroService.updateLivroById") em que foi executado.
+     */
+    public record ConsultaLenta(String sql, long duracaoNanos, String metodo) {
+    }
+
+    // Maior número de execuções de um mesmo SQL (1 quando não há repetição, 0 sem comandos)
+    public int maiorRepeticao() {
+        return repetidos.values().stream().mapToInt(Integer::intValue).max().orElse(total > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,28 @@
+package com.unidevs.core_system.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Escrita de respostas de erro diretamente pelos filtros, no mesmo formato do ApiExceptionHandler
+ * ({"erro": "mensagem"}).
+ *
+ * Os filtros não usam {@code sendError}: ele despacha a requisição para "/error", que exige autenticação, e o
+ * cliente receberia 403 em vez do status pretendido.
+ */
+final class RespostaErro {
+
+    private RespostaErro() {
+    }
+
+    static void enviar(HttpServletResponse response, HttpStatus status, String mensagem) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"erro\":\"" + mensagem.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+    }
+}
@@ -0,0 +1,33 @@
+package com.unidevs.core_system.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Set;
+
+/**
+ * Classificação das requisições que apenas consultam dados, usada pelos filtros que tratam leituras e escritas de
+ * forma diferente ({@link LimitadorConcorrenciaFilter} e {@link RoteamentoLeituraFilter}).
+ *
+ * Além de GET, HEAD e OPTIONS, algumas consultas usam POST porque recebem um corpo (ex: POST /livro/lote, com até
+ * 500 identificadores); elas são listadas aqui para não serem tratadas como escritas.
+ */
+final class RotasLeitura {
+
+    // Consultas feitas com POST; não alteram dados
+    private static final Set<String> POSTS_SOMENTE_LEITURA = Set.of("/livro/lote");
+
+    private RotasLeitura() {
+    }
+
+    static boolean somenteLeitura(HttpServletRequest request) {
+        var metodo = request.getMethod();
+        if ("GET".equals(metodo) || "HEAD".equals(metodo) || "OPTIONS".equals(metodo)) {
+            return true;
+        }
+        return "POST".equals(metodo) && POSTS_SOMENTE_LEITURA.contains(caminho(request));
+    }
+
+    static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
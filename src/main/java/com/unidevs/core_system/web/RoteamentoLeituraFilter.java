@@ -0,0 +1,87 @@
+package com.unidevs.core_system.web;
+
+import com.unidevs.core_system.replica.RoteamentoLeitura;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que libera as réplicas de leitura nas requisições de consulta, mantendo no primário quem acabou de
+ * escrever (ex: o catálogo logo após um empréstimo), enquanto a réplica ainda pode não ter recebido a escrita.
+ *
+ * Processo:
+ * 1. Requisições de escrita (qualquer método exceto GET, HEAD e OPTIONS, salvo as consultas feitas com POST
+ *    listadas em {@link RotasLeitura}, como /livro/lote) usam somente o primário e gravam o cookie
+ *    "leitura_primario_ate" com o fim da janela de leitura própria;
+ * 2. Requisições de consulta com o cookie ainda válido também usam o primário;
+ * 3. As demais consultas liberam as réplicas ({@link RoteamentoLeitura}) para as transações somente leitura.
+ *
+ * O cookie acompanha o cliente entre instâncias, sem estado no servidor. Executa antes da cadeia do Spring Security,
+ * para que a busca do usuário autenticado siga a mesma regra. Ativo apenas com réplicas configuradas.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnExpression("!'${app.replicas.urls:}'.isBlank()")
+public class RoteamentoLeituraFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "leitura_primario_ate";
+
+    private final long janelaMs;
+
+    public RoteamentoLeituraFilter(@Value("${app.replicas.janela-leitura-propria-ms:5000}") long janelaMs) {
+        this.janelaMs = janelaMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long agora = System.currentTimeMillis();
+        if (!RotasLeitura.somenteLeitura(request)) {
+            var cookie = new Cookie(COOKIE, Long.toString(agora + janelaMs));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (janelaMs + 999) / 1000));
+            response.addCookie(cookie);
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (janelaAberta(request, agora)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean anterior = RoteamentoLeitura.permitirReplica();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoteamentoLeitura.restaurar(anterior);
+        }
+    }
+
+    private static boolean janelaAberta(HttpServletRequest request, long agora) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (var cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > agora;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
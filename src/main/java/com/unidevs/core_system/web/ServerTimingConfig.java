@@ -0,0 +1,89 @@
+package com.unidevs.core_system.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Configuração dos pontos de medição do {@link ServerTimingFilter} fora da camada web.
+ *
+ * Registra:
+ * 1. O {@link CronometroJdbc} como listener de todas as sessões do Hibernate (fase "db" e execuções do
+ *    {@link RegistroConsultas}), apenas quando o Server-Timing ou o monitor de consultas está habilitado;
+ * 2. O {@link InspetorConsultas}, que informa o SQL de cada comando, quando o monitor de consultas está habilitado;
+ * 3. O conversor JSON da aplicação, que mede a serialização das respostas (fase "json"). Por ser um
+ *    {@link MappingJackson2HttpMessageConverter}, substitui o conversor padrão criado pelo Spring Boot e usa o
+ *    mesmo ObjectMapper. O flush do Jackson ao fim da serialização é adiado para depois da medição (o conversor
+ *    faz o flush logo em seguida), para que o header, definido no flush, já inclua a fase "json".
+ */
+@Configuration
+public class ServerTimingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer cronometroJdbcCustomizer(
+            @Value("${app.server-timing.habilitado:true}") boolean serverTimingHabilitado,
+            @Value("${app.consultas.habilitado:true}") boolean consultasHabilitado) {
+        return propriedades -> {
+            if (serverTimingHabilitado || consultasHabilitado) {
+                propriedades.put("hibernate.session.events.auto", CronometroJdbc.class.getName());
+            }
+            if (consultasHabilitado) {
+                propriedades.put("hibernate.session_factory.statement_inspector", InspetorConsultas.class.getName());
+            }
+        };
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long inicio = TemporizadorFases.iniciar();
+                if (inicio == 0L) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                try {
+                    super.writeInternal(object, type, new HttpOutputMessage() {
+                        @Override
+                        public OutputStream getBody() throws IOException {
+                            return new FilterOutputStream(outputMessage.getBody()) {
+                                @Override
+                                public void write(byte[] b, int off, int len) throws IOException {
+                                    out.write(b, off, len);
+                                }
+
+                                @Override
+                                public void flush() {
+                                }
+
+                                @Override
+                                public void close() {
+                                }
+                            };
+                        }
+
+                        @Override
+                        public HttpHeaders getHeaders() {
+                            return outputMessage.getHeaders();
+                        }
+                    });
+                } finally {
+                    TemporizadorFases.registrar(TemporizadorFases.Fase.SERIALIZACAO, inicio);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,212 @@
+package com.unidevs.core_system.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro que mede as fases de cada requisição e as devolve no header "Server-Timing".
+ *
+ * Responsabilidade: mostrar, para uma chamada lenta, quanto tempo foi gasto na autenticação (SecurityFilter: JWT e
+ * busca do usuário), no banco de dados (execução de comandos JDBC), na conversão de entidades para DTO e na
+ * serialização JSON.
+ *
+ * Processo:
+ * 1. Registrado como filtro de servlet de maior precedência, antes da cadeia do Spring Security;
+ * 2. Ativa o {@link TemporizadorFases} da thread e executa a requisição; o corpo não é copiado;
+ * 3. Antes de cada ponto em que a resposta pode ser enviada (flush do corpo, escrita além do buffer do servlet,
+ *    erro ou redirecionamento), o header é definido com as fases medidas até ali;
+ * 4. Ao fim da requisição, se a resposta ainda não foi enviada (corpo menor que o buffer do servlet), o header é
+ *    reescrito com os tempos finais, incluindo a serialização; se passou do limite configurado, a requisição gera
+ *    uma linha de log no formato chave=valor, sempre com os tempos finais.
+ *
+ * Em respostas maiores que o buffer do servlet o header não inclui a parte da serialização feita após o envio dos
+ * primeiros bytes. O tempo de "auth" inclui a consulta do usuário, que também é contada em "db".
+ * Desabilitado ("app.server-timing.habilitado=false"), o filtro apenas repassa a requisição.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean habilitado;
+    private final long limiteLentoNanos;
+
+    public ServerTimingFilter(@Value("${app.server-timing.habilitado:true}") boolean habilitado,
+                              @Value("${app.server-timing.limite-lento-ms:500}") long limiteLentoMs) {
+        this.habilitado = habilitado;
+        this.limiteLentoNanos = TimeUnit.MILLISECONDS.toNanos(limiteLentoMs);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!habilitado) {
+            return true;
+        }
+        var caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return caminho.startsWith("/uploads/") || caminho.startsWith("/css/") || caminho.startsWith("/js/")
+                || caminho.startsWith("/assets/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        var temporizador = TemporizadorFases.abrir();
+        long inicio = System.nanoTime();
+        try {
+            filterChain.doFilter(request, new RespostaCronometrada(response, temporizador, inicio));
+        } finally {
+            long total = System.nanoTime() - inicio;
+            TemporizadorFases.fechar();
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, temporizador.cabecalho(total));
+            }
+            if (total >= limiteLentoNanos) {
+                registrarLenta(request, response.getStatus(), total, temporizador);
+            }
+        }
+    }
+
+    // Define o header antes de qualquer ponto em que a resposta possa ser enviada, sem guardar o corpo
+    private static final class RespostaCronometrada extends HttpServletResponseWrapper {
+
+        private final TemporizadorFases temporizador;
+        private final long inicio;
+        private ServletOutputStream saida;
+
+        RespostaCronometrada(HttpServletResponse response, TemporizadorFases temporizador, long inicio) {
+            super(response);
+            this.temporizador = temporizador;
+            this.inicio = inicio;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (saida == null) {
+                definirCabecalho();
+                saida = new SaidaCronometrada(super.getOutputStream());
+            }
+            return saida;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            definirCabecalho();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            definirCabecalho();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            definirCabecalho();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            definirCabecalho();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            definirCabecalho();
+            super.sendRedirect(location);
+        }
+
+        private void definirCabecalho() {
+            if (!isCommitted()) {
+                setHeader(HEADER, temporizador.cabecalho(System.nanoTime() - inicio));
+            }
+        }
+
+        // Atualiza o header antes do flush (feito pelos conversores após a serialização) e antes de a escrita
+        // estourar o buffer, os dois pontos em que o servlet envia os headers
+        private final class SaidaCronometrada extends ServletOutputStream {
+
+            private final ServletOutputStream destino;
+            private long escritos;
+
+            SaidaCronometrada(ServletOutputStream destino) {
+                this.destino = destino;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                antesDeEscrever(1);
+                destino.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                antesDeEscrever(len);
+                destino.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                definirCabecalho();
+                destino.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                definirCabecalho();
+                destino.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return destino.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                destino.setWriteListener(writeListener);
+            }
+
+            private void antesDeEscrever(int quantidade) {
+                escritos += quantidade;
+                if (escritos > getBufferSize()) {
+                    definirCabecalho();
+                }
+            }
+        }
+    }
+
+    private static void registrarLenta(HttpServletRequest request, int status, long total,
+                                       TemporizadorFases temporizador) {
+        log.warn("requisicao_lenta metodo={} caminho={} status={} total_ms={} auth_ms={} db_ms={} db_comandos={} "
+                        + "dto_ms={} json_ms={}",
+                request.getMethod(), request.getRequestURI(), status,
+                TemporizadorFases.milissegundos(total),
+                TemporizadorFases.milissegundos(temporizador.getNanos(TemporizadorFases.Fase.AUTENTICACAO)),
+                TemporizadorFases.milissegundos(temporizador.getNanos(TemporizadorFases.Fase.BANCO)),
+                temporizador.getOcorrencias(TemporizadorFases.Fase.BANCO),
+                TemporizadorFases.milissegundos(temporizador.getNanos(TemporizadorFases.Fase.CONVERSAO)),
+                TemporizadorFases.milissegundos(temporizador.getNanos(TemporizadorFases.Fase.SERIALIZACAO)));
+    }
+}
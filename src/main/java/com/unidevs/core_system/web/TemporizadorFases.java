@@ -0,0 +1,127 @@
+package com.unidevs.core_system.web;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Cronômetro das fases de uma requisição, usado para o header "Server-Timing" e para o log de requisições lentas.
+ *
+ * Responsabilidade: acumular, por thread, o tempo (em nanossegundos) gasto em cada {@link Fase} da requisição atual.
+ *
+ * Uso nos pontos instrumentados:
+ * <pre>
+ * long inicio = TemporizadorFases.iniciar();
+ * ... trabalho da fase ...
+ * TemporizadorFases.registrar(Fase.CONVERSAO, inicio);
+ * </pre>
+ *
+ * Sem medição ativa na thread, {@code iniciar()} devolve 0 e {@code registrar} retorna de imediato, sem chamar o
+ * relógio nem alocar. Com medição ativa, cada thread reutiliza a mesma instância entre requisições.
+ */
+public final class TemporizadorFases {
+
+    /**
+     * Fases medidas; o nome curto é usado no header "Server-Timing".
+     */
+    public enum Fase {
+        AUTENTICACAO("auth"),
+        BANCO("db"),
+        CONVERSAO("dto"),
+        SERIALIZACAO("json");
+
+        private final String nome;
+
+        Fase(String nome) {
+            this.nome = nome;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+    }
+
+    private static final Fase[] FASES = Fase.values();
+    private static final ThreadLocal<TemporizadorFases> ATUAL = new ThreadLocal<>();
+    private static final ThreadLocal<TemporizadorFases> POR_THREAD = ThreadLocal.withInitial(TemporizadorFases::new);
+
+    private final long[] nanos = new long[FASES.length];
+    private final int[] ocorrencias = new int[FASES.length];
+
+    private TemporizadorFases() {
+    }
+
+    /**
+     * Retorna o instante atual se houver medição ativa na thread, ou 0.
+     */
+    public static long iniciar() {
+        return ATUAL.get() != null ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Soma à fase o tempo decorrido desde {@code inicio}, obtido de {@link #iniciar()}.
+     */
+    public static void registrar(Fase fase, long inicio) {
+        if (inicio == 0L) {
+            return;
+        }
+        var atual = ATUAL.get();
+        if (atual != null) {
+            atual.nanos[fase.ordinal()] += System.nanoTime() - inicio;
+            atual.ocorrencias[fase.ordinal()]++;
+        }
+    }
+
+    /**
+     * Como {@link #registrar}, mas sem contar uma ocorrência da fase (ex.: obter conexão não é um comando no banco).
+     */
+    public static void acrescentar(Fase fase, long inicio) {
+        if (inicio == 0L) {
+            return;
+        }
+        var atual = ATUAL.get();
+        if (atual != null) {
+            atual.nanos[fase.ordinal()] += System.nanoTime() - inicio;
+        }
+    }
+
+    // Inicia a medição da requisição na thread atual
+    static TemporizadorFases abrir() {
+        var temporizador = POR_THREAD.get();
+        Arrays.fill(temporizador.nanos, 0L);
+        Arrays.fill(temporizador.ocorrencias, 0);
+        ATUAL.set(temporizador);
+        return temporizador;
+    }
+
+    static void fechar() {
+        ATUAL.remove();
+    }
+
+    long getNanos(Fase fase) {
+        return nanos[fase.ordinal()];
+    }
+
+    int getOcorrencias(Fase fase) {
+        return ocorrencias[fase.ordinal()];
+    }
+
+    // Ex.: auth;dur=1.2, db;dur=4.8;desc="3", dto;dur=0.1, json;dur=0.9, total;dur=7.5
+    String cabecalho(long totalNanos) {
+        var valor = new StringBuilder(96);
+        for (var fase : FASES) {
+            if (ocorrencias[fase.ordinal()] == 0 && nanos[fase.ordinal()] == 0L) {
+                continue;
+            }
+            valor.append(fase.nome).append(";dur=").append(milissegundos(nanos[fase.ordinal()]));
+            if (fase == Fase.BANCO) {
+                valor.append(";desc=\"").append(ocorrencias[fase.ordinal()]).append('"');
+            }
+            valor.append(", ");
+        }
+        return valor.append("total;dur=").append(milissegundos(totalNanos)).toString();
+    }
+
+    static String milissegundos(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,27 @@
+// Verifica a disponibilidade do login enquanto o usuário digita, aguardando uma pausa na digitação.
+(function () {
+    const campo = document.getElementById("login");
+    const aviso = document.getElementById("login-disponibilidade");
+    let espera;
+
+    campo.addEventListener("input", function () {
+        clearTimeout(espera);
+        aviso.textContent = "";
+        const login = campo.value.trim();
+        if (login.length === 0) {
+            return;
+        }
+        espera = setTimeout(function () {
+            fetch("/register/login-disponivel?login=" + encodeURIComponent(login))
+                .then(function (resposta) { return resposta.json(); })
+                .then(function (dados) {
+                    if (campo.value.trim() !== login) {
+                        return;
+                    }
+                    aviso.textContent = dados.disponivel ? "Login disponível" : "Login já existe";
+                    aviso.style.color = dados.disponivel ? "green" : "red";
+                })
+                .catch(function () { aviso.textContent = ""; });
+        }, 300);
+    });
+})();
@@ -0,0 +1,135 @@
+package com.unidevs.core_system.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unidevs.core_system.CoreSystemApplication;
+import com.unidevs.core_system.entity.Livro;
+import com.unidevs.core_system.repository.LivroRepository;
+import com.unidevs.core_system.service.LivroService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Benchmark de tamanho de resposta e alocação das respostas parciais (parâmetro "fields") da listagem de livros.
+ *
+ * Responsabilidade: comparar, para a mesma massa de livros, a listagem completa (entidades hidratadas e
+ * serializadas) com as projeções de "fields", que selecionam só as colunas pedidas e serializam direto das tuplas:
+ * 1. "entidade": GET /livro sem "fields";
+ * 2. "fields=livroId,titulo": o mínimo para uma lista de títulos;
+ * 3. "fields=livroId,titulo,autor,quantidadeDisponivel": um cartão de catálogo.
+ *
+ * Processo:
+ * 1. Sobe a aplicação com o perfil "teste" (H2 em memória), sem servidor web, e cadastra os livros direto pelo
+ *    repositório;
+ * 2. Para cada cenário, executa a consulta e a serialização com o ObjectMapper da aplicação na thread atual, como
+ *    faz o conversor JSON em uma requisição, repetidas vezes após o aquecimento;
+ * 3. Imprime os bytes da resposta (pura e com gzip), os bytes alocados pela thread por execução (consulta, linhas e
+ *    JSON) e o tempo médio.
+ *
+ * Execução: ./mvnw -Pbenchmark-campos -DskipTests verify -Dbenchmark.livros=10000
+ *
+ * Parâmetros (propriedades de sistema):
+ * @param benchmark.livros Livros cadastrados.
+ * @param benchmark.iteracoes Execuções medidas por cenário.
+ * @param benchmark.aquecimento Execuções descartadas por cenário.
+ */
+public final class BenchmarkCamposLivro {
+
+    private static final String[] GENEROS = {"Romance", "Poesia", "Conto", "Crônica", "Biografia", "História"};
+
+    private BenchmarkCamposLivro() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int livros = Integer.getInteger("benchmark.livros", 10_000);
+        int iteracoes = Integer.getInteger("benchmark.iteracoes", 20);
+        int aquecimento = Integer.getInteger("benchmark.aquecimento", 5);
+
+        try (var contexto = iniciarAplicacao("benchmark-campos")) {
+            popular(contexto, livros);
+            var livroService = contexto.getBean(LivroService.class);
+            var mapeador = contexto.getBean(ObjectMapper.class);
+
+            System.out.printf("%d livros, %d execuções por cenário%n", livros, iteracoes);
+            System.out.printf("%-52s %14s %14s %16s %10s%n",
+                    "cenário", "JSON (KB)", "gzip (KB)", "alocado (KB)", "ms");
+            medir("entidade", livroService::listLivros, mapeador, iteracoes, aquecimento);
+            for (var fields : List.of("livroId,titulo", "livroId,titulo,autor,quantidadeDisponivel")) {
+                medir("fields=" + fields, () -> livroService.listCamposLivros(fields), mapeador, iteracoes,
+                        aquecimento);
+            }
+        }
+    }
+
+    // Contexto sem servidor web, com um banco H2 próprio
+    static ConfigurableApplicationContext iniciarAplicacao(String banco) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(CoreSystemApplication.class)
+                .profiles("teste")
+                .run("--spring.main.web-application-type=none", "--logging.level.root=WARN",
+                        "--spring.main.banner-mode=off", "--spring.datasource.url=jdbc:h2:mem:" + banco
+                                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    // Livros com todos os campos preenchidos, em lotes
+    static void popular(ConfigurableApplicationContext contexto, int quantidade) {
+        var livroRepository = contexto.getBean(LivroRepository.class);
+        var aleatorio = ThreadLocalRandom.current();
+        var lote = new ArrayList<Livro>(1_000);
+        for (int i = 0; i < quantidade; i++) {
+            var livro = new Livro();
+            livro.setTitulo("Livro de benchmark número " + i);
+            livro.setAutor("Autor " + aleatorio.nextInt(2_000));
+            livro.setGenero(GENEROS[aleatorio.nextInt(GENEROS.length)]);
+            livro.setAnoPublicacao(1900 + aleatorio.nextInt(120));
+            livro.setQuantidadeTotal(1 + aleatorio.nextInt(10));
+            livro.setQuantidadeDisponivel(livro.getQuantidadeTotal());
+            livro.setTags("classico,vestibular,literatura-brasileira");
+            livro.setStatus("Disponível");
+            livro.setCreationTimestamp(Instant.now());
+            livro.setUpdateTimestamp(Instant.now());
+            lote.add(livro);
+            if (lote.size() == 1_000) {
+                livroRepository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        livroRepository.saveAll(lote);
+    }
+
+    private static void medir(String cenario, Supplier<List<?>> consulta, ObjectMapper mapeador, int iteracoes,
+                              int aquecimento) throws IOException {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        byte[] json = null;
+        long alocado = 0;
+        long nanos = 0;
+        for (int i = 0; i < aquecimento + iteracoes; i++) {
+            long alocadoAntes = threads.getCurrentThreadAllocatedBytes();
+            long inicio = System.nanoTime();
+            json = mapeador.writeValueAsBytes(consulta.get());
+            if (i >= aquecimento) {
+                nanos += System.nanoTime() - inicio;
+                alocado += threads.getCurrentThreadAllocatedBytes() - alocadoAntes;
+            }
+        }
+        System.out.printf("%-52s %,14.1f %,14.1f %,16.1f %,10.2f%n", cenario, json.length / 1024.0,
+                gzip(json) / 1024.0, alocado / 1024.0 / iteracoes, nanos / 1e6 / iteracoes);
+    }
+
+    static int gzip(byte[] dados) throws IOException {
+        var saida = new ByteArrayOutputStream();
+        try (var compactador = new GZIPOutputStream(saida)) {
+            compactador.write(dados);
+        }
+        return saida.size();
+    }
+}
@@ -0,0 +1,152 @@
+package com.unidevs.core_system.carga;
+
+import com.unidevs.core_system.entity.GeradorUuidOrdenado;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark de inserção no MySQL com os formatos de chave primária usados pelas entidades.
+ *
+ * Responsabilidade: medir a vazão de inserção e o tamanho dos índices de uma tabela semelhante a "livros" com:
+ * 1. "varchar-v4": UUID aleatório como texto (User.id antes da migração);
+ * 2. "binario-v4": UUID aleatório em BINARY(16) (Livro.livroId antes, GenerationType.UUID);
+ * 3. "binario-v7": UUIDv7 em BINARY(16) ({@link GeradorUuidOrdenado}, depois).
+ *
+ * Processo (para cada formato):
+ * 1. Recria a tabela, com um índice secundário (que carrega a chave primária em cada entrada);
+ * 2. Insere as linhas em lotes, uma transação por lote, e imprime a vazão a cada décimo das linhas, para mostrar a
+ *    queda conforme a tabela deixa de caber no buffer pool;
+ * 3. Ao final, imprime a vazão total, as leituras de disco do buffer pool durante as inserções e o tamanho dos dados
+ *    (índice clusterizado), dos índices secundários e o espaço livre, após ANALYZE TABLE.
+ *
+ * Requer o banco do docker-compose em execução (as tabelas "benchmark_chaves_*" são removidas ao final).
+ *
+ * Execução: ./mvnw -Pbenchmark-chaves -DskipTests verify -Dbenchmark.linhas=3000000
+ *
+ * Parâmetros (propriedades de sistema):
+ * @param benchmark.linhas Linhas inseridas por formato.
+ * @param benchmark.lote Linhas por lote (e por transação).
+ * @param benchmark.url URL JDBC do MySQL.
+ * @param benchmark.usuario Usuário do banco.
+ * @param benchmark.senha Senha do banco.
+ */
+public final class BenchmarkChavesUuid {
+
+    private enum Formato {
+        VARCHAR_V4("varchar-v4", "VARCHAR(36)", () -> UUID.randomUUID().toString()),
+        BINARIO_V4("binario-v4", "BINARY(16)", () -> bytes(UUID.randomUUID())),
+        BINARIO_V7("binario-v7", "BINARY(16)", () -> bytes(GeradorUuidOrdenado.gerar()));
+
+        final String nome;
+        final String tipoColuna;
+        final Supplier<Object> gerador;
+
+        Formato(String nome, String tipoColuna, Supplier<Object> gerador) {
+            this.nome = nome;
+            this.tipoColuna = tipoColuna;
+            this.gerador = gerador;
+        }
+
+        String tabela() {
+            return "benchmark_chaves_" + nome.replace('-', '_');
+        }
+    }
+
+    private BenchmarkChavesUuid() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int linhas = Integer.getInteger("benchmark.linhas", 3_000_000);
+        int lote = Integer.getInteger("benchmark.lote", 1_000);
+        String url = System.getProperty("benchmark.url",
+                "jdbc:mysql://localhost:3306/db_example?rewriteBatchedStatements=true");
+
+        try (var conexao = DriverManager.getConnection(url,
+                System.getProperty("benchmark.usuario", "springuser"),
+                System.getProperty("benchmark.senha", "ThePassword"))) {
+            System.out.printf("%-11s %12s %16s %14s %14s %12s%n",
+                    "formato", "linhas/s", "leituras disco", "dados (MB)", "índices (MB)", "livre (MB)");
+            for (var formato : Formato.values()) {
+                executar(conexao, formato, linhas, lote);
+            }
+        }
+    }
+
+    private static void executar(Connection conexao, Formato formato, int linhas, int lote) throws SQLException {
+        try (var comando = conexao.createStatement()) {
+            comando.execute("DROP TABLE IF EXISTS " + formato.tabela());
+            comando.execute("CREATE TABLE " + formato.tabela() + " (id " + formato.tipoColuna + " NOT NULL PRIMARY KEY,"
+                    + " titulo VARCHAR(100) NOT NULL, autor VARCHAR(100) NOT NULL, quantidade INT NOT NULL,"
+                    + " criado_em TIMESTAMP(6) NOT NULL, INDEX idx_autor (autor)) ENGINE=InnoDB");
+        }
+
+        long leiturasAntes = leiturasDisco(conexao);
+        conexao.setAutoCommit(false);
+        long inicio = System.nanoTime();
+        long inicioFaixa = inicio;
+        int faixa = Math.max(lote, linhas / 10);
+        var aleatorio = ThreadLocalRandom.current();
+        try (var insercao = conexao.prepareStatement("INSERT INTO " + formato.tabela()
+                + " (id, titulo, autor, quantidade, criado_em) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= linhas; i++) {
+                insercao.setObject(1, formato.gerador.get());
+                insercao.setString(2, "Livro " + i);
+                insercao.setString(3, "Autor " + aleatorio.nextInt(10_000));
+                insercao.setInt(4, aleatorio.nextInt(1, 20));
+                insercao.setTimestamp(5, Timestamp.from(Instant.now()));
+                insercao.addBatch();
+                if (i % lote == 0 || i == linhas) {
+                    insercao.executeBatch();
+                    conexao.commit();
+                }
+                if (i % faixa == 0) {
+                    long agora = System.nanoTime();
+                    System.out.printf("  %-11s até %,d linhas: %,.0f linhas/s%n",
+                            formato.nome, i, faixa / ((agora - inicioFaixa) / 1e9));
+                    inicioFaixa = agora;
+                }
+            }
+        } finally {
+            conexao.setAutoCommit(true);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long leituras = leiturasDisco(conexao) - leiturasAntes;
+
+        try (var comando = conexao.createStatement()) {
+            comando.execute("ANALYZE TABLE " + formato.tabela());
+            try (var tamanhos = comando.executeQuery("SELECT DATA_LENGTH, INDEX_LENGTH, DATA_FREE"
+                    + " FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '"
+                    + formato.tabela() + "'")) {
+                tamanhos.next();
+                System.out.printf("%-11s %,12.0f %,16d %,14.1f %,14.1f %,12.1f%n", formato.nome, linhas / segundos,
+                        leituras, tamanhos.getLong(1) / 1048576.0, tamanhos.getLong(2) / 1048576.0,
+                        tamanhos.getLong(3) / 1048576.0);
+            }
+            comando.execute("DROP TABLE " + formato.tabela());
+        }
+    }
+
+    // Páginas lidas do disco pelo buffer pool (cresce quando as inserções tocam páginas fora da memória)
+    private static long leiturasDisco(Connection conexao) throws SQLException {
+        try (var comando = conexao.createStatement();
+             var status = comando.executeQuery("SHOW GLOBAL STATUS LIKE 'Innodb_buffer_pool_reads'")) {
+            status.next();
+            return status.getLong(2);
+        }
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
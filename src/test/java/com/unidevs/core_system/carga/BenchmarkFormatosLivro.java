@@ -0,0 +1,87 @@
+package com.unidevs.core_system.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unidevs.core_system.service.LivroService;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Benchmark de serialização do catálogo em JSON, CBOR e Smile.
+ *
+ * Responsabilidade: medir, com os mesmos ObjectMapper usados pelos conversores da aplicação, quanto os formatos
+ * binários economizam em bytes, tempo e alocação ao serializar e ler o catálogo completo.
+ *
+ * Processo:
+ * 1. Sobe a aplicação com o perfil "teste" (H2 em memória), sem servidor web, e cadastra os livros
+ *    ({@link BenchmarkCamposLivro#popular});
+ * 2. Lê o catálogo uma vez (a consulta não entra na medição);
+ * 3. Para cada formato, serializa e lê de volta (árvore de nós, como faria um cliente genérico) repetidas vezes após
+ *    o aquecimento;
+ * 4. Imprime os bytes (puros e com gzip), o tempo médio de escrita e de leitura e os bytes alocados pela thread na
+ *    escrita.
+ *
+ * Execução: ./mvnw -Pbenchmark-formatos -DskipTests verify -Dbenchmark.livros=10000
+ *
+ * Parâmetros (propriedades de sistema):
+ * @param benchmark.livros Livros cadastrados (linhas do catálogo).
+ * @param benchmark.iteracoes Execuções medidas por formato.
+ * @param benchmark.aquecimento Execuções descartadas por formato.
+ */
+public final class BenchmarkFormatosLivro {
+
+    private BenchmarkFormatosLivro() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int livros = Integer.getInteger("benchmark.livros", 10_000);
+        int iteracoes = Integer.getInteger("benchmark.iteracoes", 50);
+        int aquecimento = Integer.getInteger("benchmark.aquecimento", 10);
+
+        try (var contexto = BenchmarkCamposLivro.iniciarAplicacao("benchmark-formatos")) {
+            BenchmarkCamposLivro.popular(contexto, livros);
+            var catalogo = contexto.getBean(LivroService.class).listarTodosParaCatalogo();
+
+            var formatos = new LinkedHashMap<String, ObjectMapper>();
+            formatos.put("json", contexto.getBean(ObjectMapper.class));
+            formatos.put("cbor", contexto.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper());
+            formatos.put("smile", contexto.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper());
+
+            System.out.printf("%d linhas do catálogo, %d execuções por formato%n", catalogo.size(), iteracoes);
+            System.out.printf("%-6s %12s %12s %14s %14s %16s%n",
+                    "formato", "bytes (KB)", "gzip (KB)", "escrita (ms)", "leitura (ms)", "alocado (KB)");
+            for (var formato : formatos.entrySet()) {
+                medir(formato.getKey(), formato.getValue(), catalogo, iteracoes, aquecimento);
+            }
+        }
+    }
+
+    private static void medir(String nome, ObjectMapper mapeador, List<?> catalogo, int iteracoes, int aquecimento)
+            throws IOException {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        byte[] dados = null;
+        long escrita = 0;
+        long leitura = 0;
+        long alocado = 0;
+        for (int i = 0; i < aquecimento + iteracoes; i++) {
+            long alocadoAntes = threads.getCurrentThreadAllocatedBytes();
+            long inicio = System.nanoTime();
+            dados = mapeador.writeValueAsBytes(catalogo);
+            long meio = System.nanoTime();
+            long alocadoEscrita = threads.getCurrentThreadAllocatedBytes() - alocadoAntes;
+            mapeador.readTree(dados);
+            if (i >= aquecimento) {
+                escrita += meio - inicio;
+                leitura += System.nanoTime() - meio;
+                alocado += alocadoEscrita;
+            }
+        }
+        System.out.printf("%-6s %,12.1f %,12.1f %,14.2f %,14.2f %,16.1f%n", nome, dados.length / 1024.0,
+                BenchmarkCamposLivro.gzip(dados) / 1024.0, escrita / 1e6 / iteracoes, leitura / 1e6 / iteracoes,
+                alocado / 1024.0 / iteracoes);
+    }
+}
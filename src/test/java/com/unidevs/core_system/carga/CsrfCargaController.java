@@ -0,0 +1,21 @@
+package com.unidevs.core_system.carga;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint disponível somente no perfil "carga", que entrega o token CSRF da sessão ao gerador de carga.
+ *
+ * As páginas atuais não renderizam o token, e sem ele os POSTs de empréstimo seriam recusados pelo CsrfFilter.
+ */
+@Profile("carga")
+@RestController
+class CsrfCargaController {
+
+    @GetMapping(value = "/carga/csrf", produces = "text/plain")
+    String csrf(CsrfToken token) {
+        return token.getToken();
+    }
+}
@@ -0,0 +1,187 @@
+package com.unidevs.core_system.carga;
+
+import com.unidevs.core_system.CoreSystemApplication;
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.service.AuthorizationService;
+import com.unidevs.core_system.service.LivroService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga HTTP com tráfego realista da biblioteca.
+ *
+ * Responsabilidade: reproduzir localmente picos de uso, sem banco de dados ou serviços externos.
+ *
+ * Processo:
+ * 1. Sobe a aplicação com o perfil "teste" (H2 em memória) e o perfil "carga", em uma porta livre;
+ * 2. Cadastra usuários e livros;
+ * 3. Inicia sessões ({@link SessaoCarga}) em modelo aberto: as chegadas seguem um processo de Poisson com a taxa
+ *    configurada, independentemente de as sessões anteriores terem terminado, como acontece com usuários reais;
+ * 4. Descarta as medições do aquecimento e, ao final, imprime os percentis de latência por endpoint e grava os
+ *    histogramas HDR completos (.hgrm).
+ *
+ * O atraso entre o instante planejado de cada chegada e o início efetivo da sessão é registrado como
+ * "atraso-chegada", para indicar quando o próprio gerador não acompanhou a taxa.
+ *
+ * Execução: ./mvnw -Pcarga -DskipTests verify -Dcarga.taxa=20 -Dcarga.duracao=60
+ *
+ * Parâmetros (propriedades de sistema):
+ * @param carga.taxa Sessões iniciadas por segundo.
+ * @param carga.duracao Duração das chegadas, em segundos.
+ * @param carga.aquecimento Segundos iniciais não medidos.
+ * @param carga.usuarios Quantidade de usuários cadastrados.
+ * @param carga.livros Quantidade de livros cadastrados.
+ * @param carga.pensar-ms Tempo médio entre as páginas de uma sessão.
+ * @param carga.estante Livros da estante aberta em cada sessão (comparação entre /livro/lote e uma requisição
+ *                      por livro).
+ * @param carga.saida Diretório dos histogramas.
+ */
+public final class GeradorCarga {
+
+    private static final String[] AUTORES = {"Machado de Assis", "Clarice Lispector", "Jorge Amado",
+            "Graciliano Ramos", "Cecília Meireles", "Guimarães Rosa", "Rachel de Queiroz", "Lygia Fagundes Telles"};
+    private static final String[] GENEROS = {"Romance", "Poesia", "Conto", "Crônica", "Ficção científica",
+            "Biografia", "História", "Didático"};
+    private static final String[] TAGS = {"classico", "modernismo", "regionalismo", "vestibular", "infantil",
+            "juvenil", "realismo", "fantasia", "aventura", "ciencia"};
+
+    private GeradorCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        double taxa = Double.parseDouble(System.getProperty("carga.taxa", "5"));
+        long duracao = Long.parseLong(System.getProperty("carga.duracao", "30"));
+        long aquecimento = Long.parseLong(System.getProperty("carga.aquecimento", "5"));
+        int usuarios = Integer.parseInt(System.getProperty("carga.usuarios", "20"));
+        int livros = Integer.parseInt(System.getProperty("carga.livros", "200"));
+        long pensarMs = Long.parseLong(System.getProperty("carga.pensar-ms", "100"));
+        int estante = Integer.parseInt(System.getProperty("carga.estante", "20"));
+        var saida = Paths.get(System.getProperty("carga.saida", "target/carga"));
+
+        try (var contexto = iniciarAplicacao()) {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            var massa = popular(contexto, usuarios, livros);
+            var metricas = new MetricasCarga();
+            System.out.printf("Carga: %.1f sessões/s por %d s (aquecimento %d s) em http://localhost:%d%n",
+                    taxa, duracao, aquecimento, porta);
+
+            var resultado = executar(URI.create("http://localhost:" + porta), massa, metricas, taxa,
+                    Duration.ofSeconds(duracao), Duration.ofSeconds(aquecimento), pensarMs, estante);
+
+            System.out.printf("Sessões iniciadas: %d, concluídas: %d, com falha: %d%n",
+                    resultado[0], resultado[1], resultado[2]);
+            metricas.relatar(System.out, saida);
+            System.out.println("Histogramas gravados em " + saida.toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacao() {
+        // O reinício do devtools trocaria o class loader da aplicação no meio da carga
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(CoreSystemApplication.class)
+                .profiles("teste", "carga")
+                .run("--server.port=0", "--logging.level.root=WARN", "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:carga;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
+    }
+
+    private static MassaDadosCarga popular(ConfigurableApplicationContext contexto, int usuarios, int livros) {
+        var authorizationService = contexto.getBean(AuthorizationService.class);
+        var passwordEncoder = contexto.getBean(PasswordEncoder.class);
+        var livroService = contexto.getBean(LivroService.class);
+
+        var senha = passwordEncoder.encode(MassaDadosCarga.SENHA);
+        var logins = new ArrayList<String>(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            var login = "carga" + i;
+            authorizationService.registrarUsuario(new User(login, login + "@carga.local", senha, UserRole.USER));
+            logins.add(login);
+        }
+
+        var aleatorio = ThreadLocalRandom.current();
+        var ids = new ArrayList<UUID>(livros);
+        for (int i = 0; i < livros; i++) {
+            var tags = TAGS[aleatorio.nextInt(TAGS.length)] + "," + TAGS[aleatorio.nextInt(TAGS.length)];
+            ids.add(livroService.createLivro(new CreateLivroDto("Livro de carga " + i,
+                    AUTORES[aleatorio.nextInt(AUTORES.length)], GENEROS[aleatorio.nextInt(GENEROS.length)],
+                    1900 + aleatorio.nextInt(120), 1_000_000, null, tags), null));
+        }
+
+        var termos = new ArrayList<>(List.of(AUTORES));
+        termos.addAll(List.of(GENEROS));
+        return new MassaDadosCarga(logins, ids, termos, List.of(TAGS));
+    }
+
+    // Retorna {iniciadas, concluídas, com falha}
+    private static long[] executar(URI base, MassaDadosCarga massa, MetricasCarga metricas, double taxa,
+                                   Duration duracao, Duration aquecimento, long pensarMs, int estante)
+            throws InterruptedException {
+        var cliente = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        var numero = new AtomicInteger();
+        ExecutorService sessoes = Executors.newCachedThreadPool(tarefa -> {
+            var thread = new Thread(tarefa, "sessao-carga-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        var concluidas = new LongAdder();
+        var falhas = new LongAdder();
+        long iniciadas = 0;
+
+        var aleatorio = ThreadLocalRandom.current();
+        double intervaloMedioNanos = TimeUnit.SECONDS.toNanos(1) / taxa;
+        long inicio = System.nanoTime();
+        long fimAquecimento = inicio + aquecimento.toNanos();
+        long fim = inicio + duracao.toNanos();
+        long chegada = inicio;
+        while (true) {
+            chegada += (long) (-Math.log(1 - aleatorio.nextDouble()) * intervaloMedioNanos);
+            if (chegada >= fim) {
+                break;
+            }
+            long espera = chegada - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            long planejada = chegada;
+            boolean medir = planejada >= fimAquecimento;
+            iniciadas++;
+            sessoes.execute(() -> {
+                if (medir) {
+                    metricas.registrarLatencia("atraso-chegada", System.nanoTime() - planejada);
+                }
+                try {
+                    new SessaoCarga(cliente, base, metricas, massa, pensarMs, estante, medir).executar();
+                    concluidas.increment();
+                } catch (Exception e) {
+                    falhas.increment();
+                }
+            });
+        }
+        sessoes.shutdown();
+        if (!sessoes.awaitTermination(2, TimeUnit.MINUTES)) {
+            sessoes.shutdownNow();
+        }
+        return new long[]{iniciadas, concluidas.sum(), falhas.sum()};
+    }
+}
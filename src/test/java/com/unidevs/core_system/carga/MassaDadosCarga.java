@@ -0,0 +1,29 @@
+package com.unidevs.core_system.carga;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Usuários, livros e termos de busca cadastrados antes da carga.
+ */
+record MassaDadosCarga(List<String> logins, List<UUID> livros, List<String> termos, List<String> tags) {
+
+    static final String SENHA = "senha-carga";
+
+    String login(ThreadLocalRandom aleatorio) {
+        return logins.get(aleatorio.nextInt(logins.size()));
+    }
+
+    UUID livro(ThreadLocalRandom aleatorio) {
+        return livros.get(aleatorio.nextInt(livros.size()));
+    }
+
+    String termo(ThreadLocalRandom aleatorio) {
+        return termos.get(aleatorio.nextInt(termos.size()));
+    }
+
+    String tag(ThreadLocalRandom aleatorio) {
+        return tags.get(aleatorio.nextInt(tags.size()));
+    }
+}
@@ -0,0 +1,59 @@
+package com.unidevs.core_system.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramas HDR de latência (em microssegundos) e contagem de status HTTP por endpoint.
+ */
+final class MetricasCarga {
+
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, Histogram> histogramas = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, LongAdder>> status = new ConcurrentHashMap<>();
+
+    void registrar(String endpoint, long duracaoNanos, int codigoStatus) {
+        registrarLatencia(endpoint, duracaoNanos);
+        status.computeIfAbsent(endpoint, e -> new ConcurrentHashMap<>())
+                .computeIfAbsent(codigoStatus, c -> new LongAdder())
+                .increment();
+    }
+
+    void registrarLatencia(String endpoint, long duracaoNanos) {
+        histogramas.computeIfAbsent(endpoint, e -> new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3))
+                .recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(duracaoNanos), LATENCIA_MAXIMA_US));
+    }
+
+    // Imprime o resumo por endpoint e grava a distribuição completa de cada um em <saida>/<endpoint>.hgrm
+    void relatar(PrintStream saida, Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+        saida.printf("%-18s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "n", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "status");
+        for (var item : new TreeMap<>(histogramas).entrySet()) {
+            var h = item.getValue();
+            var codigos = new TreeMap<Integer, Long>();
+            status.getOrDefault(item.getKey(), Map.of()).forEach((codigo, n) -> codigos.put(codigo, n.sum()));
+            saida.printf("%-18s %9d %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n", item.getKey(), h.getTotalCount(),
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()), codigos.isEmpty() ? "-" : codigos);
+            try (var arquivo = new PrintStream(Files.newOutputStream(diretorio.resolve(item.getKey() + ".hgrm")))) {
+                h.outputPercentileDistribution(arquivo, 1000.0);
+            }
+        }
+    }
+
+    private static double ms(long microssegundos) {
+        return microssegundos / 1000.0;
+    }
+}
@@ -0,0 +1,163 @@
+package com.unidevs.core_system.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Roteiro de uma sessão de usuário da biblioteca.
+ *
+ * Processo:
+ * 1. POST /login-process para obter o cookie jwt_token;
+ * 2. Navega pelo catálogo (/livro/catalogo) e abre alguns livros;
+ * 3. Pesquisa por termo (/livro/buscar) e por tag (/livro/buscar-por-tag);
+ * 4. Abre a estante do leitor: metade das sessões busca os livros em uma única chamada a /livro/lote
+ *    ("estante-lote") e a outra metade faz uma requisição /livro/{id} por livro ("estante-por-id"); as duas
+ *    medições são o tempo total da estante, para comparar diretamente as duas formas;
+ * 5. Em parte das sessões, solicita o empréstimo de um livro.
+ *
+ * Os cookies (jwt_token e a sessão HTTP do token CSRF) são mantidos pela própria sessão, para que um único
+ * HttpClient possa ser compartilhado por todas.
+ */
+final class SessaoCarga {
+
+    private static final Duration TEMPO_LIMITE = Duration.ofSeconds(30);
+
+    private final HttpClient cliente;
+    private final URI base;
+    private final MetricasCarga metricas;
+    private final MassaDadosCarga massa;
+    private final long pensarMs;
+    private final int estante;
+    private final boolean medir;
+    private final Map<String, String> cookies = new LinkedHashMap<>();
+
+    SessaoCarga(HttpClient cliente, URI base, MetricasCarga metricas, MassaDadosCarga massa, long pensarMs,
+                int estante, boolean medir) {
+        this.cliente = cliente;
+        this.base = base;
+        this.metricas = metricas;
+        this.massa = massa;
+        this.pensarMs = pensarMs;
+        this.estante = estante;
+        this.medir = medir;
+    }
+
+    void executar() throws IOException, InterruptedException {
+        var aleatorio = ThreadLocalRandom.current();
+        var formulario = "login=" + codificar(massa.login(aleatorio)) + "&password=" + codificar(MassaDadosCarga.SENHA);
+        enviar("login", requisicao("/login-process")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formulario)));
+        if (!cookies.containsKey("jwt_token")) {
+            return;
+        }
+        pensar(aleatorio);
+
+        for (int i = 1 + aleatorio.nextInt(3); i > 0; i--) {
+            enviar("catalogo", requisicao("/livro/catalogo").GET());
+            pensar(aleatorio);
+            enviar("detalhe", requisicao("/livro/" + massa.livro(aleatorio)).GET());
+            pensar(aleatorio);
+        }
+        enviar("buscar", requisicao("/livro/buscar?termo=" + codificar(massa.termo(aleatorio))).GET());
+        pensar(aleatorio);
+        enviar("buscar-por-tag", requisicao("/livro/buscar-por-tag?tag=" + codificar(massa.tag(aleatorio))).GET());
+        if (estante > 0) {
+            pensar(aleatorio);
+            abrirEstante(aleatorio);
+        }
+
+        if (aleatorio.nextBoolean()) {
+            pensar(aleatorio);
+            enviar("emprestimo", requisicao("/livro/catalogo/emprestimo/" + massa.livro(aleatorio))
+                    .header("X-CSRF-TOKEN", tokenCsrf())
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+        }
+    }
+
+    private void abrirEstante(ThreadLocalRandom aleatorio) throws IOException, InterruptedException {
+        var ids = new ArrayList<String>(estante);
+        for (int i = 0; i < estante; i++) {
+            ids.add(massa.livro(aleatorio).toString());
+        }
+        if (aleatorio.nextBoolean()) {
+            var corpo = ids.stream().collect(Collectors.joining("\",\"", "{\"ids\":[\"", "\"]}"));
+            enviar("estante-lote", requisicao("/livro/lote")
+                    .header("Content-Type", "application/json")
+                    .header("X-CSRF-TOKEN", tokenCsrf())
+                    .POST(HttpRequest.BodyPublishers.ofString(corpo)));
+            return;
+        }
+        // Uma requisição por livro, em sequência, como faz um cliente que monta a estante item a item
+        long inicio = System.nanoTime();
+        int pior = 0;
+        for (var id : ids) {
+            var resposta = cliente.send(requisicao("/livro/" + id).GET().build(), HttpResponse.BodyHandlers.discarding());
+            guardarCookies(resposta);
+            pior = Math.max(pior, resposta.statusCode());
+        }
+        if (medir) {
+            metricas.registrar("estante-por-id", System.nanoTime() - inicio, pior);
+        }
+    }
+
+    // O token CSRF fica na sessão HTTP; a busca dele não entra nas medições
+    private String tokenCsrf() throws IOException, InterruptedException {
+        var csrf = cliente.send(requisicao("/carga/csrf").GET().build(), HttpResponse.BodyHandlers.ofString());
+        guardarCookies(csrf);
+        return csrf.body();
+    }
+
+    private void enviar(String endpoint, HttpRequest.Builder requisicao) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        var resposta = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.discarding());
+        long duracao = System.nanoTime() - inicio;
+        guardarCookies(resposta);
+        if (medir) {
+            metricas.registrar(endpoint, duracao, resposta.statusCode());
+        }
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        var builder = HttpRequest.newBuilder(base.resolve(caminho)).timeout(TEMPO_LIMITE);
+        if (!cookies.isEmpty()) {
+            var cabecalho = new StringBuilder();
+            cookies.forEach((nome, valor) -> cabecalho.append(cabecalho.isEmpty() ? "" : "; ")
+                    .append(nome).append('=').append(valor));
+            builder.header("Cookie", cabecalho.toString());
+        }
+        return builder;
+    }
+
+    private void guardarCookies(HttpResponse<?> resposta) {
+        for (var cookie : resposta.headers().allValues("set-cookie")) {
+            var par = cookie.split(";", 2)[0];
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                cookies.put(par.substring(0, igual).trim(), par.substring(igual + 1).trim());
+            }
+        }
+    }
+
+    // Tempo de leitura do usuário entre as páginas, com distribuição exponencial
+    private void pensar(ThreadLocalRandom aleatorio) throws InterruptedException {
+        if (pensarMs > 0) {
+            Thread.sleep((long) (-Math.log(1 - aleatorio.nextDouble()) * pensarMs));
+        }
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+}
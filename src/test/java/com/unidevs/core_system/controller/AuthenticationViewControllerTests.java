@@ -0,0 +1,105 @@
+package com.unidevs.core_system.controller;
+
+import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.service.FiltroBloomLogins;
+import com.unidevs.core_system.web.MonitorConsultas;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class AuthenticationViewControllerTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    FiltroBloomLogins filtroBloomLogins;
+
+    @Autowired
+    MonitorConsultas monitorConsultas;
+
+    @Autowired
+    AuthenticationViewController authenticationViewController;
+
+    @Test
+    void cadastroRepetidoInformaSeOLoginOuOEmailJaExistem() throws Exception {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var login = "cadastro-" + sufixo;
+        var email = "cadastro-" + sufixo + "@teste.com";
+
+        cadastrar(login, email)
+                .andExpect(view().name("login/login"))
+                .andExpect(model().attribute("successMessage", "Cadastro realizado com sucesso"));
+        assertThat(userRepository.existsByLogin(login)).isTrue();
+
+        // A inserção falha pela restrição de unicidade e só então descobre qual campo se repetiu
+        cadastrar(login, "outro-" + sufixo + "@teste.com")
+                .andExpect(view().name("login/register"))
+                .andExpect(model().attribute("errorMessage", "Login já existe"));
+        cadastrar("outro-" + sufixo, email)
+                .andExpect(view().name("login/register"))
+                .andExpect(model().attribute("errorMessage", "Email já cadastrado"));
+        assertThat(userRepository.existsByLogin("outro-" + sufixo)).isFalse();
+    }
+
+    @Test
+    void disponibilidadeDoLoginConsultaOBancoSoNaPossivelOcorrenciaDoFiltro() throws Exception {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var cadastrado = "disponivel-" + sufixo;
+        cadastrar(cadastrado, cadastrado + "@teste.com").andExpect(view().name("login/login"));
+
+        // O cadastro entra no filtro; a possível ocorrência é confirmada no banco, sem diferenciar maiúsculas
+        assertThat(filtroBloomLogins.podeConter(cadastrado.toUpperCase())).isTrue();
+        consultar(cadastrado).andExpect(jsonPath("$.disponivel").value(false));
+
+        // Login ausente do filtro: resposta definitiva, sem consultar o banco
+        var livre = "livre-" + sufixo;
+        assertThat(filtroBloomLogins.podeConter(livre)).isFalse();
+        consultar(livre).andExpect(jsonPath("$.disponivel").value(true));
+        var semConsulta = monitorConsultas.medir(() ->
+                assertThat(authenticationViewController.verificarLogin(livre)).containsEntry("disponivel", true));
+        assertThat(semConsulta.total()).isZero();
+
+        // Falso positivo do filtro: o banco desfaz a dúvida e o login continua disponível
+        var falsoPositivo = "fantasma-" + sufixo;
+        filtroBloomLogins.adicionar(falsoPositivo);
+        consultar(falsoPositivo).andExpect(jsonPath("$.disponivel").value(true));
+        var comConsulta = monitorConsultas.medir(() -> assertThat(
+                authenticationViewController.verificarLogin(falsoPositivo)).containsEntry("disponivel", true));
+        assertThat(comConsulta.total()).isEqualTo(1);
+
+        consultar(" ").andExpect(jsonPath("$.disponivel").value(false));
+    }
+
+    private ResultActions cadastrar(String login, String email) throws Exception {
+        return mockMvc.perform(post("/register-process")
+                .param("login", login)
+                .param("email", email)
+                .param("password", "senha-secreta"));
+    }
+
+    private ResultActions consultar(String login) throws Exception {
+        return mockMvc.perform(get("/register/login-disponivel").param("login", login))
+                .andExpect(status().isOk());
+    }
+}
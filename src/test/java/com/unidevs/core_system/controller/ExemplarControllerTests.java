@@ -0,0 +1,111 @@
+package com.unidevs.core_system.controller;
+
+import com.unidevs.core_system.controller.dto.CreateExemplarDto;
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.repository.LivroRepository;
+import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.security.TokenService;
+import com.unidevs.core_system.service.ExemplarService;
+import com.unidevs.core_system.service.LivroService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class ExemplarControllerTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    ExemplarService exemplarService;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Test
+    void atendenteEmprestaParaOLeitorESoOLeitorOuOAtendenteDevolvem() throws Exception {
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Senhora", "José de Alencar", "Romance", 1875, 1, null, null), null);
+        long codigo = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE / 2);
+        exemplarService.cadastrar(new CreateExemplarDto(livro.toString(), codigo, null, null, "B-3"));
+        var atendente = token(usuario(UserRole.ADMIN));
+        var leitor = usuario(UserRole.USER);
+        var outroLeitor = token(usuario(UserRole.USER));
+        var corpo = "{\"usuarioId\":\"" + leitor.getId() + "\"}";
+
+        // Leitores não registram empréstimos no balcão
+        mockMvc.perform(post("/exemplar/{codigo}/emprestimo", codigo).with(csrf())
+                        .header("Authorization", token(leitor))
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/exemplar/{codigo}/emprestimo", codigo + 1).with(csrf())
+                        .header("Authorization", atendente)
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/exemplar/{codigo}/emprestimo", codigo).with(csrf())
+                        .header("Authorization", atendente)
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emprestado").value(true));
+        mockMvc.perform(post("/exemplar/{codigo}/emprestimo", codigo).with(csrf())
+                        .header("Authorization", atendente)
+                        .contentType(MediaType.APPLICATION_JSON).content(corpo))
+                .andExpect(status().isBadRequest());
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeDisponivel()).isZero();
+
+        // Outro leitor não devolve o exemplar e não altera o estoque
+        mockMvc.perform(post("/exemplar/{codigo}/devolucao", codigo).with(csrf())
+                        .header("Authorization", outroLeitor))
+                .andExpect(status().isForbidden());
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeDisponivel()).isZero();
+        mockMvc.perform(post("/exemplar/{codigo}/devolucao", codigo + 1).with(csrf())
+                        .header("Authorization", atendente))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/exemplar/{codigo}/devolucao", codigo).with(csrf())
+                        .header("Authorization", token(leitor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emprestado").value(false));
+        mockMvc.perform(post("/exemplar/{codigo}/devolucao", codigo).with(csrf())
+                        .header("Authorization", atendente))
+                .andExpect(status().isBadRequest());
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeDisponivel()).isEqualTo(1);
+    }
+
+    private User usuario(UserRole papel) {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(
+                new User("balcao-" + sufixo, "balcao-" + sufixo + "@teste.com", "senha", papel));
+    }
+
+    private String token(User usuario) {
+        return "Bearer " + tokenService.generateToken(usuario);
+    }
+}
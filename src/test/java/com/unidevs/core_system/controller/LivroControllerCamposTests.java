@@ -0,0 +1,122 @@
+package com.unidevs.core_system.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.LivroProjecao;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.security.TokenService;
+import com.unidevs.core_system.service.LivroService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class LivroControllerCamposTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void consultaIndividualRetornaSoOsCamposPedidosNaOrdemESemRepeticao() throws Exception {
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Macunaíma", "Mário de Andrade", "Rapsódia", 1928, 3, null, "modernismo-campos"),
+                null);
+
+        var json = consultar("/livro/" + livro + "?fields=autor, titulo,autor,,quantidadeDisponivel")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(json).isEqualTo(
+                "{\"autor\":\"Mário de Andrade\",\"titulo\":\"Macunaíma\",\"quantidadeDisponivel\":3}");
+
+        consultar("/livro/" + UUID.randomUUID() + "?fields=titulo").andExpect(status().isNotFound());
+    }
+
+    @Test
+    void listagemEBuscasAplicamOsCamposATodasAsLinhas() throws Exception {
+        var tag = "campos-" + UUID.randomUUID().toString().substring(0, 8);
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Paulicéia Desvairada", "Mário de Andrade", "Poesia", 1922, 1, null, tag), null);
+
+        consultar("/livro?fields=livroId,titulo")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].livroId").value(hasItem(livro.toString())))
+                .andExpect(jsonPath("$[*]").value(everyItem(not(hasKey("autor")))));
+        consultar("/livro/buscar?termo=Paulicéia&fields=livroId,anoPublicacao")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].livroId").value(livro.toString()))
+                .andExpect(jsonPath("$[0].anoPublicacao").value(1922))
+                .andExpect(jsonPath("$[0].titulo").doesNotExist());
+        consultar("/livro/buscar-por-tag?tag=" + tag + "&fields=tags")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tags").value(tag))
+                .andExpect(jsonPath("$[0].livroId").doesNotExist());
+    }
+
+    @Test
+    void camposDesconhecidosOuVaziosSaoRecusados() throws Exception {
+        consultar("/livro?fields=titulo,senha")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").value("Campo desconhecido: senha"));
+        consultar("/livro/buscar?termo=x&fields= , ")
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.erro").value("Informe ao menos um campo em 'fields'."));
+        // Atributos que não estão na lista permitida não viram colunas da consulta
+        consultar("/livro/" + UUID.randomUUID() + "?fields=isbnNumerico").andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void projecaoSerializaOsValoresDaTuplaSemPassarPelaEntidade() throws Exception {
+        var livroId = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+        var campos = new String[]{"livroId", "anoPublicacao", "tags"};
+        var linhas = List.of(new LivroProjecao(campos, new Object[]{livroId, 1928, null}),
+                new LivroProjecao(campos, new Object[]{livroId, 1922, "poesia"}));
+
+        assertThat(objectMapper.writeValueAsString(linhas)).isEqualTo(
+                "[{\"livroId\":\"01890a5d-ac96-774b-bcce-b302099a8057\",\"anoPublicacao\":1928,\"tags\":null},"
+                        + "{\"livroId\":\"01890a5d-ac96-774b-bcce-b302099a8057\",\"anoPublicacao\":1922,"
+                        + "\"tags\":\"poesia\"}]");
+    }
+
+    private ResultActions consultar(String caminho) throws Exception {
+        return mockMvc.perform(get(caminho).header("Authorization", "Bearer " + tokenService.generateToken(usuario())));
+    }
+
+    private User usuario() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(
+                new User("campos-" + sufixo, "campos-" + sufixo + "@teste.com", "senha", UserRole.USER));
+    }
+}
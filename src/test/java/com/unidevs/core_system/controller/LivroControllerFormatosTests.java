@@ -0,0 +1,124 @@
+package com.unidevs.core_system.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BinaryNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.security.TokenService;
+import com.unidevs.core_system.service.LivroService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class LivroControllerFormatosTests {
+
+    private static final Map<String, ObjectMapper> LEITORES = Map.of(
+            "application/cbor", new ObjectMapper(new CBORFactory()),
+            "application/x-jackson-smile", new ObjectMapper(new SmileFactory()));
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Test
+    void consultasNegociamCborESmileComUuidsEm16Bytes() throws Exception {
+        var tag = "formatos-" + UUID.randomUUID().toString().substring(0, 8);
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Grande Sertão: Veredas", "Guimarães Rosa", "Romance", 1956, 2, null, tag), null);
+        var token = "Bearer " + tokenService.generateToken(usuario());
+
+        for (var tipo : LEITORES.keySet()) {
+            for (var caminho : List.of("/livro", "/livro/catalogo", "/livro/buscar?termo=Veredas",
+                    "/livro/buscar-por-tag?tag=" + tag, "/livro?fields=livroId,titulo")) {
+                var resposta = mockMvc.perform(get(caminho).header("Authorization", token).header("Accept", tipo))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse();
+                assertThat(resposta.getContentType()).as(caminho).isEqualTo(tipo);
+
+                var corpo = resposta.getContentAsByteArray();
+                var linha = StreamSupport.stream(LEITORES.get(tipo).readTree(corpo).spliterator(), false)
+                        .filter(no -> no.get("livroId").isBinary() && livro.equals(uuid(no.get("livroId"))))
+                        .findFirst();
+                assertThat(linha).as(tipo + " " + caminho).isPresent();
+                assertThat(linha.get().get("titulo").asText()).isEqualTo("Grande Sertão: Veredas");
+                // O UUID vai como 16 bytes crus, e não como texto de 36 caracteres
+                assertThat(indice(corpo, bytes(livro))).as(tipo + " " + caminho).isNotNegative();
+                assertThat(indice(corpo, livro.toString().getBytes())).isNegative();
+            }
+        }
+    }
+
+    @Test
+    void semAcceptOuComJsonPrimeiroARespostaContinuaJson() throws Exception {
+        var token = "Bearer " + tokenService.generateToken(usuario());
+        for (var accept : List.of("", "application/json, application/cbor;q=0.5", "*/*")) {
+            var requisicao = get("/livro").header("Authorization", token);
+            if (!accept.isEmpty()) {
+                requisicao.header("Accept", accept);
+            }
+            var resposta = mockMvc.perform(requisicao).andExpect(status().isOk()).andReturn().getResponse();
+            assertThat(resposta.getContentType()).as(accept).startsWith("application/json");
+        }
+    }
+
+    private static UUID uuid(JsonNode no) {
+        var buffer = ByteBuffer.wrap(((BinaryNode) no).binaryValue());
+        return buffer.remaining() == 16 ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+    }
+
+    private static byte[] bytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static int indice(byte[] corpo, byte[] trecho) {
+        for (int i = 0; i + trecho.length <= corpo.length; i++) {
+            int j = 0;
+            while (j < trecho.length && corpo[i + j] == trecho[j]) {
+                j++;
+            }
+            if (j == trecho.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private User usuario() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(
+                new User("formatos-" + sufixo, "formatos-" + sufixo + "@teste.com", "senha", UserRole.USER));
+    }
+}
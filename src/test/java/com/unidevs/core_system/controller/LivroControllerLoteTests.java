@@ -0,0 +1,126 @@
+package com.unidevs.core_system.controller;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.security.TokenService;
+import com.unidevs.core_system.service.LivroService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class LivroControllerLoteTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Test
+    void loteMantemAOrdemSolicitadaJuntaRepetidosEListaOsAusentes() throws Exception {
+        var primeiro = criarLivro("Iracema");
+        var segundo = criarLivro("O Guarani");
+        var terceiro = criarLivro("Ubirajara");
+        var ausente = UUID.randomUUID().toString();
+
+        buscar(List.of(terceiro, ausente, primeiro, terceiro, segundo, primeiro))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.livros[*].livroId").value(contains(terceiro, primeiro, segundo)))
+                .andExpect(jsonPath("$.naoEncontrados").value(contains(ausente)));
+    }
+
+    @Test
+    void loteComMaisDeUmBlocoEncontraLivrosEmQualquerBloco() throws Exception {
+        var inicio = criarLivro("Lucíola");
+        var fim = criarLivro("Diva");
+        // 300 ids: três blocos da consulta IN (tamanho padrão 100), com os livros no primeiro e no último
+        var ids = new ArrayList<String>();
+        ids.add(inicio);
+        for (int i = 0; i < 298; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        ids.add(fim);
+
+        buscar(ids)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.livros[*].livroId").value(contains(inicio, fim)))
+                .andExpect(jsonPath("$.naoEncontrados", hasSize(298)));
+    }
+
+    @Test
+    void loteRecusaListasVaziasAcimaDoLimiteEIdsInvalidos() throws Exception {
+        var acimaDoLimite = new ArrayList<String>();
+        for (int i = 0; i < 501; i++) {
+            acimaDoLimite.add(UUID.randomUUID().toString());
+        }
+        buscar(acimaDoLimite)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.ids").value("A consulta em lote aceita no máximo 500 identificadores."));
+
+        var noLimite = new ArrayList<>(acimaDoLimite.subList(0, 500));
+        buscar(noLimite).andExpect(status().isOk());
+
+        buscar(List.of()).andExpect(status().isBadRequest());
+        buscar(List.of("nao-e-uuid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void loteRecusaIdentificadoresNulosOuEmBrancoComErroDeValidacao() throws Exception {
+        var valido = "\"" + UUID.randomUUID() + "\"";
+        for (var ids : List.of("[" + valido + ",null]", "[" + valido + ",\" \"]", "[\"\"]")) {
+            mockMvc.perform(post("/livro/lote").with(csrf())
+                            .header("Authorization", "Bearer " + tokenService.generateToken(usuario()))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\":" + ids + "}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.*").value(contains("Os identificadores não podem ser nulos ou vazios.")));
+        }
+    }
+
+    private ResultActions buscar(List<String> ids) throws Exception {
+        var corpo = ids.stream().map(id -> "\"" + id + "\"").collect(Collectors.joining(",", "{\"ids\":[", "]}"));
+        return mockMvc.perform(post("/livro/lote").with(csrf())
+                .header("Authorization", "Bearer " + tokenService.generateToken(usuario()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo));
+    }
+
+    private String criarLivro(String titulo) {
+        return livroService.createLivro(
+                new CreateLivroDto(titulo, "José de Alencar", "Romance", 1865, 1, null, null), null).toString();
+    }
+
+    private User usuario() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(
+                new User("lote-" + sufixo, "lote-" + sufixo + "@teste.com", "senha", UserRole.USER));
+    }
+}
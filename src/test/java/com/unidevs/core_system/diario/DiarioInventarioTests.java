@@ -0,0 +1,160 @@
+package com.unidevs.core_system.diario;
+
+import com.unidevs.core_system.entity.TipoMovimentoInventario;
+import com.unidevs.core_system.service.MovimentoInventarioEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiarioInventarioTests {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void rotacionaSegmentosEContinuaASequenciaAoReabrir() throws IOException {
+        var livro = UUID.randomUUID();
+        var diario = abrir();
+        for (int i = 0; i < 10; i++) {
+            diario.anexar(movimento(livro, TipoMovimentoInventario.EMPRESTIMO, 10 - i, Instant.now()));
+        }
+        diario.fechar();
+
+        assertThat(LeitorDiarioInventario.segmentos(diretorio)).hasSize(3);
+
+        diario = abrir();
+        assertThat(diario.anexar(movimento(livro, TipoMovimentoInventario.AJUSTE, 7, Instant.now()))).isEqualTo(11);
+        diario.fechar();
+
+        var sequencias = new ArrayList<Long>();
+        LeitorDiarioInventario.ler(diretorio, registro -> sequencias.add(registro.sequencia()));
+        assertThat(sequencias).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+    }
+
+    @Test
+    void registroCorrompidoEncerraALeituraESobrescritoAoReabrir() throws IOException {
+        var livro = UUID.randomUUID();
+        var diario = abrir();
+        diario.anexar(movimento(livro, TipoMovimentoInventario.CADASTRO, 3, Instant.now()));
+        diario.anexar(movimento(livro, TipoMovimentoInventario.EMPRESTIMO, 2, Instant.now()));
+        diario.fechar();
+
+        // Simula uma escrita interrompida no segundo registro
+        var segmento = LeitorDiarioInventario.segmentos(diretorio).get(0);
+        try (var canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{42}), RegistroInventario.TAMANHO + 37);
+        }
+
+        diario = abrir();
+        assertThat(diario.anexar(movimento(livro, TipoMovimentoInventario.EMPRESTIMO, 1, Instant.now()))).isEqualTo(2);
+        diario.fechar();
+
+        var disponiveis = new ArrayList<Integer>();
+        LeitorDiarioInventario.ler(diretorio, registro -> disponiveis.add(registro.quantidadeDisponivel()));
+        assertThat(disponiveis).containsExactly(3, 1);
+    }
+
+    @Test
+    void lerAposEntregaSomenteOsRegistrosSeguintesEOIdentificadorSobreviveAoReabrir() throws IOException {
+        var livro = UUID.randomUUID();
+        var diario = abrir();
+        var identificador = diario.getIdentificador();
+        for (int i = 0; i < 10; i++) {
+            diario.anexar(new MovimentoInventarioEvent(livro, "Romance", TipoMovimentoInventario.EMPRESTIMO, -1,
+                    10 - i, 10, "Disponível", Instant.now()));
+        }
+        diario.fechar();
+
+        diario = abrir();
+        assertThat(diario.getIdentificador()).isEqualTo(identificador);
+        assertThat(diario.ultimaSequencia()).isEqualTo(10);
+        diario.fechar();
+
+        // Segmentos de 4 registros: o primeiro é pulado e o segundo é lido a partir do terceiro registro
+        var registros = new ArrayList<RegistroInventario>();
+        LeitorDiarioInventario.lerApos(diretorio, 6, registros::add);
+        assertThat(registros).extracting(RegistroInventario::sequencia).containsExactly(7L, 8L, 9L, 10L);
+        assertThat(registros).extracting(RegistroInventario::variacaoDisponivel).containsOnly(-1);
+
+        registros.clear();
+        LeitorDiarioInventario.lerApos(diretorio, 10, registros::add);
+        assertThat(registros).isEmpty();
+    }
+
+    @Test
+    void variacaoForaDaFaixaDoShortSobreviveAoDiarioEDiretorioAntigoERecusado() throws IOException {
+        var livro = UUID.randomUUID();
+        var diario = abrir();
+        diario.anexar(new MovimentoInventarioEvent(livro, "Romance", TipoMovimentoInventario.AJUSTE, 100_000,
+                100_000, 100_000, "Disponível", Instant.now()));
+        diario.anexar(new MovimentoInventarioEvent(livro, "Romance", TipoMovimentoInventario.AJUSTE, -70_000,
+                30_000, 30_000, "Disponível", Instant.now()));
+        diario.fechar();
+
+        var registros = new ArrayList<RegistroInventario>();
+        LeitorDiarioInventario.ler(diretorio, registros::add);
+        assertThat(registros).extracting(RegistroInventario::variacaoDisponivel).containsExactly(100_000, -70_000);
+
+        // Sem o arquivo de formato, os segmentos existentes são do formato 1 (registros de 48 bytes)
+        Files.delete(diretorio.resolve(LeitorDiarioInventario.ARQUIVO_FORMATO));
+        assertThatThrownBy(this::abrir).isInstanceOf(IllegalStateException.class).hasMessageContaining("formato 1");
+        assertThatThrownBy(() -> LeitorDiarioInventario.ler(diretorio, registros::add))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void replayReconstroiOEstoqueNoInstanteInformado() throws IOException {
+        var livro = UUID.randomUUID();
+        var removido = UUID.randomUUID();
+        var inicio = Instant.parse("2026-01-01T10:00:00Z");
+        var diario = abrir();
+        diario.anexar(movimento(livro, TipoMovimentoInventario.CADASTRO, 2, inicio));
+        diario.anexar(movimento(removido, TipoMovimentoInventario.CADASTRO, 1, inicio));
+        diario.anexar(movimento(livro, TipoMovimentoInventario.EMPRESTIMO, 1, inicio.plusSeconds(60)));
+        diario.anexar(movimento(removido, TipoMovimentoInventario.REMOCAO, 1, inicio.plusSeconds(90)));
+        diario.anexar(movimento(livro, TipoMovimentoInventario.EMPRESTIMO, 0, inicio.plusSeconds(120)));
+        diario.fechar();
+
+        var estoque = ReplayDiarioInventario.reconstruir(diretorio, inicio.plusSeconds(100), null);
+        assertThat(estoque).containsOnlyKeys(livro);
+        assertThat(estoque.get(livro).quantidadeDisponivel()).isEqualTo(1);
+        assertThat(estoque.get(livro).quantidadeTotal()).isEqualTo(2);
+        assertThat(estoque.get(livro).status()).isEqualTo("Disponível");
+
+        assertThat(ReplayDiarioInventario.reconstruir(diretorio, inicio.plusSeconds(60), removido))
+                .containsOnlyKeys(removido);
+    }
+
+    @Test
+    void segundoProcessoNaoAbreOMesmoDiretorio() throws IOException {
+        var diario = abrir();
+        try {
+            assertThatThrownBy(this::abrir).isInstanceOf(IllegalStateException.class);
+        } finally {
+            diario.fechar();
+        }
+    }
+
+    private DiarioInventario abrir() throws IOException {
+        var diario = new DiarioInventario(true, diretorio.toString(), 4, 5);
+        diario.abrir();
+        return diario;
+    }
+
+    private static MovimentoInventarioEvent movimento(UUID livroId, TipoMovimentoInventario tipo, int disponivel,
+                                                      Instant instante) {
+        return new MovimentoInventarioEvent(livroId, "Romance", tipo, 0, disponivel, 2, "Disponível", instante);
+    }
+}
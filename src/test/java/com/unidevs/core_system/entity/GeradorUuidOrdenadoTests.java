@@ -0,0 +1,46 @@
+package com.unidevs.core_system.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GeradorUuidOrdenadoTests {
+
+    @Test
+    void geraUuidsV7EstritamenteCrescentesNaOrdemBinaria() {
+        var anterior = GeradorUuidOrdenado.gerar();
+        for (int i = 0; i < 100_000; i++) {
+            var atual = GeradorUuidOrdenado.gerar();
+            assertThat(atual.version()).isEqualTo(7);
+            assertThat(atual.variant()).isEqualTo(2);
+            // Ordem do BINARY(16): bytes sem sinal, da esquerda para a direita
+            assertThat(Long.compareUnsigned(atual.getMostSignificantBits(), anterior.getMostSignificantBits()))
+                    .isPositive();
+            anterior = atual;
+        }
+        assertThat(GeradorUuidOrdenado.instante(anterior)).isBetween(Instant.now().minusSeconds(5), Instant.now().plusSeconds(5));
+    }
+
+    @Test
+    void naoRepeteIdsEntreThreads() throws InterruptedException {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        var executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    ids.add(GeradorUuidOrdenado.gerar());
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        assertThat(ids).hasSize(400_000);
+    }
+}
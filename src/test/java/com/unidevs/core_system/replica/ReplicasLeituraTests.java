@@ -0,0 +1,119 @@
+package com.unidevs.core_system.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicasLeituraTests {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @AfterEach
+    void fecharPools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void leiturasVaoAsReplicasEmRodizioEEscritasAoPrimario() {
+        var primario = banco("primario");
+        var replicas = new LinkedHashMap<String, DataSource>();
+        replicas.put("replica-1", banco("replica1"));
+        replicas.put("replica-2", banco("replica2"));
+        var roteador = roteador(primario, new ReplicasLeitura(primario, replicas));
+
+        // Fora de uma requisição liberada (ex: jobs em segundo plano) tudo vai ao primário
+        assertThat(ler(roteador, true)).isEqualTo("PRIMARIO");
+
+        boolean anterior = RoteamentoLeitura.permitirReplica();
+        try {
+            assertThat(List.of(ler(roteador, true), ler(roteador, true), ler(roteador, true), ler(roteador, true)))
+                    .containsExactly("REPLICA1", "REPLICA2", "REPLICA1", "REPLICA2");
+            assertThat(ler(roteador, false)).isEqualTo("PRIMARIO");
+            // Leitura das próprias escritas
+            assertThat(RoteamentoLeitura.noPrimario(() -> ler(roteador, true))).isEqualTo("PRIMARIO");
+            assertThat(RoteamentoLeitura.replicaPermitida()).isTrue();
+        } finally {
+            RoteamentoLeitura.restaurar(anterior);
+        }
+    }
+
+    @Test
+    void replicaForaDoArSaiDoRodizioEVoltaAposAVerificacao() {
+        var primario = banco("primario");
+        var fora = new Interrompivel(banco("replica1"));
+        fora.foraDoAr = true;
+        var replicas = new LinkedHashMap<String, DataSource>();
+        replicas.put("replica-1", fora);
+        replicas.put("replica-2", banco("replica2"));
+        var leitura = new ReplicasLeitura(primario, replicas);
+        var roteador = roteador(primario, leitura);
+        boolean anterior = RoteamentoLeitura.permitirReplica();
+
+        assertThat(ler(roteador, true)).isEqualTo("REPLICA2");
+        assertThat(leitura.disponiveis()).isEqualTo(1);
+        assertThat(ler(roteador, true)).isEqualTo("REPLICA2");
+
+        // Sem réplicas disponíveis, as leituras vão ao primário
+        var soFora = new LinkedHashMap<String, DataSource>();
+        soFora.put("replica-1", fora);
+        var semReplicas = new ReplicasLeitura(primario, soFora);
+        assertThat(ler(roteador(primario, semReplicas), true)).isEqualTo("PRIMARIO");
+
+        // A verificação devolve ao rodízio a réplica que voltou
+        fora.foraDoAr = false;
+        leitura.verificar();
+        assertThat(leitura.disponiveis()).isEqualTo(2);
+        RoteamentoLeitura.restaurar(anterior);
+    }
+
+    private static DataSource roteador(DataSource primario, ReplicasLeitura replicas) {
+        var roteador = new LazyConnectionDataSourceProxy(primario);
+        roteador.setReadOnlyDataSource(replicas);
+        return roteador;
+    }
+
+    private static String ler(DataSource roteador, boolean somenteLeitura) {
+        var transacao = new TransactionTemplate(new DataSourceTransactionManager(roteador));
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> new JdbcTemplate(roteador).queryForObject("SELECT DATABASE()", String.class));
+    }
+
+    // Réplica que recusa conexões enquanto está fora do ar
+    private static final class Interrompivel extends DelegatingDataSource {
+        volatile boolean foraDoAr;
+
+        Interrompivel(DataSource banco) {
+            super(banco);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (foraDoAr) {
+                throw new SQLException("Conexão recusada");
+            }
+            return super.getConnection();
+        }
+    }
+
+    // Banco H2 em memória
+    private HikariDataSource banco(String nome) {
+        var banco = new HikariDataSource();
+        banco.setJdbcUrl("jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1");
+        pools.add(banco);
+        return banco;
+    }
+}
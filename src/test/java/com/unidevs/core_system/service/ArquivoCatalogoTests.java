@@ -0,0 +1,92 @@
+package com.unidevs.core_system.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unidevs.core_system.controller.dto.LivroCatalogoDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArquivoCatalogoTests {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void gravaELeOsLivrosComCamposNulos() throws IOException {
+        var arquivo = diretorio.resolve("catalogo.bin");
+        var geradoEm = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        var livros = List.of(
+                new LivroCatalogoDto(UUID.randomUUID(), "São Bernardo", "Graciliano Ramos", "capas/sb.png",
+                        "Disponível", 3, 5),
+                new LivroCatalogoDto(UUID.randomUUID(), "Sem autor", null, null, null, null, 0));
+
+        ArquivoCatalogo.gravar(arquivo, 42, geradoEm, livros);
+
+        var conteudo = ArquivoCatalogo.ler(arquivo).orElseThrow();
+        assertThat(conteudo.versao()).isEqualTo(42);
+        assertThat(conteudo.geradoEm()).isEqualTo(geradoEm);
+        assertThat(conteudo.livros()).isEqualTo(livros);
+        assertThat(Files.exists(diretorio.resolve("catalogo.bin.tmp"))).isFalse();
+    }
+
+    @Test
+    void ignoraArquivoAusenteOuCorrompido() throws IOException {
+        var arquivo = diretorio.resolve("catalogo.bin");
+        assertThat(ArquivoCatalogo.ler(arquivo)).isEmpty();
+
+        ArquivoCatalogo.gravar(arquivo, 1, Instant.now(), List.of(
+                new LivroCatalogoDto(UUID.randomUUID(), "Memórias Póstumas", "Machado de Assis", null,
+                        "Disponível", 1, 1)));
+        try (var canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{0x7F}), canal.size() - 3);
+        }
+
+        assertThat(ArquivoCatalogo.ler(arquivo)).isEmpty();
+    }
+
+    @Test
+    void instantaneoDoDiscoEServidoDesatualizadoAteOBancoResponder() throws IOException {
+        var livro = new LivroCatalogoDto(UUID.randomUUID(), "Capitães da Areia", "Jorge Amado", null,
+                "Disponível", 2, 2);
+        ArquivoCatalogo.gravar(diretorio.resolve("catalogo.bin"), 7, Instant.now(), List.of(livro));
+
+        var bancoForaDoAr = new AtomicBoolean(true);
+        var catalogo = new CatalogoPreCodificado(() -> {
+            if (bancoForaDoAr.get()) {
+                throw new IllegalStateException("banco fora do ar");
+            }
+            return List.of(livro);
+        }, new ObjectMapper(), true, 200, 60_000, () -> !bancoForaDoAr.get(), 0, diretorio.toString());
+
+        catalogo.carregarDoDisco();
+        var doDisco = catalogo.atual().orElseThrow();
+        assertThat(doDisco.versao()).isEqualTo(7);
+        assertThat(doDisco.desatualizado()).isTrue();
+        assertThat(doDisco.livros()).containsExactly(livro);
+
+        catalogo.reconstruir();
+        assertThat(catalogo.atual().orElseThrow()).isSameAs(doDisco);
+
+        bancoForaDoAr.set(false);
+        catalogo.reconstruir();
+        var atualizado = catalogo.atual().orElseThrow();
+        assertThat(atualizado.versao()).isEqualTo(8);
+        assertThat(atualizado.desatualizado()).isFalse();
+
+        catalogo.encerrar();
+        assertThat(ArquivoCatalogo.ler(diretorio.resolve("catalogo.bin")).orElseThrow().versao()).isEqualTo(8);
+    }
+}
@@ -0,0 +1,139 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.security.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class CatalogoBancoForaDoArTests {
+
+    private static volatile boolean bancoForaDoAr;
+
+    @TestConfiguration
+    static class BancoInterrompivel {
+
+        // Todas as conexões passam por aqui; com o banco "fora do ar" nenhuma conexão é obtida
+        @Bean
+        static BeanPostProcessor interromperDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nome) {
+                    if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(nome)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            if (bancoForaDoAr) {
+                                throw new SQLException("banco fora do ar");
+                            }
+                            return super.getConnection();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CatalogoPreCodificado catalogoPreCodificado;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    @AfterEach
+    void religarBanco() {
+        bancoForaDoAr = false;
+    }
+
+    @Test
+    void catalogoContinuaAcessivelComOBancoForaDoAr() throws Exception {
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Capitães da Areia", "Jorge Amado", "Romance", 1937, 2, null, null), null);
+        catalogoPreCodificado.reconstruir();
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var token = "Bearer " + tokenService.generateToken(userRepository.save(
+                new User("fora-do-ar-" + sufixo, "fora-do-ar-" + sufixo + "@teste.com", "senha", UserRole.USER)));
+
+        bancoForaDoAr = true;
+        // A reconstrução falha e o instantâneo anterior passa a ser servido como desatualizado
+        catalogoPreCodificado.reconstruir();
+
+        var resposta = mockMvc.perform(get("/livro/catalogo").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(resposta.getContentAsString()).contains(livro.toString());
+        assertThat(resposta.getHeader("Warning")).startsWith("110");
+        assertThat(resposta.getHeader("X-Catalogo-Desatualizado")).isNotNull();
+
+        // Sem o banco, tokens inválidos continuam recusados
+        mockMvc.perform(get("/livro/catalogo").header("Authorization", "Bearer invalido"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void quedaDoBancoSemEscritasTambemMarcaOCatalogoComoDesatualizado() throws Exception {
+        livroService.createLivro(
+                new CreateLivroDto("Mar Morto", "Jorge Amado", "Romance", 1936, 1, null, null), null);
+        catalogoPreCodificado.reconstruir();
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var token = "Bearer " + tokenService.generateToken(userRepository.save(
+                new User("sonda-" + sufixo, "sonda-" + sufixo + "@teste.com", "senha", UserRole.USER)));
+
+        // Nenhuma escrita (e portanto nenhuma reconstrução): só a sonda percebe a queda
+        bancoForaDoAr = true;
+        catalogoPreCodificado.sondarBanco();
+        var resposta = mockMvc.perform(get("/livro/catalogo").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(resposta.getHeader("Warning")).startsWith("110");
+        assertThat(resposta.getHeader("X-Catalogo-Desatualizado")).isNotNull();
+
+        // Com o banco de volta, a sonda agenda a reconstrução que remove a marcação
+        bancoForaDoAr = false;
+        catalogoPreCodificado.sondarBanco();
+        long limite = System.currentTimeMillis() + 10_000;
+        while (catalogoPreCodificado.atual().orElseThrow().desatualizado() && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(catalogoPreCodificado.atual().orElseThrow().desatualizado()).isFalse();
+        mockMvc.perform(get("/livro/catalogo").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertThat(result.getResponse().getHeader("Warning")).isNull());
+    }
+}
@@ -0,0 +1,107 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.security.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class CatalogoPreCodificadoTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    CatalogoPreCodificado catalogoPreCodificado;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Test
+    void catalogoServeOInstantaneoPuroOuCompactado() throws Exception {
+        var livro = livroService.createLivro(
+                new CreateLivroDto("A Hora da Estrela", "Clarice Lispector", "Romance", 1977, 2, null, null), null);
+        catalogoPreCodificado.reconstruir();
+        var token = "Bearer " + tokenService.generateToken(usuario());
+
+        var compactada = mockMvc.perform(get("/livro/catalogo")
+                        .header("Authorization", token)
+                        .header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(compactada.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(compactada.getContentType()).startsWith("application/json");
+        assertThat(descompactar(compactada.getContentAsByteArray())).contains(livro.toString());
+
+        var pura = mockMvc.perform(get("/livro/catalogo").header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(pura.getHeader("Content-Encoding")).isNull();
+        assertThat(pura.getContentAsByteArray()).isEqualTo(catalogoPreCodificado.atual().orElseThrow().json());
+        assertThat(pura.getHeader("X-Catalogo-Versao"))
+                .isEqualTo(Long.toString(catalogoPreCodificado.atual().orElseThrow().versao()));
+        assertThat(pura.getHeader("Warning")).isNull();
+
+        // Formatos binários continuam passando pelo conversor
+        var cbor = mockMvc.perform(get("/livro/catalogo")
+                        .header("Authorization", token)
+                        .header("Accept", "application/cbor"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+        assertThat(cbor.getContentType()).isEqualTo("application/cbor");
+    }
+
+    @Test
+    void escritaAgendaUmaNovaVersaoDoInstantaneo() throws Exception {
+        catalogoPreCodificado.reconstruir();
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Vidas Secas", "Graciliano Ramos", "Romance", 1938, 1, null, null), null);
+
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!new String(catalogoPreCodificado.atual().orElseThrow().json(), StandardCharsets.UTF_8)
+                .contains(livro.toString())) {
+            assertThat(System.currentTimeMillis()).isLessThan(limite);
+            Thread.sleep(20);
+        }
+    }
+
+    private User usuario() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(
+                new User("catalogo-" + sufixo, "catalogo-" + sufixo + "@teste.com", "senha", UserRole.USER));
+    }
+
+    private static String descompactar(byte[] gzip) throws IOException {
+        try (var entrada = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
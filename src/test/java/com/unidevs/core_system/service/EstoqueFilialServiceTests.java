@@ -0,0 +1,225 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateFilialDto;
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.DisponibilidadeFilialDto;
+import com.unidevs.core_system.controller.dto.RelatorioInventarioDto;
+import com.unidevs.core_system.entity.EstoqueFilial;
+import com.unidevs.core_system.repository.EstoqueFilialRepository;
+import com.unidevs.core_system.repository.LivroRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class EstoqueFilialServiceTests {
+
+    @Autowired
+    EstoqueFilialService estoqueFilialService;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Autowired
+    EstoqueFilialRepository estoqueFilialRepository;
+
+    @Autowired
+    RollupInventarioService rollupInventarioService;
+
+    @Test
+    void emprestimosNaFilialAtualizamODisponivelEmMemoria() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var centro = estoqueFilialService.criarFilial(new CreateFilialDto("Centro " + sufixo, -23.5505, -46.6333));
+        var campinas = estoqueFilialService.criarFilial(new CreateFilialDto("Campinas " + sufixo, -22.9099, -47.0626));
+        var livro = livroService.createLivro(
+                new CreateLivroDto("O Cortiço", "Aluísio Azevedo", "Romance", 1890, 0, null, null), null);
+        var livroId = livro.toString();
+
+        estoqueFilialService.definirEstoque(livroId, centro.toString(), 1);
+        estoqueFilialService.definirEstoque(livroId, campinas.toString(), 2);
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(3);
+
+        estoqueFilialService.emprestar(livroId, centro.toString());
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(2);
+        assertThat(estoqueFilialService.filiaisComDisponibilidade(livroId))
+                .extracting(DisponibilidadeFilialDto::filialId, DisponibilidadeFilialDto::quantidadeDisponivel)
+                .containsExactly(tuple(campinas, 2));
+        assertThatThrownBy(() -> estoqueFilialService.emprestar(livroId, centro.toString()))
+                .isInstanceOf(RuntimeException.class);
+
+        // Perto do centro de São Paulo, mas só Campinas tem o livro disponível
+        var maisProxima = estoqueFilialService.maisProxima(livroId, -23.56, -46.64).orElseThrow();
+        assertThat(maisProxima.filialId()).isEqualTo(campinas);
+        assertThat(maisProxima.distanciaKm()).isBetween(70.0, 100.0);
+
+        estoqueFilialService.devolver(livroId, centro.toString());
+        assertThat(estoqueFilialService.maisProxima(livroId, -23.56, -46.64).orElseThrow().filialId())
+                .isEqualTo(centro);
+
+        // A quantidade total não pode ficar abaixo dos exemplares emprestados
+        estoqueFilialService.emprestar(livroId, campinas.toString());
+        assertThatThrownBy(() -> estoqueFilialService.definirEstoque(livroId, campinas.toString(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // As quantidades do livro no catálogo são a soma das filiais; a reconstrução do índice chega ao mesmo valor
+        assertThat(livroService.listarTodosParaCatalogo()).filteredOn(dto -> dto.livroId().equals(livro))
+                .singleElement()
+                .satisfies(dto -> {
+                    assertThat(dto.quantidadeDisponivel()).isEqualTo(2);
+                    assertThat(dto.quantidadeTotal()).isEqualTo(3);
+                });
+        estoqueFilialService.reconstruir();
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(2);
+
+        livroService.deleteById(livroId);
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isZero();
+        assertThat(estoqueFilialService.filiaisComDisponibilidade(livroId)).isEmpty();
+    }
+
+    @Test
+    void movimentosNasFiliaisAtualizamOLivroEChegamAosRollups() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var filial = estoqueFilialService.criarFilial(new CreateFilialDto("Niterói " + sufixo, null, null));
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Esaú e Jacó", "Machado de Assis", "Romance", 1904, 2, null, null), null);
+        var livroId = livro.toString();
+
+        estoqueFilialService.definirEstoque(livroId, filial.toString(), 3);
+        estoqueFilialService.emprestar(livroId, filial.toString());
+        estoqueFilialService.devolver(livroId, filial.toString());
+        // Sem filial, o empréstimo sai da filial padrão
+        livroService.solicitarEmprestimo(livroId);
+
+        var atual = livroRepository.findById(livro).orElseThrow();
+        assertThat(atual.getQuantidadeDisponivel()).isEqualTo(4);
+        assertThat(atual.getQuantidadeTotal()).isEqualTo(5);
+        assertThat(estoqueFilialRepository.findByLivroId(livro))
+                .filteredOn(e -> e.getFilialId().equals(estoqueFilialService.filialPadrao()))
+                .singleElement().extracting(EstoqueFilial::getQuantidadeDisponivel).isEqualTo(1);
+        assertThatThrownBy(() -> livroService.solicitarEmprestimoEmLote(List.of(livroId, livroId)))
+                .hasMessage("Não há exemplares disponíveis para empréstimo.");
+
+        rollupInventarioService.consolidar();
+        var porLivro = rollupInventarioService.relatorio("dia", "livro", livroId, null, null);
+        var ultimo = porLivro.pontos().get(porLivro.pontos().size() - 1);
+        assertThat(porLivro.pontos().stream().mapToLong(RelatorioInventarioDto.Ponto::emprestimos).sum()).isEqualTo(2);
+        assertThat(porLivro.pontos().stream().mapToLong(RelatorioInventarioDto.Ponto::devolucoes).sum()).isEqualTo(1);
+        assertThat(ultimo.quantidadeDisponivel()).isEqualTo(4);
+        assertThat(ultimo.quantidadeTotal()).isEqualTo(5);
+    }
+
+    @Test
+    void migracaoLevaOEstoqueDoLivroParaAFilialPadraoUmaUnicaVez() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var filial = estoqueFilialService.criarFilial(new CreateFilialDto("Olinda " + sufixo, null, null));
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Dom Casmurro", "Machado de Assis", "Romance", 1899, 0, null, null), null);
+        estoqueFilialService.definirEstoque(livro.toString(), filial.toString(), 2);
+
+        // Estado anterior às filiais como fonte única: o livro com quantidades próprias e sem linha na filial padrão
+        estoqueFilialRepository.delete(estoqueFilialRepository.findByLivroId(livro).stream()
+                .filter(e -> e.getFilialId().equals(estoqueFilialService.filialPadrao()))
+                .findFirst().orElseThrow());
+        var antigo = livroRepository.findById(livro).orElseThrow();
+        antigo.setQuantidadeDisponivel(3);
+        antigo.setQuantidadeTotal(4);
+        livroRepository.save(antigo);
+
+        estoqueFilialService.migrarEstoqueDosLivros();
+        estoqueFilialService.migrarEstoqueDosLivros();
+
+        var padrao = estoqueFilialRepository.findByLivroId(livro).stream()
+                .filter(e -> e.getFilialId().equals(estoqueFilialService.filialPadrao()))
+                .toList();
+        assertThat(padrao).singleElement().satisfies(e -> {
+            assertThat(e.getQuantidadeDisponivel()).isEqualTo(3);
+            assertThat(e.getQuantidadeTotal()).isEqualTo(4);
+        });
+        var migrado = livroRepository.findById(livro).orElseThrow();
+        assertThat(migrado.getQuantidadeDisponivel()).isEqualTo(5);
+        assertThat(migrado.getQuantidadeTotal()).isEqualTo(6);
+    }
+
+    @Test
+    void alteracaoRepetidaOuAntigaNaoMudaODisponivelEmMemoria() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var filial = estoqueFilialService.criarFilial(new CreateFilialDto("Santos " + sufixo, -23.96, -46.33));
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Iaiá Garcia", "Machado de Assis", "Romance", 1878, 0, null, null), null);
+        estoqueFilialService.definirEstoque(livro.toString(), filial.toString(), 3);
+        estoqueFilialService.emprestar(livro.toString(), filial.toString());
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(2);
+
+        // A mesma alteração entregue outra vez e uma versão anterior chegando atrasada são ignoradas
+        estoqueFilialService.aoAlterarEstoque(new EstoqueFilialAlteradoEvent(livro, filial, 2, 1));
+        estoqueFilialService.aoAlterarEstoque(new EstoqueFilialAlteradoEvent(livro, filial, 3, 0));
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(2);
+
+        estoqueFilialService.aoAlterarEstoque(new EstoqueFilialAlteradoEvent(livro, filial, 1, 2));
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(1);
+        // A reconstrução substitui o índice pelas linhas do banco, corrigindo a divergência
+        estoqueFilialService.reconstruir();
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(2);
+    }
+
+    @Test
+    void alteracoesDuranteAReconstrucaoNaoSePerdemNemContamDuasVezes() throws Exception {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Helena", "Machado de Assis", "Romance", 1876, 0, null, null), null);
+        var filiais = new ArrayList<UUID>();
+        for (int i = 0; i < 4; i++) {
+            var filial = estoqueFilialService.criarFilial(new CreateFilialDto("Filial " + i + " " + sufixo, null, null));
+            estoqueFilialService.definirEstoque(livro.toString(), filial.toString(), 2);
+            filiais.add(filial);
+        }
+
+        var executor = Executors.newFixedThreadPool(filiais.size() + 1);
+        try {
+            var tarefas = new ArrayList<Future<?>>();
+            for (var filial : filiais) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        estoqueFilialService.emprestar(livro.toString(), filial.toString());
+                        estoqueFilialService.devolver(livro.toString(), filial.toString());
+                    }
+                    estoqueFilialService.emprestar(livro.toString(), filial.toString());
+                }));
+            }
+            tarefas.add(executor.submit(() -> {
+                for (int i = 0; i < 30; i++) {
+                    estoqueFilialService.reconstruir();
+                }
+            }));
+            for (var tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Cada filial terminou com um exemplar emprestado de dois
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(filiais.size());
+        assertThat(estoqueFilialService.filiaisComDisponibilidade(livro.toString()))
+                .extracting(DisponibilidadeFilialDto::quantidadeDisponivel)
+                .containsOnly(1);
+        estoqueFilialService.reconstruir();
+        assertThat(estoqueFilialService.disponivelNasFiliais(livro)).isEqualTo(filiais.size());
+    }
+}
@@ -0,0 +1,125 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateExemplarDto;
+import com.unidevs.core_system.controller.dto.CreateFilialDto;
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.entity.CondicaoExemplar;
+import com.unidevs.core_system.entity.EstoqueFilial;
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.repository.EstoqueFilialRepository;
+import com.unidevs.core_system.repository.LivroRepository;
+import com.unidevs.core_system.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class ExemplarServiceTests {
+
+    @Autowired
+    ExemplarService exemplarService;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EstoqueFilialService estoqueFilialService;
+
+    @Autowired
+    EstoqueFilialRepository estoqueFilialRepository;
+
+    @Test
+    void leituraDoCodigoEmprestaEDevolveOExemplarEAtualizaOLivro() {
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Iracema", "José de Alencar", "Romance", 1865, 1, null, null), null);
+        long primeiro = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE / 2);
+        long segundo = primeiro + 1;
+
+        // O primeiro exemplar etiqueta a cópia já contada; o segundo aumenta o estoque
+        exemplarService.cadastrar(new CreateExemplarDto(livro.toString(), primeiro, null, null, "A-12"));
+        exemplarService.cadastrar(
+                new CreateExemplarDto(livro.toString(), segundo, CondicaoExemplar.DANIFICADO, null, "A-12"));
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeTotal()).isEqualTo(2);
+        assertThatThrownBy(() -> exemplarService.cadastrar(
+                new CreateExemplarDto(livro.toString(), primeiro, null, null, null)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        var usuario = leitor();
+        var outro = leitor();
+        assertThatThrownBy(() -> exemplarService.emprestarPorCodigo(primeiro, UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+        var emprestado = exemplarService.emprestarPorCodigo(primeiro, usuario);
+        assertThat(emprestado.emprestado()).isTrue();
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeDisponivel()).isEqualTo(1);
+        assertThatThrownBy(() -> exemplarService.emprestarPorCodigo(primeiro, outro))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> exemplarService.emprestarPorCodigo(segundo, outro))
+                .isInstanceOf(IllegalStateException.class);
+        // A recusa do exemplar danificado não deixa baixa no livro
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeDisponivel()).isEqualTo(1);
+
+        var devolvido = exemplarService.devolverPorCodigo(primeiro);
+        assertThat(devolvido.emprestado()).isFalse();
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeDisponivel()).isEqualTo(2);
+
+        // O índice recarregado do banco resolve os mesmos códigos
+        exemplarService.carregar();
+        assertThat(exemplarService.buscarPorCodigo(segundo).orElseThrow().prateleira()).isEqualTo("A-12");
+
+        livroService.deleteById(livro.toString());
+        assertThat(exemplarService.buscarPorCodigo(primeiro)).isEmpty();
+    }
+
+    @Test
+    void exemplarDeUmaFilialMovimentaOEstoqueDaPropriaFilial() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var filial = estoqueFilialService.criarFilial(new CreateFilialDto("Recife " + sufixo, null, null));
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Vidas Secas", "Graciliano Ramos", "Romance", 1938, 1, null, null), null);
+        long codigo = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE / 2);
+
+        // O exemplar etiquetado na filial abre o estoque dela sem tocar na filial padrão
+        exemplarService.cadastrar(new CreateExemplarDto(livro.toString(), codigo, null, filial.toString(), null));
+        assertThat(estoque(livro, filial).getQuantidadeTotal()).isEqualTo(1);
+        assertThat(estoque(livro, estoqueFilialService.filialPadrao()).getQuantidadeTotal()).isEqualTo(1);
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeTotal()).isEqualTo(2);
+
+        exemplarService.emprestarPorCodigo(codigo, leitor());
+        assertThat(estoque(livro, filial).getQuantidadeDisponivel()).isZero();
+        assertThat(estoque(livro, estoqueFilialService.filialPadrao()).getQuantidadeDisponivel()).isEqualTo(1);
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeDisponivel()).isEqualTo(1);
+
+        exemplarService.devolverPorCodigo(codigo);
+        assertThat(estoque(livro, filial).getQuantidadeDisponivel()).isEqualTo(1);
+        assertThat(livroRepository.findById(livro).orElseThrow().getQuantidadeDisponivel()).isEqualTo(2);
+
+        livroService.deleteById(livro.toString());
+    }
+
+    private EstoqueFilial estoque(UUID livro, UUID filial) {
+        return estoqueFilialRepository.findByLivroId(livro).stream()
+                .filter(e -> e.getFilialId().equals(filial))
+                .findFirst().orElseThrow();
+    }
+
+    private UUID leitor() {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(
+                new User("leitor-" + sufixo, "leitor-" + sufixo + "@teste.com", "senha", UserRole.USER)).getId();
+    }
+}
@@ -0,0 +1,63 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FiltroBloomLoginsTests {
+
+    private final List<String> cadastrados = new ArrayList<>();
+
+    // Repositório mínimo: o filtro só consulta a lista de logins ao carregar e ao crescer
+    private final UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[]{UserRepository.class}, (proxy, metodo, argumentos) -> {
+                if (metodo.getName().equals("findAllLogins")) {
+                    return List.copyOf(cadastrados);
+                }
+                throw new UnsupportedOperationException(metodo.getName());
+            });
+
+    @Test
+    void loginsCadastradosNuncaSaoRespondidosComoLivresMesmoAposCrescer() {
+        var filtro = new FiltroBloomLogins(userRepository, 64, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            var login = "leitor" + i;
+            cadastrados.add(login);
+            filtro.adicionar(login);
+        }
+        assertThat(cadastrados).allMatch(filtro::podeConter);
+    }
+
+    @Test
+    void taxaDeFalsosPositivosFicaPertoDaConfigurada() {
+        for (int i = 0; i < 5_000; i++) {
+            cadastrados.add("leitor" + i);
+        }
+        var filtro = new FiltroBloomLogins(userRepository, 10_000, 0.01);
+        filtro.carregar();
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 20_000; i++) {
+            if (filtro.podeConter("visitante" + i)) {
+                falsosPositivos++;
+            }
+        }
+        // Com metade da capacidade ocupada a taxa esperada fica bem abaixo de 1%; 2% dá folga à variação
+        assertThat(falsosPositivos).isLessThan(400);
+    }
+
+    @Test
+    void comparacaoIgnoraMaiusculasAcentosEEspacos() {
+        var filtro = new FiltroBloomLogins(userRepository, 64, 0.01);
+        filtro.adicionar("José.Araújo");
+
+        assertThat(filtro.podeConter("  jose.araujo ")).isTrue();
+        assertThat(filtro.podeConter("JOSÉ.ARAÚJO")).isTrue();
+        assertThat(FiltroBloomLogins.normalizar(" Conceição ")).isEqualTo("conceicao");
+    }
+}
@@ -0,0 +1,44 @@
+package com.unidevs.core_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndiceCodigoBarrasTests {
+
+    @Test
+    void comportaSeComoUmMapaEmInclusoesERemocoesAleatorias() {
+        var indice = new IndiceCodigoBarras();
+        var esperado = new HashMap<Long, UUID>();
+        var aleatorio = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Poucos códigos distintos, sequenciais como em etiquetas, para forçar colisões e remoções no meio
+            long codigo = 7_890_000_000_000L + aleatorio.nextInt(5_000);
+            if (aleatorio.nextInt(3) == 0) {
+                assertThat(indice.remover(codigo)).isEqualTo(esperado.remove(codigo) != null);
+            } else {
+                var exemplarId = UUID.randomUUID();
+                indice.incluir(codigo, exemplarId);
+                esperado.put(codigo, exemplarId);
+            }
+        }
+
+        assertThat(indice.tamanho()).isEqualTo(esperado.size());
+        for (long codigo = 7_890_000_000_000L; codigo < 7_890_000_005_000L; codigo++) {
+            assertThat(indice.buscar(codigo)).isEqualTo(esperado.get(codigo));
+        }
+    }
+
+    @Test
+    void rejeitaCodigosNaoPositivos() {
+        var indice = new IndiceCodigoBarras();
+        assertThatThrownBy(() -> indice.incluir(0, UUID.randomUUID())).isInstanceOf(IllegalArgumentException.class);
+        assertThat(indice.buscar(-1)).isNull();
+    }
+}
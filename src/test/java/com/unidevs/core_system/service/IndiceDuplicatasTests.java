@@ -0,0 +1,69 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.GrupoDuplicatasDto;
+import com.unidevs.core_system.controller.dto.LivroCatalogoDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class IndiceDuplicatasTests {
+
+    @Autowired
+    LivroService livroService;
+
+    @Test
+    void similaridadeEstimadaSeparaVariacoesDeLivrosDiferentes() {
+        var original = IndiceDuplicatas.assinar("Dom Casmurro", "Machado de Assis");
+        var revista = IndiceDuplicatas.assinar("Dom Casmurro (ed. revista)", "Machado de Assis");
+        var autorErrado = IndiceDuplicatas.assinar("DOM CASMURRO", "Machado de Asis");
+        var outro = IndiceDuplicatas.assinar("Quincas Borba", "Machado de Assis");
+
+        assertThat(IndiceDuplicatas.similaridade(original, revista)).isGreaterThan(0.6);
+        assertThat(IndiceDuplicatas.similaridade(original, autorErrado)).isGreaterThan(0.8);
+        assertThat(IndiceDuplicatas.similaridade(original, outro)).isLessThan(0.5);
+        assertThat(IndiceDuplicatas.assinar(null, " ")).isNull();
+        assertThat(IndiceDuplicatas.normalizar("  São Bernardo: 2ª ed. ")).isEqualTo("sao bernardo 2a ed");
+    }
+
+    @Test
+    void apontaDuplicatasNoCadastroNaImportacaoENoRelatorio() {
+        var original = livroService.createLivro(new CreateLivroDto(
+                "Memórias Póstumas de Brás Cubas", "Machado de Assis", "Romance", 1881, 1, null, null), null);
+        var revista = livroService.createLivro(new CreateLivroDto(
+                "Memorias Postumas de Bras Cubas (ed. revista)", "Machado de Asis", "Romance", 1881, 1, null, null),
+                null);
+        assertThat(livroService.listarDuplicatasSuspeitas(revista)).contains(original);
+
+        var importacao = livroService.importar(List.of(
+                new CreateLivroDto("Grande Sertão: Veredas", "João Guimarães Rosa", "Romance", 1956, 1, null, null),
+                new CreateLivroDto("Memórias póstumas de Brás Cubas", "Machado de Assis", "Romance", 1881, 2,
+                        null, null),
+                new CreateLivroDto("Grande Sertao Veredas", "Guimarães Rosa", "Romance", 1956, 1, null, null)));
+        assertThat(importacao.criados()).hasSize(3);
+        var sertao = importacao.criados().get(0);
+        var suspeitos = importacao.suspeitos();
+        assertThat(suspeitos).extracting(s -> s.posicao()).containsExactly(1, 2);
+        assertThat(suspeitos.get(0).semelhantes()).contains(original, revista);
+        // Duplicata dentro do próprio lote, ainda fora do índice
+        assertThat(suspeitos.get(1).semelhantes()).containsExactly(sertao);
+
+        var grupos = livroService.listarGruposDuplicatas();
+        assertThat(grupos).anySatisfy(grupo -> assertThat(ids(grupo))
+                .contains(original, revista, importacao.criados().get(1)));
+        assertThat(grupos).anySatisfy(grupo -> assertThat(ids(grupo))
+                .containsExactlyInAnyOrder(sertao, importacao.criados().get(2)));
+    }
+
+    private static List<UUID> ids(GrupoDuplicatasDto grupo) {
+        return grupo.livros().stream().map(LivroCatalogoDto::livroId).toList();
+    }
+}
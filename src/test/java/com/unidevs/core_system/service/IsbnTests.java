@@ -0,0 +1,30 @@
+package com.unidevs.core_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IsbnTests {
+
+    @Test
+    void converteAsFormasAceitasParaOMesmoIsbn13() {
+        assertThat(Isbn.canonizar("0-306-40615-2")).isEqualTo(9780306406157L);
+        assertThat(Isbn.canonizar("0306406152")).isEqualTo(9780306406157L);
+        assertThat(Isbn.canonizar("978-0-306-40615-7")).isEqualTo(9780306406157L);
+        assertThat(Isbn.canonizar("978 0306 40615 7")).isEqualTo(9780306406157L);
+        // Dígito verificador "X" do ISBN-10
+        assertThat(Isbn.canonizar("0-8044-2957-x")).isEqualTo(9780804429573L);
+        assertThat(Isbn.formatar(9780306406157L)).isEqualTo("9780306406157");
+    }
+
+    @Test
+    void rejeitaIsbnsInvalidos() {
+        assertThatThrownBy(() -> Isbn.canonizar("0-306-40615-3")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Isbn.canonizar("978-0-306-40615-8")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Isbn.canonizar("1234567890128")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Isbn.canonizar("97803064061X7")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Isbn.canonizar("030640615")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Isbn.canonizar("ISBN 0306406152")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.repository.LivroRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class LivroServiceEmprestimoLoteTests {
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Test
+    void emprestimoEmLoteEhTudoOuNada() {
+        var disponivel = criarLivro("Memórias Póstumas", 1);
+        var esgotado = criarLivro("Quincas Borba", 0);
+
+        assertThatThrownBy(() -> livroService.solicitarEmprestimoEmLote(
+                List.of(disponivel.toString(), esgotado.toString())))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(livroRepository.findById(disponivel).orElseThrow().getQuantidadeDisponivel()).isEqualTo(1);
+    }
+
+    @Test
+    void carrinhosConcorrentesSobrepostosNaoPerdemAtualizacoesNemTravam() throws Exception {
+        int quantidadeLivros = 6;
+        int exemplaresPorLivro = 40;
+        var livros = new ArrayList<UUID>();
+        for (int i = 0; i < quantidadeLivros; i++) {
+            livros.add(criarLivro("Livro " + i, exemplaresPorLivro));
+        }
+
+        var emprestados = new AtomicIntegerArray(quantidadeLivros);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            var aleatorio = new Random(t);
+            tarefas.add(executor.submit(() -> {
+                for (int c = 0; c < 25; c++) {
+                    // Carrinho com 3 a 5 livros distintos, em ordem aleatória
+                    var indices = new ArrayList<Integer>();
+                    for (int i = 0; i < quantidadeLivros; i++) {
+                        indices.add(i);
+                    }
+                    Collections.shuffle(indices, aleatorio);
+                    var carrinho = indices.subList(0, 3 + aleatorio.nextInt(3));
+                    try {
+                        livroService.solicitarEmprestimoEmLote(
+                                carrinho.stream().map(i -> livros.get(i).toString()).toList());
+                        carrinho.forEach(emprestados::incrementAndGet);
+                    } catch (RuntimeException e) {
+                        assertThat(e).hasMessage("Não há exemplares disponíveis para empréstimo.");
+                    }
+                }
+                return null;
+            }));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        for (var tarefa : tarefas) {
+            tarefa.get();
+        }
+
+        for (int i = 0; i < quantidadeLivros; i++) {
+            var livro = livroRepository.findById(livros.get(i)).orElseThrow();
+            assertThat(livro.getQuantidadeDisponivel()).isEqualTo(exemplaresPorLivro - emprestados.get(i));
+            assertThat(livro.getQuantidadeDisponivel()).isGreaterThanOrEqualTo(0);
+        }
+    }
+
+    private UUID criarLivro(String titulo, int quantidade) {
+        return livroService.createLivro(
+                new CreateLivroDto(titulo, "Machado de Assis", "Romance", 1891, quantidade, null, null), null);
+    }
+}
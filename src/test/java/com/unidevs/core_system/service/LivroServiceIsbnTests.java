@@ -0,0 +1,116 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.UpdateLivroDto;
+import com.unidevs.core_system.repository.LivroRepository;
+import com.unidevs.core_system.web.MonitorConsultas;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class LivroServiceIsbnTests {
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Autowired
+    MonitorConsultas monitorConsultas;
+
+    @Test
+    void gravaOIsbnCanonicoEEncontraOLivroEmQualquerForma() {
+        long isbn = isbnAleatorio();
+        var hifenizado = String.valueOf(isbn).replaceFirst("(\\d{3})(\\d{5})(\\d{4})(\\d)", "$1-$2-$3-$4");
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Memórias Póstumas", "Machado de Assis", "Romance", 1881, 1, hifenizado, null),
+                null);
+
+        var salvo = livroRepository.findById(livro).orElseThrow();
+        assertThat(salvo.getIsbn()).isEqualTo(String.valueOf(isbn));
+        assertThat(salvo.getIsbnNumerico()).isEqualTo(isbn);
+        assertThat(livroService.buscarPorIsbn(hifenizado).orElseThrow().getLivroId()).isEqualTo(livro);
+        assertThat(livroService.buscarPorIsbn(String.valueOf(isbn)).orElseThrow().getLivroId()).isEqualTo(livro);
+
+        assertThatThrownBy(() -> livroService.createLivro(
+                new CreateLivroDto("Outra edição", "Machado de Assis", "Romance", 1881, 1, String.valueOf(isbn), null),
+                null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> livroService.createLivro(
+                new CreateLivroDto("Inválido", "Machado de Assis", "Romance", 1881, 1, "978-0-306-40615-8", null),
+                null)).isInstanceOf(IllegalArgumentException.class);
+
+        // Trocar o ISBN libera o anterior
+        long novo = isbnAleatorio();
+        livroService.updateLivroById(livro.toString(),
+                new UpdateLivroDto(null, null, null, null, null, String.valueOf(novo), null), null);
+        assertThat(livroService.buscarPorIsbn(String.valueOf(isbn))).isEmpty();
+        assertThat(livroService.buscarPorIsbn(String.valueOf(novo)).orElseThrow().getLivroId()).isEqualTo(livro);
+    }
+
+    @Test
+    void importacaoRecusaIsbnsInvalidosRepetidosEJaCadastrados() {
+        long cadastrado = isbnAleatorio();
+        livroService.createLivro(
+                new CreateLivroDto("Dom Casmurro", "Machado de Assis", "Romance", 1899, 1, String.valueOf(cadastrado),
+                        null), null);
+        long novo = isbnAleatorio();
+
+        var resultado = livroService.importar(List.of(
+                new CreateLivroDto("Quincas Borba", "Machado de Assis", "Romance", 1891, 2, String.valueOf(novo), null),
+                new CreateLivroDto("Sem ISBN", "Autor", null, 1900, 1, null, null),
+                new CreateLivroDto("Repetido", "Autor", null, 1900, 1, String.valueOf(novo), null),
+                new CreateLivroDto("Já cadastrado", "Autor", null, 1900, 1, String.valueOf(cadastrado), null),
+                new CreateLivroDto("Inválido", "Autor", null, 1900, 1, "123", null)));
+
+        assertThat(resultado.criados()).hasSize(2);
+        assertThat(resultado.recusados()).extracting(r -> r.posicao()).containsExactly(2, 3, 4);
+        assertThat(livroRepository.findByIsbnNumerico(novo).orElseThrow().getTitulo()).isEqualTo("Quincas Borba");
+    }
+
+    @Test
+    void indiceRespondeSemConsultarOBancoEDescartaOIsbnDoLivroRemovido() {
+        long isbn = isbnAleatorio();
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Esaú e Jacó", "Machado de Assis", "Romance", 1904, 1, String.valueOf(isbn), null),
+                null);
+
+        // ISBN ausente: a resposta vem do índice, sem consulta
+        long ausente = isbnAleatorio();
+        var semConsulta = monitorConsultas.medir(() -> assertThat(livroService.buscarPorIsbn(String.valueOf(ausente)))
+                .isEmpty());
+        assertThat(semConsulta.total()).isZero();
+        // ISBN indexado: só a busca do livro pela chave primária, sem conferir o ISBN outra vez
+        var comConsulta = monitorConsultas.medir(() -> assertThat(
+                livroService.buscarPorIsbn(String.valueOf(isbn)).orElseThrow().getLivroId()).isEqualTo(livro));
+        assertThat(comConsulta.total()).isEqualTo(1);
+
+        livroService.deleteById(livro.toString());
+        assertThat(livroService.buscarPorIsbn(String.valueOf(isbn))).isEmpty();
+        var reaproveitado = livroService.createLivro(
+                new CreateLivroDto("Esaú e Jacó (2ª ed.)", "Machado de Assis", "Romance", 1904, 1, String.valueOf(isbn),
+                        null), null);
+        assertThat(livroService.buscarPorIsbn(String.valueOf(isbn)).orElseThrow().getLivroId()).isEqualTo(reaproveitado);
+    }
+
+    // ISBN-13 válido com prefixo 979 e corpo aleatório, para não colidir com livros de outros testes
+    private static long isbnAleatorio() {
+        long doze = 979_000_000_000L + ThreadLocalRandom.current().nextLong(1_000_000_000L);
+        int soma = 0;
+        long resto = doze;
+        for (int i = 11; i >= 0; i--) {
+            soma += (int) (resto % 10) * (i % 2 == 0 ? 1 : 3);
+            resto /= 10;
+        }
+        return doze * 10 + (10 - soma % 10) % 10;
+    }
+}
@@ -0,0 +1,74 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.repository.PopularidadeLivroRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.popularidade.intervalo-checkpoint-ms=3600000")
+@ActiveProfiles("teste")
+class PopularidadeServiceTests {
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    PopularidadeService popularidadeService;
+
+    @Autowired
+    PopularidadeLivroRepository popularidadeLivroRepository;
+
+    @Test
+    void rankingSegueEmprestimosConfirmadosESobreviveAoCheckpoint() {
+        var maisEmprestado = criarLivro("Grande Sertão: Veredas", 10);
+        var segundo = criarLivro("Vidas Secas", 10);
+        var esgotado = criarLivro("Macunaíma", 0);
+        emprestar(maisEmprestado, 3);
+        emprestar(segundo, 2);
+        try {
+            livroService.solicitarEmprestimo(esgotado.toString());
+        } catch (RuntimeException ignorada) {
+            // Empréstimo recusado não entra no ranking
+        }
+
+        assertThat(popularidadeService.maisEmprestados(PopularidadeService.Periodo.SEMANA, 50))
+                .containsSubsequence(maisEmprestado, segundo)
+                .doesNotContain(esgotado);
+
+        popularidadeService.checkpoint();
+        assertThat(popularidadeLivroRepository.findById(maisEmprestado).orElseThrow().getTotalEmprestimos())
+                .isEqualTo(3);
+
+        // Uma nova instância recarrega o mesmo ranking a partir do checkpoint
+        var reiniciado = new PopularidadeService(popularidadeLivroRepository);
+        reiniciado.carregar();
+        for (var periodo : PopularidadeService.Periodo.values()) {
+            assertThat(reiniciado.maisEmprestados(periodo, 50)).containsSubsequence(maisEmprestado, segundo);
+        }
+
+        // Empréstimos seguintes são somados ao checkpoint, sem contar duas vezes os anteriores
+        emprestar(segundo, 2);
+        popularidadeService.checkpoint();
+        assertThat(popularidadeLivroRepository.findById(segundo).orElseThrow().getTotalEmprestimos())
+                .isEqualTo(4);
+        assertThat(popularidadeService.maisEmprestados(PopularidadeService.Periodo.TOTAL, 50))
+                .containsSubsequence(segundo, maisEmprestado);
+    }
+
+    private UUID criarLivro(String titulo, int quantidade) {
+        return livroService.createLivro(
+                new CreateLivroDto(titulo, "Autor", "Romance", 1950, quantidade, null, null), null);
+    }
+
+    private void emprestar(UUID livroId, int vezes) {
+        for (int i = 0; i < vezes; i++) {
+            livroService.solicitarEmprestimo(livroId.toString());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.UpdateLivroDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.recomendacao.intervalo-incremental-ms=3600000")
+@ActiveProfiles("teste")
+class RecomendacaoServiceTests {
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    RecomendacaoService recomendacaoService;
+
+    @Test
+    void relacionadosPriorizamAutorETagsEmComum() {
+        // Autores, gêneros e tags exclusivos deste teste, pois o banco é compartilhado com as demais classes
+        var origem = criarLivro("Dom Casmurro", "Machado de Assis (rec)", "Romance realista", "realismo-rec, ciúme");
+        var mesmoAutor = criarLivro("Esaú e Jacó", "Machado de Assis (rec)", "Romance realista", "realismo-rec");
+        var mesmaTag = criarLivro("O Cortiço", "Aluísio Azevedo (rec)", "Romance realista", "realismo-rec");
+        var semRelacao = criarLivro("Duna", "Frank Herbert (rec)", "Ficção científica (rec)", "deserto");
+
+        recomendacaoService.reconstruir();
+
+        var relacionados = recomendacaoService.relacionados(origem, 10);
+        assertThat(relacionados).startsWith(mesmoAutor, mesmaTag).doesNotContain(origem, semRelacao);
+    }
+
+    @Test
+    void alteracoesSaoRecalculadasIncrementalmente() {
+        var origem = criarLivro("Fundação", "Isaac Asimov (rec)", "Ficção científica (rec)", "império galáctico");
+        recomendacaoService.reconstruir();
+
+        var novo = criarLivro("Eu, Robô", "Isaac Asimov (rec)", "Ficção científica (rec)", "robôs");
+        recomendacaoService.processarPendentes();
+        assertThat(recomendacaoService.relacionados(origem, 10)).contains(novo);
+        assertThat(recomendacaoService.relacionados(novo, 10)).contains(origem);
+
+        livroService.deleteById(novo.toString());
+        recomendacaoService.processarPendentes();
+        assertThat(recomendacaoService.relacionados(origem, 10)).doesNotContain(novo);
+        assertThat(recomendacaoService.relacionados(novo, 10)).isEmpty();
+    }
+
+    @Test
+    void somenteMudancasDeCaracteristicasAlteramOsVizinhos() {
+        var origem = criarLivro("Vidas Secas", "Graciliano Ramos (rec)", "Regionalismo (rec)", "sertão-rec");
+        var vizinho = criarLivro("O Quinze", "Rachel de Queiroz (rec)", "Drama (rec)", "sertão-rec");
+        recomendacaoService.reconstruir();
+        assertThat(recomendacaoService.relacionados(origem, 10)).containsExactly(vizinho);
+
+        // O empréstimo altera o livro, mas não o autor, o gênero nem as tags
+        livroService.solicitarEmprestimo(vizinho.toString());
+        recomendacaoService.processarPendentes();
+        assertThat(recomendacaoService.relacionados(origem, 10)).containsExactly(vizinho);
+
+        livroService.updateLivroById(vizinho.toString(),
+                new UpdateLivroDto(null, null, null, null, null, null, "seca-rec"), null);
+        recomendacaoService.processarPendentes();
+        assertThat(recomendacaoService.relacionados(origem, 10)).isEmpty();
+        assertThat(recomendacaoService.relacionados(vizinho, 10)).isEmpty();
+    }
+
+    private UUID criarLivro(String titulo, String autor, String genero, String tags) {
+        return livroService.createLivro(new CreateLivroDto(titulo, autor, genero, 2000, 1, null, tags), null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.entity.Livro;
+import com.unidevs.core_system.repository.LivroRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class ReconciliadorCapasTests {
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @TempDir
+    Path raiz;
+
+    @Test
+    void orfaosPassamPelaQuarentenaAntesDeSeremExcluidos() throws IOException {
+        var uploads = Files.createDirectories(raiz.resolve("uploads"));
+        var quarentena = raiz.resolve("quarentena");
+        var reconciliador = new ReconciliadorCapas(livroRepository, new SimpleMeterRegistry(),
+                uploads.toString(), quarentena.toString(), 1, 2);
+        var agora = Instant.now();
+        var antigo = agora.minus(Duration.ofHours(3));
+
+        var referenciada = salvarLivroComCapa();
+        criarArquivo(uploads.resolve(referenciada), 10, antigo);
+        for (int i = 0; i < 3; i++) {
+            criarArquivo(uploads.resolve("orfa-" + i + ".jpg"), 100, antigo);
+        }
+        criarArquivo(uploads.resolve("recente.jpg"), 7, agora);
+
+        var primeira = reconciliador.reconciliar(agora);
+        assertThat(primeira.verificados()).isEqualTo(4);
+        assertThat(primeira.emQuarentena()).isEqualTo(3);
+        assertThat(primeira.removidos()).isZero();
+        assertThat(uploads.resolve(referenciada)).exists();
+        assertThat(uploads.resolve("recente.jpg")).exists();
+        assertThat(quarentena.resolve("orfa-0.jpg")).exists();
+
+        // Uma capa em quarentena que volta a ser referenciada é devolvida
+        var restaurada = salvarLivroComCapa();
+        criarArquivo(quarentena.resolve(restaurada), 5, antigo);
+
+        var segunda = reconciliador.reconciliar(agora.plus(Duration.ofHours(2)));
+        assertThat(segunda.removidos()).isEqualTo(3);
+        assertThat(segunda.bytesRecuperados()).isEqualTo(300);
+        assertThat(segunda.restaurados()).isEqualTo(1);
+        assertThat(uploads.resolve(restaurada)).exists();
+        assertThat(quarentena.resolve("orfa-0.jpg")).doesNotExist();
+        assertThat(quarentena.resolve("recente.jpg")).exists();
+    }
+
+    private String salvarLivroComCapa() {
+        var nome = UUID.randomUUID() + ".jpg";
+        var livro = new Livro();
+        livro.setTitulo("Livro com capa");
+        livro.setAutor("Autor");
+        livro.setQuantidadeDisponivel(1);
+        livro.setQuantidadeTotal(1);
+        livro.setCaminhoImagemCapa(nome);
+        livroRepository.save(livro);
+        return nome;
+    }
+
+    private static void criarArquivo(Path arquivo, int tamanho, Instant modificadoEm) throws IOException {
+        Files.write(arquivo, new byte[tamanho]);
+        Files.setLastModifiedTime(arquivo, FileTime.from(modificadoEm));
+    }
+}
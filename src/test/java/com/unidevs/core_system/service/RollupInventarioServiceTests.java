@@ -0,0 +1,183 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.RelatorioInventarioDto;
+import com.unidevs.core_system.diario.DiarioInventario;
+import com.unidevs.core_system.entity.TipoMovimentoInventario;
+import com.unidevs.core_system.repository.ConsolidacaoDiarioRepository;
+import com.unidevs.core_system.repository.LivroRepository;
+import com.unidevs.core_system.repository.RollupInventarioRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class RollupInventarioServiceTests {
+
+    @Autowired
+    RollupInventarioService rollupInventarioService;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    RollupInventarioRepository rollupInventarioRepository;
+
+    @Autowired
+    ConsolidacaoDiarioRepository consolidacaoDiarioRepository;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Autowired
+    DiarioInventario diarioInventario;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void consolidaEmprestimosEDisponibilidadePorGeneroELivro() {
+        var genero = "Regionalismo " + UUID.randomUUID();
+        var livro = livroService.createLivro(
+                new CreateLivroDto("O Quinze", "Rachel de Queiroz", genero, 1930, 3, null, null), null);
+        livroService.createLivro(
+                new CreateLivroDto("Menino de Engenho", "José Lins do Rego", genero, 1932, 1, null, null), null);
+        livroService.solicitarEmprestimoEmLote(List.of(livro.toString(), livro.toString()));
+        livroService.registrarDevolucao(livro.toString());
+
+        rollupInventarioService.consolidar();
+
+        var porGenero = rollupInventarioService.relatorio("hora", "genero", genero, null, null);
+        var pontos = porGenero.pontos();
+        assertThat(pontos).hasSizeBetween(24, 25);
+        for (int i = 1; i < pontos.size(); i++) {
+            assertThat(Duration.between(pontos.get(i - 1).inicio(), pontos.get(i).inicio()))
+                    .isEqualTo(Duration.ofHours(1));
+        }
+        assertThat(soma(porGenero, RelatorioInventarioDto.Ponto::emprestimos)).isEqualTo(2);
+        assertThat(soma(porGenero, RelatorioInventarioDto.Ponto::devolucoes)).isEqualTo(1);
+        assertThat(soma(porGenero, RelatorioInventarioDto.Ponto::movimentos)).isEqualTo(4);
+        assertThat(soma(porGenero, RelatorioInventarioDto.Ponto::variacaoDisponivel)).isEqualTo(3);
+        assertThat(pontos.get(pontos.size() - 1).quantidadeDisponivel()).isEqualTo(3);
+        assertThat(pontos.get(pontos.size() - 1).quantidadeTotal()).isEqualTo(4);
+        // Nenhum movimento deste gênero antes da série: o estoque dos primeiros baldes é desconhecido
+        assertThat(pontos.get(0).quantidadeDisponivel()).isNull();
+
+        var porLivro = rollupInventarioService.relatorio("dia", "livro", livro.toString(), null, null);
+        assertThat(soma(porLivro, RelatorioInventarioDto.Ponto::emprestimos)).isEqualTo(2);
+        assertThat(porLivro.pontos().get(porLivro.pontos().size() - 1).quantidadeDisponivel()).isEqualTo(2);
+
+        // Uma segunda consolidação soma apenas os movimentos novos
+        livroService.registrarDevolucao(livro.toString());
+        rollupInventarioService.consolidar();
+        porLivro = rollupInventarioService.relatorio("dia", "livro", livro.toString(), null, null);
+        assertThat(soma(porLivro, RelatorioInventarioDto.Ponto::devolucoes)).isEqualTo(2);
+        assertThat(porLivro.pontos().get(porLivro.pontos().size() - 1).quantidadeDisponivel()).isEqualTo(3);
+    }
+
+    @Test
+    void movimentosNaoConsolidadosSobrevivemAReinicializacao() {
+        rollupInventarioService.consolidar();
+        var livro = livroService.createLivro(
+                new CreateLivroDto("Sagarana", "Guimarães Rosa", "Contos " + UUID.randomUUID(), 1946, 2, null, null),
+                null);
+        livroService.solicitarEmprestimo(livro.toString());
+        livroService.solicitarEmprestimo(livro.toString());
+
+        // Uma nova instância (processo reiniciado antes da consolidação) retoma da marca gravada no banco
+        var reiniciado = servico(diarioInventario, false);
+        reiniciado.encerrar();
+        var porLivro = rollupInventarioService.relatorio("dia", "livro", livro.toString(), null, null);
+        assertThat(soma(porLivro, RelatorioInventarioDto.Ponto::emprestimos)).isEqualTo(2);
+
+        // A marca já avançou: a instância original não soma os mesmos registros de novo
+        rollupInventarioService.consolidar();
+        porLivro = rollupInventarioService.relatorio("dia", "livro", livro.toString(), null, null);
+        assertThat(soma(porLivro, RelatorioInventarioDto.Ponto::emprestimos)).isEqualTo(2);
+    }
+
+    @Test
+    void reprocessamentoSomaODiarioInteiroDeUmDiarioSemMarca() throws IOException {
+        var livro = UUID.randomUUID();
+        var diario = new DiarioInventario(true, diretorio.toString(), 4, 5);
+        diario.abrir();
+        try {
+            for (int i = 0; i < 5; i++) {
+                diario.anexar(new MovimentoInventarioEvent(livro, null, TipoMovimentoInventario.EMPRESTIMO, -1,
+                        10 - i, 10, "Disponível", Instant.now()));
+            }
+
+            // Sem reprocessar, a primeira consolidação começa depois dos registros já existentes
+            servico(diario, false).encerrar();
+            assertThat(soma(relatorioDoLivro(livro), RelatorioInventarioDto.Ponto::emprestimos)).isZero();
+
+            consolidacaoDiarioRepository.deleteById(diario.getIdentificador());
+            servico(diario, true).encerrar();
+            var porLivro = relatorioDoLivro(livro);
+            assertThat(soma(porLivro, RelatorioInventarioDto.Ponto::emprestimos)).isEqualTo(5);
+            assertThat(porLivro.pontos().get(porLivro.pontos().size() - 1).quantidadeDisponivel()).isEqualTo(6);
+        } finally {
+            diario.fechar();
+        }
+    }
+
+    @Test
+    void semDiarioOsPendentesSaoGravadosNoEncerramento() {
+        var livro = UUID.randomUUID();
+        var servico = servico(new DiarioInventario(false, diretorio.toString(), 4, 5), false);
+        servico.aoMovimentar(new MovimentoInventarioEvent(livro, "Poesia", TipoMovimentoInventario.DEVOLUCAO, 1,
+                3, 3, "Disponível", Instant.now()));
+
+        servico.encerrar();
+
+        var porLivro = relatorioDoLivro(livro);
+        assertThat(soma(porLivro, RelatorioInventarioDto.Ponto::devolucoes)).isEqualTo(1);
+        assertThat(porLivro.pontos().get(porLivro.pontos().size() - 1).quantidadeTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void recusaParametrosInvalidos() {
+        assertThatThrownBy(() -> rollupInventarioService.relatorio("semana", "acervo", null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rollupInventarioService.relatorio("hora", "livro", "nao-e-uuid", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rollupInventarioService.relatorio("hora", "genero", null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        var ate = Instant.now();
+        assertThatThrownBy(() -> rollupInventarioService.relatorio("hora", "acervo", null,
+                ate.minus(Duration.ofDays(365)), ate))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RollupInventarioService servico(DiarioInventario diario, boolean reprocessarDiario) {
+        return new RollupInventarioService(rollupInventarioRepository, consolidacaoDiarioRepository, livroRepository,
+                diario, transactionManager, "America/Sao_Paulo", reprocessarDiario);
+    }
+
+    private RelatorioInventarioDto relatorioDoLivro(UUID livro) {
+        return rollupInventarioService.relatorio("dia", "livro", livro.toString(), null, null);
+    }
+
+    private static long soma(RelatorioInventarioDto relatorio,
+                             ToLongFunction<RelatorioInventarioDto.Ponto> campo) {
+        return relatorio.pontos().stream().mapToLong(campo).sum();
+    }
+}
@@ -0,0 +1,72 @@
+package com.unidevs.core_system.service;
+
+import com.unidevs.core_system.CoreSystemApplication;
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.entity.EntidadeAlterada;
+import com.unidevs.core_system.entity.TipoAlteracao;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sobe duas instâncias da aplicação apontando para o mesmo banco H2 em memória e verifica que as alterações feitas
+ * em uma instância chegam à outra pelo log de alterações.
+ */
+class SincronizacaoClusterServiceTests {
+
+    private static ConfigurableApplicationContext instanciaA;
+    private static ConfigurableApplicationContext instanciaB;
+    private static final List<AlteracaoEntidadeEvent> eventosA = new CopyOnWriteArrayList<>();
+    private static final List<AlteracaoEntidadeEvent> eventosB = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void iniciarInstancias() {
+        instanciaA = iniciar(eventosA);
+        instanciaB = iniciar(eventosB);
+    }
+
+    @AfterAll
+    static void encerrarInstancias() {
+        instanciaB.close();
+        instanciaA.close();
+    }
+
+    @Test
+    void alteracaoEmUmaInstanciaEhPublicadaComoRemotaNaOutra() {
+        var servicoA = instanciaA.getBean(SincronizacaoClusterService.class);
+        var servicoB = instanciaB.getBean(SincronizacaoClusterService.class);
+        servicoA.sondar();
+        servicoB.sondar();
+        eventosA.clear();
+        eventosB.clear();
+
+        var livroId = instanciaA.getBean(LivroService.class).createLivro(
+                new CreateLivroDto("Dom Casmurro", "Machado de Assis", "Romance", 1899, 2, null, "classico"), null);
+
+        servicoA.sondar();
+        servicoB.sondar();
+
+        assertThat(eventosA).containsExactly(
+                new AlteracaoEntidadeEvent(EntidadeAlterada.LIVRO, livroId.toString(), TipoAlteracao.CRIACAO, false));
+        assertThat(eventosB).containsExactly(
+                new AlteracaoEntidadeEvent(EntidadeAlterada.LIVRO, livroId.toString(), TipoAlteracao.CRIACAO, true));
+    }
+
+    private static ConfigurableApplicationContext iniciar(List<AlteracaoEntidadeEvent> eventos) {
+        ApplicationListener<PayloadApplicationEvent<AlteracaoEntidadeEvent>> ouvinte =
+                evento -> eventos.add(evento.getPayload());
+        return new SpringApplicationBuilder(CoreSystemApplication.class)
+                .listeners(ouvinte)
+                .profiles("teste")
+                .run("--server.port=0");
+    }
+}
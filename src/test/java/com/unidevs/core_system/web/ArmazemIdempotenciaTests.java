@@ -0,0 +1,85 @@
+package com.unidevs.core_system.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArmazemIdempotenciaTests {
+
+    private static final byte[] IMPRESSAO = {1, 2, 3};
+
+    @Test
+    void reservasConcorrentesDaMesmaChaveCompartilhamUmaUnicaEntradaNova() throws Exception {
+        var armazem = new ArmazemIdempotencia(64, 1_000, 3_600);
+        int threads = 16;
+        var largada = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var tarefas = new ArrayList<Callable<ArmazemIdempotencia.Reserva>>();
+            for (int i = 0; i < threads; i++) {
+                tarefas.add(() -> {
+                    largada.await();
+                    return armazem.reservar("leitor\n/exemplar/1/emprestimo\nk1", IMPRESSAO);
+                });
+            }
+            var futuros = tarefas.stream().map(executor::submit).toList();
+            largada.countDown();
+
+            var reservas = new ArrayList<ArmazemIdempotencia.Reserva>();
+            for (var futuro : futuros) {
+                reservas.add(futuro.get(10, TimeUnit.SECONDS));
+            }
+            assertThat(reservas).filteredOn(ArmazemIdempotencia.Reserva::nova).hasSize(1);
+            var entrada = reservas.get(0).entrada();
+            assertThat(reservas).allSatisfy(reserva -> assertThat(reserva.entrada()).isSameAs(entrada));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void entradaExpiradaPeloTtlLiberaAChaveParaNovaExecucao() throws Exception {
+        var armazem = new ArmazemIdempotencia(1, 100, 1);
+        var primeira = armazem.reservar("k", IMPRESSAO);
+        assertThat(primeira.nova()).isTrue();
+        assertThat(armazem.reservar("k", IMPRESSAO).nova()).isFalse();
+
+        Thread.sleep(1_100);
+        var depois = armazem.reservar("k", new byte[]{9});
+        assertThat(depois.nova()).isTrue();
+        assertThat(depois.entrada()).isNotSameAs(primeira.entrada());
+        assertThat(depois.entrada().getImpressao()).containsExactly(9);
+    }
+
+    @Test
+    void particaoCheiaDescartaAEntradaMaisAntiga() {
+        // Uma partição com capacidade 2: a terceira chave desloca a primeira
+        var armazem = new ArmazemIdempotencia(1, 2, 3_600);
+        assertThat(armazem.reservar("a", IMPRESSAO).nova()).isTrue();
+        assertThat(armazem.reservar("b", IMPRESSAO).nova()).isTrue();
+        assertThat(armazem.reservar("c", IMPRESSAO).nova()).isTrue();
+
+        assertThat(armazem.reservar("b", IMPRESSAO).nova()).isFalse();
+        assertThat(armazem.reservar("c", IMPRESSAO).nova()).isFalse();
+        assertThat(armazem.reservar("a", IMPRESSAO).nova()).isTrue();
+    }
+
+    @Test
+    void removerDescartaSoAEntradaInformada() {
+        var armazem = new ArmazemIdempotencia(4, 100, 3_600);
+        var antiga = armazem.reservar("k", IMPRESSAO).entrada();
+        armazem.remover("k", antiga);
+        var atual = armazem.reservar("k", IMPRESSAO);
+        assertThat(atual.nova()).isTrue();
+
+        // Remover com uma entrada já substituída não afeta a atual
+        armazem.remover("k", antiga);
+        assertThat(armazem.reservar("k", IMPRESSAO).entrada()).isSameAs(atual.entrada());
+    }
+}
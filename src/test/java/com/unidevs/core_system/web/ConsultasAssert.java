@@ -0,0 +1,49 @@
+package com.unidevs.core_system.web;
+
+import org.assertj.core.api.AbstractAssert;
+
+/**
+ * Asserções sobre os comandos SQL de um trecho medido com {@link MonitorConsultas#medir(Runnable)}.
+ *
+ * <pre>
+ * ConsultasAssert.assertThat(monitorConsultas.medir(() -> livroService.createLivro(dto, null)))
+ *         .totalNoMaximo(3)
+ *         .semRepeticao();
+ * </pre>
+ */
+public class ConsultasAssert extends AbstractAssert<ConsultasAssert, RelatorioConsultas> {
+
+    private ConsultasAssert(RelatorioConsultas relatorio) {
+        super(relatorio, ConsultasAssert.class);
+    }
+
+    public static ConsultasAssert assertThat(RelatorioConsultas relatorio) {
+        return new ConsultasAssert(relatorio);
+    }
+
+    public ConsultasAssert totalNoMaximo(int maximo) {
+        isNotNull();
+        if (actual.total() > maximo) {
+            failWithMessage("Esperava no máximo <%d> comandos SQL, mas foram executados <%d>. Repetidos: %s",
+                    maximo, actual.total(), actual.repetidos());
+        }
+        return this;
+    }
+
+    public ConsultasAssert semRepeticao() {
+        isNotNull();
+        if (!actual.repetidos().isEmpty()) {
+            failWithMessage("Esperava nenhum comando SQL repetido, mas houve: %s", actual.repetidos());
+        }
+        return this;
+    }
+
+    public ConsultasAssert comRepeticaoDePeloMenos(int vezes) {
+        isNotNull();
+        if (actual.maiorRepeticao() < vezes) {
+            failWithMessage("Esperava um comando SQL repetido ao menos <%d> vezes, mas o máximo foi <%d>",
+                    vezes, actual.maiorRepeticao());
+        }
+        return this;
+    }
+}
@@ -0,0 +1,157 @@
+package com.unidevs.core_system.web;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotenciaFilterTests {
+
+    private final IdempotenciaFilter filtro = new IdempotenciaFilter(new ArmazemIdempotencia(8, 1_000, 3_600), 10_000);
+    private final AtomicInteger execucoes = new AtomicInteger();
+
+    // Operação de exemplo: conta as execuções e devolve o corpo recebido, provando que ele chega inteiro à cadeia
+    private final FilterChain operacao = (request, response) -> {
+        var corpo = request.getInputStream().readAllBytes();
+        execucoes.incrementAndGet();
+        response.setContentType("application/json");
+        response.getOutputStream().write(corpo);
+    };
+
+    @AfterEach
+    void limparContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void duplicatasConcorrentesExecutamAOperacaoUmaVez() throws Exception {
+        var liberarPrimeira = new CountDownLatch(1);
+        FilterChain lenta = (request, response) -> {
+            try {
+                liberarPrimeira.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            operacao.doFilter(request, response);
+        };
+
+        int threads = 8;
+        var executor = Executors.newFixedThreadPool(threads);
+        try {
+            var tarefas = new ArrayList<Callable<MockHttpServletResponse>>();
+            for (int i = 0; i < threads; i++) {
+                tarefas.add(() -> executar(requisicao("k-concorrente", "{\"usuarioId\":\"a\"}"), lenta));
+            }
+            var futuros = tarefas.stream().map(executor::submit).toList();
+            // Dá tempo para as duplicatas chegarem enquanto a primeira ainda executa
+            Thread.sleep(200);
+            liberarPrimeira.countDown();
+
+            var respostas = new ArrayList<MockHttpServletResponse>();
+            for (var futuro : futuros) {
+                respostas.add(futuro.get(10, TimeUnit.SECONDS));
+            }
+            assertThat(execucoes.get()).isEqualTo(1);
+            assertThat(respostas).allSatisfy(resposta -> {
+                assertThat(resposta.getStatus()).isEqualTo(200);
+                assertThat(resposta.getContentAsString()).isEqualTo("{\"usuarioId\":\"a\"}");
+            });
+            assertThat(respostas)
+                    .filteredOn(resposta -> resposta.getHeader(IdempotenciaFilter.HEADER_REPETIDA) != null)
+                    .hasSize(threads - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void mesmaChaveComOutroCorpoRecebe422SemExecutar() throws Exception {
+        var primeira = executar(requisicao("k-corpo", "{\"usuarioId\":\"a\"}"), operacao);
+        assertThat(primeira.getStatus()).isEqualTo(200);
+
+        var outroCorpo = executar(requisicao("k-corpo", "{\"usuarioId\":\"b\"}"), operacao);
+        assertThat(outroCorpo.getStatus()).isEqualTo(422);
+        assertThat(outroCorpo.getContentAsString(StandardCharsets.UTF_8))
+                .contains("Idempotency-Key já usada em uma requisição com outro conteúdo");
+
+        var outraQuery = requisicao("k-corpo", "{\"usuarioId\":\"a\"}");
+        outraQuery.setQueryString("filial=2");
+        assertThat(executar(outraQuery, operacao).getStatus()).isEqualTo(422);
+
+        var repeticao = executar(requisicao("k-corpo", "{\"usuarioId\":\"a\"}"), operacao);
+        assertThat(repeticao.getStatus()).isEqualTo(200);
+        assertThat(repeticao.getHeader(IdempotenciaFilter.HEADER_REPETIDA)).isEqualTo("true");
+        assertThat(execucoes.get()).isEqualTo(1);
+    }
+
+    @Test
+    void formulariosSaoComparadosPelosParametros() throws Exception {
+        var primeira = requisicao("k-form", "");
+        primeira.setContentType("application/x-www-form-urlencoded");
+        primeira.addParameter("titulo", "Dom Casmurro");
+        primeira.addParameter("autor", "Machado de Assis");
+        executar(primeira, operacao);
+
+        // A mesma chave com os parâmetros em outra ordem é a mesma requisição
+        var mesma = requisicao("k-form", "");
+        mesma.setContentType("application/x-www-form-urlencoded");
+        mesma.addParameter("autor", "Machado de Assis");
+        mesma.addParameter("titulo", "Dom Casmurro");
+        assertThat(executar(mesma, operacao).getHeader(IdempotenciaFilter.HEADER_REPETIDA)).isEqualTo("true");
+
+        var outra = requisicao("k-form", "");
+        outra.setContentType("application/x-www-form-urlencoded");
+        outra.addParameter("titulo", "Quincas Borba");
+        outra.addParameter("autor", "Machado de Assis");
+        assertThat(executar(outra, operacao).getStatus()).isEqualTo(422);
+        assertThat(execucoes.get()).isEqualTo(1);
+    }
+
+    @Test
+    void chavesDeUsuariosDiferentesNaoSeMisturam() throws Exception {
+        executar(requisicao("k-usuario", "{\"usuarioId\":\"a\"}"), operacao);
+        var outroUsuario = executar(requisicao("k-usuario", "{\"usuarioId\":\"b\"}"), operacao, "outro-atendente");
+        assertThat(outroUsuario.getStatus()).isEqualTo(200);
+        assertThat(outroUsuario.getHeader(IdempotenciaFilter.HEADER_REPETIDA)).isNull();
+        assertThat(execucoes.get()).isEqualTo(2);
+    }
+
+    private static MockHttpServletRequest requisicao(String chave, String corpo) {
+        var requisicao = new MockHttpServletRequest("POST", "/exemplar/42/emprestimo");
+        requisicao.addHeader(IdempotenciaFilter.HEADER_CHAVE, chave);
+        requisicao.setContentType("application/json");
+        requisicao.setContent(corpo.getBytes(StandardCharsets.UTF_8));
+        return requisicao;
+    }
+
+    private MockHttpServletResponse executar(MockHttpServletRequest requisicao, FilterChain cadeia) throws Exception {
+        return executar(requisicao, cadeia, "atendente");
+    }
+
+    private MockHttpServletResponse executar(MockHttpServletRequest requisicao, FilterChain cadeia, String usuario)
+            throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+        try {
+            var resposta = new MockHttpServletResponse();
+            filtro.doFilter(requisicao, resposta, cadeia);
+            return resposta;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
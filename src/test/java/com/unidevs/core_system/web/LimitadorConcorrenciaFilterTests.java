@@ -0,0 +1,90 @@
+package com.unidevs.core_system.web;
+
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimitadorConcorrenciaFilterTests {
+
+    private final TokenService tokenService = new TokenService();
+    private final SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+    private final LimitadorConcorrenciaFilter filtro;
+
+    LimitadorConcorrenciaFilterTests() {
+        ReflectionTestUtils.setField(tokenService, "secret", "segredo-de-teste");
+        // Limite de 2 com metade reservada: uma vaga comum e uma só para administradores
+        filtro = new LimitadorConcorrenciaFilter(metricas, tokenService, true, 2, 1, 10, 0.5);
+    }
+
+    @Test
+    void excessoRecebe503ComRetryAfterEAdministradorUsaAReserva() throws Exception {
+        var leitura = filtro.getLimite(LimitadorConcorrenciaFilter.Grupo.LEITURA);
+        assertThat(leitura.adquirir(false)).isTrue();
+
+        var comum = executar(requisicao("GET", "/livro/catalogo", UserRole.USER));
+        assertThat(comum.resposta.getStatus()).isEqualTo(503);
+        assertThat(comum.resposta.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(comum.cadeia.getRequest()).isNull();
+        // A consulta em lote usa POST, mas é uma leitura e disputa o limite de leitura
+        assertThat(executar(requisicao("POST", "/livro/lote", UserRole.USER)).resposta.getStatus()).isEqualTo(503);
+
+        // Token de outro emissor não vale como administrador
+        var forjada = requisicao("GET", "/livro/catalogo", null);
+        forjada.addHeader("Authorization", "Bearer " + new TokenService() {{
+            ReflectionTestUtils.setField(this, "secret", "outro-segredo");
+        }}.generateToken(new User("intruso", "intruso@teste.com", "senha", UserRole.ADMIN)));
+        assertThat(executar(forjada).resposta.getStatus()).isEqualTo(503);
+
+        var administrador = executar(requisicao("GET", "/livro/catalogo", UserRole.ADMIN));
+        assertThat(administrador.resposta.getStatus()).isEqualTo(200);
+        assertThat(administrador.cadeia.getRequest()).isNotNull();
+        // A vaga é devolvida ao fim da requisição
+        assertThat(leitura.getEmAndamento()).isEqualTo(1);
+
+        // Outros grupos têm limites próprios
+        var escrita = executar(requisicao("POST", "/livro/catalogo/emprestimo", UserRole.USER));
+        assertThat(escrita.resposta.getStatus()).isEqualTo(200);
+
+        assertThat(metricas.get("app.limitador.descartes").tag("grupo", "leitura").functionCounter().count())
+                .isEqualTo(3);
+        leitura.liberar(1_000_000);
+    }
+
+    @Test
+    void requisicoesForaDosGruposNaoSaoLimitadas() throws Exception {
+        var leitura = filtro.getLimite(LimitadorConcorrenciaFilter.Grupo.LEITURA);
+        leitura.adquirir(true);
+        leitura.adquirir(true);
+
+        var pagina = executar(requisicao("GET", "/home", UserRole.USER));
+        assertThat(pagina.resposta.getStatus()).isEqualTo(200);
+        assertThat(executar(requisicao("GET", "/filial", UserRole.ADMIN)).resposta.getStatus()).isEqualTo(503);
+    }
+
+    private MockHttpServletRequest requisicao(String metodo, String caminho, UserRole papel) {
+        var requisicao = new MockHttpServletRequest(metodo, caminho);
+        if (papel != null) {
+            var usuario = new User("limitador-" + papel.name().toLowerCase(), "limitador@teste.com", "senha", papel);
+            requisicao.addHeader("Authorization", "Bearer " + tokenService.generateToken(usuario));
+        }
+        return requisicao;
+    }
+
+    private Execucao executar(MockHttpServletRequest requisicao) throws Exception {
+        var resposta = new MockHttpServletResponse();
+        var cadeia = new MockFilterChain();
+        filtro.doFilter(requisicao, resposta, cadeia);
+        return new Execucao(resposta, cadeia);
+    }
+
+    private record Execucao(MockHttpServletResponse resposta, MockFilterChain cadeia) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.unidevs.core_system.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteAdaptativoTests {
+
+    @Test
+    void fracaoReservadaSoEUsadaPorRequisicoesPrioritarias() {
+        var limite = new LimiteAdaptativo(10, 2, 100, 0.2);
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(limite.adquirir(false)).isTrue();
+        }
+        assertThat(limite.adquirir(false)).isFalse();
+        assertThat(limite.adquirir(true)).isTrue();
+        assertThat(limite.adquirir(true)).isTrue();
+        assertThat(limite.adquirir(true)).isFalse();
+        assertThat(limite.getEmAndamento()).isEqualTo(10);
+        assertThat(limite.getRejeicoes()).isEqualTo(2);
+    }
+
+    @Test
+    void limiteCresceComLatenciaEstavelEDiminuiQuandoAFilaAumenta() {
+        var limite = new LimiteAdaptativo(10, 2, 100, 0.2);
+
+        // Limite todo em uso e latência igual à latência sem carga: o limite cresce
+        for (int rodada = 0; rodada < 5; rodada++) {
+            int ocupadas = limite.getLimite();
+            for (int i = 0; i < ocupadas; i++) {
+                assertThat(limite.adquirir(true)).isTrue();
+            }
+            for (int i = 0; i < ocupadas; i++) {
+                limite.liberar(TimeUnit.MILLISECONDS.toNanos(5));
+            }
+        }
+        int aposCrescer = limite.getLimite();
+        assertThat(aposCrescer).isGreaterThan(10);
+
+        // Latência 20 vezes maior que a sem carga: a fila estimada passa de beta e o limite diminui até ficar abaixo
+        // do inicial (fila estimada ≈ 0,95 × limite, até cair abaixo de beta)
+        for (int i = 0; i < 200; i++) {
+            limite.adquirir(true);
+            limite.liberar(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        assertThat(limite.getLimite()).isLessThan(10).isGreaterThanOrEqualTo(2);
+        assertThat(limite.getEmAndamento()).isZero();
+    }
+
+    @Test
+    void limiteNaoCresceSemUsoNemPassaDoMaximo() {
+        var ocioso = new LimiteAdaptativo(10, 2, 100, 0.2);
+        for (int i = 0; i < 50; i++) {
+            ocioso.adquirir(false);
+            ocioso.liberar(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        // Uma requisição por vez não comprova que o limite atual é pouco
+        assertThat(ocioso.getLimite()).isEqualTo(10);
+
+        var teto = new LimiteAdaptativo(12, 2, 12, 0.2);
+        for (int i = 0; i < 12; i++) {
+            teto.adquirir(true);
+        }
+        for (int i = 0; i < 12; i++) {
+            teto.liberar(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        assertThat(teto.getLimite()).isEqualTo(12);
+    }
+}
@@ -0,0 +1,73 @@
+package com.unidevs.core_system.web;
+
+import com.unidevs.core_system.controller.dto.CreateLivroDto;
+import com.unidevs.core_system.controller.dto.UpdateLivroDto;
+import com.unidevs.core_system.repository.LivroRepository;
+import com.unidevs.core_system.service.LivroService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.consultas.lenta-ms=0")
+@ActiveProfiles("teste")
+class MonitorConsultasTests {
+
+    @Autowired
+    MonitorConsultas monitorConsultas;
+
+    @Autowired
+    LivroService livroService;
+
+    @Autowired
+    LivroRepository livroRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void contaOsComandosDoCadastroEDaAtualizacao() {
+        var ids = new ArrayList<UUID>();
+        var cadastro = monitorConsultas.medir(() -> ids.add(livroService.createLivro(
+                new CreateLivroDto("Dom Casmurro", "Machado de Assis", "Romance", 1899, 2, null, null), null)));
+        var atualizacao = monitorConsultas.medir(() -> livroService.updateLivroById(ids.get(0).toString(),
+                new UpdateLivroDto(null, null, null, null, 3, null, null), null));
+
+        ConsultasAssert.assertThat(cadastro).totalNoMaximo(3).semRepeticao();
+        // O ajuste da quantidade bloqueia e grava a linha da filial padrão e o livro, e registra uma única alteração
+        ConsultasAssert.assertThat(atualizacao).totalNoMaximo(5).semRepeticao();
+        // Com "lenta-ms=0" todos os comandos entram como lentos, atribuídos ao método chamado pelo controller
+        assertThat(cadastro.maisLentas())
+                .isNotEmpty()
+                .allSatisfy(lenta -> assertThat(lenta.metodo()).isEqualTo("LivroService.createLivro"));
+        assertThat(atualizacao.maisLentas())
+                .extracting(RelatorioConsultas.ConsultaLenta::metodo)
+                .containsOnly("LivroService.updateLivroById");
+    }
+
+    @Test
+    void apontaComandoRepetidoComoSuspeitaDeNMaisUm() {
+        var ids = new ArrayList<UUID>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(livroService.createLivro(
+                    new CreateLivroDto("Livro N+1 " + i, "Autor", "Romance", 1950, 1, null, null), null));
+        }
+
+        var relatorio = monitorConsultas.medir(() -> ids.forEach(livroRepository::findById));
+
+        ConsultasAssert.assertThat(relatorio).comRepeticaoDePeloMenos(6);
+        assertThat(relatorio.repetidos().keySet().iterator().next()).startsWith("select").contains("livros");
+
+        monitorConsultas.avaliar("GET", "/teste/n-mais-um", "/teste/n-mais-um", relatorio);
+        assertThat(meterRegistry.get("app.consultas.repetidas").tag("rota", "/teste/n-mais-um").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("app.consultas.por-requisicao").tag("rota", "/teste/n-mais-um")
+                .summary().totalAmount()).isEqualTo(relatorio.total());
+    }
+}
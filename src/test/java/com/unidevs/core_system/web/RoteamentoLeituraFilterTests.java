@@ -0,0 +1,50 @@
+package com.unidevs.core_system.web;
+
+import com.unidevs.core_system.replica.RoteamentoLeitura;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoteamentoLeituraFilterTests {
+
+    private final RoteamentoLeituraFilter filtro = new RoteamentoLeituraFilter(5_000);
+
+    @Test
+    void consultasLiberamAsReplicasExcetoLogoAposUmaEscrita() throws Exception {
+        assertThat(replicaNaCadeia(new MockHttpServletRequest("GET", "/livro/catalogo"), null)).isTrue();
+
+        var emprestimo = new MockHttpServletResponse();
+        assertThat(replicaNaCadeia(new MockHttpServletRequest("POST", "/livro/catalogo/emprestimo/1"), emprestimo))
+                .isFalse();
+        var cookie = emprestimo.getCookie(RoteamentoLeituraFilter.COOKIE);
+        assertThat(cookie).isNotNull();
+
+        // Dentro da janela o cliente lê do primário; depois dela volta às réplicas
+        var logoDepois = new MockHttpServletRequest("GET", "/livro/catalogo");
+        logoDepois.setCookies(cookie);
+        assertThat(replicaNaCadeia(logoDepois, null)).isFalse();
+
+        var expirado = new MockHttpServletRequest("GET", "/livro/catalogo");
+        expirado.setCookies(new Cookie(RoteamentoLeituraFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1)));
+        assertThat(replicaNaCadeia(expirado, null)).isTrue();
+        assertThat(RoteamentoLeitura.replicaPermitida()).isFalse();
+    }
+
+    @Test
+    void consultaEmLoteViaPostUsaAsReplicasSemFixarOClienteNoPrimario() throws Exception {
+        var resposta = new MockHttpServletResponse();
+        assertThat(replicaNaCadeia(new MockHttpServletRequest("POST", "/livro/lote"), resposta)).isTrue();
+        assertThat(resposta.getCookie(RoteamentoLeituraFilter.COOKIE)).isNull();
+    }
+
+    private boolean replicaNaCadeia(MockHttpServletRequest requisicao, MockHttpServletResponse resposta)
+            throws Exception {
+        var observado = new boolean[1];
+        filtro.doFilter(requisicao, resposta != null ? resposta : new MockHttpServletResponse(),
+                (req, res) -> observado[0] = RoteamentoLeitura.replicaPermitida());
+        return observado[0];
+    }
+}
@@ -0,0 +1,93 @@
+package com.unidevs.core_system.web;
+
+import com.unidevs.core_system.entity.User;
+import com.unidevs.core_system.entity.UserRole;
+import com.unidevs.core_system.repository.UserRepository;
+import com.unidevs.core_system.security.TokenService;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Mede o catálogo montado por requisição; o instantâneo pré-codificado é coberto por CatalogoPreCodificadoTests
+@SpringBootTest(properties = "app.catalogo.pre-codificado.habilitado=false")
+@AutoConfigureMockMvc
+@ActiveProfiles("teste")
+class ServerTimingFilterTests {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Test
+    void catalogoInformaAsFasesNoHeaderServerTiming() throws Exception {
+        var sufixo = UUID.randomUUID().toString().substring(0, 8);
+        var usuario = userRepository.save(
+                new User("timing-" + sufixo, "timing-" + sufixo + "@teste.com", "senha", UserRole.USER));
+
+        var resposta = mockMvc.perform(get("/livro/catalogo")
+                        .header("Authorization", "Bearer " + tokenService.generateToken(usuario)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        var header = resposta.getHeader(ServerTimingFilter.HEADER);
+        assertThat(header)
+                .containsPattern("auth;dur=\\d+\\.\\d{2}")
+                .containsPattern("db;dur=\\d+\\.\\d{2};desc=\"\\d+\"")
+                .containsPattern("dto;dur=\\d+\\.\\d{2}")
+                .containsPattern("json;dur=\\d+\\.\\d{2}")
+                .containsPattern("total;dur=\\d+\\.\\d{2}$");
+        assertThat(resposta.getContentAsString()).startsWith("[");
+    }
+
+    @Test
+    void respostaGrandeNaoFicaEmBufferEJaSaiComOHeader() throws Exception {
+        var filtro = new ServerTimingFilter(true, 500);
+        var resposta = new MockHttpServletResponse();
+        resposta.setBufferSize(1024);
+        var corpo = new byte[64 * 1024];
+        var enviadaDuranteAEscrita = new AtomicBoolean();
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/livro/catalogo"), resposta,
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                        resp.getOutputStream().write(corpo);
+                        enviadaDuranteAEscrita.set(resp.isCommitted());
+                    }
+                }));
+
+        assertThat(enviadaDuranteAEscrita).isTrue();
+        assertThat(resposta.getHeader(ServerTimingFilter.HEADER)).containsPattern("total;dur=\\d+\\.\\d{2}$");
+        assertThat(resposta.getContentAsByteArray()).hasSize(corpo.length);
+    }
+
+    @Test
+    void semMedicaoAtivaOsPontosInstrumentadosNaoFazemNada() {
+        long inicio = TemporizadorFases.iniciar();
+        assertThat(inicio).isZero();
+        TemporizadorFases.registrar(TemporizadorFases.Fase.BANCO, inicio);
+    }
+}